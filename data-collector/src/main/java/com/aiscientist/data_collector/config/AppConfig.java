@@ -1,7 +1,14 @@
 package com.aiscientist.data_collector.config;
 
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
 import org.springframework.boot.context.properties.ConfigurationProperties;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.util.unit.DataSize;
 
 import lombok.Data;
 
@@ -15,6 +22,14 @@ public class AppConfig {
     private SchedulerConfig scheduler;
     private KafkaTopicsConfig kafka;
     private CacheConfig cache;
+    private HttpConfig http = new HttpConfig();
+    private PersistenceConfig persistence = new PersistenceConfig();
+    private RunsConfig runs = new RunsConfig();
+    private PollingConfig polling = new PollingConfig();
+    private RollupsConfig rollups = new RollupsConfig();
+    private EarthquakeStatsConfig earthquakeStats = new EarthquakeStatsConfig();
+    private ConnectorsConfig connectors = new ConnectorsConfig();
+    private StubConfig stub = new StubConfig();
     
     @Data
     public static class NasaConfig {
@@ -73,7 +88,222 @@ public class AppConfig {
         @Data
         public static class TtlConfig {
             private int kpIndex;
-            private int cmeData;
+        }
+    }
+    
+    /**
+     * Settings for the shared upstream HTTP client layer (see WebClientConfig)
+     */
+    @Data
+    public static class HttpConfig {
+        private Duration connectTimeout = Duration.ofSeconds(5);
+        private Duration readTimeout = Duration.ofSeconds(20);
+        private Duration responseTimeout = Duration.ofSeconds(20);
+        private DataSize maxResponseSize = DataSize.ofMegabytes(16);
+        private boolean compression = true;
+        private PoolConfig pool = new PoolConfig();
+        private int maxThrottleRetries = 2;
+        private ResponseCacheConfig responseCache = new ResponseCacheConfig();
+        /** Per-source limits keyed by source name; "default" applies to the rest */
+        private Map<String, RateLimitConfig> rateLimits = new HashMap<>();
+        
+        public RateLimitConfig rateLimitFor(String source) {
+            return rateLimits.getOrDefault(source, rateLimits.getOrDefault("default", new RateLimitConfig()));
+        }
+        
+        @Data
+        public static class PoolConfig {
+            private int maxConnectionsPerHost = 16;
+            private int maxPendingAcquires = 256;
+            private Duration pendingAcquireTimeout = Duration.ofSeconds(10);
+            private Duration maxIdleTime = Duration.ofSeconds(30);
+            private Duration maxLifeTime = Duration.ofMinutes(5);
+            private Duration evictionInterval = Duration.ofSeconds(60);
+        }
+        
+        /**
+         * Conditional-request cache (ETag / Last-Modified / content hash)
+         */
+        @Data
+        public static class ResponseCacheConfig {
+            private boolean enabled = true;
+            private int maxEntriesPerSource = 500;
+            /** Re-process a response at least this often even if unchanged */
+            private Duration maxAge = Duration.ofHours(1);
+        }
+        
+        @Data
+        public static class RateLimitConfig {
+            private double permitsPerSecond = 5;
+            private int burst = 5;
+            private int maxConcurrency = 4;
+        }
+    }
+    
+    /**
+     * Dedicated scheduler for blocking JPA calls made from reactive pipelines
+     * (see PersistenceConfig). Keep threads at or below the Hikari pool size.
+     */
+    @Data
+    public static class PersistenceConfig {
+        private int threads = 4;
+        private int queueCapacity = 1000;
+        private int batchSize = 50;
+        private Duration batchWindow = Duration.ofMillis(500);
+    }
+    
+    /**
+     * Collection run coordination (see CollectionRunCoordinator)
+     */
+    @Data
+    public static class RunsConfig {
+        /** What to do when a run is requested while the previous one is still going */
+        private OverlapPolicy overlap = OverlapPolicy.QUEUE;
+        private Duration deadline = Duration.ofMinutes(4);
+        /** Per-run deadline overrides keyed by run name */
+        private Map<String, Duration> deadlines = new HashMap<>();
+        
+        public Duration deadlineFor(String run) {
+            return deadlines.getOrDefault(run, deadline);
+        }
+        
+        public enum OverlapPolicy {
+            /** Drop the new request */
+            SKIP,
+            /** Start one more run after the current one, coalescing further requests */
+            QUEUE
+        }
+    }
+    
+    /**
+     * Adaptive per-station water level polling (see StationPollingScheduler).
+     * When enabled it replaces the noaa-tides and usgs-water cron runs.
+     */
+    @Data
+    public static class PollingConfig {
+        private boolean enabled = true;
+        private Duration tick = Duration.ofSeconds(15);
+        /** Random spread applied to each interval, as a fraction of it */
+        private double jitter = 0.1;
+        /** Readings kept per station to estimate the rate of change */
+        private int historySize = 6;
+        private double fastRiseFeetPerHour = 0.5;
+        /** Relative discharge change per hour, e.g. 0.25 = 25%/h */
+        private double fastDischargeChangePerHour = 0.25;
+        private double nearFloodMarginFeet = 1.0;
+        private double backoffMultiplier = 1.5;
+        /** Cadence per source keyed by source name (noaa-tides, usgs-water) */
+        private Map<String, Cadence> sources = new HashMap<>();
+        
+        public Cadence cadenceFor(String source) {
+            return sources.getOrDefault(source, new Cadence());
+        }
+        
+        @Data
+        public static class Cadence {
+            private Duration baseInterval = Duration.ofMinutes(5);
+            private Duration minInterval = Duration.ofMinutes(1);
+            private Duration maxInterval = Duration.ofMinutes(30);
+        }
+    }
+    
+    /**
+     * Water level rollups (see WaterLevelRollupService)
+     */
+    @Data
+    public static class RollupsConfig {
+        /** Default point budget of the history endpoint */
+        private int maxPoints = 500;
+        /** Upper bound for a requested point budget */
+        private int maxPointsLimit = 5000;
+        /** Raw history rolled up at startup while the rollup table is empty; 0 disables */
+        private int backfillDays = 30;
+    }
+    
+    /**
+     * In-memory earthquake statistics (see EarthquakeStatistics)
+     */
+    @Data
+    public static class EarthquakeStatsConfig {
+        /** How often the counters are rebuilt from the database */
+        private Duration reconcileInterval = Duration.ofMinutes(10);
+    }
+    
+    /**
+     * Source connectors run by SourceConnectorRunner
+     */
+    @Data
+    public static class ConnectorsConfig {
+        /** How often due connectors are checked */
+        private Duration tick = Duration.ofSeconds(30);
+        /** Per-connector settings keyed by connector name */
+        private Map<String, ConnectorConfig> sources = new HashMap<>();
+        
+        public ConnectorConfig configFor(String connector) {
+            return sources.getOrDefault(connector, new ConnectorConfig());
+        }
+        
+        @Data
+        public static class ConnectorConfig {
+            private boolean enabled = true;
+            private Duration interval = Duration.ofMinutes(15);
+            /** How far back the first run after startup fetches */
+            private Duration initialLookback = Duration.ofDays(7);
+            /** Re-fetch this far behind the watermark to pick up late or revised records */
+            private Duration watermarkOverlap = Duration.ofHours(1);
+            private int fetchRetries = 2;
+            private Duration retryBackoff = Duration.ofSeconds(2);
+            /** Record keys remembered to skip re-fetched records before they reach the database */
+            private int dedupCacheSize = 10_000;
+        }
+    }
+    
+    /**
+     * Local upstream stub served under /stub by the "stub" profile (see
+     * UpstreamStubController), and recording of real upstream responses as
+     * its fixtures
+     */
+    @Data
+    public static class StubConfig {
+        /** Directory with recorded fixtures; overrides the bundled classpath:stub/ ones */
+        private String fixturesDir;
+        /** If set, every successful upstream response is written here as a fixture */
+        private String recordDir;
+        /** Synthetic water level stations polled in addition to the real ones, per source */
+        private int syntheticStations = 0;
+        private Behavior defaults = new Behavior();
+        /** Per-source behavior keyed by upstream source name, replacing the defaults */
+        private Map<String, Behavior> sources = new HashMap<>();
+        
+        public Behavior behaviorFor(String source) {
+            return sources.getOrDefault(source, defaults);
+        }
+        
+        /**
+         * The given station ids followed by {@code count} synthetic ones
+         */
+        public static List<String> withSyntheticStations(List<String> stations, String prefix, int count) {
+            if (count <= 0) {
+                return stations;
+            }
+            List<String> all = new ArrayList<>(stations.size() + count);
+            all.addAll(stations);
+            for (int i = 1; i <= count; i++) {
+                all.add(String.format("%s%06d", prefix, i));
+            }
+            return all;
+        }
+        
+        @Data
+        public static class Behavior {
+            private Duration latency = Duration.ZERO;
+            /** Up to this much random latency on top */
+            private Duration latencyJitter = Duration.ZERO;
+            /** Fraction of requests answered with error-status */
+            private double errorRate = 0;
+            private int errorStatus = 503;
+            /** Multiplies the events in list responses (DONKI, Kp, FDSN features) */
+            private int scale = 1;
         }
     }
 }
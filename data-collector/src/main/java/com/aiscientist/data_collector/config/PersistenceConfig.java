@@ -0,0 +1,25 @@
+package com.aiscientist.data_collector.config;
+
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import reactor.core.scheduler.Scheduler;
+import reactor.core.scheduler.Schedulers;
+
+@Configuration
+public class PersistenceConfig {
+
+    /**
+     * Bounded pool for blocking repository calls, so JDBC never runs on a
+     * Reactor Netty event loop. When all threads are busy, tasks queue up to
+     * queue-capacity and further submissions are rejected rather than piling up.
+     */
+    @Bean(destroyMethod = "dispose")
+    public Scheduler persistenceScheduler(AppConfig config) {
+        AppConfig.PersistenceConfig persistence = config.getPersistence();
+        return Schedulers.newBoundedElastic(
+                persistence.getThreads(),
+                persistence.getQueueCapacity(),
+                "persistence");
+    }
+}
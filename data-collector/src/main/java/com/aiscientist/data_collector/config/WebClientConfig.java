@@ -1,35 +1,87 @@
 package com.aiscientist.data_collector.config;
 
+import java.util.concurrent.TimeUnit;
+
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.http.client.reactive.ClientHttpConnector;
+import org.springframework.http.client.reactive.ReactorClientHttpConnector;
 import org.springframework.web.reactive.function.client.WebClient;
 
+import com.aiscientist.data_collector.http.UpstreamSource;
+import com.aiscientist.data_collector.http.UpstreamWebClientFactory;
+
+import io.netty.channel.ChannelOption;
+import io.netty.handler.timeout.ReadTimeoutHandler;
+import reactor.netty.http.client.HttpClient;
+import reactor.netty.resources.ConnectionProvider;
+
 @Configuration
 public class WebClientConfig {
 
-    @Bean
-    public WebClient nasaWebClient(AppConfig config) {
-        return WebClient.builder()
-                .baseUrl(config.getNasa().getApi().getBaseUrl())
-                .defaultHeader("Accept", "application/json")
+    /**
+     * Shared connection pool for all upstream APIs. Reactor Netty keeps one
+     * pool per remote host, so the limits below apply per host.
+     */
+    @Bean(destroyMethod = "dispose")
+    public ConnectionProvider upstreamConnectionProvider(AppConfig config) {
+        AppConfig.HttpConfig.PoolConfig pool = config.getHttp().getPool();
+        return ConnectionProvider.builder("upstream")
+                .maxConnections(pool.getMaxConnectionsPerHost())
+                .pendingAcquireMaxCount(pool.getMaxPendingAcquires())
+                .pendingAcquireTimeout(pool.getPendingAcquireTimeout())
+                .maxIdleTime(pool.getMaxIdleTime())
+                .maxLifeTime(pool.getMaxLifeTime())
+                .evictInBackground(pool.getEvictionInterval())
+                .metrics(true)
                 .build();
     }
 
     @Bean
-    public WebClient noaaWebClient(AppConfig config) {
-        return WebClient.builder()
-                .baseUrl(config.getNoaa().getApi().getBaseUrl())
-                .defaultHeader("Accept", "application/json")
-                .build();
+    public ClientHttpConnector upstreamHttpConnector(ConnectionProvider upstreamConnectionProvider, AppConfig config) {
+        AppConfig.HttpConfig http = config.getHttp();
+        HttpClient httpClient = HttpClient.create(upstreamConnectionProvider)
+                .keepAlive(true)
+                .compress(http.isCompression())
+                .option(ChannelOption.CONNECT_TIMEOUT_MILLIS, (int) http.getConnectTimeout().toMillis())
+                .option(ChannelOption.SO_KEEPALIVE, true)
+                .responseTimeout(http.getResponseTimeout())
+                .doOnConnected(connection -> connection.addHandlerLast(
+                        new ReadTimeoutHandler(http.getReadTimeout().toMillis(), TimeUnit.MILLISECONDS)))
+                // Wire-level bytes and connection timings, tagged by remote host only
+                .metrics(true, uri -> "/");
+        return new ReactorClientHttpConnector(httpClient);
+    }
+
+    @Bean
+    public WebClient nasaWebClient(UpstreamWebClientFactory factory, AppConfig config) {
+        return factory.create(UpstreamSource.NASA_DONKI, config.getNasa().getApi().getBaseUrl());
+    }
+
+    @Bean
+    public WebClient noaaWebClient(UpstreamWebClientFactory factory, AppConfig config) {
+        return factory.create(UpstreamSource.NOAA_SWPC, config.getNoaa().getApi().getBaseUrl());
+    }
+
+    @Bean
+    public WebClient noaaTidesWebClient(
+            UpstreamWebClientFactory factory,
+            @Value("${app.noaa.tides.base-url:https://api.tidesandcurrents.noaa.gov/api/prod}") String baseUrl) {
+        return factory.create(UpstreamSource.NOAA_TIDES, baseUrl);
+    }
+
+    @Bean
+    public WebClient usgsWaterWebClient(
+            UpstreamWebClientFactory factory,
+            @Value("${app.usgs.water.base-url:https://waterservices.usgs.gov/nwis/iv}") String baseUrl) {
+        return factory.create(UpstreamSource.USGS_WATER, baseUrl);
     }
 
     @Bean
     public WebClient usgsWebClient(
+            UpstreamWebClientFactory factory,
             @Value("${app.usgs.earthquake.base-url:https://earthquake.usgs.gov}") String baseUrl) {
-        return WebClient.builder()
-                .baseUrl(baseUrl)
-                .defaultHeader("Accept", "application/json")
-                .build();
+        return factory.create(UpstreamSource.USGS_EARTHQUAKE, baseUrl);
     }
 }
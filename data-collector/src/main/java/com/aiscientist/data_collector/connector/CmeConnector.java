@@ -0,0 +1,170 @@
+package com.aiscientist.data_collector.connector;
+
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+import org.springframework.stereotype.Component;
+import org.springframework.web.reactive.function.client.WebClient;
+
+import com.aiscientist.data_collector.config.AppConfig;
+import com.aiscientist.data_collector.dto.CMEEvent;
+import com.aiscientist.data_collector.kafka.SpaceWeatherProducer;
+import com.aiscientist.data_collector.model.Metric;
+import com.aiscientist.data_collector.persistence.RawPayloadStore;
+import com.aiscientist.data_collector.repository.MetricRepository;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import reactor.core.publisher.Flux;
+
+/**
+ * NASA DONKI coronal mass ejections (CME), stored as "cme" metrics keyed by
+ * activityID. Speed and type come from the CME's first analysis; a CME whose
+ * analyses DONKI revised is updated in place and published again.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class CmeConnector implements SourceConnector<CMEEvent> {
+
+    public static final String NAME = "nasa-cme";
+    private static final String SOURCE_KEY_PREFIX = "nasa-cme:";
+
+    private final WebClient nasaWebClient;
+    private final AppConfig appConfig;
+    private final ObjectMapper objectMapper;
+    private final MetricRepository metricRepository;
+    private final RawPayloadStore rawPayloadStore;
+    private final SpaceWeatherProducer spaceWeatherProducer;
+
+    @Override
+    public String name() {
+        return NAME;
+    }
+
+    @Override
+    public Flux<String> fetch(Instant since) {
+        // DONKI filters by whole UTC days
+        String url = String.format("%s%s?startDate=%s&endDate=%s&api_key=%s",
+                appConfig.getNasa().getApi().getDonkiUrl(),
+                appConfig.getNasa().getApi().getCmeEndpoint(),
+                since.atZone(ZoneOffset.UTC).toLocalDate().format(DateTimeFormatter.ISO_DATE),
+                LocalDate.now(ZoneOffset.UTC).format(DateTimeFormatter.ISO_DATE),
+                appConfig.getNasa().getApi().getKey());
+
+        return nasaWebClient.get()
+                .uri(url)
+                .retrieve()
+                .bodyToMono(String.class)
+                .flux();
+    }
+
+    @Override
+    public List<CMEEvent> decode(String payload) throws Exception {
+        JsonNode response = objectMapper.readTree(payload);
+        List<CMEEvent> events = new ArrayList<>();
+        if (response == null || !response.isArray()) {
+            return events;
+        }
+        for (JsonNode node : response) {
+            String activityId = Donki.text(node, "activityID");
+            if (activityId == null) {
+                continue;
+            }
+            CMEEvent.CMEEventBuilder event = CMEEvent.builder()
+                    .activityId(activityId)
+                    .startTime(Donki.text(node, "startTime"))
+                    .sourceLocation(Donki.text(node, "sourceLocation"))
+                    .catalog(Donki.text(node, "catalog"))
+                    .source("nasa")
+                    .timestamp(Instant.now())
+                    .rawData(objectMapper.writeValueAsString(node));
+
+            JsonNode analyses = node.get("cmeAnalyses");
+            if (analyses != null && analyses.isArray() && !analyses.isEmpty()) {
+                JsonNode first = analyses.get(0);
+                if (first.hasNonNull("speed")) {
+                    event.speed(first.get("speed").asInt());
+                }
+                event.type(Donki.text(first, "type"));
+            }
+            events.add(event.build());
+        }
+        return events;
+    }
+
+    @Override
+    public String dedupKey(CMEEvent event) {
+        return event.getActivityId();
+    }
+
+    @Override
+    public Instant eventTime(CMEEvent event) {
+        return Donki.time(event.getStartTime());
+    }
+
+    @Override
+    public String revision(CMEEvent event) {
+        return RawPayloadStore.hashOf(event.getRawData());
+    }
+
+    @Override
+    public List<CMEEvent> persist(List<CMEEvent> batch) {
+        Map<String, Metric> stored = metricRepository.findBySourceKeyIn(
+                        batch.stream().map(this::sourceKey).toList()).stream()
+                .collect(Collectors.toMap(Metric::getSourceKey, Function.identity(), (first, second) -> first));
+
+        List<CMEEvent> changed = new ArrayList<>();
+        List<Metric> metrics = new ArrayList<>();
+        int revised = 0;
+        for (CMEEvent event : batch) {
+            Metric metric = stored.get(sourceKey(event));
+            if (metric == null) {
+                metric = Metric.builder()
+                        .source(event.getSource())
+                        .metricType("cme")
+                        .sourceKey(sourceKey(event))
+                        .build();
+            } else if (revision(event).equals(metric.getRawPayloadId())) {
+                continue;
+            } else {
+                // DONKI added or corrected an analysis after we stored the CME
+                revised++;
+            }
+            Instant startTime = eventTime(event);
+            metric.setTimestamp(startTime != null ? startTime : event.getTimestamp());
+            metric.setSpeedKmh(event.getSpeed());
+            metric.setCmeClass(Donki.truncate(event.getType(), 10));
+            metric.setRawData(event.getRawData());
+            metrics.add(metric);
+            changed.add(event);
+        }
+        if (changed.isEmpty()) {
+            return changed;
+        }
+
+        metrics.forEach(rawPayloadStore::externalize);
+        metricRepository.saveAll(metrics);
+        log.info("Stored {} new and {} revised CMEs", changed.size() - revised, revised);
+        return changed;
+    }
+
+    @Override
+    public CompletableFuture<?> publish(CMEEvent event) {
+        return spaceWeatherProducer.sendCMEEvent(event);
+    }
+
+    private String sourceKey(CMEEvent event) {
+        return SOURCE_KEY_PREFIX + event.getActivityId();
+    }
+}
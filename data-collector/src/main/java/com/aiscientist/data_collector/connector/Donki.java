@@ -0,0 +1,37 @@
+package com.aiscientist.data_collector.connector;
+
+import java.time.Instant;
+import java.time.format.DateTimeFormatter;
+
+import com.fasterxml.jackson.databind.JsonNode;
+
+/**
+ * Field access shared by the NASA DONKI connectors
+ */
+final class Donki {
+
+    // DONKI times look like "2024-05-10T06:27Z"
+    private static final DateTimeFormatter TIME = DateTimeFormatter.ofPattern("yyyy-MM-dd'T'HH:mm[:ss]X");
+
+    private Donki() {
+    }
+
+    static String text(JsonNode node, String field) {
+        return node.hasNonNull(field) ? node.get(field).asText() : null;
+    }
+
+    static Instant time(JsonNode node, String field) {
+        return time(text(node, field));
+    }
+
+    static Instant time(String value) {
+        if (value == null || value.isBlank()) {
+            return null;
+        }
+        return TIME.parse(value, Instant::from);
+    }
+
+    static String truncate(String value, int length) {
+        return value == null || value.length() <= length ? value : value.substring(0, length);
+    }
+}
@@ -0,0 +1,130 @@
+package com.aiscientist.data_collector.connector;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.web.reactive.function.client.WebClient;
+
+import com.aiscientist.data_collector.dto.EarthquakeEvent;
+import com.aiscientist.data_collector.http.ConditionalRequestFilter;
+import com.aiscientist.data_collector.kafka.KafkaProducerService;
+import com.aiscientist.data_collector.model.EarthquakeMetric;
+import com.aiscientist.data_collector.service.UsgsEarthquakeApiService;
+
+import lombok.extern.slf4j.Slf4j;
+import reactor.core.publisher.Flux;
+
+/**
+ * USGS earthquakes at or above the configured minimum magnitude. Every new
+ * earthquake goes to the data topic; dangerous ones also go to the alert
+ * topic and those with a tsunami risk to the tsunami warning topic.
+ * Conversion, region assignment and statistics are UsgsEarthquakeApiService's.
+ */
+@Component
+@Slf4j
+public class EarthquakeConnector implements SourceConnector<EarthquakeMetric> {
+
+    public static final String NAME = "usgs-earthquake";
+
+    private static final String EARTHQUAKE_DATA_TOPIC = "raw.earthquake.data";
+    private static final String EARTHQUAKE_ALERT_TOPIC = "raw.earthquake.alert";
+    private static final String TSUNAMI_WARNING_TOPIC = "raw.tsunami.warning";
+
+    private final WebClient webClient;
+    private final UsgsEarthquakeApiService usgsEarthquakeApiService;
+    private final KafkaProducerService kafkaProducerService;
+    private final String baseUrl;
+    private final double minMagnitude;
+
+    public EarthquakeConnector(
+            @Qualifier("usgsWebClient") WebClient webClient,
+            UsgsEarthquakeApiService usgsEarthquakeApiService,
+            KafkaProducerService kafkaProducerService,
+            @Value("${app.usgs.earthquake.base-url:https://earthquake.usgs.gov}") String baseUrl,
+            @Value("${app.usgs.earthquake.min-magnitude:4.5}") double minMagnitude) {
+        this.webClient = webClient;
+        this.usgsEarthquakeApiService = usgsEarthquakeApiService;
+        this.kafkaProducerService = kafkaProducerService;
+        this.baseUrl = baseUrl;
+        this.minMagnitude = minMagnitude;
+    }
+
+    @Override
+    public String name() {
+        return NAME;
+    }
+
+    @Override
+    public Flux<String> fetch(Instant since) {
+        String queryParams = String.format("?format=geojson&starttime=%s&minmagnitude=%.1f&orderby=time",
+                since, minMagnitude);
+
+        return webClient.get()
+                .uri(baseUrl + UsgsEarthquakeApiService.EARTHQUAKE_ENDPOINT + queryParams)
+                // starttime moves with the watermark; compare content per feed instead
+                .attribute(ConditionalRequestFilter.CACHE_KEY_ATTRIBUTE, NAME + ":" + minMagnitude)
+                .retrieve()
+                .bodyToMono(String.class)
+                .flux();
+    }
+
+    @Override
+    public List<EarthquakeMetric> decode(String payload) throws Exception {
+        return usgsEarthquakeApiService.toMetrics(payload);
+    }
+
+    @Override
+    public String dedupKey(EarthquakeMetric metric) {
+        return metric.getEarthquakeId();
+    }
+
+    @Override
+    public Instant eventTime(EarthquakeMetric metric) {
+        return metric.getEventTime();
+    }
+
+    @Override
+    public List<EarthquakeMetric> persist(List<EarthquakeMetric> batch) {
+        return usgsEarthquakeApiService.saveNewOnly(batch);
+    }
+
+    @Override
+    public CompletableFuture<?> publish(EarthquakeMetric metric) {
+        List<CompletableFuture<?>> sends = new ArrayList<>();
+
+        // Publish all earthquake data to main topic
+        EarthquakeEvent event = usgsEarthquakeApiService.createEvent(metric);
+        sends.add(kafkaProducerService.sendEarthquakeEvent(EARTHQUAKE_DATA_TOPIC, event));
+
+        // If dangerous (magnitude >= 5.0), send alert
+        if (metric.isDangerous()) {
+            EarthquakeEvent alert = usgsEarthquakeApiService.createEvent(metric);
+            alert.setEventType("earthquake.alert");
+            sends.add(kafkaProducerService.sendEarthquakeEvent(EARTHQUAKE_ALERT_TOPIC, alert));
+            log.warn("EARTHQUAKE ALERT: M{} - {} - {} severity - {}",
+                    metric.getMagnitude(),
+                    metric.getEarthquakeId(),
+                    metric.getSeverity(),
+                    metric.getLocation());
+        }
+
+        // If tsunami warning or high tsunami risk, send tsunami alert
+        if (Boolean.TRUE.equals(metric.getTsunamiWarning()) || metric.getTsunamiRiskScore() >= 50) {
+            EarthquakeEvent warning = usgsEarthquakeApiService.createEvent(metric);
+            warning.setEventType("tsunami.warning");
+            sends.add(kafkaProducerService.sendEarthquakeEvent(TSUNAMI_WARNING_TOPIC, warning));
+            log.error("TSUNAMI WARNING: M{} at {} - Risk Score: {} - {}",
+                    metric.getMagnitude(),
+                    metric.getDepthKm() != null ? metric.getDepthKm() + "km depth" : "unknown depth",
+                    metric.getTsunamiRiskScore(),
+                    metric.getLocation());
+        }
+
+        return CompletableFuture.allOf(sends.toArray(CompletableFuture[]::new));
+    }
+}
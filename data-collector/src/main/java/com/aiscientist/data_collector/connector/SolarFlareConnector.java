@@ -0,0 +1,163 @@
+package com.aiscientist.data_collector.connector;
+
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+import org.springframework.stereotype.Component;
+import org.springframework.web.reactive.function.client.WebClient;
+
+import com.aiscientist.data_collector.config.AppConfig;
+import com.aiscientist.data_collector.dto.SolarFlareEvent;
+import com.aiscientist.data_collector.kafka.SpaceWeatherProducer;
+import com.aiscientist.data_collector.model.Metric;
+import com.aiscientist.data_collector.persistence.RawPayloadStore;
+import com.aiscientist.data_collector.repository.MetricRepository;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import reactor.core.publisher.Flux;
+
+/**
+ * NASA DONKI solar flares (FLR), stored as "solar_flare" metrics keyed by
+ * flrID. A flare DONKI revised (its raw record changed) is updated in place
+ * and published again.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class SolarFlareConnector implements SourceConnector<SolarFlareEvent> {
+
+    static final String NAME = "nasa-flr";
+    private static final String SOURCE_KEY_PREFIX = "nasa-flr:";
+
+    private final WebClient nasaWebClient;
+    private final AppConfig appConfig;
+    private final ObjectMapper objectMapper;
+    private final MetricRepository metricRepository;
+    private final RawPayloadStore rawPayloadStore;
+    private final SpaceWeatherProducer spaceWeatherProducer;
+
+    @Override
+    public String name() {
+        return NAME;
+    }
+
+    @Override
+    public Flux<String> fetch(Instant since) {
+        // DONKI filters by whole UTC days
+        String url = String.format("%s%s?startDate=%s&endDate=%s&api_key=%s",
+                appConfig.getNasa().getApi().getDonkiUrl(),
+                appConfig.getNasa().getApi().getSolarFlareEndpoint(),
+                since.atZone(ZoneOffset.UTC).toLocalDate().format(DateTimeFormatter.ISO_DATE),
+                LocalDate.now(ZoneOffset.UTC).format(DateTimeFormatter.ISO_DATE),
+                appConfig.getNasa().getApi().getKey());
+
+        return nasaWebClient.get()
+                .uri(url)
+                .retrieve()
+                .bodyToMono(String.class)
+                .flux();
+    }
+
+    @Override
+    public List<SolarFlareEvent> decode(String payload) throws Exception {
+        JsonNode response = objectMapper.readTree(payload);
+        List<SolarFlareEvent> events = new ArrayList<>();
+        if (response == null || !response.isArray()) {
+            return events;
+        }
+        for (JsonNode node : response) {
+            String flrId = Donki.text(node, "flrID");
+            if (flrId == null) {
+                continue;
+            }
+            events.add(SolarFlareEvent.builder()
+                    .flrId(flrId)
+                    .beginTime(Donki.time(node, "beginTime"))
+                    .peakTime(Donki.time(node, "peakTime"))
+                    .endTime(Donki.time(node, "endTime"))
+                    .classType(Donki.text(node, "classType"))
+                    .sourceLocation(Donki.text(node, "sourceLocation"))
+                    .activeRegionNum(node.hasNonNull("activeRegionNum") ? node.get("activeRegionNum").asInt() : null)
+                    .link(Donki.text(node, "link"))
+                    .source("nasa")
+                    .timestamp(Instant.now())
+                    .rawData(objectMapper.writeValueAsString(node))
+                    .build());
+        }
+        return events;
+    }
+
+    @Override
+    public String dedupKey(SolarFlareEvent event) {
+        return event.getFlrId();
+    }
+
+    @Override
+    public Instant eventTime(SolarFlareEvent event) {
+        return event.getPeakTime() != null ? event.getPeakTime() : event.getBeginTime();
+    }
+
+    @Override
+    public String revision(SolarFlareEvent event) {
+        return RawPayloadStore.hashOf(event.getRawData());
+    }
+
+    @Override
+    public List<SolarFlareEvent> persist(List<SolarFlareEvent> batch) {
+        Map<String, Metric> stored = metricRepository.findBySourceKeyIn(
+                        batch.stream().map(this::sourceKey).toList()).stream()
+                .collect(Collectors.toMap(Metric::getSourceKey, Function.identity(), (first, second) -> first));
+
+        List<SolarFlareEvent> changed = new ArrayList<>();
+        List<Metric> metrics = new ArrayList<>();
+        int revised = 0;
+        for (SolarFlareEvent event : batch) {
+            Metric metric = stored.get(sourceKey(event));
+            if (metric == null) {
+                metric = Metric.builder()
+                        .source(event.getSource())
+                        .metricType("solar_flare")
+                        .sourceKey(sourceKey(event))
+                        .build();
+            } else if (revision(event).equals(metric.getRawPayloadId())) {
+                continue;
+            } else {
+                // DONKI revised the flare (end time, class) after we stored it
+                revised++;
+            }
+            metric.setTimestamp(eventTime(event));
+            metric.setFlareClass(Donki.truncate(event.getClassType(), 10));
+            metric.setRawData(event.getRawData());
+            metrics.add(metric);
+            changed.add(event);
+        }
+        if (changed.isEmpty()) {
+            return changed;
+        }
+
+        metrics.forEach(rawPayloadStore::externalize);
+        metricRepository.saveAll(metrics);
+        log.info("Stored {} new and {} revised solar flares", changed.size() - revised, revised);
+        return changed;
+    }
+
+    @Override
+    public CompletableFuture<?> publish(SolarFlareEvent event) {
+        return spaceWeatherProducer.sendSolarFlareEvent(event);
+    }
+
+    private String sourceKey(SolarFlareEvent event) {
+        return SOURCE_KEY_PREFIX + event.getFlrId();
+    }
+}
@@ -0,0 +1,71 @@
+package com.aiscientist.data_collector.connector;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+import reactor.core.publisher.Flux;
+
+/**
+ * One upstream feed, reduced to the steps that differ between feeds.
+ *
+ * {@link SourceConnectorRunner} drives every connector the same way:
+ * scheduling, overlap protection and deadlines (via the run coordinator),
+ * fetch retries, decoding errors, de-duplication, batched persistence on the
+ * persistence scheduler, publishing, watermarks and metrics. Rate limiting
+ * and conditional requests come from the connector's upstream WebClient
+ * (see UpstreamWebClientFactory). Register a connector by making it a bean.
+ *
+ * @param <T> Decoded record type
+ */
+public interface SourceConnector<T> {
+
+    /**
+     * Unique name, used as run name, metric tag and app.connectors.sources key
+     */
+    String name();
+
+    /**
+     * Fetch raw payloads covering at least everything after {@code since}.
+     * Errors are retried by the runner, so don't swallow them here.
+     */
+    Flux<String> fetch(Instant since);
+
+    /**
+     * Decode one payload into records
+     */
+    List<T> decode(String payload) throws Exception;
+
+    /**
+     * Stable identity of a record, used to drop records seen before
+     */
+    String dedupKey(T record);
+
+    /**
+     * Version of a record's content. A record seen before comes back to
+     * persist() when its revision differs; by default records are never
+     * revised.
+     */
+    default String revision(T record) {
+        return "";
+    }
+
+    /**
+     * Event time of a record; the latest one published becomes the watermark
+     */
+    Instant eventTime(T record);
+
+    /**
+     * Store a batch: insert records not stored yet and update stored ones
+     * whose content changed, skipping the rest. Blocking; runs on the
+     * persistence scheduler.
+     *
+     * @return Records inserted or updated by this call, which are then published
+     */
+    List<T> persist(List<T> batch);
+
+    /**
+     * Publish one stored record
+     */
+    CompletableFuture<?> publish(T record);
+}
@@ -0,0 +1,39 @@
+package com.aiscientist.data_collector.connector;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+import org.springframework.stereotype.Component;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * All {@link SourceConnector} beans, by name
+ */
+@Component
+@Slf4j
+public class SourceConnectorRegistry {
+
+    private final Map<String, SourceConnector<?>> connectors = new LinkedHashMap<>();
+
+    public SourceConnectorRegistry(List<SourceConnector<?>> connectors) {
+        for (SourceConnector<?> connector : connectors) {
+            if (this.connectors.putIfAbsent(connector.name(), connector) != null) {
+                throw new IllegalStateException("Duplicate source connector name: " + connector.name());
+            }
+        }
+        log.info("Registered source connectors: {}", this.connectors.keySet());
+    }
+
+    public Optional<SourceConnector<?>> get(String name) {
+        return Optional.ofNullable(connectors.get(name));
+    }
+
+    public Collection<SourceConnector<?>> all() {
+        return Collections.unmodifiableCollection(connectors.values());
+    }
+}
@@ -0,0 +1,232 @@
+package com.aiscientist.data_collector.connector;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Collectors;
+
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import com.aiscientist.data_collector.config.AppConfig;
+import com.aiscientist.data_collector.persistence.BlockingPersistence;
+import com.aiscientist.data_collector.scheduler.CollectionRunCoordinator;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import reactor.core.publisher.Flux;
+import reactor.util.retry.Retry;
+
+/**
+ * Runs every registered {@link SourceConnector} on its configured interval
+ * through the same pipeline:
+ *
+ * fetch (retried with backoff) -> decode -> drop records already published
+ * in the same revision -> persist in batches on the persistence scheduler ->
+ * publish and await acks -> remember the acked records and advance the
+ * watermark to the latest published event time.
+ *
+ * A record whose publish failed is published again when a later run
+ * re-fetches it (within the watermark overlap), even though it is already
+ * stored.
+ *
+ * Runs go through {@link CollectionRunCoordinator} under the connector's
+ * name, so they get overlap protection, deadlines and collector.run.*
+ * metrics; per-stage counts are recorded as collector.connector.records.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class SourceConnectorRunner {
+
+    private final SourceConnectorRegistry registry;
+    private final CollectionRunCoordinator runCoordinator;
+    private final BlockingPersistence persistence;
+    private final AppConfig appConfig;
+    private final MeterRegistry meterRegistry;
+
+    private final Map<String, ConnectorState> states = new ConcurrentHashMap<>();
+
+    /**
+     * Progress of one connector, kept in memory. After a restart the first
+     * run fetches the initial lookback again and persist() skips what is
+     * already stored; records whose publish failed before the restart are
+     * not published again.
+     */
+    static final class ConnectorState {
+        private volatile Instant watermark;
+        private volatile Instant nextRunAt = Instant.EPOCH;
+        private volatile Instant lastRunAt;
+        /** Revision of each record published, by dedup key */
+        private final Map<String, String> seen;
+        /** Dedup keys of stored records whose publish failed */
+        private final Set<String> unpublished;
+
+        ConnectorState(int dedupCacheSize) {
+            this.seen = lruMap(dedupCacheSize);
+            this.unpublished = Collections.newSetFromMap(lruMap(dedupCacheSize));
+        }
+
+        Instant watermark() {
+            return watermark;
+        }
+
+        synchronized void advance(Instant eventTime) {
+            if (eventTime != null && (watermark == null || eventTime.isAfter(watermark))) {
+                watermark = eventTime;
+            }
+        }
+
+        private static <V> Map<String, V> lruMap(int size) {
+            return Collections.synchronizedMap(new LinkedHashMap<>(256, 0.75f, true) {
+                @Override
+                protected boolean removeEldestEntry(Map.Entry<String, V> eldest) {
+                    return size() > size;
+                }
+            });
+        }
+    }
+
+    /**
+     * Status of one connector for the connectors endpoint
+     */
+    public record ConnectorStatus(String name, boolean enabled, boolean running,
+                                  Instant watermark, Instant lastRunAt, Instant nextRunAt) {
+    }
+
+    @Scheduled(fixedDelayString = "${app.connectors.tick:PT30S}")
+    public void runDueConnectors() {
+        Instant now = Instant.now();
+        for (SourceConnector<?> connector : registry.all()) {
+            AppConfig.ConnectorsConfig.ConnectorConfig config = configFor(connector);
+            ConnectorState state = stateOf(connector);
+            if (config.isEnabled() && !now.isBefore(state.nextRunAt)) {
+                state.nextRunAt = now.plus(config.getInterval());
+                start(connector, state);
+            }
+        }
+    }
+
+    /**
+     * Run a connector now, outside its schedule
+     *
+     * @return empty if there is no such connector, otherwise whether the run started now
+     */
+    public Optional<Boolean> runNow(String name) {
+        return registry.get(name).map(connector -> start(connector, stateOf(connector)));
+    }
+
+    public List<ConnectorStatus> status() {
+        return registry.all().stream()
+                .map(connector -> {
+                    ConnectorState state = stateOf(connector);
+                    return new ConnectorStatus(connector.name(), configFor(connector).isEnabled(),
+                            runCoordinator.isRunning(connector.name()),
+                            state.watermark, state.lastRunAt, state.nextRunAt);
+                })
+                .toList();
+    }
+
+    private <T> boolean start(SourceConnector<T> connector, ConnectorState state) {
+        return runCoordinator.launch(connector.name(), () -> pipeline(connector, state));
+    }
+
+    <T> Flux<Integer> pipeline(SourceConnector<T> connector, ConnectorState state) {
+        String name = connector.name();
+        AppConfig.ConnectorsConfig.ConnectorConfig config = configFor(connector);
+        Instant since = state.watermark != null
+                ? state.watermark.minus(config.getWatermarkOverlap())
+                : Instant.now().minus(config.getInitialLookback());
+        state.lastRunAt = Instant.now();
+        log.info("Running connector {} since {}", name, since);
+
+        Flux<T> records = Flux.defer(() -> connector.fetch(since))
+                .retryWhen(Retry.backoff(config.getFetchRetries(), config.getRetryBackoff())
+                        .doBeforeRetry(signal -> log.warn("Connector {} fetch failed, retrying: {}",
+                                name, signal.failure().getMessage())))
+                .doOnNext(payload -> count(name, "fetched"))
+                .concatMapIterable(payload -> decode(connector, payload))
+                .doOnNext(record -> count(name, "decoded"))
+                .distinct(connector::dedupKey)
+                .filter(record -> {
+                    boolean seen = connector.revision(record).equals(state.seen.get(connector.dedupKey(record)));
+                    if (seen) {
+                        count(name, "duplicate");
+                    }
+                    return !seen;
+                });
+
+        return persistence.saveInBatches(records, batch -> {
+                    List<T> stored = connector.persist(batch);
+                    stored.forEach(record -> count(name, "persisted"));
+                    Set<String> storedKeys = stored.stream().map(connector::dedupKey).collect(Collectors.toSet());
+                    List<T> toPublish = new ArrayList<>(stored);
+                    for (T record : batch) {
+                        String key = connector.dedupKey(record);
+                        if (storedKeys.contains(key)) {
+                            continue;
+                        }
+                        if (state.unpublished.contains(key)) {
+                            toPublish.add(record);
+                        } else {
+                            // Stored and published before, by this instance before a restart or by another one
+                            state.seen.put(key, connector.revision(record));
+                            state.advance(connector.eventTime(record));
+                        }
+                    }
+                    return toPublish;
+                })
+                .concatMap(record -> runCoordinator.awaitPublished(name, connector.publish(record))
+                        .doOnNext(published -> {
+                            String key = connector.dedupKey(record);
+                            if (published > 0) {
+                                state.seen.put(key, connector.revision(record));
+                                state.unpublished.remove(key);
+                                state.advance(connector.eventTime(record));
+                            } else {
+                                state.unpublished.add(key);
+                            }
+                        }));
+    }
+
+    private <T> List<T> decode(SourceConnector<T> connector, String payload) {
+        try {
+            return connector.decode(payload);
+        } catch (Exception e) {
+            count(connector.name(), "decode_failed");
+            log.error("Connector {} could not decode payload: {}", connector.name(), e.getMessage());
+            return List.of();
+        }
+    }
+
+    private ConnectorState stateOf(SourceConnector<?> connector) {
+        return states.computeIfAbsent(connector.name(), name -> {
+            ConnectorState state = new ConnectorState(configFor(connector).getDedupCacheSize());
+            Gauge.builder("collector.connector.watermark.lag", state,
+                            s -> s.watermark == null ? Double.NaN
+                                    : Duration.between(s.watermark, Instant.now()).toSeconds())
+                    .description("Seconds between now and the latest event time stored by the connector")
+                    .baseUnit("seconds")
+                    .tag("connector", name)
+                    .register(meterRegistry);
+            return state;
+        });
+    }
+
+    private AppConfig.ConnectorsConfig.ConnectorConfig configFor(SourceConnector<?> connector) {
+        return appConfig.getConnectors().configFor(connector.name());
+    }
+
+    private void count(String connector, String stage) {
+        meterRegistry.counter("collector.connector.records", "connector", connector, "stage", stage).increment();
+    }
+}
@@ -0,0 +1,39 @@
+package com.aiscientist.data_collector.controller;
+
+import java.util.List;
+
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import com.aiscientist.data_collector.connector.SourceConnectorRunner;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+@RestController
+@RequestMapping("/api/v1/connectors")
+@RequiredArgsConstructor
+@Slf4j
+public class ConnectorController {
+
+    private final SourceConnectorRunner connectorRunner;
+
+    @GetMapping
+    public ResponseEntity<List<SourceConnectorRunner.ConnectorStatus>> getConnectors() {
+        return ResponseEntity.ok(connectorRunner.status());
+    }
+
+    @PostMapping("/{name}/collect")
+    public ResponseEntity<String> triggerCollection(@PathVariable String name) {
+        log.info("Manual trigger: connector {}", name);
+        return connectorRunner.runNow(name)
+                .map(started -> ResponseEntity.ok(started
+                        ? "Connector " + name + " collection triggered"
+                        : "Connector " + name + " is already running"))
+                .orElseGet(() -> ResponseEntity.notFound().build());
+    }
+}
@@ -12,6 +12,8 @@ import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 
+import com.aiscientist.data_collector.connector.CmeConnector;
+import com.aiscientist.data_collector.connector.SourceConnectorRunner;
 import com.aiscientist.data_collector.dto.MetricDTO;
 import com.aiscientist.data_collector.repository.MetricRepository;
 import com.aiscientist.data_collector.service.DataCollectorService;
@@ -27,6 +29,7 @@ public class DataCollectorController {
 
     private final DataCollectorService dataCollectorService;
     private final MetricRepository metricRepository;
+    private final SourceConnectorRunner connectorRunner;
 
     @PostMapping("/collect/kp-index")
     public ResponseEntity<String> triggerKpIndexCollection() {
@@ -38,8 +41,11 @@ public class DataCollectorController {
     @PostMapping("/collect/cme")
     public ResponseEntity<String> triggerCMECollection() {
         log.info("Manual trigger: CME data collection");
-        dataCollectorService.collectCMEData();
-        return ResponseEntity.ok("CME data collection triggered");
+        return connectorRunner.runNow(CmeConnector.NAME)
+                .map(started -> ResponseEntity.ok(started
+                        ? "CME data collection triggered"
+                        : "CME data collection is already running"))
+                .orElseGet(() -> ResponseEntity.notFound().build());
     }
 
     @GetMapping("/metrics")
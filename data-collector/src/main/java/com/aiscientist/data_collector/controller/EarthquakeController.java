@@ -1,10 +1,16 @@
 package com.aiscientist.data_collector.controller;
 
+import com.aiscientist.data_collector.connector.EarthquakeConnector;
+import com.aiscientist.data_collector.connector.SourceConnectorRunner;
 import com.aiscientist.data_collector.model.EarthquakeMetric;
+import com.aiscientist.data_collector.persistence.RegionDictionary;
 import com.aiscientist.data_collector.repository.EarthquakeRepository;
 import com.aiscientist.data_collector.service.EarthquakeCollectionService;
+import com.aiscientist.data_collector.service.EarthquakeStatistics;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
 import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
@@ -14,6 +20,7 @@ import java.time.temporal.ChronoUnit;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 
 /**
  * REST API controller for earthquake monitoring
@@ -26,6 +33,12 @@ public class EarthquakeController {
 
     private final EarthquakeCollectionService earthquakeCollectionService;
     private final EarthquakeRepository earthquakeRepository;
+    private final EarthquakeStatistics earthquakeStatistics;
+    private final RegionDictionary regionDictionary;
+    private final SourceConnectorRunner connectorRunner;
+
+    private static final String DEFAULT_PAGE_SIZE = "100";
+    private static final int MAX_PAGE_SIZE = 500;
 
     /**
      * Health check endpoint
@@ -44,11 +57,15 @@ public class EarthquakeController {
     @PostMapping("/collect")
     public ResponseEntity<Map<String, String>> collectRecentEarthquakes() {
         log.info("Manual earthquake collection triggered");
-        earthquakeCollectionService.collectRecentEarthquakes();
-        return ResponseEntity.ok(Map.of(
-                "status", "Collection started",
-                "message", "Fetching recent earthquakes (last 24h, magnitude >= 4.5)"
-        ));
+        return connectorRunner.runNow(EarthquakeConnector.NAME)
+                .map(started -> ResponseEntity.ok(started
+                        ? Map.of(
+                                "status", "Collection started",
+                                "message", "Fetching earthquakes since the last one collected")
+                        : Map.of(
+                                "status", "Collection running",
+                                "message", "Earthquake collection is already running")))
+                .orElseGet(() -> ResponseEntity.notFound().build());
     }
 
     /**
@@ -116,8 +133,11 @@ public class EarthquakeController {
      * Get dangerous earthquakes (magnitude >= 5.0)
      */
     @GetMapping("/dangerous")
-    public ResponseEntity<List<EarthquakeMetric>> getDangerousEarthquakes() {
-        List<EarthquakeMetric> earthquakes = earthquakeRepository.findDangerousEarthquakes();
+    public ResponseEntity<List<EarthquakeMetric>> getDangerousEarthquakes(
+            @RequestParam(defaultValue = "0") int page,
+            @RequestParam(defaultValue = DEFAULT_PAGE_SIZE) int size) {
+        List<EarthquakeMetric> earthquakes = earthquakeRepository
+                .findByDangerousTrueOrderByEventTimeDesc(pageOf(page, size));
         log.info("Retrieved {} dangerous earthquakes", earthquakes.size());
         return ResponseEntity.ok(earthquakes);
     }
@@ -126,8 +146,11 @@ public class EarthquakeController {
      * Get catastrophic earthquakes (magnitude >= 7.0)
      */
     @GetMapping("/catastrophic")
-    public ResponseEntity<List<EarthquakeMetric>> getCatastrophicEarthquakes() {
-        List<EarthquakeMetric> earthquakes = earthquakeRepository.findCatastrophicEarthquakes();
+    public ResponseEntity<List<EarthquakeMetric>> getCatastrophicEarthquakes(
+            @RequestParam(defaultValue = "0") int page,
+            @RequestParam(defaultValue = DEFAULT_PAGE_SIZE) int size) {
+        List<EarthquakeMetric> earthquakes = earthquakeRepository
+                .findByMagnitudeGreaterThanEqualOrderByEventTimeDesc(7.0, pageOf(page, size));
         log.info("Retrieved {} catastrophic earthquakes", earthquakes.size());
         return ResponseEntity.ok(earthquakes);
     }
@@ -143,14 +166,20 @@ public class EarthquakeController {
     }
 
     /**
-     * Get earthquakes in a specific region
+     * Get earthquakes in a specific region. The name is resolved through the
+     * region dictionary: an exact spelling ("CA", "California") selects that
+     * region, otherwise every region whose name contains it.
      */
     @GetMapping("/region/{regionName}")
     public ResponseEntity<List<EarthquakeMetric>> getEarthquakesByRegion(
-            @PathVariable String regionName) {
+            @PathVariable String regionName,
+            @RequestParam(defaultValue = "0") int page,
+            @RequestParam(defaultValue = DEFAULT_PAGE_SIZE) int size) {
         
-        List<EarthquakeMetric> earthquakes = earthquakeRepository
-                .findByRegionContainingIgnoreCaseOrderByEventTimeDesc(regionName);
+        Set<Integer> regionIds = regionDictionary.search(regionName);
+        List<EarthquakeMetric> earthquakes = regionIds.isEmpty()
+                ? List.of()
+                : earthquakeRepository.findByRegionIdInOrderByEventTimeDesc(regionIds, pageOf(page, size));
         
         log.info("Retrieved {} earthquakes in region: {}", earthquakes.size(), regionName);
         return ResponseEntity.ok(earthquakes);
@@ -197,8 +226,11 @@ public class EarthquakeController {
      * Get shallow earthquakes (depth < 70km) which cause more surface damage
      */
     @GetMapping("/shallow")
-    public ResponseEntity<List<EarthquakeMetric>> getShallowEarthquakes() {
-        List<EarthquakeMetric> earthquakes = earthquakeRepository.findShallowEarthquakes();
+    public ResponseEntity<List<EarthquakeMetric>> getShallowEarthquakes(
+            @RequestParam(defaultValue = "0") int page,
+            @RequestParam(defaultValue = DEFAULT_PAGE_SIZE) int size) {
+        List<EarthquakeMetric> earthquakes = earthquakeRepository
+                .findByShallowTrueOrderByEventTimeDesc(pageOf(page, size));
         log.info("Retrieved {} shallow earthquakes", earthquakes.size());
         return ResponseEntity.ok(earthquakes);
     }
@@ -230,19 +262,20 @@ public class EarthquakeController {
      */
     @GetMapping("/stats")
     public ResponseEntity<Map<String, Object>> getStatistics() {
-        Instant last24h = Instant.now().minus(24, ChronoUnit.HOURS);
-        Instant last7days = Instant.now().minus(7, ChronoUnit.DAYS);
+        EarthquakeStatistics.Snapshot snapshot = earthquakeStatistics.snapshot();
         
         Map<String, Object> stats = new HashMap<>();
-        stats.put("totalEarthquakes", earthquakeRepository.count());
-        stats.put("last24Hours", earthquakeRepository.countEarthquakesSince(last24h, 0.0));
-        stats.put("last7Days", earthquakeRepository.countEarthquakesSince(last7days, 0.0));
-        stats.put("dangerous24h", earthquakeRepository.countEarthquakesSince(last24h, 5.0));
-        stats.put("catastrophic7days", earthquakeRepository.countEarthquakesSince(last7days, 7.0));
-        stats.put("tsunamiWarnings24h", earthquakeRepository.countTsunamiWarnings(last24h));
+        stats.put("totalEarthquakes", snapshot.total());
+        stats.put("last24Hours", snapshot.last24Hours());
+        stats.put("last7Days", snapshot.last7Days());
+        stats.put("dangerous24h", snapshot.dangerous24h());
+        stats.put("catastrophic7days", snapshot.catastrophic7days());
+        stats.put("tsunamiWarnings24h", snapshot.tsunamiWarnings24h());
         stats.put("timestamp", Instant.now());
+        stats.put("reconciledAt", snapshot.reconciledAt());
         
-        earthquakeRepository.findFirstByOrderByEventTimeDesc().ifPresent(latest -> {
+        EarthquakeMetric latest = snapshot.latest();
+        if (latest != null) {
             stats.put("latestEarthquake", Map.of(
                     "earthquakeId", latest.getEarthquakeId(),
                     "magnitude", latest.getMagnitude(),
@@ -250,9 +283,9 @@ public class EarthquakeController {
                     "eventTime", latest.getEventTime(),
                     "severity", latest.getSeverity()
             ));
-        });
+        }
         
-        log.info("Retrieved earthquake statistics");
+        log.debug("Retrieved earthquake statistics");
         return ResponseEntity.ok(stats);
     }
 
@@ -260,12 +293,15 @@ public class EarthquakeController {
      * Get high tsunami risk earthquakes
      */
     @GetMapping("/tsunami-risk/high")
-    public ResponseEntity<List<Map<String, Object>>> getHighTsunamiRiskEarthquakes() {
-        List<EarthquakeMetric> allEarthquakes = earthquakeRepository
-                .findRecentEarthquakes(Instant.now().minus(30, ChronoUnit.DAYS));
+    public ResponseEntity<List<Map<String, Object>>> getHighTsunamiRiskEarthquakes(
+            @RequestParam(defaultValue = "50") int minScore,
+            @RequestParam(defaultValue = "0") int page,
+            @RequestParam(defaultValue = DEFAULT_PAGE_SIZE) int size) {
+        List<EarthquakeMetric> highRisk = earthquakeRepository
+                .findByTsunamiRiskScoreGreaterThanEqualAndEventTimeGreaterThanEqualOrderByEventTimeDesc(
+                        minScore, Instant.now().minus(30, ChronoUnit.DAYS), pageOf(page, size));
         
-        List<Map<String, Object>> highRiskEarthquakes = allEarthquakes.stream()
-                .filter(eq -> eq.getTsunamiRiskScore() >= 50)
+        List<Map<String, Object>> highRiskEarthquakes = highRisk.stream()
                 .map(eq -> Map.of(
                         "earthquakeId", (Object) eq.getEarthquakeId(),
                         "magnitude", eq.getMagnitude(),
@@ -279,4 +315,8 @@ public class EarthquakeController {
         log.info("Retrieved {} high tsunami risk earthquakes", highRiskEarthquakes.size());
         return ResponseEntity.ok(highRiskEarthquakes);
     }
+
+    private static Pageable pageOf(int page, int size) {
+        return PageRequest.of(Math.max(0, page), Math.min(Math.max(1, size), MAX_PAGE_SIZE));
+    }
 }
@@ -1,10 +1,15 @@
 package com.aiscientist.data_collector.controller;
 
+import com.aiscientist.data_collector.config.AppConfig;
+import com.aiscientist.data_collector.dto.WaterLevelHistoryResponse;
 import com.aiscientist.data_collector.model.WaterLevelMetric;
+import com.aiscientist.data_collector.model.WaterLevelRollup;
 import com.aiscientist.data_collector.repository.WaterLevelMetricRepository;
 import com.aiscientist.data_collector.service.NoaaTidesApiService;
+import com.aiscientist.data_collector.service.StationStateService;
 import com.aiscientist.data_collector.service.UsgsWaterApiService;
 import com.aiscientist.data_collector.service.WaterLevelCollectionService;
+import com.aiscientist.data_collector.service.WaterLevelRollupService;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.format.annotation.DateTimeFormat;
@@ -29,6 +34,9 @@ public class WaterLevelController {
     private final WaterLevelCollectionService waterLevelCollectionService;
     private final NoaaTidesApiService noaaTidesApiService;
     private final UsgsWaterApiService usgsWaterApiService;
+    private final WaterLevelRollupService rollupService;
+    private final StationStateService stationStateService;
+    private final AppConfig appConfig;
 
     /**
      * Manual trigger to collect water level data from all sources
@@ -83,7 +91,7 @@ public class WaterLevelController {
     public ResponseEntity<List<WaterLevelMetric>> getFloodingStations() {
         log.info("Fetching all stations currently flooding");
         
-        List<WaterLevelMetric> flooding = waterLevelRepository.findCurrentlyFlooding();
+        List<WaterLevelMetric> flooding = stationStateService.findCurrentlyFlooding();
         
         return ResponseEntity.ok(flooding);
     }
@@ -117,6 +125,29 @@ public class WaterLevelController {
         return ResponseEntity.ok(history);
     }
 
+    /**
+     * Get water level history for a specific station as a series of at most
+     * maxPoints points: raw readings when they fit, otherwise the finest
+     * rollup resolution (15-minute, hourly, daily) that does; resolution
+     * forces one.
+     */
+    @GetMapping("/station/{stationId}/history/series")
+    public ResponseEntity<WaterLevelHistoryResponse> getWaterLevelHistorySeries(
+            @PathVariable String stationId,
+            @RequestParam(required = false, defaultValue = "24") int hours,
+            @RequestParam(required = false) Integer maxPoints,
+            @RequestParam(required = false) WaterLevelRollup.Resolution resolution) {
+        log.info("Fetching water level history series for station {} (last {} hours)", stationId, hours);
+        
+        AppConfig.RollupsConfig rollups = appConfig.getRollups();
+        int budget = Math.min(maxPoints != null ? Math.max(1, maxPoints) : rollups.getMaxPoints(),
+            rollups.getMaxPointsLimit());
+        Instant now = Instant.now();
+        Instant since = now.minus(hours, ChronoUnit.HOURS);
+        
+        return ResponseEntity.ok(rollupService.history(stationId, since, now, budget, resolution));
+    }
+
     /**
      * Get water levels by location type
      */
@@ -164,7 +195,7 @@ public class WaterLevelController {
         double minLon = longitude - radiusDegrees;
         double maxLon = longitude + radiusDegrees;
         
-        List<WaterLevelMetric> stations = waterLevelRepository
+        List<WaterLevelMetric> stations = stationStateService
             .findStationsInBoundingBox(minLat, maxLat, minLon, maxLon);
         
         return ResponseEntity.ok(stations);
@@ -178,8 +209,8 @@ public class WaterLevelController {
         log.info("Fetching water level monitoring statistics");
         
         Instant last30Min = Instant.now().minus(30, ChronoUnit.MINUTES);
-        long activeStations = waterLevelRepository.countActiveStationsSince(last30Min);
-        long floodingCount = waterLevelRepository.findCurrentlyFlooding().size();
+        long activeStations = stationStateService.countActiveStationsSince(last30Min);
+        long floodingCount = stationStateService.countCurrentlyFlooding();
         
         return ResponseEntity.ok(Map.of(
             "activeStations", activeStations,
@@ -0,0 +1,46 @@
+package com.aiscientist.data_collector.dto;
+
+import java.time.Instant;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class SolarFlareEvent {
+    
+    @JsonProperty("flr_id")
+    private String flrId;
+    
+    @JsonProperty("begin_time")
+    private Instant beginTime;
+    
+    @JsonProperty("peak_time")
+    private Instant peakTime;
+    
+    @JsonProperty("end_time")
+    private Instant endTime;
+    
+    @JsonProperty("class_type")
+    private String classType; // e.g. "M1.2", "X2.0"
+    
+    @JsonProperty("source_location")
+    private String sourceLocation;
+    
+    @JsonProperty("active_region_num")
+    private Integer activeRegionNum;
+    
+    private String link;
+    
+    private String source;
+    private Instant timestamp;
+    
+    @JsonProperty("raw_data")
+    private String rawData;
+}
@@ -0,0 +1,52 @@
+package com.aiscientist.data_collector.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.Instant;
+import java.util.List;
+
+/**
+ * Water level history of one station, either raw readings or rollup
+ * buckets depending on the range and point budget
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class WaterLevelHistoryResponse {
+
+    private String stationId;
+    private String resolution; // RAW, MINUTES_15, HOURLY or DAILY
+    private Instant start;
+    private Instant end;
+    private List<Point> points; // Oldest first
+
+    @Data
+    @Builder
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Point {
+        private Instant timestamp; // Reading time, or bucket start
+        private int samples;
+        private Series waterLevelFeet;
+        private Series gageHeightFeet;
+        private Series dischargeCfs;
+    }
+
+    /**
+     * Aggregates of one measurement; all equal for a raw reading
+     */
+    @Data
+    @Builder
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Series {
+        private Double avg;
+        private Double min;
+        private Double max;
+        private Double last;
+    }
+}
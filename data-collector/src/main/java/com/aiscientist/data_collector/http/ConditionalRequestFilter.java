@@ -0,0 +1,185 @@
+package com.aiscientist.data_collector.http;
+
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferUtils;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.reactive.function.client.ClientRequest;
+import org.springframework.web.reactive.function.client.ClientResponse;
+import org.springframework.web.reactive.function.client.ExchangeFilterFunction;
+import org.springframework.web.reactive.function.client.ExchangeFunction;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.util.context.ContextView;
+
+/**
+ * Conditional GETs against one upstream source.
+ *
+ * Remembers ETag / Last-Modified and a SHA-256 of the body per request,
+ * sends If-None-Match / If-Modified-Since on the next poll, and turns both an
+ * upstream 304 and a 200 with an identical body into an empty 304 response.
+ * {@code retrieve().bodyToMono(..)} then completes empty, so nothing is
+ * parsed, saved or published for unchanged data.
+ *
+ * Requests are keyed by URL. Callers whose URL changes on every poll (e.g. a
+ * sliding start time) can set {@link #CACHE_KEY_ATTRIBUTE} to a stable key;
+ * validators are then only sent when the URL matches too, but the content
+ * hash still applies. Entries expire after max-age so data is re-processed
+ * from time to time even if the upstream never changes. Within a collection
+ * run, entries are only cached once the run has succeeded, see
+ * ResponseCacheScope.
+ */
+@Slf4j
+public class ConditionalRequestFilter implements ExchangeFilterFunction {
+
+    /** Request attribute overriding the URL as the cache key */
+    public static final String CACHE_KEY_ATTRIBUTE = ConditionalRequestFilter.class.getName() + ".cacheKey";
+
+    private final String source;
+    private final int maxEntries;
+    private final Duration maxAge;
+    private final int maxBodySize;
+    private final MeterRegistry meterRegistry;
+    private final Map<String, Entry> entries;
+
+    private record Entry(String url, String etag, String lastModified, byte[] contentHash, Instant storedAt) {
+    }
+
+    public ConditionalRequestFilter(String source, int maxEntries, Duration maxAge, int maxBodySize,
+                                    MeterRegistry meterRegistry) {
+        this.source = source;
+        this.maxEntries = maxEntries;
+        this.maxAge = maxAge;
+        this.maxBodySize = maxBodySize;
+        this.meterRegistry = meterRegistry;
+        this.entries = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, Entry> eldest) {
+                return size() > ConditionalRequestFilter.this.maxEntries;
+            }
+        };
+    }
+
+    @Override
+    public Mono<ClientResponse> filter(ClientRequest request, ExchangeFunction next) {
+        if (!HttpMethod.GET.equals(request.method())) {
+            return next.exchange(request);
+        }
+
+        String url = request.url().toString();
+        String key = request.attribute(CACHE_KEY_ATTRIBUTE).map(String::valueOf).orElse(url);
+        Entry cached = lookup(key);
+
+        ClientRequest conditional = cached == null || !cached.url().equals(url)
+                ? request
+                : ClientRequest.from(request)
+                        .headers(headers -> {
+                            if (cached.etag() != null) {
+                                headers.setIfNoneMatch(cached.etag());
+                            }
+                            if (cached.lastModified() != null) {
+                                headers.set(HttpHeaders.IF_MODIFIED_SINCE, cached.lastModified());
+                            }
+                        })
+                        .build();
+
+        return next.exchange(conditional).flatMap(response -> {
+            if (response.statusCode().value() == HttpStatus.NOT_MODIFIED.value()) {
+                record("not_modified");
+                log.debug("{} not modified: {}", source, key);
+                return Mono.just(response);
+            }
+            if (!response.statusCode().is2xxSuccessful()) {
+                return Mono.just(response);
+            }
+
+            return Mono.deferContextual(context -> DataBufferUtils
+                    .join(response.bodyToFlux(DataBuffer.class), maxBodySize)
+                    .map(body -> {
+                        byte[] hash = sha256(body);
+                        if (cached != null && Arrays.equals(cached.contentHash(), hash)) {
+                            DataBufferUtils.release(body);
+                            record("unchanged");
+                            log.debug("{} content unchanged: {}", source, key);
+                            return notModified(response);
+                        }
+
+                        HttpHeaders headers = response.headers().asHttpHeaders();
+                        storeAfterRun(context, key, new Entry(url, headers.getETag(),
+                                headers.getFirst(HttpHeaders.LAST_MODIFIED), hash, Instant.now()));
+                        record("changed");
+                        return response.mutate().body(Flux.just(body)).build();
+                    })
+                    // Empty body: nothing to compare
+                    .defaultIfEmpty(response));
+        });
+    }
+
+    private ClientResponse notModified(ClientResponse response) {
+        return response.mutate()
+                .statusCode(HttpStatus.NOT_MODIFIED)
+                .body(Flux.empty())
+                .build();
+    }
+
+    private Entry lookup(String key) {
+        synchronized (entries) {
+            Entry entry = entries.get(key);
+            if (entry != null && entry.storedAt().plus(maxAge).isBefore(Instant.now())) {
+                entries.remove(key);
+                return null;
+            }
+            return entry;
+        }
+    }
+
+    /**
+     * Cache an entry once the run that fetched it succeeded (see
+     * ResponseCacheScope), or right away for requests outside a run
+     */
+    private void storeAfterRun(ContextView context, String key, Entry entry) {
+        Optional<ResponseCacheScope> scope = context.getOrEmpty(ResponseCacheScope.CONTEXT_KEY);
+        if (scope.isPresent()) {
+            scope.get().defer(() -> store(key, entry));
+        } else {
+            store(key, entry);
+        }
+    }
+
+    private void store(String key, Entry entry) {
+        synchronized (entries) {
+            entries.put(key, entry);
+        }
+    }
+
+    private static byte[] sha256(DataBuffer body) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            try (DataBuffer.ByteBufferIterator buffers = body.readableByteBuffers()) {
+                while (buffers.hasNext()) {
+                    digest.update(buffers.next());
+                }
+            }
+            return digest.digest();
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+
+    private void record(String result) {
+        meterRegistry.counter("collector.http.cache", "source", source, "result", result).increment();
+    }
+}
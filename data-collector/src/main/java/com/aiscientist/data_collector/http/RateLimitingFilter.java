@@ -0,0 +1,106 @@
+package com.aiscientist.data_collector.http;
+
+import java.time.Duration;
+import java.time.ZonedDateTime;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.HttpStatusCode;
+import org.springframework.web.reactive.function.client.ClientRequest;
+import org.springframework.web.reactive.function.client.ClientResponse;
+import org.springframework.web.reactive.function.client.ExchangeFilterFunction;
+import org.springframework.web.reactive.function.client.ExchangeFunction;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import reactor.core.publisher.Mono;
+
+/**
+ * Paces requests to one upstream through its token bucket and honours
+ * HTTP 429 / 503 Retry-After by pausing the bucket for every caller of
+ * that upstream before retrying.
+ */
+@Slf4j
+public class RateLimitingFilter implements ExchangeFilterFunction {
+
+    private static final Duration DEFAULT_THROTTLE_PAUSE = Duration.ofSeconds(5);
+    private static final Duration MAX_THROTTLE_PAUSE = Duration.ofMinutes(5);
+
+    private final String source;
+    private final TokenBucketRateLimiter rateLimiter;
+    private final int maxThrottleRetries;
+    private final Counter throttledCounter;
+
+    public RateLimitingFilter(String source, TokenBucketRateLimiter rateLimiter,
+                              int maxThrottleRetries, MeterRegistry meterRegistry) {
+        this.source = source;
+        this.rateLimiter = rateLimiter;
+        this.maxThrottleRetries = maxThrottleRetries;
+        this.throttledCounter = Counter.builder("collector.upstream.throttled")
+                .description("Upstream responses asking us to back off (429/503)")
+                .tag("source", source)
+                .register(meterRegistry);
+    }
+
+    @Override
+    public Mono<ClientResponse> filter(ClientRequest request, ExchangeFunction next) {
+        return exchange(request, next, 0);
+    }
+
+    private Mono<ClientResponse> exchange(ClientRequest request, ExchangeFunction next, int attempt) {
+        return rateLimiter.acquire()
+                .then(Mono.defer(() -> next.exchange(request)))
+                .flatMap(response -> {
+                    if (!isThrottled(response.statusCode())) {
+                        return Mono.just(response);
+                    }
+
+                    Duration pause = retryAfter(response.headers().asHttpHeaders());
+                    rateLimiter.pauseFor(pause);
+                    throttledCounter.increment();
+                    log.warn("{} throttled request (status {}), pausing for {}s (attempt {}/{})",
+                            source, response.statusCode().value(), pause.toSeconds(),
+                            attempt + 1, maxThrottleRetries);
+
+                    if (attempt >= maxThrottleRetries) {
+                        return Mono.just(response);
+                    }
+                    return response.releaseBody().then(exchange(request, next, attempt + 1));
+                });
+    }
+
+    private boolean isThrottled(HttpStatusCode status) {
+        return status.value() == HttpStatus.TOO_MANY_REQUESTS.value()
+                || status.value() == HttpStatus.SERVICE_UNAVAILABLE.value();
+    }
+
+    /**
+     * Parse Retry-After as either delta-seconds or an HTTP date
+     */
+    static Duration retryAfter(HttpHeaders headers) {
+        String value = headers.getFirst(HttpHeaders.RETRY_AFTER);
+        if (value == null || value.isBlank()) {
+            return DEFAULT_THROTTLE_PAUSE;
+        }
+
+        Duration pause;
+        try {
+            pause = Duration.ofSeconds(Long.parseLong(value.trim()));
+        } catch (NumberFormatException e) {
+            try {
+                ZonedDateTime until = ZonedDateTime.parse(value.trim(), DateTimeFormatter.RFC_1123_DATE_TIME);
+                pause = Duration.between(ZonedDateTime.now(until.getZone()), until);
+            } catch (DateTimeParseException ex) {
+                return DEFAULT_THROTTLE_PAUSE;
+            }
+        }
+
+        if (pause.isNegative()) {
+            return Duration.ZERO;
+        }
+        return pause.compareTo(MAX_THROTTLE_PAUSE) > 0 ? MAX_THROTTLE_PAUSE : pause;
+    }
+}
@@ -0,0 +1,63 @@
+package com.aiscientist.data_collector.http;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import reactor.util.context.ContextView;
+
+/**
+ * Response cache entries of one collection run, held back until the run has
+ * saved and published what the responses contained.
+ *
+ * CollectionRunCoordinator puts a scope into the Reactor context of each run.
+ * ConditionalRequestFilter adds the content hashes of changed responses to
+ * it instead of caching them right away, and the save and publish steps mark
+ * it failed when they drop data. The entries are cached only if the run
+ * succeeds without such a failure; otherwise the next run fetches and
+ * processes the same responses again instead of taking them as unchanged.
+ */
+public final class ResponseCacheScope {
+
+    /** Context key of the current run's scope */
+    public static final Class<ResponseCacheScope> CONTEXT_KEY = ResponseCacheScope.class;
+
+    private final List<Runnable> pending = new ArrayList<>();
+    private boolean failed;
+
+    /**
+     * Mark the scope of the run in this context failed, if there is one
+     */
+    public static void fail(ContextView context) {
+        context.<ResponseCacheScope>getOrEmpty(CONTEXT_KEY).ifPresent(ResponseCacheScope::fail);
+    }
+
+    public synchronized void fail() {
+        failed = true;
+    }
+
+    /**
+     * Cache the entries if nothing failed, otherwise drop them
+     *
+     * @return Whether the entries were cached
+     */
+    public boolean commit() {
+        List<Runnable> stores;
+        synchronized (this) {
+            stores = failed ? null : List.copyOf(pending);
+            pending.clear();
+        }
+        if (stores == null) {
+            return false;
+        }
+        stores.forEach(Runnable::run);
+        return true;
+    }
+
+    public synchronized void discard() {
+        pending.clear();
+    }
+
+    synchronized void defer(Runnable store) {
+        pending.add(store);
+    }
+}
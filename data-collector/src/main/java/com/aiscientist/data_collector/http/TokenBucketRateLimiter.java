@@ -0,0 +1,87 @@
+package com.aiscientist.data_collector.http;
+
+import java.time.Duration;
+import java.util.function.LongSupplier;
+
+import reactor.core.publisher.Mono;
+
+/**
+ * Token bucket limiting the request rate to one upstream host.
+ *
+ * Callers reserve a permit up front and are told how long to wait before
+ * using it, so concurrent callers are spaced out at the configured rate
+ * instead of all firing at once. Tokens accumulate up to {@code burst}
+ * while the upstream is idle. {@link #pauseFor(Duration)} drains the bucket
+ * and stops refilling until the pause ends, which is how HTTP 429
+ * Retry-After responses are honoured.
+ */
+public class TokenBucketRateLimiter {
+
+    private static final double NANOS_PER_SECOND = 1_000_000_000d;
+
+    private final double permitsPerNano;
+    private final double burst;
+    private final LongSupplier nanoClock;
+
+    private double availableTokens;
+    private long lastRefillNanos;
+
+    public TokenBucketRateLimiter(double permitsPerSecond, int burst) {
+        this(permitsPerSecond, burst, System::nanoTime);
+    }
+
+    TokenBucketRateLimiter(double permitsPerSecond, int burst, LongSupplier nanoClock) {
+        if (permitsPerSecond <= 0 || burst < 1) {
+            throw new IllegalArgumentException("permitsPerSecond must be > 0 and burst >= 1");
+        }
+        this.permitsPerNano = permitsPerSecond / NANOS_PER_SECOND;
+        this.burst = burst;
+        this.nanoClock = nanoClock;
+        this.availableTokens = burst;
+        this.lastRefillNanos = nanoClock.getAsLong();
+    }
+
+    /**
+     * Wait (without blocking a thread) until a permit is available
+     */
+    public Mono<Void> acquire() {
+        return Mono.defer(() -> {
+            Duration wait = reserve();
+            return wait.isZero() ? Mono.empty() : Mono.delay(wait).then();
+        });
+    }
+
+    /**
+     * Take one permit, possibly going into debt, and return how long the
+     * caller has to wait before the permit becomes valid.
+     */
+    public synchronized Duration reserve() {
+        long now = nanoClock.getAsLong();
+        refill(now);
+        availableTokens -= 1;
+
+        long waitNanos = Math.max(0, lastRefillNanos - now);
+        if (availableTokens < 0) {
+            waitNanos += (long) Math.ceil(-availableTokens / permitsPerNano);
+        }
+        return Duration.ofNanos(waitNanos);
+    }
+
+    /**
+     * Stop handing out permits for the given duration (e.g. HTTP Retry-After)
+     */
+    public synchronized void pauseFor(Duration pause) {
+        long now = nanoClock.getAsLong();
+        refill(now);
+        availableTokens = Math.min(availableTokens, 0);
+        lastRefillNanos = Math.max(lastRefillNanos, now + pause.toNanos());
+    }
+
+    private void refill(long now) {
+        if (now <= lastRefillNanos) {
+            return; // paused, or no time elapsed
+        }
+        availableTokens = Math.min(burst, availableTokens + (now - lastRefillNanos) * permitsPerNano);
+        lastRefillNanos = now;
+    }
+}
@@ -0,0 +1,75 @@
+package com.aiscientist.data_collector.http;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.springframework.web.reactive.function.client.ClientRequest;
+import org.springframework.web.reactive.function.client.ClientResponse;
+import org.springframework.web.reactive.function.client.ExchangeFilterFunction;
+import org.springframework.web.reactive.function.client.ExchangeFunction;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+/**
+ * Records per-source latency and response size for upstream API calls.
+ *
+ * Latency is measured up to the response headers; size is the decoded body
+ * (after gzip/deflate), recorded once the body has been fully consumed.
+ * Outer filters may rebuild the body (the conditional-request cache does),
+ * which runs it through this filter again, so only the first complete read
+ * of a response is recorded.
+ * Wire-level bytes are exported separately by the Reactor Netty client metrics.
+ */
+public class UpstreamMetricsFilter implements ExchangeFilterFunction {
+
+    private final String source;
+    private final MeterRegistry meterRegistry;
+    private final DistributionSummary responseSize;
+
+    public UpstreamMetricsFilter(String source, MeterRegistry meterRegistry) {
+        this.source = source;
+        this.meterRegistry = meterRegistry;
+        this.responseSize = DistributionSummary.builder("collector.upstream.response.size")
+                .description("Decoded response body size of upstream API calls")
+                .baseUnit("bytes")
+                .tag("source", source)
+                .register(meterRegistry);
+    }
+
+    @Override
+    public Mono<ClientResponse> filter(ClientRequest request, ExchangeFunction next) {
+        long start = System.nanoTime();
+        return next.exchange(request)
+                .doOnError(error -> recordLatency(start, "IO_ERROR"))
+                .map(response -> {
+                    recordLatency(start, String.valueOf(response.statusCode().value()));
+                    AtomicBoolean recorded = new AtomicBoolean();
+                    return response.mutate()
+                            .body(body -> Flux.defer(() -> {
+                                AtomicLong bytes = new AtomicLong();
+                                return body
+                                        .doOnNext(buffer -> bytes.addAndGet(buffer.readableByteCount()))
+                                        .doOnComplete(() -> {
+                                            if (recorded.compareAndSet(false, true)) {
+                                                responseSize.record(bytes.get());
+                                            }
+                                        });
+                            }))
+                            .build();
+                });
+    }
+
+    private void recordLatency(long startNanos, String status) {
+        Timer.builder("collector.upstream.requests")
+                .description("Latency of upstream API calls until response headers")
+                .tag("source", source)
+                .tag("status", status)
+                .register(meterRegistry)
+                .record(System.nanoTime() - startNanos, TimeUnit.NANOSECONDS);
+    }
+}
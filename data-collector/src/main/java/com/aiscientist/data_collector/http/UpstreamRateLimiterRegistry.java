@@ -0,0 +1,36 @@
+package com.aiscientist.data_collector.http;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.springframework.stereotype.Component;
+
+import com.aiscientist.data_collector.config.AppConfig;
+
+import lombok.RequiredArgsConstructor;
+
+/**
+ * One token bucket per upstream source, shared by every client and caller
+ * of that source so the configured QPS holds across the whole collector.
+ */
+@Component
+@RequiredArgsConstructor
+public class UpstreamRateLimiterRegistry {
+
+    private final AppConfig appConfig;
+    private final Map<String, TokenBucketRateLimiter> limiters = new ConcurrentHashMap<>();
+
+    public TokenBucketRateLimiter limiterFor(String source) {
+        return limiters.computeIfAbsent(source, key -> {
+            AppConfig.HttpConfig.RateLimitConfig limit = appConfig.getHttp().rateLimitFor(key);
+            return new TokenBucketRateLimiter(limit.getPermitsPerSecond(), limit.getBurst());
+        });
+    }
+
+    /**
+     * Maximum number of in-flight requests a fan-out should issue to a source
+     */
+    public int maxConcurrency(String source) {
+        return Math.max(1, appConfig.getHttp().rateLimitFor(source).getMaxConcurrency());
+    }
+}
@@ -0,0 +1,17 @@
+package com.aiscientist.data_collector.http;
+
+/**
+ * Names of upstream sources, used as metric tags and as keys for the
+ * per-source settings under {@code app.http.rate-limits}.
+ */
+public final class UpstreamSource {
+
+    public static final String NASA_DONKI = "nasa-donki";
+    public static final String NOAA_SWPC = "noaa-swpc";
+    public static final String NOAA_TIDES = "noaa-tides";
+    public static final String USGS_WATER = "usgs-water";
+    public static final String USGS_EARTHQUAKE = "usgs-earthquake";
+
+    private UpstreamSource() {
+    }
+}
@@ -0,0 +1,67 @@
+package com.aiscientist.data_collector.http;
+
+import java.nio.file.Path;
+
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.client.reactive.ClientHttpConnector;
+import org.springframework.stereotype.Component;
+import org.springframework.web.reactive.function.client.WebClient;
+
+import com.aiscientist.data_collector.config.AppConfig;
+import com.aiscientist.data_collector.stub.FixtureRecordingFilter;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.RequiredArgsConstructor;
+
+/**
+ * Builds WebClients for upstream data sources on top of the shared, pooled
+ * HTTP connector, so every source gets the same timeouts, compression,
+ * buffer limits, per-source rate limit, conditional-request cache and
+ * per-source metrics.
+ */
+@Component
+@RequiredArgsConstructor
+public class UpstreamWebClientFactory {
+
+    private final WebClient.Builder webClientBuilder;
+    private final ClientHttpConnector upstreamHttpConnector;
+    private final MeterRegistry meterRegistry;
+    private final AppConfig appConfig;
+    private final UpstreamRateLimiterRegistry rateLimiterRegistry;
+
+    /**
+     * Create a client for one upstream source
+     *
+     * @param source Source name used as the metrics tag (e.g. "noaa-tides")
+     * @param baseUrl Base URL of the upstream API
+     */
+    public WebClient create(String source, String baseUrl) {
+        AppConfig.HttpConfig http = appConfig.getHttp();
+        int maxInMemorySize = (int) http.getMaxResponseSize().toBytes();
+
+        WebClient.Builder builder = webClientBuilder.clone()
+                .baseUrl(baseUrl)
+                .clientConnector(upstreamHttpConnector)
+                .codecs(codecs -> codecs.defaultCodecs().maxInMemorySize(maxInMemorySize))
+                // Accept-Encoding is left to the connector: it only asks for gzip when it also decompresses
+                .defaultHeader(HttpHeaders.ACCEPT, MediaType.APPLICATION_JSON_VALUE)
+                // Outermost: wait for a permit before the exchange is timed
+                .filter(new RateLimitingFilter(source, rateLimiterRegistry.limiterFor(source),
+                        http.getMaxThrottleRetries(), meterRegistry));
+
+        AppConfig.HttpConfig.ResponseCacheConfig cache = http.getResponseCache();
+        if (cache.isEnabled()) {
+            builder.filter(new ConditionalRequestFilter(source, cache.getMaxEntriesPerSource(),
+                    cache.getMaxAge(), maxInMemorySize, meterRegistry));
+        }
+
+        builder.filter(new UpstreamMetricsFilter(source, meterRegistry));
+
+        String recordDir = appConfig.getStub().getRecordDir();
+        if (recordDir != null && !recordDir.isBlank()) {
+            builder.filter(new FixtureRecordingFilter(source, Path.of(recordDir), maxInMemorySize));
+        }
+        return builder.build();
+    }
+}
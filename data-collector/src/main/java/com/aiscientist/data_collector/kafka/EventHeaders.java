@@ -0,0 +1,79 @@
+package com.aiscientist.data_collector.kafka;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+
+import org.apache.kafka.common.header.Headers;
+import org.apache.kafka.common.header.internals.RecordHeaders;
+
+import com.aiscientist.data_collector.dto.CMEEvent;
+import com.aiscientist.data_collector.dto.EarthquakeEvent;
+import com.aiscientist.data_collector.dto.KpIndexEvent;
+import com.aiscientist.data_collector.dto.SolarFlareEvent;
+import com.aiscientist.data_collector.dto.WaterLevelEvent;
+
+/**
+ * Classification headers stamped on outgoing events, so consumers can drop
+ * or route records without deserializing the JSON payload. Values are UTF-8
+ * strings; a header is left out when the event has no value for it.
+ */
+public final class EventHeaders {
+
+    /** Upstream source id, e.g. "us" for USGS earthquakes */
+    public static final String SOURCE = "x-source";
+    /** Event time in epoch milliseconds */
+    public static final String EVENT_TIME = "x-event-time";
+    /** Magnitude rounded down to a half unit, e.g. "4.5" for M4.5 to M4.9 */
+    public static final String MAGNITUDE_BAND = "x-magnitude-band";
+    /** Kp index of the sample */
+    public static final String KP = "x-kp";
+    /** Flood severity of a flooding station, "NONE" when not flooding */
+    public static final String FLOOD_SEVERITY = "x-flood-severity";
+
+    private EventHeaders() {
+    }
+
+    public static Headers earthquake(EarthquakeEvent event) {
+        Headers headers = headers(event.getDataSource(), event.getEventTime());
+        add(headers, MAGNITUDE_BAND, magnitudeBand(event.getMagnitude()));
+        return headers;
+    }
+
+    public static Headers kpIndex(KpIndexEvent event) {
+        Headers headers = headers(event.getSource(), event.getTimestamp());
+        add(headers, KP, event.getKpIndex() != null ? String.valueOf(event.getKpIndex()) : null);
+        return headers;
+    }
+
+    public static Headers waterLevel(WaterLevelEvent event) {
+        Headers headers = headers(event.getSource(), event.getTimestamp());
+        add(headers, FLOOD_SEVERITY, !event.isFlooding() ? "NONE"
+                : event.getFloodSeverity() != null ? event.getFloodSeverity() : "UNKNOWN");
+        return headers;
+    }
+
+    public static Headers cme(CMEEvent event) {
+        return headers(event.getSource(), event.getTimestamp());
+    }
+
+    public static Headers solarFlare(SolarFlareEvent event) {
+        return headers(event.getSource(), event.getPeakTime() != null ? event.getPeakTime() : event.getBeginTime());
+    }
+
+    static String magnitudeBand(Double magnitude) {
+        return magnitude != null ? String.valueOf(Math.floor(magnitude * 2) / 2) : null;
+    }
+
+    private static Headers headers(String source, Instant eventTime) {
+        Headers headers = new RecordHeaders();
+        add(headers, SOURCE, source);
+        add(headers, EVENT_TIME, eventTime != null ? String.valueOf(eventTime.toEpochMilli()) : null);
+        return headers;
+    }
+
+    private static void add(Headers headers, String key, String value) {
+        if (value != null) {
+            headers.add(key, value.getBytes(StandardCharsets.UTF_8));
+        }
+    }
+}
@@ -2,6 +2,7 @@ package com.aiscientist.data_collector.kafka;
 
 import java.util.concurrent.CompletableFuture;
 
+import org.apache.kafka.clients.producer.ProducerRecord;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.kafka.core.KafkaTemplate;
 import org.springframework.kafka.support.SendResult;
@@ -10,6 +11,7 @@ import org.springframework.stereotype.Component;
 import com.aiscientist.data_collector.dto.CMEEvent;
 import com.aiscientist.data_collector.dto.EarthquakeEvent;
 import com.aiscientist.data_collector.dto.KpIndexEvent;
+import com.aiscientist.data_collector.dto.SolarFlareEvent;
 import com.aiscientist.data_collector.dto.WaterLevelEvent;
 
 import lombok.RequiredArgsConstructor;
@@ -20,6 +22,12 @@ import lombok.extern.slf4j.Slf4j;
 @Slf4j
 public class SpaceWeatherProducer {
 
+    /**
+     * Kp is one global index, so all samples share a key: one partition keeps
+     * them in time order for the alert-engine's storm open/close tracking
+     */
+    public static final String KP_INDEX_KEY = "kp";
+
     private final KafkaTemplate<String, Object> kafkaTemplate;
     
     @Value("${app.kafka.topics.raw-space-weather-kp}")
@@ -27,16 +35,19 @@ public class SpaceWeatherProducer {
     
     @Value("${app.kafka.topics.raw-space-weather-cme}")
     private String cmeTopic;
+    
+    @Value("${app.kafka.topics.raw-space-weather-solar-flare}")
+    private String solarFlareTopic;
 
-    public void sendKpIndexEvent(KpIndexEvent event) {
+    public CompletableFuture<SendResult<String, Object>> sendKpIndexEvent(KpIndexEvent event) {
         log.debug("Publishing Kp index event to topic: {}", kpIndexTopic);
         
         CompletableFuture<SendResult<String, Object>> future = 
-            kafkaTemplate.send(kpIndexTopic, event.getTimeTag(), event);
+            kafkaTemplate.send(new ProducerRecord<>(kpIndexTopic, null, KP_INDEX_KEY, event, EventHeaders.kpIndex(event)));
         
         future.whenComplete((result, ex) -> {
             if (ex == null) {
-                log.info("Kp index event published successfully: topic={}, offset={}, key={}", 
+                log.info("Kp index event published successfully: topic={}, offset={}, timeTag={}", 
                          kpIndexTopic, 
                          result.getRecordMetadata().offset(),
                          event.getTimeTag());
@@ -44,13 +55,14 @@ public class SpaceWeatherProducer {
                 log.error("Failed to publish Kp index event: {}", event, ex);
             }
         });
+        return future;
     }
 
-    public void sendCMEEvent(CMEEvent event) {
+    public CompletableFuture<SendResult<String, Object>> sendCMEEvent(CMEEvent event) {
         log.debug("Publishing CME event to topic: {}", cmeTopic);
         
         CompletableFuture<SendResult<String, Object>> future = 
-            kafkaTemplate.send(cmeTopic, event.getActivityId(), event);
+            kafkaTemplate.send(new ProducerRecord<>(cmeTopic, null, event.getActivityId(), event, EventHeaders.cme(event)));
         
         future.whenComplete((result, ex) -> {
             if (ex == null) {
@@ -62,13 +74,34 @@ public class SpaceWeatherProducer {
                 log.error("Failed to publish CME event: {}", event, ex);
             }
         });
+        return future;
+    }
+
+    public CompletableFuture<SendResult<String, Object>> sendSolarFlareEvent(SolarFlareEvent event) {
+        log.debug("Publishing solar flare event to topic: {}", solarFlareTopic);
+        
+        CompletableFuture<SendResult<String, Object>> future = 
+            kafkaTemplate.send(new ProducerRecord<>(solarFlareTopic, null, event.getFlrId(), event, EventHeaders.solarFlare(event)));
+        
+        future.whenComplete((result, ex) -> {
+            if (ex == null) {
+                log.info("Solar flare event published successfully: topic={}, offset={}, key={}, class={}", 
+                         solarFlareTopic, 
+                         result.getRecordMetadata().offset(),
+                         event.getFlrId(),
+                         event.getClassType());
+            } else {
+                log.error("Failed to publish solar flare event: {}", event, ex);
+            }
+        });
+        return future;
     }
 
-    public void sendWaterLevelEvent(String topic, WaterLevelEvent event) {
+    public CompletableFuture<SendResult<String, Object>> sendWaterLevelEvent(String topic, WaterLevelEvent event) {
         log.debug("Publishing water level event to topic: {}", topic);
         
         CompletableFuture<SendResult<String, Object>> future = 
-            kafkaTemplate.send(topic, event.getStationId(), event);
+            kafkaTemplate.send(new ProducerRecord<>(topic, null, event.getStationId(), event, EventHeaders.waterLevel(event)));
         
         future.whenComplete((result, ex) -> {
             if (ex == null) {
@@ -81,13 +114,14 @@ public class SpaceWeatherProducer {
                 log.error("Failed to publish water level event: {}", event, ex);
             }
         });
+        return future;
     }
 
-    public void sendEarthquakeEvent(String topic, EarthquakeEvent event) {
+    public CompletableFuture<SendResult<String, Object>> sendEarthquakeEvent(String topic, EarthquakeEvent event) {
         log.debug("Publishing earthquake event to topic: {}", topic);
         
         CompletableFuture<SendResult<String, Object>> future = 
-            kafkaTemplate.send(topic, event.getEarthquakeId(), event);
+            kafkaTemplate.send(new ProducerRecord<>(topic, null, event.getEarthquakeId(), event, EventHeaders.earthquake(event)));
         
         future.whenComplete((result, ex) -> {
             if (ex == null) {
@@ -101,5 +135,6 @@ public class SpaceWeatherProducer {
                 log.error("Failed to publish earthquake event: {}", event, ex);
             }
         });
+        return future;
     }
 }
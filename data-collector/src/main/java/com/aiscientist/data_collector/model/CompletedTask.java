@@ -0,0 +1,29 @@
+package com.aiscientist.data_collector.model;
+
+import java.time.Instant;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * One-off maintenance task (such as a backfill) that ran to completion and
+ * must not run again
+ */
+@Entity
+@Table(name = "completed_tasks")
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class CompletedTask {
+
+    @Id
+    @Column(name = "name", length = 100)
+    private String name;
+
+    @Column(name = "completed_at", nullable = false)
+    private Instant completedAt;
+}
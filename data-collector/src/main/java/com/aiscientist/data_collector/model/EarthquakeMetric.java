@@ -1,10 +1,13 @@
 package com.aiscientist.data_collector.model;
 
 import jakarta.persistence.*;
+import lombok.AccessLevel;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
+import lombok.Getter;
 import lombok.NoArgsConstructor;
+import lombok.Setter;
 
 import java.time.Instant;
 
@@ -17,7 +20,11 @@ import java.time.Instant;
     @Index(name = "idx_earthquake_id", columnList = "earthquake_id", unique = true),
     @Index(name = "idx_event_time", columnList = "event_time"),
     @Index(name = "idx_magnitude", columnList = "magnitude"),
-    @Index(name = "idx_tsunami_warning", columnList = "tsunami_warning")
+    @Index(name = "idx_tsunami_warning", columnList = "tsunami_warning"),
+    @Index(name = "idx_dangerous_event_time", columnList = "dangerous,event_time"),
+    @Index(name = "idx_shallow_event_time", columnList = "shallow,event_time"),
+    @Index(name = "idx_tsunami_risk_event_time", columnList = "tsunami_risk_score,event_time"),
+    @Index(name = "idx_region_event_time", columnList = "region_id,event_time")
 })
 @Data
 @Builder
@@ -85,6 +92,12 @@ public class EarthquakeMetric {
     @Column(name = "region")
     private String region;
 
+    /**
+     * Canonical region id (regions table), see RegionDictionary
+     */
+    @Column(name = "region_id")
+    private Integer regionId;
+
     /**
      * Whether this earthquake triggered a tsunami warning
      */
@@ -134,11 +147,48 @@ public class EarthquakeMetric {
     @Column(name = "collected_at")
     private Instant collectedAt;
 
+    /*
+     * Derived attributes, materialized on save so they can be filtered and
+     * indexed in the database. The getters below remain the source of truth.
+     */
+
+    @Column(name = "severity", length = 10)
+    @Getter(AccessLevel.NONE)
+    @Setter(AccessLevel.NONE)
+    private String severity;
+
+    @Column(name = "dangerous")
+    @Getter(AccessLevel.NONE)
+    @Setter(AccessLevel.NONE)
+    private Boolean dangerous;
+
+    @Column(name = "shallow")
+    @Getter(AccessLevel.NONE)
+    @Setter(AccessLevel.NONE)
+    private Boolean shallow;
+
+    @Column(name = "tsunami_risk_score")
+    @Getter(AccessLevel.NONE)
+    @Setter(AccessLevel.NONE)
+    private Integer tsunamiRiskScore;
+
     @PrePersist
     protected void onCreate() {
         if (collectedAt == null) {
             collectedAt = Instant.now();
         }
+        deriveAttributes();
+    }
+
+    /**
+     * Copy the computed severity, flags and tsunami risk into their columns
+     */
+    @PreUpdate
+    public void deriveAttributes() {
+        severity = getSeverity();
+        dangerous = isDangerous();
+        shallow = isShallow();
+        tsunamiRiskScore = getTsunamiRiskScore();
     }
 
     /**
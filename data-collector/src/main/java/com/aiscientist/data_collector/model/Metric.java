@@ -2,6 +2,8 @@ package com.aiscientist.data_collector.model;
 
 import java.time.Instant;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
+
 import jakarta.persistence.*;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
@@ -9,12 +11,14 @@ import lombok.Data;
 import lombok.NoArgsConstructor;
 
 @Entity
-@Table(name = "metrics")
+@Table(name = "metrics", indexes = {
+    @Index(name = "idx_metrics_source_key", columnList = "source_key", unique = true)
+})
 @Data
 @Builder
 @NoArgsConstructor
 @AllArgsConstructor
-public class Metric {
+public class Metric implements RawPayloadHolder {
 
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
@@ -38,8 +42,18 @@ public class Metric {
     @Column(name = "speed_kmh")
     private Integer speedKmh;
 
-    @Column(name = "raw_data", columnDefinition = "jsonb")
-    private String rawData;
+    @Column(name = "flare_class", length = 10)
+    private String flareClass;
+
+    @Column(name = "source_key", length = 100)
+    private String sourceKey; // Upstream record id for connector-fed metrics, e.g. DONKI flrID
+
+    @Column(name = "raw_payload_id", length = 64)
+    private String rawPayloadId; // SHA-256 key into raw_payloads
+
+    @Transient
+    @JsonIgnore
+    private String rawData; // Raw payload until saved, see RawPayloadStore
 
     @Column(name = "processed_at")
     private Instant processedAt;
@@ -0,0 +1,38 @@
+package com.aiscientist.data_collector.model;
+
+import java.time.Instant;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Raw upstream payload, gzip-compressed and addressed by the SHA-256 of its
+ * uncompressed content, so identical payloads are stored once
+ */
+@Entity
+@Table(name = "raw_payloads")
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class RawPayload {
+
+    @Id
+    @Column(name = "hash", length = 64)
+    private String hash; // SHA-256 hex of the uncompressed payload
+
+    @Column(name = "content", nullable = false)
+    private byte[] content; // gzip
+
+    @Column(name = "original_size", nullable = false)
+    private Integer originalSize;
+
+    @Column(name = "compressed_size", nullable = false)
+    private Integer compressedSize;
+
+    @Column(name = "created_at", nullable = false)
+    private Instant createdAt;
+}
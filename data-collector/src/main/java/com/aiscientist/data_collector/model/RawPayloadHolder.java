@@ -0,0 +1,13 @@
+package com.aiscientist.data_collector.model;
+
+/**
+ * Entity whose raw upstream payload is kept in the raw_payloads table and
+ * referenced by hash (see RawPayloadStore)
+ */
+public interface RawPayloadHolder {
+
+    /** Payload carried in memory until the entity is saved */
+    String getRawData();
+
+    void setRawPayloadId(String rawPayloadId);
+}
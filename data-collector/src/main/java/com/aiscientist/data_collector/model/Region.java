@@ -0,0 +1,33 @@
+package com.aiscientist.data_collector.model;
+
+import java.time.Instant;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Canonical earthquake region (country, US state, sea area), referenced by
+ * id from earthquake_metrics. Spellings seen in USGS place strings map to it
+ * through {@link RegionAlias}.
+ */
+@Entity
+@Table(name = "regions")
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class Region {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Integer id;
+
+    @Column(name = "canonical_name", nullable = false, unique = true, length = 255)
+    private String canonicalName; // e.g. "California"
+
+    @Column(name = "created_at", nullable = false)
+    private Instant createdAt;
+}
@@ -0,0 +1,29 @@
+package com.aiscientist.data_collector.model;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Normalized spelling of a region (lower case, single spaces), e.g. "ca"
+ * and "california" both pointing at the California region
+ */
+@Entity
+@Table(name = "region_aliases", indexes = {
+    @Index(name = "idx_region_alias_region", columnList = "region_id")
+})
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class RegionAlias {
+
+    @Id
+    @Column(name = "alias", length = 255)
+    private String alias;
+
+    @Column(name = "region_id", nullable = false)
+    private Integer regionId;
+}
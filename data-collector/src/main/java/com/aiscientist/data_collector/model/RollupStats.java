@@ -0,0 +1,49 @@
+package com.aiscientist.data_collector.model;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Embeddable;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Running min / max / sum / last of one measurement within a rollup bucket.
+ * Column names are prefixed per measurement by {@link WaterLevelRollup}.
+ */
+@Embeddable
+@Data
+@NoArgsConstructor
+public class RollupStats {
+
+    @Column(name = "count", nullable = false)
+    private int count;
+
+    @Column(name = "min")
+    private Double min;
+
+    @Column(name = "max")
+    private Double max;
+
+    @Column(name = "sum")
+    private Double sum;
+
+    @Column(name = "last")
+    private Double last;
+
+    /**
+     * Add a value that is newer than every value added so far; nulls are ignored
+     */
+    public void add(Double value) {
+        if (value == null) {
+            return;
+        }
+        count++;
+        min = min == null ? value : Math.min(min, value);
+        max = max == null ? value : Math.max(max, value);
+        sum = sum == null ? value : sum + value;
+        last = value;
+    }
+
+    public Double getAverage() {
+        return count == 0 ? null : sum / count;
+    }
+}
@@ -0,0 +1,80 @@
+package com.aiscientist.data_collector.model;
+
+import java.time.Instant;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Latest reading of each water level station and its flood severity,
+ * upserted on ingest so "current" queries don't aggregate the history table
+ */
+@Entity
+@Table(name = "station_current_state", indexes = {
+    @Index(name = "idx_state_flood_severity", columnList = "flood_severity"),
+    @Index(name = "idx_state_location", columnList = "latitude,longitude")
+})
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class StationCurrentState {
+
+    /** Severities counted as flooding (ACTION is a watch level, not a flood) */
+    public static final String[] FLOOD_SEVERITIES = {"MINOR", "MODERATE", "MAJOR"};
+
+    @Id
+    @Column(name = "station_id", length = 50)
+    private String stationId;
+
+    @ManyToOne(fetch = FetchType.LAZY, optional = false)
+    @JoinColumn(name = "latest_metric_id", nullable = false)
+    private WaterLevelMetric latestMetric;
+
+    @Column(nullable = false)
+    private Instant timestamp; // Of the latest reading
+
+    @Column(nullable = false, length = 20)
+    private String source;
+
+    @Column(name = "latitude")
+    private Double latitude;
+
+    @Column(name = "longitude")
+    private Double longitude;
+
+    @Column(name = "water_level_feet")
+    private Double waterLevelFeet;
+
+    @Column(nullable = false, name = "flood_severity", length = 10)
+    private String floodSeverity;
+
+    @Column(name = "updated_at", nullable = false)
+    private Instant updatedAt;
+
+    @Version
+    private Long version;
+
+    /**
+     * Point the state at a reading if it is newer than the current one
+     *
+     * @return false if the reading is older and was ignored
+     */
+    public boolean update(WaterLevelMetric metric) {
+        if (timestamp != null && metric.getTimestamp().isBefore(timestamp)) {
+            return false;
+        }
+        latestMetric = metric;
+        timestamp = metric.getTimestamp();
+        source = metric.getSource();
+        latitude = metric.getLatitude();
+        longitude = metric.getLongitude();
+        waterLevelFeet = metric.getWaterLevelFeet();
+        floodSeverity = metric.getFloodSeverity();
+        updatedAt = Instant.now();
+        return true;
+    }
+}
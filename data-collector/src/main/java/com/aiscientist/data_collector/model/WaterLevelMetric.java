@@ -2,6 +2,8 @@ package com.aiscientist.data_collector.model;
 
 import java.time.Instant;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
+
 import jakarta.persistence.*;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
@@ -18,7 +20,7 @@ import lombok.NoArgsConstructor;
 @Builder
 @NoArgsConstructor
 @AllArgsConstructor
-public class WaterLevelMetric {
+public class WaterLevelMetric implements RawPayloadHolder {
 
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
@@ -78,8 +80,12 @@ public class WaterLevelMetric {
     @Column(name = "quality_code", length = 10)
     private String qualityCode; // Data quality indicator
 
-    @Column(name = "raw_data", columnDefinition = "TEXT")
-    private String rawData;
+    @Column(name = "raw_payload_id", length = 64)
+    private String rawPayloadId; // SHA-256 key into raw_payloads
+
+    @Transient
+    @JsonIgnore
+    private String rawData; // Raw payload until saved, see RawPayloadStore
 
     @Column(name = "processed_at")
     private Instant processedAt;
@@ -0,0 +1,137 @@
+package com.aiscientist.data_collector.model;
+
+import java.time.Duration;
+import java.time.Instant;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Aggregated water level readings of one station over one time bucket,
+ * maintained at ingest time so long history ranges don't scan raw rows
+ */
+@Entity
+@Table(name = "water_level_rollups",
+    uniqueConstraints = @UniqueConstraint(name = "uk_rollup_station_bucket",
+        columnNames = {"station_id", "resolution", "bucket_start"}))
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class WaterLevelRollup {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(nullable = false, name = "station_id", length = 50)
+    private String stationId;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 20)
+    private Resolution resolution;
+
+    @Column(nullable = false, name = "bucket_start")
+    private Instant bucketStart;
+
+    @Column(nullable = false, name = "sample_count")
+    private int sampleCount;
+
+    @Column(nullable = false, name = "last_timestamp")
+    private Instant lastTimestamp; // Timestamp of the newest reading in the bucket, bucket start while empty
+
+    @Embedded
+    @AttributeOverrides({
+        @AttributeOverride(name = "count", column = @Column(name = "level_count", nullable = false)),
+        @AttributeOverride(name = "min", column = @Column(name = "level_min_feet")),
+        @AttributeOverride(name = "max", column = @Column(name = "level_max_feet")),
+        @AttributeOverride(name = "sum", column = @Column(name = "level_sum_feet")),
+        @AttributeOverride(name = "last", column = @Column(name = "level_last_feet"))
+    })
+    @Builder.Default
+    private RollupStats waterLevelFeet = new RollupStats();
+
+    @Embedded
+    @AttributeOverrides({
+        @AttributeOverride(name = "count", column = @Column(name = "gage_count", nullable = false)),
+        @AttributeOverride(name = "min", column = @Column(name = "gage_min_feet")),
+        @AttributeOverride(name = "max", column = @Column(name = "gage_max_feet")),
+        @AttributeOverride(name = "sum", column = @Column(name = "gage_sum_feet")),
+        @AttributeOverride(name = "last", column = @Column(name = "gage_last_feet"))
+    })
+    @Builder.Default
+    private RollupStats gageHeightFeet = new RollupStats();
+
+    @Embedded
+    @AttributeOverrides({
+        @AttributeOverride(name = "count", column = @Column(name = "discharge_count", nullable = false)),
+        @AttributeOverride(name = "min", column = @Column(name = "discharge_min_cfs")),
+        @AttributeOverride(name = "max", column = @Column(name = "discharge_max_cfs")),
+        @AttributeOverride(name = "sum", column = @Column(name = "discharge_sum_cfs")),
+        @AttributeOverride(name = "last", column = @Column(name = "discharge_last_cfs"))
+    })
+    @Builder.Default
+    private RollupStats dischargeCfs = new RollupStats();
+
+    @Version
+    private Long version;
+
+    /**
+     * Add a reading to the bucket
+     *
+     * @return false if the reading is not newer than the bucket's last one
+     * (a re-polled observation) and was ignored
+     */
+    public boolean add(WaterLevelMetric metric) {
+        if (sampleCount > 0 && !metric.getTimestamp().isAfter(lastTimestamp)) {
+            return false;
+        }
+        sampleCount++;
+        lastTimestamp = metric.getTimestamp();
+        waterLevelFeet.add(metric.getWaterLevelFeet());
+        gageHeightFeet.add(metric.getGageHeightFeet());
+        dischargeCfs.add(metric.getDischargeCfs());
+        return true;
+    }
+
+    /**
+     * Empty the bucket, to roll it up again from its raw readings
+     */
+    public void reset() {
+        sampleCount = 0;
+        lastTimestamp = bucketStart;
+        waterLevelFeet = new RollupStats();
+        gageHeightFeet = new RollupStats();
+        dischargeCfs = new RollupStats();
+    }
+
+    /**
+     * Bucket sizes, finest first
+     */
+    public enum Resolution {
+        MINUTES_15(Duration.ofMinutes(15)),
+        HOURLY(Duration.ofHours(1)),
+        DAILY(Duration.ofDays(1));
+
+        private final Duration size;
+
+        Resolution(Duration size) {
+            this.size = size;
+        }
+
+        public Duration getSize() {
+            return size;
+        }
+
+        /**
+         * Start of the (UTC-aligned) bucket containing the instant
+         */
+        public Instant bucketStart(Instant timestamp) {
+            long seconds = size.toSeconds();
+            return Instant.ofEpochSecond(Math.floorDiv(timestamp.getEpochSecond(), seconds) * seconds);
+        }
+    }
+}
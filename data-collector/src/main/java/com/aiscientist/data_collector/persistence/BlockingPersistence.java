@@ -0,0 +1,68 @@
+package com.aiscientist.data_collector.persistence;
+
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.function.Function;
+
+import org.springframework.stereotype.Component;
+
+import com.aiscientist.data_collector.config.AppConfig;
+import com.aiscientist.data_collector.http.ResponseCacheScope;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Scheduler;
+
+/**
+ * Runs blocking JPA calls from reactive pipelines on the bounded
+ * persistence scheduler instead of the thread that emitted the data
+ * (usually a Reactor Netty I/O thread). A failed call marks the collection
+ * run's ResponseCacheScope failed, so the responses it came from are
+ * processed again on the next run.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class BlockingPersistence {
+
+    private final Scheduler persistenceScheduler;
+    private final AppConfig appConfig;
+
+    /**
+     * Run a repository call; a null result completes empty
+     */
+    public <T> Mono<T> call(Callable<T> work) {
+        return Mono.deferContextual(context -> Mono.fromCallable(work)
+                .subscribeOn(persistenceScheduler)
+                .doOnError(error -> ResponseCacheScope.fail(context)));
+    }
+
+    /**
+     * Run a repository call returning several rows
+     */
+    public <T> Flux<T> many(Callable<? extends Iterable<T>> work) {
+        return Mono.deferContextual(context -> Mono.fromCallable(work)
+                        .subscribeOn(persistenceScheduler)
+                        .doOnError(error -> ResponseCacheScope.fail(context)))
+                .flatMapIterable(rows -> rows);
+    }
+
+    /**
+     * Group a stream into batches of up to batch-size (or whatever arrived
+     * within batch-window) and write each batch with one blocking call.
+     * Batches are written one at a time, so a slow database backpressures
+     * the stream instead of growing a queue. A failed batch is logged and skipped.
+     */
+    public <T, R> Flux<R> saveInBatches(Flux<T> items, Function<List<T>, ? extends Iterable<R>> saveAll) {
+        AppConfig.PersistenceConfig persistence = appConfig.getPersistence();
+        return items
+                .bufferTimeout(Math.max(1, persistence.getBatchSize()), persistence.getBatchWindow(), true)
+                .concatMap(batch -> this.<R>many(() -> saveAll.apply(batch))
+                        .onErrorResume(error -> {
+                            log.error("Failed to save batch of {} entities: {}", batch.size(), error.getMessage());
+                            return Flux.empty();
+                        }));
+    }
+}
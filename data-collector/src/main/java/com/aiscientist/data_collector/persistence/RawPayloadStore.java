@@ -0,0 +1,159 @@
+package com.aiscientist.data_collector.persistence;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Collections;
+import java.util.HexFormat;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import com.aiscientist.data_collector.model.RawPayloadHolder;
+import com.aiscientist.data_collector.repository.RawPayloadRepository;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Content-addressed store for raw upstream payloads.
+ *
+ * Payloads are hashed (SHA-256), gzip-compressed and inserted once into
+ * raw_payloads; entities keep only the hash. Hashes stored recently (and
+ * committed) are remembered so repeated payloads (unchanged polls) skip the
+ * database. All methods block and must run on the persistence scheduler.
+ *
+ * alert-engine has its own copy for the same raw_payloads layout, as the
+ * two services share no module; keep their hashing, compression and
+ * remembering in step.
+ */
+@Service
+@Slf4j
+public class RawPayloadStore {
+
+    private static final int RECENT_HASHES = 10_000;
+
+    private final RawPayloadRepository rawPayloadRepository;
+    private final MeterRegistry meterRegistry;
+    private final Set<String> recentHashes = Collections.newSetFromMap(Collections.synchronizedMap(
+            new LinkedHashMap<>(1024, 0.75f, true) {
+                @Override
+                protected boolean removeEldestEntry(Map.Entry<String, Boolean> eldest) {
+                    return size() > RECENT_HASHES;
+                }
+            }));
+
+    public RawPayloadStore(RawPayloadRepository rawPayloadRepository, MeterRegistry meterRegistry) {
+        this.rawPayloadRepository = rawPayloadRepository;
+        this.meterRegistry = meterRegistry;
+    }
+
+    /**
+     * Move the entity's raw payload into the store and set its reference
+     */
+    public void externalize(RawPayloadHolder entity) {
+        if (entity.getRawData() != null) {
+            entity.setRawPayloadId(store(entity.getRawData()));
+        }
+    }
+
+    /**
+     * Store a payload if not stored yet
+     *
+     * @return Hash referencing the payload
+     */
+    public String store(String payload) {
+        byte[] bytes = payload.getBytes(StandardCharsets.UTF_8);
+        String hash = sha256(bytes);
+        if (recentHashes.contains(hash)) {
+            record("duplicate", 0);
+            return hash;
+        }
+
+        byte[] compressed = gzip(bytes);
+        int inserted = rawPayloadRepository.insertIfAbsent(hash, compressed, bytes.length, compressed.length);
+        remember(hash);
+        if (inserted > 0) {
+            record("stored", compressed.length);
+        } else {
+            record("duplicate", 0);
+        }
+        return hash;
+    }
+
+    /**
+     * Remember a stored hash, inside a transaction only once it commits: a
+     * rolled back insert must not make later identical payloads skip theirs
+     */
+    private void remember(String hash) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            recentHashes.add(hash);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                recentHashes.add(hash);
+            }
+        });
+    }
+
+    /**
+     * Hash a payload is stored under, without storing it
+     */
+    public static String hashOf(String payload) {
+        return sha256(payload.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Load and decompress a payload
+     */
+    public Optional<String> load(String hash) {
+        return rawPayloadRepository.findById(hash)
+                .map(payload -> new String(gunzip(payload.getContent()), StandardCharsets.UTF_8));
+    }
+
+    private void record(String result, int storedBytes) {
+        meterRegistry.counter("collector.raw.payloads", "result", result).increment();
+        if (storedBytes > 0) {
+            meterRegistry.counter("collector.raw.payload.bytes").increment(storedBytes);
+        }
+    }
+
+    private static String sha256(byte[] bytes) {
+        try {
+            return HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256").digest(bytes));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+
+    private static byte[] gzip(byte[] bytes) {
+        ByteArrayOutputStream out = new ByteArrayOutputStream(Math.max(64, bytes.length / 4));
+        try (GZIPOutputStream gzip = new GZIPOutputStream(out)) {
+            gzip.write(bytes);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return out.toByteArray();
+    }
+
+    private static byte[] gunzip(byte[] bytes) {
+        try (GZIPInputStream gzip = new GZIPInputStream(new ByteArrayInputStream(bytes))) {
+            return gzip.readAllBytes();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
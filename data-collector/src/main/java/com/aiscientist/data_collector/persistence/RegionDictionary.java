@@ -0,0 +1,211 @@
+package com.aiscientist.data_collector.persistence;
+
+import java.util.HashSet;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import com.aiscientist.data_collector.model.Region;
+import com.aiscientist.data_collector.model.RegionAlias;
+import com.aiscientist.data_collector.repository.RegionAliasRepository;
+import com.aiscientist.data_collector.repository.RegionRepository;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Dictionary of canonical earthquake regions and their spellings.
+ *
+ * Free-form region strings from USGS place names ("CA", "California",
+ * "Alaska", offshore names) are normalized and interned to a small integer id, so
+ * earthquakes reference regions by id and region search is a dictionary
+ * lookup plus an indexed id query instead of a leading-wildcard ILIKE.
+ * The dictionary is small and cached in memory, loaded on the persistence
+ * scheduler once the application is ready; interning an unseen spelling
+ * blocks on the database and must run on the persistence scheduler too.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class RegionDictionary {
+
+    static final String UNKNOWN = "Unknown";
+
+    /** Abbreviations used by USGS place strings, by normalized alias */
+    private static final Map<String, String> KNOWN_ALIASES = Map.ofEntries(
+            Map.entry("al", "Alabama"), Map.entry("ak", "Alaska"), Map.entry("az", "Arizona"),
+            Map.entry("ar", "Arkansas"), Map.entry("ca", "California"), Map.entry("co", "Colorado"),
+            Map.entry("ct", "Connecticut"), Map.entry("de", "Delaware"), Map.entry("fl", "Florida"),
+            Map.entry("ga", "Georgia"), Map.entry("hi", "Hawaii"), Map.entry("id", "Idaho"),
+            Map.entry("il", "Illinois"), Map.entry("in", "Indiana"), Map.entry("ia", "Iowa"),
+            Map.entry("ks", "Kansas"), Map.entry("ky", "Kentucky"), Map.entry("la", "Louisiana"),
+            Map.entry("me", "Maine"), Map.entry("md", "Maryland"), Map.entry("ma", "Massachusetts"),
+            Map.entry("mi", "Michigan"), Map.entry("mn", "Minnesota"), Map.entry("ms", "Mississippi"),
+            Map.entry("mo", "Missouri"), Map.entry("mt", "Montana"), Map.entry("ne", "Nebraska"),
+            Map.entry("nv", "Nevada"), Map.entry("nh", "New Hampshire"), Map.entry("nj", "New Jersey"),
+            Map.entry("nm", "New Mexico"), Map.entry("ny", "New York"), Map.entry("nc", "North Carolina"),
+            Map.entry("nd", "North Dakota"), Map.entry("oh", "Ohio"), Map.entry("ok", "Oklahoma"),
+            Map.entry("or", "Oregon"), Map.entry("pa", "Pennsylvania"), Map.entry("ri", "Rhode Island"),
+            Map.entry("sc", "South Carolina"), Map.entry("sd", "South Dakota"), Map.entry("tn", "Tennessee"),
+            Map.entry("tx", "Texas"), Map.entry("ut", "Utah"), Map.entry("vt", "Vermont"),
+            Map.entry("va", "Virginia"), Map.entry("wa", "Washington"), Map.entry("wv", "West Virginia"),
+            Map.entry("wi", "Wisconsin"), Map.entry("wy", "Wyoming"), Map.entry("pr", "Puerto Rico"),
+            Map.entry("mx", "Mexico"));
+
+    private final RegionRepository regionRepository;
+    private final RegionAliasRepository aliasRepository;
+    private final BlockingPersistence persistence;
+
+    private final Map<String, Integer> idsByAlias = new ConcurrentHashMap<>();
+    private final Map<Integer, String> namesById = new ConcurrentHashMap<>();
+    private volatile boolean loaded;
+
+    /**
+     * Region id for a free-form region string, creating the region and alias
+     * on first sight
+     */
+    public Integer intern(String rawRegion) {
+        String alias = normalize(rawRegion);
+        Integer id = idsByAlias.get(alias);
+        if (id != null) {
+            return id;
+        }
+        synchronized (this) {
+            loadIfNeeded();
+            id = idsByAlias.get(alias);
+            if (id != null) {
+                return id;
+            }
+
+            String canonical = KNOWN_ALIASES.getOrDefault(alias, clean(rawRegion));
+            Integer regionId = regionId(canonical);
+            mapAlias(normalize(canonical), regionId);
+            // Another instance may have mapped the alias to a different region first
+            return mapAlias(alias, regionId);
+        }
+    }
+
+    /**
+     * Canonical name of a region id
+     */
+    public Optional<String> nameOf(Integer regionId) {
+        if (regionId == null) {
+            return Optional.empty();
+        }
+        String name = namesById.get(regionId);
+        if (name == null) {
+            name = regionRepository.findById(regionId).map(this::cache).orElse(null);
+        }
+        return Optional.ofNullable(name);
+    }
+
+    /**
+     * Regions matching a search string: the exact region if the string is a
+     * known spelling, otherwise all regions whose name or spelling contains it.
+     * Never touches the database: until the preload has finished only regions
+     * interned since startup match, and regions interned by other instances
+     * match once the next refresh has picked them up.
+     */
+    public Set<Integer> search(String query) {
+        String normalized = normalize(query);
+        Integer exact = idsByAlias.get(normalized);
+        if (exact != null) {
+            return Set.of(exact);
+        }
+        Set<Integer> matches = new HashSet<>();
+        idsByAlias.forEach((alias, id) -> {
+            if (alias.contains(normalized)) {
+                matches.add(id);
+            }
+        });
+        return matches;
+    }
+
+    /**
+     * Load the dictionary on the persistence scheduler, so searches never
+     * wait for it on a request thread
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void preload() {
+        persistence.call(() -> {
+                    loadIfNeeded();
+                    return idsByAlias.size();
+                })
+                .subscribe(
+                        spellings -> log.info("Loaded {} region spellings", spellings),
+                        error -> log.error("Loading region dictionary failed: {}", error.getMessage()));
+    }
+
+    /**
+     * Pick up regions and spellings other instances have interned. Runs on
+     * a schedule rather than on search misses, so unknown queries don't
+     * re-read the tables.
+     */
+    @Scheduled(fixedDelayString = "${app.regions.refresh-interval:PT5M}",
+            initialDelayString = "${app.regions.refresh-interval:PT5M}")
+    public void refresh() {
+        load();
+    }
+
+    private Integer regionId(String canonical) {
+        regionRepository.insertIfAbsent(canonical);
+        Region region = regionRepository.findByCanonicalName(canonical)
+                .orElseThrow(() -> new IllegalStateException("Region not stored: " + canonical));
+        cache(region);
+        log.debug("Interned region '{}' as {}", canonical, region.getId());
+        return region.getId();
+    }
+
+    private Integer mapAlias(String alias, Integer regionId) {
+        aliasRepository.insertIfAbsent(alias, regionId);
+        Integer mapped = aliasRepository.findById(alias)
+                .map(RegionAlias::getRegionId)
+                .orElse(regionId);
+        idsByAlias.put(alias, mapped);
+        return mapped;
+    }
+
+    private String cache(Region region) {
+        namesById.put(region.getId(), region.getCanonicalName());
+        return region.getCanonicalName();
+    }
+
+    private void loadIfNeeded() {
+        if (!loaded) {
+            synchronized (this) {
+                if (!loaded) {
+                    load();
+                }
+            }
+        }
+    }
+
+    // Aliases never change region once stored, so this can run next to intern
+    private void load() {
+        regionRepository.findAll().forEach(this::cache);
+        aliasRepository.findAll().forEach(alias -> idsByAlias.put(alias.getAlias(), alias.getRegionId()));
+        loaded = true;
+    }
+
+    /**
+     * Lookup key of a spelling: lower case, single spaces
+     */
+    static String normalize(String region) {
+        return clean(region).toLowerCase(Locale.ROOT);
+    }
+
+    private static String clean(String region) {
+        if (region == null || region.isBlank()) {
+            return UNKNOWN;
+        }
+        String cleaned = region.trim().replaceAll("\\s+", " ");
+        return cleaned.length() > 255 ? cleaned.substring(0, 255) : cleaned;
+    }
+}
@@ -1,12 +1,14 @@
 package com.aiscientist.data_collector.repository;
 
 import com.aiscientist.data_collector.model.EarthquakeMetric;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.time.Instant;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -16,11 +18,31 @@ import java.util.Optional;
 @Repository
 public interface EarthquakeRepository extends JpaRepository<EarthquakeMetric, Long> {
 
+    /**
+     * Columns needed to rebuild the in-memory earthquake statistics
+     */
+    interface EarthquakeStatsRow {
+        String getEarthquakeId();
+        Instant getEventTime();
+        Double getMagnitude();
+        Boolean getTsunamiWarning();
+    }
+
+    /**
+     * Statistics columns of earthquakes since a given time
+     */
+    List<EarthquakeStatsRow> findStatsRowsByEventTimeGreaterThanEqual(Instant since);
+
     /**
      * Find earthquake by USGS event ID
      */
     Optional<EarthquakeMetric> findByEarthquakeId(String earthquakeId);
 
+    /**
+     * Find already stored earthquakes among a batch of USGS event IDs
+     */
+    List<EarthquakeMetric> findByEarthquakeIdIn(Collection<String> earthquakeIds);
+
     /**
      * Find earthquakes with magnitude greater than or equal to threshold
      */
@@ -33,9 +55,9 @@ public interface EarthquakeRepository extends JpaRepository<EarthquakeMetric, Lo
     List<EarthquakeMetric> findRecentEarthquakes(@Param("since") Instant since);
 
     /**
-     * Find earthquakes in a specific region
+     * Find earthquakes in any of the given regions, newest first
      */
-    List<EarthquakeMetric> findByRegionContainingIgnoreCaseOrderByEventTimeDesc(String region);
+    List<EarthquakeMetric> findByRegionIdInOrderByEventTimeDesc(Collection<Integer> regionIds, Pageable pageable);
 
     /**
      * Find earthquakes with tsunami warning
@@ -43,22 +65,32 @@ public interface EarthquakeRepository extends JpaRepository<EarthquakeMetric, Lo
     List<EarthquakeMetric> findByTsunamiWarningTrueOrderByEventTimeDesc();
 
     /**
-     * Find dangerous earthquakes (magnitude >= 5.0)
+     * Find dangerous earthquakes (magnitude >= 5.0), newest first
+     */
+    List<EarthquakeMetric> findByDangerousTrueOrderByEventTimeDesc(Pageable pageable);
+
+    /**
+     * Find catastrophic earthquakes (magnitude >= 7.0), newest first
+     */
+    List<EarthquakeMetric> findByMagnitudeGreaterThanEqualOrderByEventTimeDesc(Double magnitude, Pageable pageable);
+
+    /**
+     * Find shallow earthquakes (depth < 70km) which cause more surface damage, newest first
      */
-    @Query("SELECT e FROM EarthquakeMetric e WHERE e.magnitude >= 5.0 ORDER BY e.eventTime DESC")
-    List<EarthquakeMetric> findDangerousEarthquakes();
+    List<EarthquakeMetric> findByShallowTrueOrderByEventTimeDesc(Pageable pageable);
 
     /**
-     * Find catastrophic earthquakes (magnitude >= 7.0)
+     * Find earthquakes since a given time with a tsunami risk score of at least minScore, newest first
      */
-    @Query("SELECT e FROM EarthquakeMetric e WHERE e.magnitude >= 7.0 ORDER BY e.eventTime DESC")
-    List<EarthquakeMetric> findCatastrophicEarthquakes();
+    List<EarthquakeMetric> findByTsunamiRiskScoreGreaterThanEqualAndEventTimeGreaterThanEqualOrderByEventTimeDesc(
+            Integer minScore, Instant since, Pageable pageable);
 
     /**
-     * Find shallow earthquakes (depth < 70km) which cause more surface damage
+     * Find a batch of earthquakes stored before the derived columns existed
      */
-    @Query("SELECT e FROM EarthquakeMetric e WHERE e.depthKm < 70.0 ORDER BY e.eventTime DESC")
-    List<EarthquakeMetric> findShallowEarthquakes();
+    @Query("SELECT e FROM EarthquakeMetric e WHERE e.severity IS NULL OR e.dangerous IS NULL " +
+           "OR e.shallow IS NULL OR e.tsunamiRiskScore IS NULL OR e.regionId IS NULL")
+    List<EarthquakeMetric> findWithoutDerivedAttributes(Pageable pageable);
 
     /**
      * Find earthquakes by alert level
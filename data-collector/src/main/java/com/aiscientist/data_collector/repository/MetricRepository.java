@@ -1,6 +1,7 @@
 package com.aiscientist.data_collector.repository;
 
 import java.time.Instant;
+import java.util.Collection;
 import java.util.List;
 
 import org.springframework.data.jpa.repository.JpaRepository;
@@ -15,6 +16,8 @@ public interface MetricRepository extends JpaRepository<Metric, Long> {
 
     List<Metric> findBySourceAndMetricType(String source, String metricType);
 
+    List<Metric> findBySourceKeyIn(Collection<String> sourceKeys);
+
     List<Metric> findByTimestampBetween(Instant start, Instant end);
 
     @Query("SELECT m FROM Metric m WHERE m.source = :source AND m.timestamp >= :since ORDER BY m.timestamp DESC")
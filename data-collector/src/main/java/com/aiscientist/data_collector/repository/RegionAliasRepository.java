@@ -0,0 +1,25 @@
+package com.aiscientist.data_collector.repository;
+
+import com.aiscientist.data_collector.model.RegionAlias;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+/**
+ * Repository for region spellings
+ */
+@Repository
+public interface RegionAliasRepository extends JpaRepository<RegionAlias, String> {
+
+    /**
+     * Map an alias to a region unless it is already mapped
+     */
+    @Modifying
+    @Transactional
+    @Query(value = "INSERT INTO region_aliases (alias, region_id) VALUES (:alias, :regionId) " +
+           "ON CONFLICT (alias) DO NOTHING", nativeQuery = true)
+    int insertIfAbsent(@Param("alias") String alias, @Param("regionId") Integer regionId);
+}
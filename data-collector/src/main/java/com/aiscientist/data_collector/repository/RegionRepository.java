@@ -0,0 +1,29 @@
+package com.aiscientist.data_collector.repository;
+
+import com.aiscientist.data_collector.model.Region;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.Optional;
+
+/**
+ * Repository for canonical earthquake regions
+ */
+@Repository
+public interface RegionRepository extends JpaRepository<Region, Integer> {
+
+    Optional<Region> findByCanonicalName(String canonicalName);
+
+    /**
+     * Insert a region unless one with the same name exists (concurrent ingest)
+     */
+    @Modifying
+    @Transactional
+    @Query(value = "INSERT INTO regions (canonical_name, created_at) VALUES (:name, now()) " +
+           "ON CONFLICT (canonical_name) DO NOTHING", nativeQuery = true)
+    int insertIfAbsent(@Param("name") String canonicalName);
+}
@@ -0,0 +1,42 @@
+package com.aiscientist.data_collector.repository;
+
+import com.aiscientist.data_collector.model.StationCurrentState;
+import com.aiscientist.data_collector.model.WaterLevelMetric;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.Instant;
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+public interface StationCurrentStateRepository extends JpaRepository<StationCurrentState, String> {
+
+    /**
+     * Latest readings of stations whose current flood severity is one of the given ones
+     */
+    @Query("SELECT m FROM StationCurrentState s JOIN s.latestMetric m " +
+           "WHERE s.floodSeverity IN :severities")
+    List<WaterLevelMetric> findLatestMetricsBySeverityIn(@Param("severities") Collection<String> severities);
+
+    long countByFloodSeverityIn(Collection<String> severities);
+
+    /**
+     * Count stations whose latest reading is at or after a point in time
+     */
+    long countByTimestampGreaterThanEqual(Instant since);
+
+    /**
+     * Latest readings of stations within a bounding box
+     */
+    @Query("SELECT m FROM StationCurrentState s JOIN s.latestMetric m " +
+           "WHERE s.latitude BETWEEN :minLat AND :maxLat " +
+           "AND s.longitude BETWEEN :minLon AND :maxLon")
+    List<WaterLevelMetric> findLatestMetricsInBoundingBox(
+        @Param("minLat") double minLat,
+        @Param("maxLat") double maxLat,
+        @Param("minLon") double minLon,
+        @Param("maxLon") double maxLon);
+}
@@ -25,44 +25,31 @@ public interface WaterLevelMetricRepository extends JpaRepository<WaterLevelMetr
         String stationId, Instant start, Instant end);
 
     /**
-     * Find all recent water levels from a specific source
+     * Find all water levels for a station within time range, oldest first
      */
-    List<WaterLevelMetric> findBySourceAndTimestampAfterOrderByTimestampDesc(
-        String source, Instant since);
+    List<WaterLevelMetric> findByStationIdAndTimestampBetweenOrderByTimestampAsc(
+        String stationId, Instant start, Instant end);
 
     /**
-     * Find all stations currently in flood condition
+     * Count water levels for a station within time range
      */
-    @Query("SELECT w FROM WaterLevelMetric w WHERE " +
-           "w.id IN (SELECT MAX(w2.id) FROM WaterLevelMetric w2 GROUP BY w2.stationId) " +
-           "AND (w.waterLevelFeet >= w.minorFloodStageFeet " +
-           "OR w.waterLevelFeet >= w.moderateFloodStageFeet " +
-           "OR w.waterLevelFeet >= w.majorFloodStageFeet)")
-    List<WaterLevelMetric> findCurrentlyFlooding();
+    long countByStationIdAndTimestampBetween(String stationId, Instant start, Instant end);
 
     /**
-     * Find all water levels by location type in time range
+     * Stations that reported since a point in time
      */
-    List<WaterLevelMetric> findByLocationTypeAndTimestampBetweenOrderByTimestampDesc(
-        String locationType, Instant start, Instant end);
+    @Query("SELECT DISTINCT w.stationId FROM WaterLevelMetric w WHERE w.timestamp >= :since")
+    List<String> findStationIdsSince(@Param("since") Instant since);
 
     /**
-     * Count stations reporting in last N minutes
+     * Find all recent water levels from a specific source
      */
-    @Query("SELECT COUNT(DISTINCT w.stationId) FROM WaterLevelMetric w " +
-           "WHERE w.timestamp >= :since")
-    long countActiveStationsSince(@Param("since") Instant since);
+    List<WaterLevelMetric> findBySourceAndTimestampAfterOrderByTimestampDesc(
+        String source, Instant since);
 
     /**
-     * Find stations near a geographic location
+     * Find all water levels by location type in time range
      */
-    @Query("SELECT w FROM WaterLevelMetric w WHERE " +
-           "w.id IN (SELECT MAX(w2.id) FROM WaterLevelMetric w2 GROUP BY w2.stationId) " +
-           "AND w.latitude BETWEEN :minLat AND :maxLat " +
-           "AND w.longitude BETWEEN :minLon AND :maxLon")
-    List<WaterLevelMetric> findStationsInBoundingBox(
-        @Param("minLat") double minLat, 
-        @Param("maxLat") double maxLat,
-        @Param("minLon") double minLon, 
-        @Param("maxLon") double maxLon);
+    List<WaterLevelMetric> findByLocationTypeAndTimestampBetweenOrderByTimestampDesc(
+        String locationType, Instant start, Instant end);
 }
@@ -0,0 +1,44 @@
+package com.aiscientist.data_collector.repository;
+
+import com.aiscientist.data_collector.model.WaterLevelRollup;
+import com.aiscientist.data_collector.model.WaterLevelRollup.Resolution;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.Instant;
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+public interface WaterLevelRollupRepository extends JpaRepository<WaterLevelRollup, Long> {
+
+    /**
+     * Find the buckets of a station that readings are about to be added to
+     */
+    List<WaterLevelRollup> findByStationIdAndResolutionAndBucketStartIn(
+        String stationId, Resolution resolution, Collection<Instant> bucketStarts);
+
+    /**
+     * Find a station's buckets within a time range, oldest first
+     */
+    List<WaterLevelRollup> findByStationIdAndResolutionAndBucketStartBetweenOrderByBucketStartAsc(
+        String stationId, Resolution resolution, Instant start, Instant end);
+
+    /**
+     * Create an empty bucket unless it exists. A concurrent writer creating
+     * the same bucket makes this a no-op instead of a unique violation.
+     *
+     * @return 1 if the bucket was created
+     */
+    @Modifying
+    @Query(value = "INSERT INTO water_level_rollups (station_id, resolution, bucket_start, sample_count, " +
+           "last_timestamp, level_count, gage_count, discharge_count, version) " +
+           "VALUES (:stationId, :resolution, :bucketStart, 0, :bucketStart, 0, 0, 0, 0) " +
+           "ON CONFLICT (station_id, resolution, bucket_start) DO NOTHING", nativeQuery = true)
+    int insertIfAbsent(@Param("stationId") String stationId,
+                       @Param("resolution") String resolution,
+                       @Param("bucketStart") Instant bucketStart);
+}
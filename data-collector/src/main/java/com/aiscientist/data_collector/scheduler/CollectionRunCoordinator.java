@@ -0,0 +1,211 @@
+package com.aiscientist.data_collector.scheduler;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+import org.springframework.stereotype.Component;
+
+import com.aiscientist.data_collector.config.AppConfig;
+import com.aiscientist.data_collector.http.ResponseCacheScope;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+/**
+ * Runs collection pipelines as tracked units instead of fire-and-forget
+ * subscriptions.
+ *
+ * A pipeline emits one element per collected item: the number of Kafka
+ * records published for it, once the broker has acknowledged them (see
+ * {@link #awaitPublished}). A run ends when the pipeline completes, fails
+ * or hits its deadline, and is recorded as collector.run.* metrics tagged
+ * with the run name. {@link #launch} allows one run per name at a time;
+ * {@link #track} is for ad-hoc runs that may overlap.
+ *
+ * Each run carries a ResponseCacheScope in its Reactor context, so the
+ * responses it fetched are only cached as unchanged once it has succeeded.
+ * Work outside a run gets the same guarantee from {@link #withCacheScope}.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class CollectionRunCoordinator {
+
+    private final MeterRegistry meterRegistry;
+    private final AppConfig appConfig;
+    private final Map<String, RunState> runs = new ConcurrentHashMap<>();
+
+    private static final class RunState {
+        private boolean running;
+        private Supplier<Flux<Integer>> pending;
+    }
+
+    /**
+     * Start a run unless one with the same name is in progress, in which
+     * case the request is skipped or queued according to app.runs.overlap
+     *
+     * @return true if the run started now
+     */
+    public boolean launch(String run, Supplier<Flux<Integer>> pipeline) {
+        RunState state = runs.computeIfAbsent(run, key -> new RunState());
+        synchronized (state) {
+            if (state.running) {
+                if (appConfig.getRuns().getOverlap() == AppConfig.RunsConfig.OverlapPolicy.QUEUE) {
+                    String reason = state.pending == null ? "queued" : "coalesced";
+                    state.pending = pipeline;
+                    skipped(run, reason);
+                    log.info("Run {} still in progress, next run {}", run, reason);
+                } else {
+                    skipped(run, "overlap");
+                    log.warn("Run {} still in progress, skipping this one", run);
+                }
+                return false;
+            }
+            state.running = true;
+        }
+        start(run, pipeline, () -> finish(run, state));
+        return true;
+    }
+
+    /**
+     * Start a run without overlap protection, still recording metrics and
+     * enforcing the deadline
+     */
+    public void track(String run, Supplier<Flux<Integer>> pipeline) {
+        start(run, pipeline, () -> { });
+    }
+
+    /**
+     * Give work that is not part of a run (e.g. one adaptive station poll)
+     * its own ResponseCacheScope: the responses it fetched are cached once it
+     * completes without dropping data, and not if it fails or is cancelled
+     */
+    public <T> Mono<T> withCacheScope(Supplier<Mono<T>> work) {
+        return Mono.defer(() -> {
+            ResponseCacheScope cacheScope = new ResponseCacheScope();
+            return Mono.defer(work)
+                    .doOnSuccess(ignored -> cacheScope.commit())
+                    .doOnError(error -> cacheScope.discard())
+                    .doOnCancel(cacheScope::discard)
+                    .contextWrite(context -> context.put(ResponseCacheScope.CONTEXT_KEY, cacheScope));
+        });
+    }
+
+    /**
+     * Wait for Kafka sends to be acknowledged
+     *
+     * @return Number of records acknowledged; failures are counted separately
+     */
+    public Mono<Integer> awaitPublished(String run, CompletableFuture<?>... sends) {
+        return Mono.deferContextual(context -> Flux.fromArray(sends)
+                .flatMap(send -> Mono.fromFuture(send)
+                        .thenReturn(1)
+                        .onErrorResume(error -> {
+                            counter("collector.run.publish.failed", run).increment();
+                            ResponseCacheScope.fail(context);
+                            return Mono.just(0);
+                        }))
+                .reduce(0, Integer::sum));
+    }
+
+    /**
+     * Whether a run with this name is currently in progress
+     */
+    public boolean isRunning(String run) {
+        RunState state = runs.get(run);
+        if (state == null) {
+            return false;
+        }
+        synchronized (state) {
+            return state.running;
+        }
+    }
+
+    private void start(String run, Supplier<Flux<Integer>> pipeline, Runnable onFinish) {
+        Duration deadline = appConfig.getRuns().deadlineFor(run);
+        AtomicLong items = new AtomicLong();
+        AtomicLong published = new AtomicLong();
+        long startNanos = System.nanoTime();
+        ResponseCacheScope cacheScope = new ResponseCacheScope();
+
+        Flux.defer(pipeline)
+                .doOnNext(count -> {
+                    items.incrementAndGet();
+                    published.addAndGet(count);
+                })
+                .then()
+                .timeout(deadline)
+                .doOnSuccess(ignored -> {
+                    if (!cacheScope.commit()) {
+                        log.info("Run {} dropped data, its responses will be processed again", run);
+                    }
+                    complete(run, "success", startNanos, items, published);
+                })
+                .doOnError(error -> {
+                    cacheScope.discard();
+                    boolean timedOut = error instanceof TimeoutException;
+                    complete(run, timedOut ? "timeout" : "error", startNanos, items, published);
+                    if (timedOut) {
+                        log.error("Run {} exceeded its {}s deadline and was cancelled", run, deadline.toSeconds());
+                    } else {
+                        log.error("Run {} failed", run, error);
+                    }
+                })
+                .doFinally(signal -> onFinish.run())
+                .onErrorResume(error -> Mono.empty())
+                .contextWrite(context -> context.put(ResponseCacheScope.CONTEXT_KEY, cacheScope))
+                .subscribe();
+    }
+
+    private void finish(String run, RunState state) {
+        Supplier<Flux<Integer>> next;
+        synchronized (state) {
+            next = state.pending;
+            state.pending = null;
+            state.running = next != null;
+        }
+        if (next != null) {
+            log.info("Starting queued run {}", run);
+            start(run, next, () -> finish(run, state));
+        }
+    }
+
+    private void complete(String run, String outcome, long startNanos, AtomicLong items, AtomicLong published) {
+        long elapsed = System.nanoTime() - startNanos;
+        Timer.builder("collector.run.duration")
+                .description("Duration of collection runs, until all Kafka sends are acknowledged")
+                .tag("run", run)
+                .tag("outcome", outcome)
+                .register(meterRegistry)
+                .record(elapsed, TimeUnit.NANOSECONDS);
+        counter("collector.run.items", run).increment(items.get());
+        counter("collector.run.published", run).increment(published.get());
+
+        log.info("Run {} finished ({}) in {} ms: {} items, {} records published",
+                run, outcome, TimeUnit.NANOSECONDS.toMillis(elapsed), items.get(), published.get());
+    }
+
+    private void skipped(String run, String reason) {
+        Counter.builder("collector.run.skipped")
+                .description("Collection runs not started because the previous one was still in progress")
+                .tag("run", run)
+                .tag("reason", reason)
+                .register(meterRegistry)
+                .increment();
+    }
+
+    private Counter counter(String name, String run) {
+        return Counter.builder(name).tag("run", run).register(meterRegistry);
+    }
+}
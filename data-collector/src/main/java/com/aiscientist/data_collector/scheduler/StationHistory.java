@@ -0,0 +1,126 @@
+package com.aiscientist.data_collector.scheduler;
+
+import java.time.Duration;
+import java.time.Instant;
+
+import com.aiscientist.data_collector.model.WaterLevelMetric;
+
+/**
+ * Ring buffer of the most recent distinct readings for one station, used to
+ * estimate how fast the water is moving.
+ */
+public class StationHistory {
+
+    private static final double SECONDS_PER_HOUR = 3600d;
+
+    private final Instant[] timestamps;
+    private final Double[] levelsFeet;
+    private final Double[] discharges;
+    private int next;
+    private int size;
+    private boolean nearFlood;
+    private boolean flooding;
+
+    public StationHistory(int capacity) {
+        this.timestamps = new Instant[capacity];
+        this.levelsFeet = new Double[capacity];
+        this.discharges = new Double[capacity];
+    }
+
+    /**
+     * Add a reading unless it is not newer than the latest one (e.g. the
+     * upstream has not published a new observation since the last poll)
+     *
+     * @return true if the reading was added
+     */
+    public synchronized boolean add(WaterLevelMetric metric, double nearFloodMarginFeet) {
+        if (metric.getTimestamp() == null) {
+            return false;
+        }
+        Instant latest = latestTimestamp();
+        if (latest != null && !metric.getTimestamp().isAfter(latest)) {
+            return false;
+        }
+
+        timestamps[next] = metric.getTimestamp();
+        levelsFeet[next] = metric.getWaterLevelFeet();
+        discharges[next] = metric.getDischargeCfs();
+        next = (next + 1) % timestamps.length;
+        size = Math.min(size + 1, timestamps.length);
+
+        flooding = metric.isFlooding();
+        Double stage = lowestStage(metric);
+        nearFlood = stage != null && metric.getWaterLevelFeet() != null
+                && metric.getWaterLevelFeet() >= stage - nearFloodMarginFeet;
+        return true;
+    }
+
+    public synchronized int size() {
+        return size;
+    }
+
+    public synchronized boolean isFlooding() {
+        return flooding;
+    }
+
+    public synchronized boolean isNearFlood() {
+        return nearFlood;
+    }
+
+    /**
+     * Water level change between the oldest and newest reading, in feet per hour
+     */
+    public synchronized double levelRateFeetPerHour() {
+        Double oldest = levelsFeet[oldestIndex()];
+        Double newest = levelsFeet[newestIndex()];
+        double hours = spanHours();
+        if (oldest == null || newest == null || hours <= 0) {
+            return 0;
+        }
+        return (newest - oldest) / hours;
+    }
+
+    /**
+     * Discharge change between the oldest and newest reading, relative to the
+     * oldest, per hour (0.25 = +25% per hour)
+     */
+    public synchronized double dischargeChangePerHour() {
+        Double oldest = discharges[oldestIndex()];
+        Double newest = discharges[newestIndex()];
+        double hours = spanHours();
+        if (oldest == null || newest == null || oldest <= 0 || hours <= 0) {
+            return 0;
+        }
+        return (newest - oldest) / oldest / hours;
+    }
+
+    private double spanHours() {
+        if (size < 2) {
+            return 0;
+        }
+        return Duration.between(timestamps[oldestIndex()], timestamps[newestIndex()]).toSeconds() / SECONDS_PER_HOUR;
+    }
+
+    private Instant latestTimestamp() {
+        return size == 0 ? null : timestamps[newestIndex()];
+    }
+
+    private int newestIndex() {
+        return (next - 1 + timestamps.length) % timestamps.length;
+    }
+
+    private int oldestIndex() {
+        return size < timestamps.length ? 0 : next;
+    }
+
+    private static Double lowestStage(WaterLevelMetric metric) {
+        Double lowest = null;
+        for (Double stage : new Double[] {
+                metric.getActionStageFeet(), metric.getMinorFloodStageFeet(), metric.getFloodStageFeet()}) {
+            if (stage != null && (lowest == null || stage < lowest)) {
+                lowest = stage;
+            }
+        }
+        return lowest;
+    }
+}
@@ -0,0 +1,178 @@
+package com.aiscientist.data_collector.scheduler;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import com.aiscientist.data_collector.config.AppConfig;
+import com.aiscientist.data_collector.http.UpstreamSource;
+import com.aiscientist.data_collector.service.NoaaTidesApiService;
+import com.aiscientist.data_collector.service.UsgsWaterApiService;
+import com.aiscientist.data_collector.service.WaterLevelCollectionService;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Polls each water level station on its own cadence instead of all stations
+ * at a cron tick.
+ *
+ * After every poll the station's interval is recomputed from its recent
+ * readings: it drops to the minimum while the water is rising fast or is
+ * at/near a flood stage, returns to the base interval on moderate change,
+ * and backs off towards the maximum while the station is stable. Polls are
+ * spread with jitter so stations drift apart rather than firing together.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+@ConditionalOnProperty(value = "app.polling.enabled", havingValue = "true", matchIfMissing = true)
+public class StationPollingScheduler {
+
+    private final WaterLevelCollectionService waterLevelCollectionService;
+    private final NoaaTidesApiService noaaTidesApiService;
+    private final UsgsWaterApiService usgsWaterApiService;
+    private final AppConfig appConfig;
+    private final MeterRegistry meterRegistry;
+
+    private final Map<String, StationState> stations = new ConcurrentHashMap<>();
+
+    enum Cadence { FAST, NORMAL, SLOW }
+
+    private static final class StationState {
+        private final String source;
+        private final String stationId;
+        private final StationHistory history;
+        private Duration interval;
+        private Instant nextPollAt;
+        private boolean inFlight;
+
+        private StationState(String source, String stationId, int historySize, Duration interval, Instant nextPollAt) {
+            this.source = source;
+            this.stationId = stationId;
+            this.history = new StationHistory(historySize);
+            this.interval = interval;
+            this.nextPollAt = nextPollAt;
+        }
+    }
+
+    @PostConstruct
+    public void registerStations() {
+        register(UpstreamSource.NOAA_TIDES, noaaTidesApiService.getMonitoringStations());
+        register(UpstreamSource.USGS_WATER, usgsWaterApiService.getMonitoringSites());
+        log.info("Adaptive polling enabled for {} water level stations", stations.size());
+    }
+
+    private void register(String source, List<String> stationIds) {
+        AppConfig.PollingConfig config = appConfig.getPolling();
+        Duration base = config.cadenceFor(source).getBaseInterval();
+        Instant now = Instant.now();
+        for (String stationId : stationIds) {
+            // First polls are spread evenly over one base interval
+            Instant firstPoll = now.plusMillis(ThreadLocalRandom.current().nextLong(Math.max(1, base.toMillis())));
+            stations.put(source + ":" + stationId,
+                    new StationState(source, stationId, config.getHistorySize(), base, firstPoll));
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${app.polling.tick:PT15S}")
+    public void pollDueStations() {
+        Instant now = Instant.now();
+        for (StationState state : stations.values()) {
+            synchronized (state) {
+                if (state.inFlight || now.isBefore(state.nextPollAt)) {
+                    continue;
+                }
+                state.inFlight = true;
+            }
+            poll(state);
+        }
+    }
+
+    private void poll(StationState state) {
+        AppConfig.PollingConfig config = appConfig.getPolling();
+        AppConfig.PollingConfig.Cadence cadence = config.cadenceFor(state.source);
+
+        waterLevelCollectionService.pollStation(state.source, state.stationId)
+                .timeout(cadence.getMaxInterval())
+                .doOnNext(metric -> state.history.add(metric, config.getNearFloodMarginFeet()))
+                .doFinally(signal -> {
+                    synchronized (state) {
+                        Duration previous = state.interval;
+                        state.interval = nextInterval(state.history, previous, config, cadence);
+                        state.nextPollAt = Instant.now().plus(withJitter(state.interval, config.getJitter()));
+                        state.inFlight = false;
+
+                        Cadence mode = classify(state.interval, cadence);
+                        polls(state.source, mode).increment();
+                        if (!state.interval.equals(previous)) {
+                            log.debug("Station {} ({}) now polled every {}s ({})",
+                                    state.stationId, state.source, state.interval.toSeconds(), mode);
+                        }
+                    }
+                })
+                .subscribe(
+                        metric -> { },
+                        error -> log.warn("Poll of station {} ({}) failed: {}",
+                                state.stationId, state.source, error.getMessage()));
+    }
+
+    /**
+     * Interval until the next poll, given the station's recent readings
+     */
+    static Duration nextInterval(StationHistory history, Duration current,
+                                 AppConfig.PollingConfig config, AppConfig.PollingConfig.Cadence cadence) {
+        double levelRate = history.levelRateFeetPerHour();
+        double dischargeRate = history.dischargeChangePerHour();
+
+        if (history.isFlooding() || history.isNearFlood()
+                || levelRate >= config.getFastRiseFeetPerHour()
+                || dischargeRate >= config.getFastDischargeChangePerHour()) {
+            return cadence.getMinInterval();
+        }
+
+        boolean changing = Math.abs(levelRate) >= config.getFastRiseFeetPerHour() / 2
+                || Math.abs(dischargeRate) >= config.getFastDischargeChangePerHour() / 2;
+        if (changing || history.size() < 3) {
+            return cadence.getBaseInterval();
+        }
+
+        // Stable: back off gradually, never below base
+        long backedOff = (long) (Math.max(current.toMillis(), cadence.getBaseInterval().toMillis())
+                * config.getBackoffMultiplier());
+        return Duration.ofMillis(Math.min(backedOff, cadence.getMaxInterval().toMillis()));
+    }
+
+    private static Duration withJitter(Duration interval, double jitter) {
+        if (jitter <= 0) {
+            return interval;
+        }
+        double factor = 1 + ThreadLocalRandom.current().nextDouble(-jitter, jitter);
+        return Duration.ofMillis((long) (interval.toMillis() * factor));
+    }
+
+    private static Cadence classify(Duration interval, AppConfig.PollingConfig.Cadence cadence) {
+        if (interval.compareTo(cadence.getBaseInterval()) < 0) {
+            return Cadence.FAST;
+        }
+        return interval.compareTo(cadence.getBaseInterval()) > 0 ? Cadence.SLOW : Cadence.NORMAL;
+    }
+
+    private Counter polls(String source, Cadence mode) {
+        return Counter.builder("collector.poll.requests")
+                .description("Adaptive station polls by cadence the station is on")
+                .tag("source", source)
+                .tag("cadence", mode.name().toLowerCase())
+                .register(meterRegistry);
+    }
+}
@@ -3,13 +3,14 @@ package com.aiscientist.data_collector.service;
 import java.time.Instant;
 
 import org.springframework.stereotype.Service;
-import org.springframework.transaction.annotation.Transactional;
 
-import com.aiscientist.data_collector.dto.CMEEvent;
 import com.aiscientist.data_collector.dto.KpIndexEvent;
 import com.aiscientist.data_collector.kafka.SpaceWeatherProducer;
 import com.aiscientist.data_collector.model.Metric;
+import com.aiscientist.data_collector.persistence.BlockingPersistence;
+import com.aiscientist.data_collector.persistence.RawPayloadStore;
 import com.aiscientist.data_collector.repository.MetricRepository;
+import com.aiscientist.data_collector.scheduler.CollectionRunCoordinator;
 import com.fasterxml.jackson.databind.ObjectMapper;
 
 import lombok.RequiredArgsConstructor;
@@ -21,63 +22,44 @@ import lombok.extern.slf4j.Slf4j;
 public class DataCollectorService {
 
     private final NoaaApiService noaaApiService;
-    private final NasaApiService nasaApiService;
     private final SpaceWeatherProducer spaceWeatherProducer;
     private final MetricRepository metricRepository;
     private final ObjectMapper objectMapper;
+    private final CollectionRunCoordinator runCoordinator;
+    private final RawPayloadStore rawPayloadStore;
+    private final BlockingPersistence persistence;
+
+    private static final String KP_INDEX_RUN = "noaa-kp";
 
-    @Transactional
     public void collectKpIndexData() {
-        log.info("Starting Kp index data collection");
-        
-        noaaApiService.fetchKpIndexData()
-                .doOnNext(event -> {
-                    // Save to database
-                    Metric metric = Metric.builder()
-                            .timestamp(Instant.parse(event.getTimeTag()))
-                            .source("noaa")
-                            .metricType("kp_index")
-                            .kpIndex(event.getKpIndex() != null ? event.getKpIndex() : event.getEstimatedKp())
-                            .rawData(event.getRawData())
-                            .processedAt(Instant.now())
-                            .build();
-                    
-                    metricRepository.save(metric);
-                    log.debug("Saved Kp index metric: {}", metric.getId());
-                    
-                    // Publish to Kafka
-                    spaceWeatherProducer.sendKpIndexEvent(event);
-                })
-                .doOnComplete(() -> log.info("Kp index data collection completed"))
-                .doOnError(error -> log.error("Error collecting Kp index data", error))
-                .subscribe();
+        runCoordinator.launch(KP_INDEX_RUN, () -> {
+            log.info("Starting Kp index data collection");
+
+            return noaaApiService.fetchKpIndexData()
+                    .flatMap(event -> {
+                        // Save to database
+                        Metric metric = Metric.builder()
+                                .timestamp(Instant.parse(event.getTimeTag()))
+                                .source("noaa")
+                                .metricType("kp_index")
+                                .kpIndex(event.getKpIndex() != null ? event.getKpIndex() : event.getEstimatedKp())
+                                .rawData(event.getRawData())
+                                .processedAt(Instant.now())
+                                .build();
+
+                        return persistence.call(() -> save(metric))
+                                .doOnNext(saved -> log.debug("Saved Kp index metric: {}", saved.getId()))
+                                // Publish to Kafka
+                                .flatMap(saved -> runCoordinator.awaitPublished(KP_INDEX_RUN,
+                                        spaceWeatherProducer.sendKpIndexEvent(event)));
+                    })
+                    .doOnComplete(() -> log.info("Kp index data collection completed"))
+                    .doOnError(error -> log.error("Error collecting Kp index data", error));
+        });
     }
 
-    @Transactional
-    public void collectCMEData() {
-        log.info("Starting CME data collection");
-        
-        nasaApiService.fetchCMEData()
-                .doOnNext(event -> {
-                    // Save to database
-                    Metric metric = Metric.builder()
-                            .timestamp(Instant.now())
-                            .source("nasa")
-                            .metricType("cme")
-                            .speedKmh(event.getSpeed())
-                            .cmeClass(event.getType())
-                            .rawData(event.getRawData())
-                            .processedAt(Instant.now())
-                            .build();
-                    
-                    metricRepository.save(metric);
-                    log.debug("Saved CME metric: {}", metric.getId());
-                    
-                    // Publish to Kafka
-                    spaceWeatherProducer.sendCMEEvent(event);
-                })
-                .doOnComplete(() -> log.info("CME data collection completed"))
-                .doOnError(error -> log.error("Error collecting CME data", error))
-                .subscribe();
+    private Metric save(Metric metric) {
+        rawPayloadStore.externalize(metric);
+        return metricRepository.save(metric);
     }
 }
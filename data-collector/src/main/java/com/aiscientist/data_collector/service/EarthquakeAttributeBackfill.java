@@ -0,0 +1,60 @@
+package com.aiscientist.data_collector.service;
+
+import com.aiscientist.data_collector.model.EarthquakeMetric;
+import com.aiscientist.data_collector.persistence.BlockingPersistence;
+import com.aiscientist.data_collector.persistence.RegionDictionary;
+import com.aiscientist.data_collector.repository.EarthquakeRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+/**
+ * Fills the derived severity / dangerous / shallow / tsunami risk columns
+ * and the region id of earthquakes stored before those columns existed. Runs in the background
+ * at startup and is a no-op once every row has them.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class EarthquakeAttributeBackfill {
+
+    private static final int BATCH_SIZE = 500;
+
+    private final EarthquakeRepository earthquakeRepository;
+    private final BlockingPersistence persistence;
+    private final RegionDictionary regionDictionary;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void backfill() {
+        persistence.call(this::deriveMissing)
+            .subscribe(
+                updated -> {
+                    if (updated > 0) {
+                        log.info("Derived attributes for {} stored earthquakes", updated);
+                    }
+                },
+                error -> log.error("Earthquake attribute backfill failed: {}", error.getMessage()));
+    }
+
+    private long deriveMissing() {
+        long updated = 0;
+        List<EarthquakeMetric> batch;
+        // Always the first page: saved rows drop out of the query
+        while (!(batch = earthquakeRepository.findWithoutDerivedAttributes(PageRequest.of(0, BATCH_SIZE))).isEmpty()) {
+            batch.forEach(metric -> {
+                metric.deriveAttributes();
+                if (metric.getRegionId() == null) {
+                    metric.setRegionId(regionDictionary.intern(metric.getRegion()));
+                }
+            });
+            earthquakeRepository.saveAll(batch);
+            updated += batch.size();
+        }
+        return updated;
+    }
+}
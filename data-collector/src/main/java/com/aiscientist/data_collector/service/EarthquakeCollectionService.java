@@ -3,12 +3,16 @@ package com.aiscientist.data_collector.service;
 import com.aiscientist.data_collector.dto.EarthquakeEvent;
 import com.aiscientist.data_collector.kafka.KafkaProducerService;
 import com.aiscientist.data_collector.model.EarthquakeMetric;
+import com.aiscientist.data_collector.scheduler.CollectionRunCoordinator;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
 
+import java.util.concurrent.CompletableFuture;
+
 /**
- * Service to orchestrate earthquake data collection and event publishing
+ * Ad-hoc earthquake collections triggered over REST. The recent-earthquake
+ * feed runs on its own as EarthquakeConnector.
  */
 @Service
 @RequiredArgsConstructor
@@ -17,74 +21,43 @@ public class EarthquakeCollectionService {
 
     private final UsgsEarthquakeApiService usgsEarthquakeApiService;
     private final KafkaProducerService kafkaProducerService;
+    private final CollectionRunCoordinator runCoordinator;
 
     private static final String EARTHQUAKE_DATA_TOPIC = "raw.earthquake.data";
     private static final String EARTHQUAKE_ALERT_TOPIC = "raw.earthquake.alert";
     private static final String TSUNAMI_WARNING_TOPIC = "raw.tsunami.warning";
 
-    /**
-     * Collect recent earthquakes from USGS API (last 24 hours, magnitude >= 4.5)
-     */
-    public void collectRecentEarthquakes() {
-        log.info("Starting earthquake data collection");
-
-        usgsEarthquakeApiService.fetchRecentEarthquakes()
-                .doOnNext(metric -> {
-                    // Publish all earthquake data to main topic
-                    EarthquakeEvent event = usgsEarthquakeApiService.createEvent(metric);
-                    kafkaProducerService.sendEarthquakeEvent(EARTHQUAKE_DATA_TOPIC, event);
-
-                    // If dangerous (magnitude >= 5.0), send alert
-                    if (metric.isDangerous()) {
-                        event.setEventType("earthquake.alert");
-                        kafkaProducerService.sendEarthquakeEvent(EARTHQUAKE_ALERT_TOPIC, event);
-                        log.warn("EARTHQUAKE ALERT: M{} - {} - {} severity - {}",
-                                metric.getMagnitude(),
-                                metric.getEarthquakeId(),
-                                metric.getSeverity(),
-                                metric.getLocation());
-                    }
-
-                    // If tsunami warning or high tsunami risk, send tsunami alert
-                    if (Boolean.TRUE.equals(metric.getTsunamiWarning()) || metric.getTsunamiRiskScore() >= 50) {
-                        event.setEventType("tsunami.warning");
-                        kafkaProducerService.sendEarthquakeEvent(TSUNAMI_WARNING_TOPIC, event);
-                        log.error("TSUNAMI WARNING: M{} at {} - Risk Score: {} - {}",
-                                metric.getMagnitude(),
-                                metric.getDepthKm() != null ? metric.getDepthKm() + "km depth" : "unknown depth",
-                                metric.getTsunamiRiskScore(),
-                                metric.getLocation());
-                    }
-                })
-                .doOnComplete(() -> log.info("Completed earthquake data collection"))
-                .doOnError(error -> log.error("Error during earthquake collection", error))
-                .subscribe();
-    }
+    private static final String SIGNIFICANT_RUN = "earthquake-significant";
+    private static final String NEAR_LOCATION_RUN = "earthquake-nearby";
 
     /**
      * Collect significant earthquakes (magnitude >= 6.0) from last 7 days
      */
     public void collectSignificantEarthquakes() {
-        log.info("Starting significant earthquake collection");
+        runCoordinator.launch(SIGNIFICANT_RUN, () -> {
+            log.info("Starting significant earthquake collection");
 
-        usgsEarthquakeApiService.fetchSignificantEarthquakes()
-                .doOnNext(metric -> {
-                    EarthquakeEvent event = usgsEarthquakeApiService.createEvent(metric);
-                    event.setEventType("earthquake.significant");
-                    kafkaProducerService.sendEarthquakeEvent(EARTHQUAKE_ALERT_TOPIC, event);
+            return usgsEarthquakeApiService.fetchSignificantEarthquakes()
+                    .flatMap(metric -> {
+                        EarthquakeEvent event = usgsEarthquakeApiService.createEvent(metric);
+                        event.setEventType("earthquake.significant");
+                        CompletableFuture<?> alert = kafkaProducerService.sendEarthquakeEvent(EARTHQUAKE_ALERT_TOPIC, event);
 
-                    log.warn("SIGNIFICANT EARTHQUAKE: M{} - {} severity - {}",
-                            metric.getMagnitude(), metric.getSeverity(), metric.getLocation());
+                        log.warn("SIGNIFICANT EARTHQUAKE: M{} - {} severity - {}",
+                                metric.getMagnitude(), metric.getSeverity(), metric.getLocation());
 
-                    // Check tsunami risk
-                    if (metric.getTsunamiRiskScore() >= 50) {
-                        event.setEventType("tsunami.warning");
-                        kafkaProducerService.sendEarthquakeEvent(TSUNAMI_WARNING_TOPIC, event);
-                    }
-                })
-                .doOnComplete(() -> log.info("Completed significant earthquake collection"))
-                .doOnError(error -> log.error("Error during significant earthquake collection", error))
-                .subscribe();
+                        // Check tsunami risk
+                        if (metric.getTsunamiRiskScore() >= 50) {
+                            EarthquakeEvent warning = usgsEarthquakeApiService.createEvent(metric);
+                            warning.setEventType("tsunami.warning");
+                            return runCoordinator.awaitPublished(SIGNIFICANT_RUN, alert,
+                                    kafkaProducerService.sendEarthquakeEvent(TSUNAMI_WARNING_TOPIC, warning));
+                        }
+                        return runCoordinator.awaitPublished(SIGNIFICANT_RUN, alert);
+                    })
+                    .doOnComplete(() -> log.info("Completed significant earthquake collection"))
+                    .doOnError(error -> log.error("Error during significant earthquake collection", error));
+        });
     }
 
     /**
@@ -101,18 +74,21 @@ public class EarthquakeCollectionService {
         log.info("Collecting earthquakes near ({}, {}) within {}° radius, magnitude >= {}",
                 latitude, longitude, radiusDegrees, minMagnitude);
 
-        usgsEarthquakeApiService.fetchEarthquakesNearLocation(latitude, longitude, radiusDegrees, minMagnitude)
-                .doOnNext(metric -> {
+        // Ad-hoc requests for different locations may overlap
+        runCoordinator.track(NEAR_LOCATION_RUN, () -> usgsEarthquakeApiService
+                .fetchEarthquakesNearLocation(latitude, longitude, radiusDegrees, minMagnitude)
+                .flatMap(metric -> {
                     EarthquakeEvent event = usgsEarthquakeApiService.createEvent(metric);
                     event.setEventType("earthquake.location");
-                    kafkaProducerService.sendEarthquakeEvent(EARTHQUAKE_DATA_TOPIC, event);
+                    CompletableFuture<?> data = kafkaProducerService.sendEarthquakeEvent(EARTHQUAKE_DATA_TOPIC, event);
 
                     if (metric.isDangerous()) {
-                        kafkaProducerService.sendEarthquakeEvent(EARTHQUAKE_ALERT_TOPIC, event);
+                        return runCoordinator.awaitPublished(NEAR_LOCATION_RUN, data,
+                                kafkaProducerService.sendEarthquakeEvent(EARTHQUAKE_ALERT_TOPIC, event));
                     }
+                    return runCoordinator.awaitPublished(NEAR_LOCATION_RUN, data);
                 })
                 .doOnComplete(() -> log.info("Completed location-based earthquake collection"))
-                .doOnError(error -> log.error("Error during location-based earthquake collection", error))
-                .subscribe();
+                .doOnError(error -> log.error("Error during location-based earthquake collection", error)));
     }
 }
@@ -0,0 +1,317 @@
+package com.aiscientist.data_collector.service;
+
+import com.aiscientist.data_collector.model.EarthquakeMetric;
+import com.aiscientist.data_collector.repository.EarthquakeRepository;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.LongSupplier;
+
+/**
+ * Earthquake counts for the stats endpoint and Prometheus, kept in memory.
+ *
+ * Newly stored earthquakes are added to one-minute buckets covering the
+ * last 7 days, counted per magnitude band (>= 0, >= 5, >= 7) and tsunami
+ * flag. Each window (24h, 7d) keeps running totals of the buckets inside
+ * it; as time moves on, buckets leaving a window are subtracted, so a count
+ * touches only the minutes elapsed since the last one and never the
+ * database. The buckets, total and latest event are rebuilt from the
+ * database once the application is ready and then on a schedule, which
+ * corrects any drift (missed writes, deletes, restarts).
+ */
+@Component
+@Slf4j
+public class EarthquakeStatistics {
+
+    public static final Duration DAY = Duration.ofDays(1);
+    public static final Duration WEEK = Duration.ofDays(7);
+
+    static final double DANGEROUS_MAGNITUDE = 5.0;
+    static final double CATASTROPHIC_MAGNITUDE = 7.0;
+
+    private static final int ALL = 0;
+    private static final int DANGEROUS = 1;
+    private static final int CATASTROPHIC = 2;
+    private static final int TSUNAMI = 3;
+    private static final int CATEGORIES = 4;
+
+    private static final int BUCKETS = (int) WEEK.toMinutes() + 1;
+
+    private static final Duration[] WINDOWS = {DAY, WEEK};
+    private static final int LAST_DAY = 0;
+    private static final int LAST_WEEK = 1;
+
+    private final EarthquakeRepository earthquakeRepository;
+    private final LongSupplier clock;
+
+    // Guarded by this
+    private final long[] bucketMinutes = new long[BUCKETS];
+    private final long[][] counts = new long[BUCKETS][CATEGORIES];
+    // Per window: first minute inside it, and the sums of its buckets from there on
+    private final long[] windowStarts = new long[WINDOWS.length];
+    private final long[][] windowCounts = new long[WINDOWS.length][CATEGORIES];
+    private long total;
+    private EarthquakeMetric latest;
+    private Instant reconciledAt;
+    private Map<String, EarthquakeMetric> recordedWhileReconciling;
+
+    /**
+     * Counts at one point in time, as served by the stats endpoint
+     */
+    public record Snapshot(long total, long last24Hours, long last7Days, long dangerous24h,
+                           long catastrophic7days, long tsunamiWarnings24h,
+                           EarthquakeMetric latest, Instant reconciledAt) {
+    }
+
+    @Autowired
+    public EarthquakeStatistics(EarthquakeRepository earthquakeRepository, MeterRegistry meterRegistry) {
+        this(earthquakeRepository, meterRegistry, System::currentTimeMillis);
+    }
+
+    EarthquakeStatistics(EarthquakeRepository earthquakeRepository, MeterRegistry meterRegistry, LongSupplier clock) {
+        this.earthquakeRepository = earthquakeRepository;
+        this.clock = clock;
+        Arrays.fill(bucketMinutes, Long.MIN_VALUE);
+        resetWindows();
+        registerGauges(meterRegistry);
+    }
+
+    /**
+     * Count a newly stored earthquake
+     */
+    public synchronized void record(EarthquakeMetric metric) {
+        if (recordedWhileReconciling != null) {
+            recordedWhileReconciling.put(metric.getEarthquakeId(), metric);
+        }
+        total++;
+        add(metric);
+    }
+
+    /**
+     * Current counts. Until the first reconciliation has run (reconciledAt
+     * is null) they only cover earthquakes stored since startup.
+     */
+    public synchronized Snapshot snapshot() {
+        return new Snapshot(total,
+                count(LAST_DAY, ALL), count(LAST_WEEK, ALL),
+                count(LAST_DAY, DANGEROUS), count(LAST_WEEK, CATASTROPHIC),
+                count(LAST_DAY, TSUNAMI),
+                latest, reconciledAt);
+    }
+
+    /**
+     * Build the counts from the database before the first scheduled
+     * reconciliation, so no request has to wait for it
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void reconcileOnStartup() {
+        reconcile();
+    }
+
+    /**
+     * Rebuild all counts from the database. Earthquakes recorded while the
+     * queries run are re-applied unless the queries already saw them.
+     */
+    @Scheduled(fixedDelayString = "${app.earthquake-stats.reconcile-interval:PT10M}",
+            initialDelayString = "${app.earthquake-stats.reconcile-interval:PT10M}")
+    public void reconcile() {
+        synchronized (this) {
+            if (recordedWhileReconciling != null) {
+                return;
+            }
+            recordedWhileReconciling = new HashMap<>();
+        }
+
+        try {
+            long dbTotal = earthquakeRepository.count();
+            EarthquakeMetric dbLatest = earthquakeRepository.findFirstByOrderByEventTimeDesc().orElse(null);
+            List<EarthquakeRepository.EarthquakeStatsRow> window = earthquakeRepository
+                    .findStatsRowsByEventTimeGreaterThanEqual(Instant.ofEpochMilli(clock.getAsLong()).minus(WEEK));
+
+            synchronized (this) {
+                long drift = total - dbTotal;
+                Arrays.fill(bucketMinutes, Long.MIN_VALUE);
+                for (long[] bucket : counts) {
+                    Arrays.fill(bucket, 0);
+                }
+                resetWindows();
+                Set<String> seen = new HashSet<>();
+                for (EarthquakeRepository.EarthquakeStatsRow row : window) {
+                    seen.add(row.getEarthquakeId());
+                    add(row.getEventTime(), row.getMagnitude(), row.getTsunamiWarning());
+                }
+                total = dbTotal;
+                latest = dbLatest;
+                recordedWhileReconciling.values().stream()
+                        .filter(metric -> !seen.contains(metric.getEarthquakeId()))
+                        .forEach(metric -> {
+                            total++;
+                            add(metric);
+                        });
+
+                if (reconciledAt != null && drift != 0) {
+                    log.info("Earthquake statistics drifted by {} from the database, reconciled", drift);
+                }
+                reconciledAt = Instant.ofEpochMilli(clock.getAsLong());
+            }
+        } catch (RuntimeException e) {
+            log.error("Failed to reconcile earthquake statistics: {}", e.getMessage());
+        } finally {
+            synchronized (this) {
+                recordedWhileReconciling = null;
+            }
+        }
+    }
+
+    private void add(EarthquakeMetric metric) {
+        add(metric.getEventTime(), metric.getMagnitude(), metric.getTsunamiWarning());
+        if (metric.getEventTime() != null
+                && (latest == null || metric.getEventTime().isAfter(latest.getEventTime()))) {
+            latest = metric;
+        }
+    }
+
+    private void add(Instant eventTime, Double magnitude, Boolean tsunamiWarning) {
+        if (eventTime == null) {
+            return;
+        }
+        long minute = Math.floorDiv(eventTime.getEpochSecond(), 60);
+        if (minute <= nowMinute() - BUCKETS) {
+            return;
+        }
+        advanceWindows();
+        int slot = (int) Math.floorMod(minute, (long) BUCKETS);
+        if (bucketMinutes[slot] != minute) {
+            subtractFromWindows(slot);
+            bucketMinutes[slot] = minute;
+            Arrays.fill(counts[slot], 0);
+        }
+        // Same bands as the queries this replaces: magnitude >= 0 / 5 / 7
+        if (magnitude != null && magnitude >= 0) {
+            increment(slot, ALL);
+            if (magnitude >= DANGEROUS_MAGNITUDE) {
+                increment(slot, DANGEROUS);
+            }
+            if (magnitude >= CATASTROPHIC_MAGNITUDE) {
+                increment(slot, CATASTROPHIC);
+            }
+        }
+        if (Boolean.TRUE.equals(tsunamiWarning)) {
+            increment(slot, TSUNAMI);
+        }
+    }
+
+    private void increment(int slot, int category) {
+        counts[slot][category]++;
+        for (int window = 0; window < WINDOWS.length; window++) {
+            if (bucketMinutes[slot] >= windowStarts[window]) {
+                windowCounts[window][category]++;
+            }
+        }
+    }
+
+    private synchronized long count(int window, int category) {
+        advanceWindows();
+        return windowCounts[window][category];
+    }
+
+    /**
+     * Move every window's start up to now, subtracting the buckets it passes
+     */
+    private void advanceWindows() {
+        for (int window = 0; window < WINDOWS.length; window++) {
+            long start = windowStart(window);
+            if (start - windowStarts[window] > BUCKETS) {
+                // Idle for longer than the buckets reach: every bucket has been passed
+                windowStarts[window] = start;
+                sumWindow(window);
+                continue;
+            }
+            for (long minute = windowStarts[window]; minute < start; minute++) {
+                int slot = (int) Math.floorMod(minute, (long) BUCKETS);
+                if (bucketMinutes[slot] == minute) {
+                    for (int category = 0; category < CATEGORIES; category++) {
+                        windowCounts[window][category] -= counts[slot][category];
+                    }
+                }
+            }
+            windowStarts[window] = Math.max(windowStarts[window], start);
+        }
+    }
+
+    /**
+     * Take a bucket about to be reused out of the windows still holding it
+     */
+    private void subtractFromWindows(int slot) {
+        for (int window = 0; window < WINDOWS.length; window++) {
+            if (bucketMinutes[slot] >= windowStarts[window]) {
+                for (int category = 0; category < CATEGORIES; category++) {
+                    windowCounts[window][category] -= counts[slot][category];
+                }
+            }
+        }
+    }
+
+    private void resetWindows() {
+        for (int window = 0; window < WINDOWS.length; window++) {
+            windowStarts[window] = windowStart(window);
+            sumWindow(window);
+        }
+    }
+
+    private void sumWindow(int window) {
+        Arrays.fill(windowCounts[window], 0);
+        for (int slot = 0; slot < BUCKETS; slot++) {
+            if (bucketMinutes[slot] >= windowStarts[window]) {
+                for (int category = 0; category < CATEGORIES; category++) {
+                    windowCounts[window][category] += counts[slot][category];
+                }
+            }
+        }
+    }
+
+    private long windowStart(int window) {
+        return Math.floorDiv(Instant.ofEpochMilli(clock.getAsLong()).minus(WINDOWS[window]).getEpochSecond(), 60);
+    }
+
+    private long nowMinute() {
+        return Math.floorDiv(clock.getAsLong(), 60_000L);
+    }
+
+    private synchronized long total() {
+        return total;
+    }
+
+    private void registerGauges(MeterRegistry meterRegistry) {
+        Gauge.builder("collector.earthquakes.total", this, EarthquakeStatistics::total)
+                .description("Earthquakes stored")
+                .register(meterRegistry);
+        Map<String, Integer> windows = Map.of("24h", LAST_DAY, "7d", LAST_WEEK);
+        Map<String, Integer> bands = Map.of("all", ALL, "dangerous", DANGEROUS, "catastrophic", CATASTROPHIC);
+        windows.forEach((windowName, window) -> {
+            bands.forEach((bandName, band) -> Gauge.builder("collector.earthquakes", this, s -> s.count(window, band))
+                    .description("Earthquakes by event time within the window, by magnitude band")
+                    .tag("window", windowName)
+                    .tag("band", bandName)
+                    .register(meterRegistry));
+            Gauge.builder("collector.earthquakes.tsunami", this, s -> s.count(window, TSUNAMI))
+                    .description("Earthquakes with a tsunami warning within the window")
+                    .tag("window", windowName)
+                    .register(meterRegistry);
+        });
+    }
+}
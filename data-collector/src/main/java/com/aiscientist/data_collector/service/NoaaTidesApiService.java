@@ -1,9 +1,14 @@
 package com.aiscientist.data_collector.service;
 
+import com.aiscientist.data_collector.config.AppConfig;
 import com.aiscientist.data_collector.dto.NoaaTidesResponse;
 import com.aiscientist.data_collector.dto.WaterLevelEvent;
 import com.aiscientist.data_collector.exception.ExternalApiException;
+import com.aiscientist.data_collector.http.UpstreamRateLimiterRegistry;
+import com.aiscientist.data_collector.http.UpstreamSource;
 import com.aiscientist.data_collector.model.WaterLevelMetric;
+import com.aiscientist.data_collector.persistence.BlockingPersistence;
+import com.aiscientist.data_collector.persistence.RawPayloadStore;
 import com.aiscientist.data_collector.repository.WaterLevelMetricRepository;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import io.github.resilience4j.circuitbreaker.annotation.CircuitBreaker;
@@ -32,16 +37,22 @@ import java.util.List;
 @Slf4j
 public class NoaaTidesApiService {
 
-    private final WebClient.Builder webClientBuilder;
+    private final WebClient noaaTidesWebClient;
     private final WaterLevelMetricRepository waterLevelRepository;
     private final ObjectMapper objectMapper;
-
-    @Value("${app.noaa.tides.base-url:https://api.tidesandcurrents.noaa.gov/api/prod}")
-    private String baseUrl;
+    private final UpstreamRateLimiterRegistry rateLimiterRegistry;
+    private final BlockingPersistence persistence;
+    private final RawPayloadStore rawPayloadStore;
+    private final WaterLevelRollupService rollupService;
+    private final StationStateService stationStateService;
 
     @Value("${app.noaa.tides.application:ai-scientist-ecosystem}")
     private String application;
 
+    /** Extra stations served by the local upstream stub, for benchmarks */
+    @Value("${app.stub.synthetic-stations:0}")
+    private int syntheticStations;
+
     // Major US coastal stations for monitoring
     private static final List<String> MONITORING_STATIONS = Arrays.asList(
         "8518750",  // The Battery, NY
@@ -61,22 +72,63 @@ public class NoaaTidesApiService {
     );
 
     /**
-     * Fetch water level for a specific station
+     * Fetch and save water level for a specific station
      */
     @CircuitBreaker(name = "noaa-tides-api", fallbackMethod = "fetchWaterLevelFallback")
     @Retry(name = "noaa-tides-api")
     @Cacheable(value = "noaa-tides", key = "#stationId", unless = "#result == null")
     public Mono<WaterLevelMetric> fetchWaterLevel(String stationId) {
-        log.info("Fetching water level for NOAA station: {}", stationId);
+        return requestWaterLevel(stationId)
+            .flatMap(metric -> persistence.call(() -> save(metric)))
+            .doOnNext(metric -> log.info("Saved water level for station {}: {} meters",
+                stationId, metric.getWaterLevelMeters()))
+            .onErrorResume(error -> {
+                log.error("Failed to save water level for station {}: {}", stationId, error.getMessage());
+                return Mono.empty();
+            });
+    }
+
+    /**
+     * Fetch one station's water level and save it only if it is newer than the
+     * station's current reading; completes empty when the upstream has not
+     * published a new observation since the last one
+     */
+    @CircuitBreaker(name = "noaa-tides-api", fallbackMethod = "fetchWaterLevelIfNewerFallback")
+    @Retry(name = "noaa-tides-api")
+    public Mono<WaterLevelMetric> fetchWaterLevelIfNewer(String stationId) {
+        return requestWaterLevel(stationId)
+            .flatMap(metric -> persistence.call(() -> stationStateService.isNewer(metric) ? save(metric) : null))
+            .switchIfEmpty(Mono.fromRunnable(() -> log.debug("No new water level for station {}", stationId)))
+            .onErrorResume(error -> {
+                log.error("Failed to save water level for station {}: {}", stationId, error.getMessage());
+                return Mono.empty();
+            });
+    }
 
-        String url = String.format("%s/datagetter", baseUrl);
+    /**
+     * Fetch water levels for all monitoring stations, saving them in batches
+     */
+    public Flux<WaterLevelMetric> fetchAllMonitoringStations() {
+        List<String> stations = getMonitoringStations();
+        log.info("Fetching water levels for {} monitoring stations", stations.size());
         
-        WebClient webClient = webClientBuilder
-            .baseUrl(url)
-            .build();
+        Flux<WaterLevelMetric> metrics = Flux.fromIterable(stations)
+            // Pacing is done by the client's token bucket; this only caps in-flight requests
+            .flatMap(this::requestWaterLevel, rateLimiterRegistry.maxConcurrency(UpstreamSource.NOAA_TIDES));
+
+        return persistence.saveInBatches(metrics, this::saveAll)
+            .doOnComplete(() -> log.info("Completed fetching all monitoring stations"));
+    }
 
-        return webClient.get()
+    /**
+     * Call the API for one station and convert the response, without saving it
+     */
+    private Mono<WaterLevelMetric> requestWaterLevel(String stationId) {
+        log.info("Fetching water level for NOAA station: {}", stationId);
+
+        return noaaTidesWebClient.get()
             .uri(uriBuilder -> uriBuilder
+                .path("/datagetter")
                 .queryParam("station", stationId)
                 .queryParam("product", "water_level")
                 .queryParam("datum", "MLLW")  // Mean Lower Low Water
@@ -87,15 +139,8 @@ public class NoaaTidesApiService {
                 .queryParam("date", "latest")
                 .build())
             .retrieve()
-            .bodyToMono(NoaaTidesResponse.class)
-            .map(response -> convertToMetric(response, stationId))
-            .doOnSuccess(metric -> {
-                if (metric != null) {
-                    waterLevelRepository.save(metric);
-                    log.info("Saved water level for station {}: {} meters", 
-                        stationId, metric.getWaterLevelMeters());
-                }
-            })
+            .bodyToMono(String.class)
+            .mapNotNull(body -> convertToMetric(body, stationId))
             .doOnError(error -> log.error("Error fetching water level for station {}", stationId, error))
             .onErrorResume(error -> {
                 log.error("Failed to fetch water level for station {}: {}", stationId, error.getMessage());
@@ -104,22 +149,45 @@ public class NoaaTidesApiService {
     }
 
     /**
-     * Fetch water levels for all monitoring stations
+     * Save one reading, moving its raw payload to the payload store
      */
-    public Flux<WaterLevelMetric> fetchAllMonitoringStations() {
-        log.info("Fetching water levels for {} monitoring stations", MONITORING_STATIONS.size());
-        
-        return Flux.fromIterable(MONITORING_STATIONS)
-            .flatMap(stationId -> fetchWaterLevel(stationId)
-                .delayElement(java.time.Duration.ofMillis(100))) // Rate limiting
-            .doOnComplete(() -> log.info("Completed fetching all monitoring stations"));
+    private WaterLevelMetric save(WaterLevelMetric metric) {
+        rawPayloadStore.externalize(metric);
+        WaterLevelMetric saved = waterLevelRepository.save(metric);
+        afterSave(List.of(saved));
+        return saved;
+    }
+
+    private List<WaterLevelMetric> saveAll(List<WaterLevelMetric> batch) {
+        batch.forEach(rawPayloadStore::externalize);
+        List<WaterLevelMetric> saved = waterLevelRepository.saveAll(batch);
+        afterSave(saved);
+        return saved;
+    }
+
+    /**
+     * Update station state and rollups from saved readings; failures there
+     * are logged and don't fail the save
+     */
+    private void afterSave(List<WaterLevelMetric> saved) {
+        try {
+            stationStateService.record(saved);
+        } catch (RuntimeException e) {
+            log.warn("Failed to update station state for {} readings: {}", saved.size(), e.getMessage());
+        }
+        try {
+            rollupService.record(saved);
+        } catch (RuntimeException e) {
+            log.warn("Failed to update rollups for {} readings: {}", saved.size(), e.getMessage());
+        }
     }
 
     /**
      * Convert NOAA API response to WaterLevelMetric entity
      */
-    private WaterLevelMetric convertToMetric(NoaaTidesResponse response, String stationId) {
+    private WaterLevelMetric convertToMetric(String body, String stationId) {
         try {
+            NoaaTidesResponse response = objectMapper.readValue(body, NoaaTidesResponse.class);
             if (response == null || response.getData() == null || response.getData().length == 0) {
                 log.warn("No water level data found for station {}", stationId);
                 return null;
@@ -148,7 +216,7 @@ public class NoaaTidesApiService {
                 .waterLevelFeet(waterLevelFeet)
                 .datum("MLLW")
                 .qualityCode(latestData.getQ())
-                .rawData(objectMapper.writeValueAsString(response))
+                .rawData(body)
                 .processedAt(Instant.now())
                 .build();
 
@@ -187,6 +255,14 @@ public class NoaaTidesApiService {
         return "ocean";
     }
 
+    /**
+     * Fallback for polls while the circuit breaker is open: nothing new to save
+     */
+    private Mono<WaterLevelMetric> fetchWaterLevelIfNewerFallback(String stationId, Exception e) {
+        log.warn("Circuit breaker open, skipping poll of station {}", stationId);
+        return Mono.empty();
+    }
+
     /**
      * Fallback method when circuit breaker opens
      */
@@ -194,7 +270,7 @@ public class NoaaTidesApiService {
         log.warn("Circuit breaker activated for NOAA Tides API (station {}), returning cached data", stationId, e);
         
         // Try to return latest cached data from database
-        return Mono.fromCallable(() -> 
+        return persistence.call(() ->
             waterLevelRepository.findFirstByStationIdOrderByTimestampDesc(stationId).orElse(null));
     }
 
@@ -202,6 +278,6 @@ public class NoaaTidesApiService {
      * Get list of all monitored station IDs
      */
     public List<String> getMonitoringStations() {
-        return MONITORING_STATIONS;
+        return AppConfig.StubConfig.withSyntheticStations(MONITORING_STATIONS, "STUB-T", syntheticStations);
     }
 }
@@ -0,0 +1,112 @@
+package com.aiscientist.data_collector.service;
+
+import com.aiscientist.data_collector.model.StationCurrentState;
+import com.aiscientist.data_collector.model.WaterLevelMetric;
+import com.aiscientist.data_collector.persistence.BlockingPersistence;
+import com.aiscientist.data_collector.repository.StationCurrentStateRepository;
+import com.aiscientist.data_collector.repository.WaterLevelMetricRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Instant;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Keeps station_current_state pointing at each station's latest reading and
+ * answers "current" questions (flooding, nearby, active) from it, so they
+ * cost O(stations) instead of aggregating the whole history.
+ * All methods block.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class StationStateService {
+
+    private static final List<String> FLOOD_SEVERITIES = List.of(StationCurrentState.FLOOD_SEVERITIES);
+
+    private final StationCurrentStateRepository stateRepository;
+    private final WaterLevelMetricRepository waterLevelRepository;
+    private final BlockingPersistence persistence;
+
+    /**
+     * Move each station's state to the newest of the saved readings, unless
+     * its state already points at a newer one
+     */
+    @Transactional
+    public void record(Collection<WaterLevelMetric> saved) {
+        Map<String, WaterLevelMetric> latest = saved.stream()
+            .filter(metric -> metric.getId() != null && metric.getTimestamp() != null)
+            .collect(Collectors.toMap(WaterLevelMetric::getStationId, Function.identity(),
+                (a, b) -> a.getTimestamp().isAfter(b.getTimestamp()) ? a : b));
+        if (latest.isEmpty()) {
+            return;
+        }
+
+        Map<String, StationCurrentState> states = stateRepository.findAllById(latest.keySet()).stream()
+            .collect(Collectors.toMap(StationCurrentState::getStationId, Function.identity()));
+        latest.forEach((stationId, metric) -> states
+            .computeIfAbsent(stationId, id -> StationCurrentState.builder().stationId(id).build())
+            .update(metric));
+        stateRepository.saveAll(states.values());
+    }
+
+    /**
+     * Whether a reading is newer than its station's current one, or the
+     * station has none yet
+     */
+    public boolean isNewer(WaterLevelMetric metric) {
+        return stateRepository.findById(metric.getStationId())
+            .map(state -> metric.getTimestamp().isAfter(state.getTimestamp()))
+            .orElse(true);
+    }
+
+    public List<WaterLevelMetric> findCurrentlyFlooding() {
+        return stateRepository.findLatestMetricsBySeverityIn(FLOOD_SEVERITIES);
+    }
+
+    public long countCurrentlyFlooding() {
+        return stateRepository.countByFloodSeverityIn(FLOOD_SEVERITIES);
+    }
+
+    public long countActiveStationsSince(Instant since) {
+        return stateRepository.countByTimestampGreaterThanEqual(since);
+    }
+
+    public List<WaterLevelMetric> findStationsInBoundingBox(double minLat, double maxLat,
+                                                            double minLon, double maxLon) {
+        return stateRepository.findLatestMetricsInBoundingBox(minLat, maxLat, minLon, maxLon);
+    }
+
+    /**
+     * Build the state from history once, when the table is first introduced
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void seedIfEmpty() {
+        persistence.call(() -> stateRepository.count() == 0 ? seed() : 0)
+            .subscribe(
+                stations -> {
+                    if (stations > 0) {
+                        log.info("Seeded current state of {} water level stations", stations);
+                    }
+                },
+                error -> log.error("Seeding station state failed: {}", error.getMessage()));
+    }
+
+    private int seed() {
+        List<WaterLevelMetric> latest = waterLevelRepository.findStationIdsSince(Instant.EPOCH).stream()
+            .map(waterLevelRepository::findFirstByStationIdOrderByTimestampDesc)
+            .flatMap(Optional::stream)
+            .toList();
+        record(latest);
+        return latest.size();
+    }
+}
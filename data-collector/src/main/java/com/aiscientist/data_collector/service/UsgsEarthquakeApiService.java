@@ -2,7 +2,10 @@ package com.aiscientist.data_collector.service;
 
 import com.aiscientist.data_collector.dto.EarthquakeEvent;
 import com.aiscientist.data_collector.dto.UsgsEarthquakeResponse;
+import com.aiscientist.data_collector.http.ConditionalRequestFilter;
 import com.aiscientist.data_collector.model.EarthquakeMetric;
+import com.aiscientist.data_collector.persistence.BlockingPersistence;
+import com.aiscientist.data_collector.persistence.RegionDictionary;
 import com.aiscientist.data_collector.repository.EarthquakeRepository;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import io.github.resilience4j.circuitbreaker.annotation.CircuitBreaker;
@@ -16,10 +19,17 @@ import org.springframework.web.reactive.function.client.WebClient;
 import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 
+import java.io.IOException;
 import java.time.Duration;
 import java.time.Instant;
 import java.time.temporal.ChronoUnit;
-import java.util.Optional;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 
 /**
  * Service to fetch earthquake data from USGS Earthquake API
@@ -32,23 +42,29 @@ public class UsgsEarthquakeApiService {
     private final WebClient webClient;
     private final EarthquakeRepository earthquakeRepository;
     private final ObjectMapper objectMapper;
+    private final BlockingPersistence persistence;
+    private final EarthquakeStatistics statistics;
+    private final RegionDictionary regionDictionary;
 
     public UsgsEarthquakeApiService(
             @Qualifier("usgsWebClient") WebClient webClient,
             EarthquakeRepository earthquakeRepository,
-            ObjectMapper objectMapper) {
+            ObjectMapper objectMapper,
+            BlockingPersistence persistence,
+            EarthquakeStatistics statistics,
+            RegionDictionary regionDictionary) {
         this.webClient = webClient;
         this.earthquakeRepository = earthquakeRepository;
         this.objectMapper = objectMapper;
+        this.persistence = persistence;
+        this.statistics = statistics;
+        this.regionDictionary = regionDictionary;
     }
 
     @Value("${app.usgs.earthquake.base-url:https://earthquake.usgs.gov}")
     private String baseUrl;
 
-    @Value("${app.usgs.earthquake.min-magnitude:4.5}")
-    private Double minMagnitude;
-
-    private static final String EARTHQUAKE_ENDPOINT = "/fdsnws/event/1/query";
+    public static final String EARTHQUAKE_ENDPOINT = "/fdsnws/event/1/query";
 
     /**
      * Fetch recent earthquakes from USGS API
@@ -71,22 +87,17 @@ public class UsgsEarthquakeApiService {
 
         return webClient.get()
                 .uri(baseUrl + EARTHQUAKE_ENDPOINT + queryParams)
+                // starttime moves on every poll; compare content per query window instead
+                .attribute(ConditionalRequestFilter.CACHE_KEY_ATTRIBUTE, "recent:" + hours + ":" + minMag)
                 .retrieve()
                 .bodyToMono(String.class)
                 .flatMapMany(this::parseEarthquakeResponse)
-                .flatMap(this::convertToMetric)
+                .transform(this::saveNewEarthquakes)
                 .doOnNext(metric -> log.debug("Fetched earthquake: {} - M{} at {}",
                         metric.getEarthquakeId(), metric.getMagnitude(), metric.getLocation()))
                 .doOnError(error -> log.error("Error fetching earthquakes from USGS", error));
     }
 
-    /**
-     * Fetch earthquakes with default settings (last 24 hours, magnitude >= configured minimum)
-     */
-    public Flux<EarthquakeMetric> fetchRecentEarthquakes() {
-        return fetchRecentEarthquakes(24, minMagnitude);
-    }
-
     /**
      * Fetch significant earthquakes (magnitude >= 6.0) from last 7 days
      */
@@ -124,46 +135,110 @@ public class UsgsEarthquakeApiService {
                 .retrieve()
                 .bodyToMono(String.class)
                 .flatMapMany(this::parseEarthquakeResponse)
-                .flatMap(this::convertToMetric)
+                .transform(this::saveNewEarthquakes)
                 .doOnError(error -> log.error("Error fetching nearby earthquakes", error));
     }
 
     /**
      * Parse JSON response from USGS API
      */
-    private Flux<UsgsEarthquakeResponse.EarthquakeFeature> parseEarthquakeResponse(String jsonResponse) {
-        return Mono.fromCallable(() -> {
-            UsgsEarthquakeResponse response = objectMapper.readValue(
-                    jsonResponse, UsgsEarthquakeResponse.class);
-            
-            log.info("Parsed {} earthquake events from USGS", 
-                    response.getFeatures() != null ? response.getFeatures().size() : 0);
-            
-            return response.getFeatures();
-        })
-        .flatMapMany(Flux::fromIterable)
-        .onErrorResume(error -> {
-            log.error("Failed to parse USGS earthquake response", error);
-            return Flux.empty();
-        });
+    private Flux<EarthquakeMetric> parseEarthquakeResponse(String jsonResponse) {
+        return Mono.fromCallable(() -> toMetrics(jsonResponse))
+                .flatMapMany(Flux::fromIterable)
+                .onErrorResume(error -> {
+                    log.error("Failed to parse USGS earthquake response", error);
+                    return Flux.empty();
+                });
     }
 
     /**
-     * Convert USGS feature to EarthquakeMetric entity
+     * Convert a USGS GeoJSON response to metrics (not saved), skipping
+     * features that can't be converted
      */
-    private Mono<EarthquakeMetric> convertToMetric(UsgsEarthquakeResponse.EarthquakeFeature feature) {
-        return Mono.fromCallable(() -> {
-            UsgsEarthquakeResponse.Properties props = feature.getProperties();
-            UsgsEarthquakeResponse.Geometry geom = feature.getGeometry();
+    public List<EarthquakeMetric> toMetrics(String jsonResponse) throws IOException {
+        UsgsEarthquakeResponse response = objectMapper.readValue(jsonResponse, UsgsEarthquakeResponse.class);
+        if (response.getFeatures() == null) {
+            return List.of();
+        }
+        log.info("Parsed {} earthquake events from USGS", response.getFeatures().size());
+        return response.getFeatures().stream()
+                .map(this::convertToMetric)
+                .filter(Objects::nonNull)
+                .toList();
+    }
 
-            // Check if earthquake already exists in database
-            Optional<EarthquakeMetric> existing = earthquakeRepository
-                    .findByEarthquakeId(feature.getId());
+    /**
+     * Save the metrics not stored yet, one batch per blocking call on the
+     * persistence scheduler. Already stored earthquakes are emitted as they
+     * are in the database.
+     */
+    private Flux<EarthquakeMetric> saveNewEarthquakes(Flux<EarthquakeMetric> metrics) {
+        return persistence.saveInBatches(metrics, this::saveNew)
+                .doOnNext(metric -> log.debug("Converted and saved earthquake: {}", metric.getEarthquakeId()));
+    }
 
-            if (existing.isPresent()) {
-                log.debug("Earthquake {} already exists, skipping", feature.getId());
-                return existing.get();
-            }
+    private List<EarthquakeMetric> saveNew(List<EarthquakeMetric> batch) {
+        Map<String, EarthquakeMetric> byId = byId(batch);
+        Map<String, EarthquakeMetric> existing = findExisting(byId.keySet());
+        Map<String, EarthquakeMetric> saved = insert(byId, existing);
+
+        return byId.keySet().stream()
+                .map(id -> existing.containsKey(id) ? existing.get(id) : saved.get(id))
+                .toList();
+    }
+
+    /**
+     * Save the earthquakes of a batch that are not stored yet. Blocking.
+     *
+     * @return The earthquakes this call stored
+     */
+    public List<EarthquakeMetric> saveNewOnly(List<EarthquakeMetric> batch) {
+        Map<String, EarthquakeMetric> byId = byId(batch);
+        return List.copyOf(insert(byId, findExisting(byId.keySet())).values());
+    }
+
+    private static Map<String, EarthquakeMetric> byId(List<EarthquakeMetric> batch) {
+        Map<String, EarthquakeMetric> byId = new LinkedHashMap<>();
+        batch.forEach(metric -> byId.putIfAbsent(metric.getEarthquakeId(), metric));
+        return byId;
+    }
+
+    private Map<String, EarthquakeMetric> findExisting(Collection<String> earthquakeIds) {
+        return earthquakeRepository.findByEarthquakeIdIn(earthquakeIds).stream()
+                .collect(Collectors.toMap(EarthquakeMetric::getEarthquakeId, Function.identity(), (a, b) -> a));
+    }
+
+    private Map<String, EarthquakeMetric> insert(Map<String, EarthquakeMetric> byId,
+                                                 Map<String, EarthquakeMetric> existing) {
+        List<EarthquakeMetric> toSave = byId.values().stream()
+                .filter(metric -> !existing.containsKey(metric.getEarthquakeId()))
+                .toList();
+        log.debug("Earthquake batch of {}: {} new, {} already stored", byId.size(), toSave.size(), existing.size());
+        toSave.forEach(this::assignRegion);
+
+        Map<String, EarthquakeMetric> saved = earthquakeRepository.saveAll(toSave).stream()
+                .collect(Collectors.toMap(EarthquakeMetric::getEarthquakeId, Function.identity(),
+                        (a, b) -> a, LinkedHashMap::new));
+        saved.values().forEach(statistics::record);
+        return saved;
+    }
+
+    /**
+     * Replace the free-form region with its canonical region and id
+     */
+    private void assignRegion(EarthquakeMetric metric) {
+        Integer regionId = regionDictionary.intern(metric.getRegion());
+        metric.setRegionId(regionId);
+        regionDictionary.nameOf(regionId).ifPresent(metric::setRegion);
+    }
+
+    /**
+     * Convert USGS feature to EarthquakeMetric entity (not saved)
+     */
+    private EarthquakeMetric convertToMetric(UsgsEarthquakeResponse.EarthquakeFeature feature) {
+        try {
+            UsgsEarthquakeResponse.Properties props = feature.getProperties();
+            UsgsEarthquakeResponse.Geometry geom = feature.getGeometry();
 
             // Extract coordinates [longitude, latitude, depth]
             Double longitude = geom.getCoordinates().get(0);
@@ -173,7 +248,7 @@ public class UsgsEarthquakeApiService {
             // Determine region from place string
             String region = extractRegion(props.getPlace());
 
-            EarthquakeMetric metric = EarthquakeMetric.builder()
+            return EarthquakeMetric.builder()
                     .earthquakeId(feature.getId())
                     .magnitude(props.getMagnitude())
                     .magnitudeType(props.getMagnitudeType())
@@ -192,15 +267,10 @@ public class UsgsEarthquakeApiService {
                     .eventUrl(props.getUrl())
                     .collectedAt(Instant.now())
                     .build();
-
-            // Save to database
-            return earthquakeRepository.save(metric);
-        })
-        .doOnSuccess(metric -> log.debug("Converted and saved earthquake: {}", metric.getEarthquakeId()))
-        .onErrorResume(error -> {
-            log.error("Failed to convert earthquake feature", error);
-            return Mono.empty();
-        });
+        } catch (Exception e) {
+            log.error("Failed to convert earthquake feature", e);
+            return null;
+        }
     }
 
     /**
@@ -260,7 +330,7 @@ public class UsgsEarthquakeApiService {
         
         // Return recent earthquakes from database
         Instant cutoff = Instant.now().minus(24, ChronoUnit.HOURS);
-        return Flux.fromIterable(earthquakeRepository.findRecentEarthquakes(cutoff))
+        return persistence.many(() -> earthquakeRepository.findRecentEarthquakes(cutoff))
                 .doOnNext(metric -> log.debug("Returning cached earthquake: {}", metric.getEarthquakeId()));
     }
 
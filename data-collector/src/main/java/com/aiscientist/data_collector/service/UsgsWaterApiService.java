@@ -1,8 +1,13 @@
 package com.aiscientist.data_collector.service;
 
+import com.aiscientist.data_collector.config.AppConfig;
 import com.aiscientist.data_collector.dto.UsgsWaterResponse;
 import com.aiscientist.data_collector.dto.WaterLevelEvent;
+import com.aiscientist.data_collector.http.UpstreamRateLimiterRegistry;
+import com.aiscientist.data_collector.http.UpstreamSource;
 import com.aiscientist.data_collector.model.WaterLevelMetric;
+import com.aiscientist.data_collector.persistence.BlockingPersistence;
+import com.aiscientist.data_collector.persistence.RawPayloadStore;
 import com.aiscientist.data_collector.repository.WaterLevelMetricRepository;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import io.github.resilience4j.circuitbreaker.annotation.CircuitBreaker;
@@ -30,12 +35,18 @@ import java.util.List;
 @Slf4j
 public class UsgsWaterApiService {
 
-    private final WebClient.Builder webClientBuilder;
+    private final WebClient usgsWaterWebClient;
     private final WaterLevelMetricRepository waterLevelRepository;
     private final ObjectMapper objectMapper;
+    private final UpstreamRateLimiterRegistry rateLimiterRegistry;
+    private final BlockingPersistence persistence;
+    private final RawPayloadStore rawPayloadStore;
+    private final WaterLevelRollupService rollupService;
+    private final StationStateService stationStateService;
 
-    @Value("${app.usgs.water.base-url:https://waterservices.usgs.gov/nwis/iv}")
-    private String baseUrl;
+    /** Extra sites served by the local upstream stub, for benchmarks */
+    @Value("${app.stub.synthetic-stations:0}")
+    private int syntheticStations;
 
     // Major river monitoring sites across US
     // Format: siteCode
@@ -56,19 +67,61 @@ public class UsgsWaterApiService {
     );
 
     /**
-     * Fetch water level and discharge for a specific USGS site
+     * Fetch and save water level and discharge for a specific USGS site
      */
     @CircuitBreaker(name = "usgs-water-api", fallbackMethod = "fetchWaterDataFallback")
     @Retry(name = "usgs-water-api")
     @Cacheable(value = "usgs-water", key = "#siteCode", unless = "#result == null")
     public Mono<WaterLevelMetric> fetchWaterData(String siteCode) {
-        log.info("Fetching water data for USGS site: {}", siteCode);
+        return requestWaterData(siteCode)
+            .flatMap(metric -> persistence.call(() -> save(metric)))
+            .doOnNext(metric -> log.info("Saved water data for site {}: {} ft",
+                siteCode, metric.getGageHeightFeet()))
+            .onErrorResume(error -> {
+                log.error("Failed to save water data for site {}: {}", siteCode, error.getMessage());
+                return Mono.empty();
+            });
+    }
 
-        WebClient webClient = webClientBuilder
-            .baseUrl(baseUrl)
-            .build();
+    /**
+     * Fetch one site's water data and save it only if it is newer than the
+     * site's current reading; completes empty when the upstream has not
+     * published a new observation since the last one
+     */
+    @CircuitBreaker(name = "usgs-water-api", fallbackMethod = "fetchWaterDataIfNewerFallback")
+    @Retry(name = "usgs-water-api")
+    public Mono<WaterLevelMetric> fetchWaterDataIfNewer(String siteCode) {
+        return requestWaterData(siteCode)
+            .flatMap(metric -> persistence.call(() -> stationStateService.isNewer(metric) ? save(metric) : null))
+            .switchIfEmpty(Mono.fromRunnable(() -> log.debug("No new water data for site {}", siteCode)))
+            .onErrorResume(error -> {
+                log.error("Failed to save water data for site {}: {}", siteCode, error.getMessage());
+                return Mono.empty();
+            });
+    }
 
-        return webClient.get()
+    /**
+     * Fetch water data for all monitoring sites, saving them in batches
+     */
+    public Flux<WaterLevelMetric> fetchAllMonitoringSites() {
+        List<String> sites = getMonitoringSites();
+        log.info("Fetching water data for {} monitoring sites", sites.size());
+        
+        Flux<WaterLevelMetric> metrics = Flux.fromIterable(sites)
+            // Pacing is done by the client's token bucket; this only caps in-flight requests
+            .flatMap(this::requestWaterData, rateLimiterRegistry.maxConcurrency(UpstreamSource.USGS_WATER));
+
+        return persistence.saveInBatches(metrics, this::saveAll)
+            .doOnComplete(() -> log.info("Completed fetching all monitoring sites"));
+    }
+
+    /**
+     * Call the API for one site and convert the response, without saving it
+     */
+    private Mono<WaterLevelMetric> requestWaterData(String siteCode) {
+        log.info("Fetching water data for USGS site: {}", siteCode);
+
+        return usgsWaterWebClient.get()
             .uri(uriBuilder -> uriBuilder
                 .queryParam("format", "json")
                 .queryParam("sites", siteCode)
@@ -76,15 +129,8 @@ public class UsgsWaterApiService {
                 .queryParam("siteStatus", "active")
                 .build())
             .retrieve()
-            .bodyToMono(UsgsWaterResponse.class)
-            .map(response -> convertToMetric(response, siteCode))
-            .doOnSuccess(metric -> {
-                if (metric != null) {
-                    waterLevelRepository.save(metric);
-                    log.info("Saved water data for site {}: {} ft", 
-                        siteCode, metric.getGageHeightFeet());
-                }
-            })
+            .bodyToMono(String.class)
+            .mapNotNull(body -> convertToMetric(body, siteCode))
             .doOnError(error -> log.error("Error fetching water data for site {}", siteCode, error))
             .onErrorResume(error -> {
                 log.error("Failed to fetch water data for site {}: {}", siteCode, error.getMessage());
@@ -93,22 +139,45 @@ public class UsgsWaterApiService {
     }
 
     /**
-     * Fetch water data for all monitoring sites
+     * Save one reading, moving its raw payload to the payload store
      */
-    public Flux<WaterLevelMetric> fetchAllMonitoringSites() {
-        log.info("Fetching water data for {} monitoring sites", MONITORING_SITES.size());
-        
-        return Flux.fromIterable(MONITORING_SITES)
-            .flatMap(siteCode -> fetchWaterData(siteCode)
-                .delayElement(java.time.Duration.ofMillis(150))) // Rate limiting
-            .doOnComplete(() -> log.info("Completed fetching all monitoring sites"));
+    private WaterLevelMetric save(WaterLevelMetric metric) {
+        rawPayloadStore.externalize(metric);
+        WaterLevelMetric saved = waterLevelRepository.save(metric);
+        afterSave(List.of(saved));
+        return saved;
+    }
+
+    private List<WaterLevelMetric> saveAll(List<WaterLevelMetric> batch) {
+        batch.forEach(rawPayloadStore::externalize);
+        List<WaterLevelMetric> saved = waterLevelRepository.saveAll(batch);
+        afterSave(saved);
+        return saved;
+    }
+
+    /**
+     * Update station state and rollups from saved readings; failures there
+     * are logged and don't fail the save
+     */
+    private void afterSave(List<WaterLevelMetric> saved) {
+        try {
+            stationStateService.record(saved);
+        } catch (RuntimeException e) {
+            log.warn("Failed to update station state for {} readings: {}", saved.size(), e.getMessage());
+        }
+        try {
+            rollupService.record(saved);
+        } catch (RuntimeException e) {
+            log.warn("Failed to update rollups for {} readings: {}", saved.size(), e.getMessage());
+        }
     }
 
     /**
      * Convert USGS API response to WaterLevelMetric entity
      */
-    private WaterLevelMetric convertToMetric(UsgsWaterResponse response, String siteCode) {
+    private WaterLevelMetric convertToMetric(String body, String siteCode) {
         try {
+            UsgsWaterResponse response = objectMapper.readValue(body, UsgsWaterResponse.class);
             if (response == null || response.getValue() == null || 
                 response.getValue().getTimeSeries() == null || 
                 response.getValue().getTimeSeries().length == 0) {
@@ -165,7 +234,7 @@ public class UsgsWaterApiService {
                 }
             }
 
-            builder.rawData(objectMapper.writeValueAsString(response))
+            builder.rawData(body)
                    .processedAt(Instant.now());
 
             return builder.build();
@@ -206,6 +275,14 @@ public class UsgsWaterApiService {
         return "river";
     }
 
+    /**
+     * Fallback for polls while the circuit breaker is open: nothing new to save
+     */
+    private Mono<WaterLevelMetric> fetchWaterDataIfNewerFallback(String siteCode, Exception e) {
+        log.warn("Circuit breaker open, skipping poll of site {}", siteCode);
+        return Mono.empty();
+    }
+
     /**
      * Fallback method when circuit breaker opens
      */
@@ -213,7 +290,7 @@ public class UsgsWaterApiService {
         log.warn("Circuit breaker activated for USGS Water API (site {}), returning cached data", siteCode, e);
         
         // Try to return latest cached data from database
-        return Mono.fromCallable(() -> 
+        return persistence.call(() ->
             waterLevelRepository.findFirstByStationIdOrderByTimestampDesc(siteCode).orElse(null));
     }
 
@@ -221,6 +298,6 @@ public class UsgsWaterApiService {
      * Get list of all monitored site codes
      */
     public List<String> getMonitoringSites() {
-        return MONITORING_SITES;
+        return AppConfig.StubConfig.withSyntheticStations(MONITORING_SITES, "STUB-W", syntheticStations);
     }
 }
@@ -1,12 +1,17 @@
 package com.aiscientist.data_collector.service;
 
 import com.aiscientist.data_collector.dto.WaterLevelEvent;
+import com.aiscientist.data_collector.http.UpstreamSource;
 import com.aiscientist.data_collector.kafka.KafkaProducerService;
 import com.aiscientist.data_collector.model.WaterLevelMetric;
+import com.aiscientist.data_collector.scheduler.CollectionRunCoordinator;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
 import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.concurrent.CompletableFuture;
 
 /**
  * Service to orchestrate water level data collection from multiple sources
@@ -19,56 +24,42 @@ public class WaterLevelCollectionService {
     private final NoaaTidesApiService noaaTidesApiService;
     private final UsgsWaterApiService usgsWaterApiService;
     private final KafkaProducerService kafkaProducerService;
+    private final CollectionRunCoordinator runCoordinator;
 
     private static final String WATER_LEVEL_TOPIC = "raw.waterlevel.data";
     private static final String FLOOD_ALERT_TOPIC = "raw.flood.alert";
 
+    private static final String NOAA_TIDES_RUN = "noaa-tides";
+    private static final String USGS_WATER_RUN = "usgs-water";
+    private static final String SPECIFIC_STATION_RUN = "water-station";
+    private static final String STATION_POLL_RUN = "water-station-poll";
+
     /**
      * Collect water level data from NOAA Tides & Currents API
      */
     public void collectNoaaTidesData() {
-        log.info("Starting NOAA tides water level collection");
-        
-        noaaTidesApiService.fetchAllMonitoringStations()
-            .doOnNext(metric -> {
-                // Publish to Kafka
-                WaterLevelEvent event = noaaTidesApiService.createEvent(metric);
-                kafkaProducerService.sendWaterLevelEvent(WATER_LEVEL_TOPIC, event);
-                
-                // If flooding detected, send alert
-                if (metric.isFlooding()) {
-                    kafkaProducerService.sendWaterLevelEvent(FLOOD_ALERT_TOPIC, event);
-                    log.warn("FLOOD ALERT: Station {} - {} severity", 
-                        metric.getStationId(), metric.getFloodSeverity());
-                }
-            })
-            .doOnComplete(() -> log.info("Completed NOAA tides water level collection"))
-            .doOnError(error -> log.error("Error during NOAA tides collection", error))
-            .subscribe();
+        runCoordinator.launch(NOAA_TIDES_RUN, () -> {
+            log.info("Starting NOAA tides water level collection");
+
+            return noaaTidesApiService.fetchAllMonitoringStations()
+                .flatMap(metric -> publish(NOAA_TIDES_RUN, metric, noaaTidesApiService.createEvent(metric)))
+                .doOnComplete(() -> log.info("Completed NOAA tides water level collection"))
+                .doOnError(error -> log.error("Error during NOAA tides collection", error));
+        });
     }
 
     /**
      * Collect water level data from USGS Water Services API
      */
     public void collectUsgsWaterData() {
-        log.info("Starting USGS river water level collection");
-        
-        usgsWaterApiService.fetchAllMonitoringSites()
-            .doOnNext(metric -> {
-                // Publish to Kafka
-                WaterLevelEvent event = usgsWaterApiService.createEvent(metric);
-                kafkaProducerService.sendWaterLevelEvent(WATER_LEVEL_TOPIC, event);
-                
-                // If flooding detected, send alert
-                if (metric.isFlooding()) {
-                    kafkaProducerService.sendWaterLevelEvent(FLOOD_ALERT_TOPIC, event);
-                    log.warn("FLOOD ALERT: Site {} - {} severity", 
-                        metric.getStationId(), metric.getFloodSeverity());
-                }
-            })
-            .doOnComplete(() -> log.info("Completed USGS river water level collection"))
-            .doOnError(error -> log.error("Error during USGS water collection", error))
-            .subscribe();
+        runCoordinator.launch(USGS_WATER_RUN, () -> {
+            log.info("Starting USGS river water level collection");
+
+            return usgsWaterApiService.fetchAllMonitoringSites()
+                .flatMap(metric -> publish(USGS_WATER_RUN, metric, usgsWaterApiService.createEvent(metric)))
+                .doOnComplete(() -> log.info("Completed USGS river water level collection"))
+                .doOnError(error -> log.error("Error during USGS water collection", error));
+        });
     }
 
     /**
@@ -88,16 +79,56 @@ public class WaterLevelCollectionService {
             return;
         }
         
-        result.doOnNext(metric -> {
-                WaterLevelEvent event = source.contains("noaa") 
+        // Ad-hoc requests for different stations may overlap
+        runCoordinator.track(SPECIFIC_STATION_RUN, () -> result.flatMap(metric -> {
+            WaterLevelEvent event = source.contains("noaa") 
+                ? noaaTidesApiService.createEvent(metric)
+                : usgsWaterApiService.createEvent(metric);
+            return publish(SPECIFIC_STATION_RUN, metric, event);
+        }));
+    }
+
+    /**
+     * Fetch, save and publish one station's reading for the adaptive poller.
+     * A reading that is not newer than the station's last one (the upstream
+     * has not published a new observation since) is neither saved nor
+     * published again.
+     *
+     * @param source Upstream source name (UpstreamSource.NOAA_TIDES or USGS_WATER)
+     * @return The new reading, once its events are acknowledged by Kafka,
+     *         or empty if there is none
+     */
+    public Mono<WaterLevelMetric> pollStation(String source, String stationId) {
+        boolean noaa = UpstreamSource.NOAA_TIDES.equals(source);
+
+        // The response's validator is only cached once the reading is saved and published
+        return runCoordinator.withCacheScope(() -> {
+            Mono<WaterLevelMetric> fetch = noaa
+                ? noaaTidesApiService.fetchWaterLevelIfNewer(stationId)
+                : usgsWaterApiService.fetchWaterDataIfNewer(stationId);
+
+            return fetch.flatMap(metric -> {
+                WaterLevelEvent event = noaa
                     ? noaaTidesApiService.createEvent(metric)
                     : usgsWaterApiService.createEvent(metric);
-                kafkaProducerService.sendWaterLevelEvent(WATER_LEVEL_TOPIC, event);
-                
-                if (metric.isFlooding()) {
-                    kafkaProducerService.sendWaterLevelEvent(FLOOD_ALERT_TOPIC, event);
-                }
-            })
-            .subscribe();
+                return publish(STATION_POLL_RUN, metric, event).thenReturn(metric);
+            });
+        });
+    }
+
+    /**
+     * Publish a water level event, plus a flood alert if the station is flooding
+     */
+    private Mono<Integer> publish(String run, WaterLevelMetric metric, WaterLevelEvent event) {
+        CompletableFuture<?> data = kafkaProducerService.sendWaterLevelEvent(WATER_LEVEL_TOPIC, event);
+
+        // If flooding detected, send alert
+        if (metric.isFlooding()) {
+            log.warn("FLOOD ALERT: Station {} - {} severity", 
+                metric.getStationId(), metric.getFloodSeverity());
+            return runCoordinator.awaitPublished(run, data,
+                kafkaProducerService.sendWaterLevelEvent(FLOOD_ALERT_TOPIC, event));
+        }
+        return runCoordinator.awaitPublished(run, data);
     }
 }
@@ -0,0 +1,103 @@
+package com.aiscientist.data_collector.service;
+
+import com.aiscientist.data_collector.config.AppConfig;
+import com.aiscientist.data_collector.model.CompletedTask;
+import com.aiscientist.data_collector.model.WaterLevelRollup.Resolution;
+import com.aiscientist.data_collector.persistence.BlockingPersistence;
+import com.aiscientist.data_collector.repository.CompletedTaskRepository;
+import com.aiscientist.data_collector.repository.WaterLevelMetricRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.ConcurrencyFailureException;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.Instant;
+
+/**
+ * Rolls up recent raw history once, when rollups are first introduced, so
+ * history ranges from before the upgrade are not blank. Runs in the
+ * background one station-day at a time, alongside live rollup writes, and
+ * records its completion in completed_tasks. Each station-day's buckets are
+ * rebuilt from the raw rows rather than added to, so readings older than
+ * what live writes already put in a bucket are not lost, and an incomplete
+ * backfill can start over on the next startup without counting any twice.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class WaterLevelRollupBackfill {
+
+    static final String TASK = "water-level-rollup-backfill";
+    private static final int ATTEMPTS = 3;
+
+    private final WaterLevelRollupService rollupService;
+    private final WaterLevelMetricRepository waterLevelRepository;
+    private final CompletedTaskRepository completedTaskRepository;
+    private final BlockingPersistence persistence;
+    private final AppConfig appConfig;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void backfillIfPending() {
+        int days = appConfig.getRollups().getBackfillDays();
+        if (days <= 0) {
+            return;
+        }
+        persistence.call(() -> completedTaskRepository.existsById(TASK) ? 0L : backfill(days))
+            .subscribe(
+                readings -> {
+                    if (readings > 0) {
+                        log.info("Rolled up {} water level readings from the last {} days", readings, days);
+                    }
+                },
+                error -> log.error("Water level rollup backfill failed, it resumes on the next start: {}",
+                    error.getMessage()));
+    }
+
+    long backfill(int days) {
+        Instant end = Instant.now();
+        // Whole UTC days, so each station-day covers whole buckets at every resolution
+        Instant start = Resolution.DAILY.bucketStart(end.minus(Duration.ofDays(days)));
+        long readings = 0;
+        boolean complete = true;
+        for (String stationId : waterLevelRepository.findStationIdsSince(start)) {
+            for (Instant from = start; from.isBefore(end); from = from.plus(Duration.ofDays(1))) {
+                int rolledUp = rebuild(stationId, from);
+                if (rolledUp >= 0) {
+                    readings += rolledUp;
+                } else {
+                    complete = false;
+                }
+            }
+        }
+        if (complete) {
+            completedTaskRepository.save(CompletedTask.builder().name(TASK).completedAt(Instant.now()).build());
+        } else {
+            log.warn("Water level rollup backfill incomplete, it resumes on the next start");
+        }
+        return readings;
+    }
+
+    /**
+     * Roll up one station-day, retrying when a live write updated one of
+     * its buckets at the same time
+     *
+     * @return Number of readings rolled up, or -1 if the station-day kept
+     * conflicting and was skipped
+     */
+    private int rebuild(String stationId, Instant day) {
+        for (int attempt = 1; ; attempt++) {
+            try {
+                return rollupService.rebuild(stationId, day, day.plus(Duration.ofDays(1)));
+            } catch (ConcurrencyFailureException e) {
+                if (attempt == ATTEMPTS) {
+                    log.warn("Skipped rollup backfill of station {} on {} after {} conflicts: {}",
+                        stationId, day, ATTEMPTS, e.getMessage());
+                    return -1;
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,223 @@
+package com.aiscientist.data_collector.service;
+
+import com.aiscientist.data_collector.dto.WaterLevelHistoryResponse;
+import com.aiscientist.data_collector.model.RollupStats;
+import com.aiscientist.data_collector.model.WaterLevelMetric;
+import com.aiscientist.data_collector.model.WaterLevelRollup;
+import com.aiscientist.data_collector.model.WaterLevelRollup.Resolution;
+import com.aiscientist.data_collector.repository.WaterLevelMetricRepository;
+import com.aiscientist.data_collector.repository.WaterLevelRollupRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Maintains 15-minute, hourly and daily rollups of water level readings and
+ * serves station history from the resolution that fits a point budget.
+ * All methods block and must run on the persistence scheduler.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class WaterLevelRollupService {
+
+    private final WaterLevelRollupRepository rollupRepository;
+    private final WaterLevelMetricRepository waterLevelRepository;
+
+    /**
+     * Add saved readings to their buckets at every resolution. Readings not
+     * newer than a bucket's last reading (re-polled observations) are skipped.
+     */
+    @Transactional
+    public void record(Collection<WaterLevelMetric> metrics) {
+        Map<String, List<WaterLevelMetric>> byStation = metrics.stream()
+            .filter(metric -> metric.getTimestamp() != null)
+            .sorted(Comparator.comparing(WaterLevelMetric::getTimestamp))
+            .collect(Collectors.groupingBy(WaterLevelMetric::getStationId, LinkedHashMap::new, Collectors.toList()));
+
+        byStation.forEach((stationId, readings) -> {
+            for (Resolution resolution : Resolution.values()) {
+                record(stationId, resolution, readings);
+            }
+        });
+    }
+
+    private void record(String stationId, Resolution resolution, List<WaterLevelMetric> readings) {
+        Set<Instant> starts = readings.stream()
+            .map(metric -> resolution.bucketStart(metric.getTimestamp()))
+            .collect(Collectors.toSet());
+        Map<Instant, WaterLevelRollup> buckets = findBuckets(stationId, resolution, starts);
+        if (buckets.size() < starts.size()) {
+            // Created up front rather than by saveAll, so backfill and live writes racing
+            // for a new bucket don't fail on uk_rollup_station_bucket
+            starts.stream()
+                .filter(start -> !buckets.containsKey(start))
+                .forEach(start -> rollupRepository.insertIfAbsent(stationId, resolution.name(), start));
+            buckets.putAll(findBuckets(stationId, resolution, starts));
+        }
+
+        for (WaterLevelMetric metric : readings) {
+            Instant start = resolution.bucketStart(metric.getTimestamp());
+            buckets.computeIfAbsent(start, key -> WaterLevelRollup.builder()
+                    .stationId(stationId)
+                    .resolution(resolution)
+                    .bucketStart(key)
+                    .build())
+                .add(metric);
+        }
+        rollupRepository.saveAll(buckets.values());
+    }
+
+    /**
+     * Roll up a station's readings in [start, end) again from its raw rows,
+     * replacing what their buckets hold. start and end must be on day
+     * boundaries, so the range covers whole buckets at every resolution.
+     * Unlike record this is idempotent, and safe alongside live writes: a
+     * bucket that a live write updates after it was loaded here fails the
+     * save with an optimistic locking conflict, and the caller retries.
+     *
+     * @return Number of readings rolled up
+     */
+    @Transactional
+    public int rebuild(String stationId, Instant start, Instant end) {
+        List<WaterLevelMetric> known = readings(stationId, start, end);
+        if (known.isEmpty()) {
+            return 0;
+        }
+
+        Map<Resolution, Map<Instant, WaterLevelRollup>> buckets = new EnumMap<>(Resolution.class);
+        for (Resolution resolution : Resolution.values()) {
+            Set<Instant> starts = known.stream()
+                .map(metric -> resolution.bucketStart(metric.getTimestamp()))
+                .collect(Collectors.toSet());
+            Map<Instant, WaterLevelRollup> existing = findBuckets(stationId, resolution, starts);
+            starts.stream()
+                .filter(bucketStart -> !existing.containsKey(bucketStart))
+                .forEach(bucketStart -> rollupRepository.insertIfAbsent(stationId, resolution.name(), bucketStart));
+            buckets.put(resolution, existing.size() < starts.size()
+                ? findBuckets(stationId, resolution, starts)
+                : existing);
+        }
+
+        // Read the raw rows again now that the buckets are loaded: a live write that
+        // committed before is in them, one that commits later conflicts on the version
+        List<WaterLevelMetric> readings = readings(stationId, start, end);
+        buckets.forEach((resolution, byStart) -> {
+            byStart.values().forEach(WaterLevelRollup::reset);
+            for (WaterLevelMetric metric : readings) {
+                // Buckets first seen by the second read belong to live writes
+                WaterLevelRollup bucket = byStart.get(resolution.bucketStart(metric.getTimestamp()));
+                if (bucket != null) {
+                    bucket.add(metric);
+                }
+            }
+            rollupRepository.saveAll(byStart.values());
+        });
+        return readings.size();
+    }
+
+    private List<WaterLevelMetric> readings(String stationId, Instant start, Instant end) {
+        return waterLevelRepository.findByStationIdAndTimestampBetweenOrderByTimestampAsc(stationId, start, end)
+            .stream()
+            .filter(metric -> metric.getTimestamp() != null && metric.getTimestamp().isBefore(end))
+            .toList();
+    }
+
+    private Map<Instant, WaterLevelRollup> findBuckets(String stationId, Resolution resolution, Set<Instant> starts) {
+        return rollupRepository.findByStationIdAndResolutionAndBucketStartIn(stationId, resolution, starts).stream()
+            .collect(Collectors.toMap(WaterLevelRollup::getBucketStart, Function.identity()));
+    }
+
+    /**
+     * History of a station between start and end with at most maxPoints
+     * points where possible: raw readings if they fit, otherwise the finest
+     * rollup resolution whose bucket count fits (daily if none does)
+     *
+     * @param resolution Resolution to use instead of choosing one, or null
+     */
+    @Transactional(readOnly = true)
+    public WaterLevelHistoryResponse history(String stationId, Instant start, Instant end,
+                                             int maxPoints, Resolution resolution) {
+        Resolution chosen = resolution != null ? resolution : chooseResolution(stationId, start, end, maxPoints);
+
+        List<WaterLevelHistoryResponse.Point> points = chosen == null
+            ? waterLevelRepository.findByStationIdAndTimestampBetweenOrderByTimestampAsc(stationId, start, end)
+                .stream().map(WaterLevelRollupService::toPoint).toList()
+            : rollupRepository.findByStationIdAndResolutionAndBucketStartBetweenOrderByBucketStartAsc(
+                    stationId, chosen, chosen.bucketStart(start), end)
+                .stream().map(WaterLevelRollupService::toPoint).toList();
+
+        return WaterLevelHistoryResponse.builder()
+            .stationId(stationId)
+            .resolution(chosen == null ? "RAW" : chosen.name())
+            .start(start)
+            .end(end)
+            .points(points)
+            .build();
+    }
+
+    /**
+     * @return Rollup resolution to read, or null for raw readings
+     */
+    Resolution chooseResolution(String stationId, Instant start, Instant end, int maxPoints) {
+        if (waterLevelRepository.countByStationIdAndTimestampBetween(stationId, start, end) <= maxPoints) {
+            return null;
+        }
+        return chooseRollup(Duration.between(start, end), maxPoints);
+    }
+
+    static Resolution chooseRollup(Duration range, int maxPoints) {
+        for (Resolution resolution : Resolution.values()) {
+            // +1: the range rarely starts on a bucket boundary
+            long buckets = range.toSeconds() / resolution.getSize().toSeconds() + 1;
+            if (buckets <= maxPoints) {
+                return resolution;
+            }
+        }
+        return Resolution.DAILY;
+    }
+
+    private static WaterLevelHistoryResponse.Point toPoint(WaterLevelMetric metric) {
+        return WaterLevelHistoryResponse.Point.builder()
+            .timestamp(metric.getTimestamp())
+            .samples(1)
+            .waterLevelFeet(series(metric.getWaterLevelFeet()))
+            .gageHeightFeet(series(metric.getGageHeightFeet()))
+            .dischargeCfs(series(metric.getDischargeCfs()))
+            .build();
+    }
+
+    private static WaterLevelHistoryResponse.Point toPoint(WaterLevelRollup rollup) {
+        return WaterLevelHistoryResponse.Point.builder()
+            .timestamp(rollup.getBucketStart())
+            .samples(rollup.getSampleCount())
+            .waterLevelFeet(series(rollup.getWaterLevelFeet()))
+            .gageHeightFeet(series(rollup.getGageHeightFeet()))
+            .dischargeCfs(series(rollup.getDischargeCfs()))
+            .build();
+    }
+
+    private static WaterLevelHistoryResponse.Series series(Double value) {
+        return value == null ? null : new WaterLevelHistoryResponse.Series(value, value, value, value);
+    }
+
+    private static WaterLevelHistoryResponse.Series series(RollupStats stats) {
+        if (stats == null || stats.getCount() == 0) {
+            return null;
+        }
+        return new WaterLevelHistoryResponse.Series(stats.getAverage(), stats.getMin(), stats.getMax(), stats.getLast());
+    }
+}
@@ -0,0 +1,85 @@
+package com.aiscientist.data_collector.stub;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferUtils;
+import org.springframework.http.HttpMethod;
+import org.springframework.web.reactive.function.client.ClientRequest;
+import org.springframework.web.reactive.function.client.ClientResponse;
+import org.springframework.web.reactive.function.client.ExchangeFilterFunction;
+import org.springframework.web.reactive.function.client.ExchangeFunction;
+
+import lombok.extern.slf4j.Slf4j;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+
+/**
+ * Writes successful responses of one upstream source to a directory as stub
+ * fixtures, named like {@link StubFixtures#fixtureName}. Each request
+ * overwrites the previous recording of the same fixture. Enabled by
+ * app.stub.record-dir; point app.stub.fixtures-dir at the same directory to
+ * replay the recordings with the "stub" profile.
+ */
+@Slf4j
+public class FixtureRecordingFilter implements ExchangeFilterFunction {
+
+    private final String source;
+    private final Path directory;
+    private final int maxBodySize;
+
+    public FixtureRecordingFilter(String source, Path directory, int maxBodySize) {
+        this.source = source;
+        this.directory = directory;
+        this.maxBodySize = maxBodySize;
+    }
+
+    @Override
+    public Mono<ClientResponse> filter(ClientRequest request, ExchangeFunction next) {
+        if (!HttpMethod.GET.equals(request.method())) {
+            return next.exchange(request);
+        }
+        Path file = directory.resolve(StubFixtures.fixtureName(source, request.url().getPath()) + ".json");
+
+        return next.exchange(request).flatMap(response -> {
+            if (!response.statusCode().is2xxSuccessful()) {
+                return Mono.just(response);
+            }
+            return DataBufferUtils.join(response.bodyToFlux(DataBuffer.class), maxBodySize)
+                    .map(body -> {
+                        byte[] bytes = copy(body);
+                        Schedulers.boundedElastic().schedule(() -> write(file, bytes));
+                        return response.mutate().body(Flux.just(body)).build();
+                    })
+                    .defaultIfEmpty(response);
+        });
+    }
+
+    private static byte[] copy(DataBuffer body) {
+        byte[] bytes = new byte[body.readableByteCount()];
+        int offset = 0;
+        try (DataBuffer.ByteBufferIterator buffers = body.readableByteBuffers()) {
+            while (buffers.hasNext()) {
+                ByteBuffer buffer = buffers.next();
+                int length = buffer.remaining();
+                buffer.get(bytes, offset, length);
+                offset += length;
+            }
+        }
+        return bytes;
+    }
+
+    private void write(Path file, byte[] body) {
+        try {
+            Files.createDirectories(file.getParent());
+            Files.write(file, body);
+            log.debug("Recorded {} fixture {} ({} bytes)", source, file.getFileName(), body.length);
+        } catch (IOException e) {
+            log.warn("Failed to record {} fixture {}: {}", source, file, e.getMessage());
+        }
+    }
+}
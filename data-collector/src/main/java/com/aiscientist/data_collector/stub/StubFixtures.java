@@ -0,0 +1,248 @@
+package com.aiscientist.data_collector.stub;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+import java.time.temporal.ChronoUnit;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.LongSupplier;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Profile;
+import org.springframework.core.io.Resource;
+import org.springframework.core.io.ResourceLoader;
+import org.springframework.stereotype.Component;
+
+import com.aiscientist.data_collector.config.AppConfig;
+import com.aiscientist.data_collector.http.UpstreamSource;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Recorded upstream responses served by the local stub.
+ *
+ * A fixture is named after the source and the last segment of the request
+ * path, e.g. nasa-donki-flr or usgs-earthquake-query, and is read from
+ * app.stub.fixtures-dir if present there, otherwise from classpath:stub/.
+ * Responses are rendered from the fixture per request: list responses are
+ * repeated {@code scale} times with distinct event ids, and per-station
+ * water level responses are rewritten for the requested station with a
+ * current reading time, so synthetic stations look like real ones.
+ */
+@Component
+@Profile("stub")
+@Slf4j
+public class StubFixtures {
+
+    private static final DateTimeFormatter KP_TIME = DateTimeFormatter.ofPattern("yyyy-MM-dd'T'HH:mm:ss");
+    private static final DateTimeFormatter TIDES_TIME = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm");
+    private static final Duration KP_INTERVAL = Duration.ofHours(3);
+
+    private final ObjectMapper objectMapper;
+    private final ResourceLoader resourceLoader;
+    private final String fixturesDir;
+    private final LongSupplier clock;
+    private final Map<String, Optional<JsonNode>> fixtures = new ConcurrentHashMap<>();
+
+    @Autowired
+    public StubFixtures(ObjectMapper objectMapper, ResourceLoader resourceLoader, AppConfig appConfig) {
+        this(objectMapper, resourceLoader, appConfig.getStub().getFixturesDir(), System::currentTimeMillis);
+    }
+
+    StubFixtures(ObjectMapper objectMapper, ResourceLoader resourceLoader, String fixturesDir, LongSupplier clock) {
+        this.objectMapper = objectMapper;
+        this.resourceLoader = resourceLoader;
+        this.fixturesDir = fixturesDir;
+        this.clock = clock;
+    }
+
+    /**
+     * Fixture name for a request path of an upstream source
+     */
+    public static String fixtureName(String source, String path) {
+        String segment = "";
+        for (String part : path.split("/")) {
+            if (!part.isBlank()) {
+                segment = part;
+            }
+        }
+        int extension = segment.indexOf('.');
+        if (extension > 0) {
+            segment = segment.substring(0, extension);
+        }
+        return source + "-" + segment.toLowerCase(Locale.ROOT);
+    }
+
+    /**
+     * Response body for a request, or empty if there is no such fixture
+     *
+     * @param params Query parameters of the request
+     */
+    public Optional<String> render(String source, String fixture, Map<String, String> params, int scale) {
+        return load(fixture).map(template -> {
+            JsonNode body = template.deepCopy();
+            switch (source) {
+                case UpstreamSource.NOAA_TIDES -> tidesReading(body, params.get("station"));
+                case UpstreamSource.USGS_WATER -> waterReading(body, params.get("sites"));
+                case UpstreamSource.USGS_EARTHQUAKE -> scaleFeatures(body, scale);
+                case UpstreamSource.NASA_DONKI -> scaleEvents(body, scale, idField(body));
+                case UpstreamSource.NOAA_SWPC -> scaleKp(body, scale);
+                default -> {
+                }
+            }
+            return body.toString();
+        });
+    }
+
+    private Optional<JsonNode> load(String fixture) {
+        return fixtures.computeIfAbsent(fixture, name -> {
+            Resource resource = fixturesDir != null && Files.exists(Path.of(fixturesDir, name + ".json"))
+                    ? resourceLoader.getResource("file:" + Path.of(fixturesDir, name + ".json"))
+                    : resourceLoader.getResource("classpath:stub/" + name + ".json");
+            if (!resource.exists()) {
+                log.warn("No stub fixture {}", name);
+                return Optional.empty();
+            }
+            try (InputStream in = resource.getInputStream()) {
+                return Optional.of(objectMapper.readTree(in));
+            } catch (IOException e) {
+                log.error("Unreadable stub fixture {}: {}", name, e.getMessage());
+                return Optional.empty();
+            }
+        });
+    }
+
+    /**
+     * Latest CO-OPS reading of the requested station, taken now
+     */
+    private void tidesReading(JsonNode body, String station) {
+        if (station != null && body.get("metadata") instanceof ObjectNode metadata) {
+            if (!station.equals(metadata.path("id").asText())) {
+                metadata.put("name", metadata.path("name").asText() + " (" + station + ")");
+            }
+            metadata.put("id", station);
+        }
+        String now = TIDES_TIME.format(LocalDateTime.ofInstant(now(), ZoneOffset.UTC));
+        for (JsonNode data : body.path("data")) {
+            if (data instanceof ObjectNode reading) {
+                reading.put("t", now);
+                reading.put("v", String.format(Locale.ROOT, "%.3f", reading.path("v").asDouble() + offset(station)));
+            }
+        }
+    }
+
+    /**
+     * Latest NWIS readings of the requested site, taken now
+     */
+    private void waterReading(JsonNode body, String site) {
+        String now = now().atOffset(ZoneOffset.UTC).toString();
+        for (JsonNode series : body.path("value").path("timeSeries")) {
+            if (site != null && series.path("sourceInfo") instanceof ObjectNode sourceInfo) {
+                sourceInfo.put("siteName", sourceInfo.path("siteName").asText() + " (" + site + ")");
+            }
+            for (JsonNode values : series.path("values")) {
+                for (JsonNode value : values.path("value")) {
+                    if (value instanceof ObjectNode reading) {
+                        reading.put("dateTime", now);
+                        reading.put("value", String.format(Locale.ROOT, "%.2f",
+                                reading.path("value").asDouble() * (1 + offset(site) / 10)));
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * Repeat FDSN features {@code scale} times, each copy with its own id and
+     * a minute earlier than the previous one
+     */
+    private static void scaleFeatures(JsonNode body, int scale) {
+        if (!(body.get("features") instanceof ArrayNode features) || scale <= 1) {
+            return;
+        }
+        int size = features.size();
+        for (int copy = 1; copy < scale; copy++) {
+            for (int i = 0; i < size; i++) {
+                ObjectNode feature = features.get(i).deepCopy();
+                feature.put("id", feature.path("id").asText() + "s" + copy);
+                if (feature.get("properties") instanceof ObjectNode properties && properties.hasNonNull("time")) {
+                    properties.put("time", properties.get("time").asLong() - copy * 60_000L);
+                }
+                features.add(feature);
+            }
+        }
+        if (body.get("metadata") instanceof ObjectNode metadata) {
+            metadata.put("count", features.size());
+        }
+    }
+
+    /**
+     * Repeat the events of an array {@code scale} times, suffixing the id of
+     * each copy
+     */
+    private static void scaleEvents(JsonNode body, int scale, String idField) {
+        if (!(body instanceof ArrayNode events) || scale <= 1 || events.isEmpty()) {
+            return;
+        }
+        int size = events.size();
+        for (int copy = 1; copy < scale; copy++) {
+            for (int i = 0; i < size; i++) {
+                JsonNode event = events.get(i).deepCopy();
+                if (idField != null && event instanceof ObjectNode object && object.hasNonNull(idField)) {
+                    object.put(idField, object.get(idField).asText() + "-S" + copy);
+                }
+                events.add(event);
+            }
+        }
+    }
+
+    /**
+     * Repeat Kp readings {@code scale} times, each copy covering the period
+     * before the next one, oldest first like the upstream
+     */
+    private static void scaleKp(JsonNode body, int scale) {
+        if (!(body instanceof ArrayNode readings) || scale <= 1 || readings.isEmpty()) {
+            return;
+        }
+        ArrayNode original = readings.deepCopy();
+        Duration span = KP_INTERVAL.multipliedBy(original.size());
+        readings.removeAll();
+        for (int copy = scale - 1; copy >= 0; copy--) {
+            for (JsonNode reading : original) {
+                ObjectNode shifted = reading.deepCopy();
+                LocalDateTime time = LocalDateTime.parse(shifted.path("time_tag").asText());
+                shifted.put("time_tag", KP_TIME.format(time.minus(span.multipliedBy(copy))));
+                readings.add(shifted);
+            }
+        }
+    }
+
+    private static String idField(JsonNode body) {
+        JsonNode first = body.path(0);
+        return first.has("flrID") ? "flrID" : first.has("activityID") ? "activityID" : null;
+    }
+
+    /**
+     * Deterministic per-station deviation in [-1, 1), so stations differ
+     */
+    private static double offset(String station) {
+        return station == null ? 0 : (Math.floorMod(station.hashCode(), 200) - 100) / 100.0;
+    }
+
+    private Instant now() {
+        return Instant.ofEpochMilli(clock.getAsLong()).truncatedTo(ChronoUnit.MINUTES);
+    }
+}
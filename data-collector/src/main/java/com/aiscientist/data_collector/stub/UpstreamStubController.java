@@ -0,0 +1,93 @@
+package com.aiscientist.data_collector.stub;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ThreadLocalRandom;
+
+import org.springframework.context.annotation.Profile;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import com.aiscientist.data_collector.config.AppConfig;
+import com.aiscientist.data_collector.http.UpstreamSource;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.http.HttpServletRequest;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import reactor.core.publisher.Mono;
+
+/**
+ * Local stand-in for the upstream APIs (NASA DONKI, NOAA SWPC, NOAA CO-OPS,
+ * USGS NWIS and FDSN), active with the "stub" profile.
+ *
+ * Each source is served under /stub/{source}/ with the upstream's own path
+ * below it, so only the base URLs change (see application-stub.yaml).
+ * Responses come from {@link StubFixtures}; latency, error injection and
+ * response scaling are set per source under app.stub, which makes
+ * collection runs reproducible and lets their throughput and memory be
+ * measured without network access.
+ */
+@RestController
+@RequestMapping("/stub")
+@Profile("stub")
+@RequiredArgsConstructor
+@Slf4j
+public class UpstreamStubController {
+
+    private static final Set<String> SOURCES = Set.of(UpstreamSource.NASA_DONKI, UpstreamSource.NOAA_SWPC,
+            UpstreamSource.NOAA_TIDES, UpstreamSource.USGS_WATER, UpstreamSource.USGS_EARTHQUAKE);
+
+    private final StubFixtures fixtures;
+    private final AppConfig appConfig;
+    private final MeterRegistry meterRegistry;
+
+    @GetMapping("/{source}/**")
+    public Mono<ResponseEntity<String>> serve(@PathVariable String source,
+                                              @RequestParam Map<String, String> params,
+                                              HttpServletRequest request) {
+        if (!SOURCES.contains(source)) {
+            return Mono.just(ResponseEntity.notFound().build());
+        }
+        AppConfig.StubConfig.Behavior behavior = appConfig.getStub().behaviorFor(source);
+        String fixture = StubFixtures.fixtureName(source, request.getRequestURI());
+
+        Mono<ResponseEntity<String>> response = Mono.fromSupplier(() -> {
+            if (ThreadLocalRandom.current().nextDouble() < behavior.getErrorRate()) {
+                record(source, "error");
+                return ResponseEntity.status(behavior.getErrorStatus())
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .body("{\"error\":\"injected by upstream stub\"}");
+            }
+            return fixtures.render(source, fixture, params, Math.max(1, behavior.getScale()))
+                    .map(body -> {
+                        record(source, "ok");
+                        return ResponseEntity.ok().contentType(MediaType.APPLICATION_JSON).body(body);
+                    })
+                    .orElseGet(() -> {
+                        record(source, "missing");
+                        return ResponseEntity.status(HttpStatus.NOT_FOUND).body("{\"error\":\"no fixture " + fixture + "\"}");
+                    });
+        });
+
+        Duration latency = latency(behavior);
+        // Delayed without holding a servlet thread, like a slow remote server
+        return latency.isZero() ? response : Mono.delay(latency).then(response);
+    }
+
+    private static Duration latency(AppConfig.StubConfig.Behavior behavior) {
+        long jitter = behavior.getLatencyJitter().toMillis();
+        return behavior.getLatency().plusMillis(jitter > 0 ? ThreadLocalRandom.current().nextLong(jitter + 1) : 0);
+    }
+
+    private void record(String source, String outcome) {
+        meterRegistry.counter("collector.stub.requests", "source", source, "outcome", outcome).increment();
+    }
+}
@@ -0,0 +1,82 @@
+package com.aiscientist.data_collector.connector;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.time.Instant;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.web.reactive.function.client.WebClient;
+
+import com.aiscientist.data_collector.config.AppConfig;
+import com.aiscientist.data_collector.dto.CMEEvent;
+import com.aiscientist.data_collector.kafka.SpaceWeatherProducer;
+import com.aiscientist.data_collector.model.Metric;
+import com.aiscientist.data_collector.persistence.RawPayloadStore;
+import com.aiscientist.data_collector.repository.MetricRepository;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+class CmeConnectorTest {
+
+    private static final String CME = """
+        [{"activityID": "2025-06-01T12:00:00-CME-001", "startTime": "2025-06-01T12:00Z",
+          "sourceLocation": "N10W20", "catalog": "M2M_CATALOG",
+          "cmeAnalyses": [{"speed": 850, "type": "C"}]},
+         {"startTime": "2025-06-01T13:00Z"}]
+        """;
+
+    private final MetricRepository metricRepository = mock(MetricRepository.class);
+    private final RawPayloadStore rawPayloadStore = mock(RawPayloadStore.class);
+    private final Map<String, Metric> stored = new HashMap<>();
+    private final CmeConnector connector = new CmeConnector(mock(WebClient.class), new AppConfig(),
+            new ObjectMapper(), metricRepository, rawPayloadStore, mock(SpaceWeatherProducer.class));
+
+    @BeforeEach
+    void setUp() {
+        when(metricRepository.findBySourceKeyIn(any())).thenAnswer(invocation -> List.copyOf(stored.values()));
+        when(metricRepository.saveAll(any())).thenAnswer(invocation -> {
+            invocation.<Iterable<Metric>>getArgument(0).forEach(metric -> stored.put(metric.getSourceKey(), metric));
+            return List.of();
+        });
+        doAnswer(invocation -> {
+            Metric metric = invocation.getArgument(0);
+            metric.setRawPayloadId(RawPayloadStore.hashOf(metric.getRawData()));
+            return null;
+        }).when(rawPayloadStore).externalize(any());
+    }
+
+    @Test
+    void decode_shouldTakeSpeedAndTypeFromFirstAnalysisAndSkipRecordsWithoutId() throws Exception {
+        List<CMEEvent> events = connector.decode(CME);
+
+        assertEquals(1, events.size());
+        CMEEvent event = events.get(0);
+        assertEquals("2025-06-01T12:00:00-CME-001", connector.dedupKey(event));
+        assertEquals(850, event.getSpeed());
+        assertEquals("C", event.getType());
+        assertEquals(Instant.parse("2025-06-01T12:00:00Z"), connector.eventTime(event));
+    }
+
+    @Test
+    void persist_shouldStoreNewCmeOnceAndUpdateItWhenRevised() throws Exception {
+        CMEEvent event = connector.decode(CME).get(0);
+
+        assertEquals(1, connector.persist(List.of(event)).size());
+        assertTrue(connector.persist(List.of(event)).isEmpty());
+
+        CMEEvent revised = connector.decode(CME.replace("850", "1200")).get(0);
+        assertEquals(List.of(revised), connector.persist(List.of(revised)));
+        Metric metric = stored.get("nasa-cme:2025-06-01T12:00:00-CME-001");
+        assertEquals(1200, metric.getSpeedKmh());
+        assertEquals(Instant.parse("2025-06-01T12:00:00Z"), metric.getTimestamp());
+        assertEquals(1, stored.size());
+    }
+}
@@ -0,0 +1,192 @@
+package com.aiscientist.data_collector.connector;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import com.aiscientist.data_collector.config.AppConfig;
+import com.aiscientist.data_collector.persistence.BlockingPersistence;
+import com.aiscientist.data_collector.scheduler.CollectionRunCoordinator;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import reactor.core.publisher.Flux;
+import reactor.core.scheduler.Schedulers;
+import reactor.test.StepVerifier;
+
+class SourceConnectorRunnerTest {
+
+    private static final Instant T0 = Instant.parse("2025-06-01T00:00:00Z");
+
+    private final AppConfig appConfig = new AppConfig();
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final FakeConnector connector = new FakeConnector();
+    private SourceConnectorRunner runner;
+
+    @BeforeEach
+    void setUp() {
+        AppConfig.ConnectorsConfig.ConnectorConfig config = new AppConfig.ConnectorsConfig.ConnectorConfig();
+        config.setRetryBackoff(Duration.ofMillis(1));
+        appConfig.getConnectors().getSources().put(FakeConnector.NAME, config);
+        appConfig.getPersistence().setBatchWindow(Duration.ofMillis(10));
+
+        runner = new SourceConnectorRunner(
+                new SourceConnectorRegistry(List.of(connector)),
+                new CollectionRunCoordinator(meterRegistry, appConfig),
+                new BlockingPersistence(Schedulers.immediate(), appConfig),
+                appConfig,
+                meterRegistry);
+    }
+
+    @Test
+    void pipeline_shouldStoreAndPublishNewRecordsOnceAndAdvanceWatermark() {
+        SourceConnectorRunner.ConnectorState state = new SourceConnectorRunner.ConnectorState(100);
+        connector.stored.put("a", "");
+        connector.payloads = List.of("a@1,b@2", "b@2,c@3");
+
+        StepVerifier.create(runner.pipeline(connector, state)).expectNext(1, 1).verifyComplete();
+
+        assertEquals(List.of("b", "c"), connector.published);
+        assertEquals(T0.plus(Duration.ofHours(3)), state.watermark());
+
+        // The next run overlaps the watermark; everything it returns was seen
+        connector.payloads = List.of("c@3");
+        StepVerifier.create(runner.pipeline(connector, state)).verifyComplete();
+
+        assertEquals(T0.plus(Duration.ofHours(2)), connector.lastSince);
+        assertEquals(List.of("b", "c"), connector.published);
+        assertEquals(1.0, meterRegistry.get("collector.connector.records")
+                .tag("connector", FakeConnector.NAME).tag("stage", "duplicate").counter().count());
+    }
+
+    @Test
+    void pipeline_shouldRetryFetchAndSkipUndecodablePayloads() {
+        SourceConnectorRunner.ConnectorState state = new SourceConnectorRunner.ConnectorState(100);
+        connector.failuresBeforeSuccess.set(2);
+        connector.payloads = List.of("garbage", "d@4");
+
+        StepVerifier.create(runner.pipeline(connector, state)).expectNext(1).verifyComplete();
+
+        assertEquals(List.of("d"), connector.published);
+        assertEquals(1.0, meterRegistry.get("collector.connector.records")
+                .tag("connector", FakeConnector.NAME).tag("stage", "decode_failed").counter().count());
+    }
+
+    @Test
+    void pipeline_shouldStoreAndPublishRevisedRecordsAgain() {
+        SourceConnectorRunner.ConnectorState state = new SourceConnectorRunner.ConnectorState(100);
+        connector.payloads = List.of("a@1@r1");
+        StepVerifier.create(runner.pipeline(connector, state)).expectNext(1).verifyComplete();
+
+        // The overlap re-fetches the record after upstream revised it
+        connector.payloads = List.of("a@1@r2");
+        StepVerifier.create(runner.pipeline(connector, state)).expectNext(1).verifyComplete();
+
+        connector.payloads = List.of("a@1@r2");
+        StepVerifier.create(runner.pipeline(connector, state)).verifyComplete();
+
+        assertEquals(List.of("a", "a"), connector.published);
+        assertEquals("r2", connector.stored.get("a"));
+    }
+
+    @Test
+    void pipeline_shouldPublishStoredRecordAgainAfterFailedPublish() {
+        SourceConnectorRunner.ConnectorState state = new SourceConnectorRunner.ConnectorState(100);
+        connector.failing.add("b");
+        connector.payloads = List.of("b@2");
+
+        StepVerifier.create(runner.pipeline(connector, state)).expectNext(0).verifyComplete();
+        assertEquals(List.of(), connector.published);
+        assertNull(state.watermark());
+
+        connector.failing.clear();
+        StepVerifier.create(runner.pipeline(connector, state)).expectNext(1).verifyComplete();
+
+        assertEquals(List.of("b"), connector.published);
+        assertEquals(T0.plus(Duration.ofHours(2)), state.watermark());
+    }
+
+    /** Records are "key@hoursAfterT0" or "key@hoursAfterT0@revision", comma separated */
+    private static final class FakeConnector implements SourceConnector<String[]> {
+
+        static final String NAME = "fake";
+
+        private List<String> payloads = List.of();
+        private final Map<String, String> stored = new HashMap<>();
+        private final Set<String> failing = new HashSet<>();
+        private final List<String> published = new ArrayList<>();
+        private final AtomicInteger failuresBeforeSuccess = new AtomicInteger();
+        private Instant lastSince;
+
+        @Override
+        public String name() {
+            return NAME;
+        }
+
+        @Override
+        public Flux<String> fetch(Instant since) {
+            lastSince = since;
+            if (failuresBeforeSuccess.getAndDecrement() > 0) {
+                return Flux.error(new IllegalStateException("upstream down"));
+            }
+            return Flux.fromIterable(payloads);
+        }
+
+        @Override
+        public List<String[]> decode(String payload) {
+            return Arrays.stream(payload.split(","))
+                    .map(record -> {
+                        String[] parts = record.split("@");
+                        if (parts.length < 2 || parts.length > 3) {
+                            throw new IllegalArgumentException("Bad record " + record);
+                        }
+                        return parts;
+                    })
+                    .toList();
+        }
+
+        @Override
+        public String dedupKey(String[] record) {
+            return record[0];
+        }
+
+        @Override
+        public String revision(String[] record) {
+            return record.length > 2 ? record[2] : "";
+        }
+
+        @Override
+        public Instant eventTime(String[] record) {
+            return T0.plus(Duration.ofHours(Long.parseLong(record[1])));
+        }
+
+        @Override
+        public List<String[]> persist(List<String[]> batch) {
+            return batch.stream()
+                    .filter(record -> !revision(record).equals(stored.put(record[0], revision(record))))
+                    .toList();
+        }
+
+        @Override
+        public CompletableFuture<?> publish(String[] record) {
+            if (failing.contains(record[0])) {
+                return CompletableFuture.failedFuture(new IllegalStateException("broker down"));
+            }
+            published.add(record[0]);
+            return CompletableFuture.completedFuture(null);
+        }
+    }
+}
@@ -6,6 +6,7 @@ import static org.mockito.Mockito.*;
 
 import java.time.Instant;
 import java.util.List;
+import java.util.Optional;
 
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -13,6 +14,8 @@ import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
 import org.springframework.test.web.servlet.MockMvc;
 
+import com.aiscientist.data_collector.connector.CmeConnector;
+import com.aiscientist.data_collector.connector.SourceConnectorRunner;
 import com.aiscientist.data_collector.model.Metric;
 import com.aiscientist.data_collector.repository.MetricRepository;
 import com.aiscientist.data_collector.service.DataCollectorService;
@@ -29,6 +32,9 @@ class DataCollectorControllerTest {
     @MockBean
     private MetricRepository metricRepository;
 
+    @MockBean
+    private SourceConnectorRunner connectorRunner;
+
     @Test
     void triggerKpIndexCollection_shouldReturn200() throws Exception {
         // When & Then
@@ -41,12 +47,15 @@ class DataCollectorControllerTest {
 
     @Test
     void triggerCMECollection_shouldReturn200() throws Exception {
+        // Given
+        when(connectorRunner.runNow(CmeConnector.NAME)).thenReturn(Optional.of(true));
+
         // When & Then
         mockMvc.perform(post("/api/v1/collector/collect/cme"))
                 .andExpect(status().isOk())
                 .andExpect(content().string("CME data collection triggered"));
         
-        verify(dataCollectorService, times(1)).collectCMEData();
+        verify(connectorRunner, times(1)).runNow(CmeConnector.NAME);
     }
 
     @Test
@@ -0,0 +1,120 @@
+package com.aiscientist.data_collector.http;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.net.URI;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.reactive.function.client.ClientRequest;
+import org.springframework.web.reactive.function.client.ClientResponse;
+import org.springframework.web.reactive.function.client.ExchangeFunction;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import reactor.core.publisher.Mono;
+
+class ConditionalRequestFilterTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final ConditionalRequestFilter filter =
+            new ConditionalRequestFilter("test", 10, Duration.ofHours(1), 1024 * 1024, meterRegistry);
+    private final List<ClientRequest> sent = new ArrayList<>();
+
+    @Test
+    void filter_shouldSendValidatorsAndTurnIdenticalBodyIntoNotModified() {
+        ExchangeFunction upstream = exchange("[1,2,3]");
+
+        ClientResponse first = filter.filter(get("https://example.org/kp.json"), upstream).block();
+        assertEquals(HttpStatus.OK, first.statusCode());
+        assertEquals("[1,2,3]", first.bodyToMono(String.class).block());
+        assertNull(sent.get(0).headers().getFirst(HttpHeaders.IF_NONE_MATCH));
+
+        ClientResponse second = filter.filter(get("https://example.org/kp.json"), upstream).block();
+        assertEquals(HttpStatus.NOT_MODIFIED, second.statusCode());
+        assertNull(second.bodyToMono(String.class).block());
+        assertEquals("\"v1\"", sent.get(1).headers().getFirst(HttpHeaders.IF_NONE_MATCH));
+    }
+
+    @Test
+    void filter_shouldPassChangedBodyThrough() {
+        filter.filter(get("https://example.org/kp.json"), exchange("[1]")).block();
+
+        ClientResponse changed = filter.filter(get("https://example.org/kp.json"), exchange("[1,2]")).block();
+
+        assertEquals(HttpStatus.OK, changed.statusCode());
+        assertEquals("[1,2]", changed.bodyToMono(String.class).block());
+    }
+
+    @Test
+    void filter_shouldCompareContentByCacheKeyWhenUrlChanges() {
+        filter.filter(keyed("https://example.org/q?start=1"), exchange("{}")).block();
+
+        ClientResponse second = filter.filter(keyed("https://example.org/q?start=2"), exchange("{}")).block();
+
+        assertEquals(HttpStatus.NOT_MODIFIED, second.statusCode());
+        // Validators belong to the other URL, so they are not sent
+        assertNull(sent.get(1).headers().getFirst(HttpHeaders.IF_NONE_MATCH));
+    }
+
+    @Test
+    void filter_shouldCacheResponseOfRunOnlyOnceRunCommits() {
+        ResponseCacheScope scope = new ResponseCacheScope();
+        inRun(scope, filter.filter(get("https://example.org/kp.json"), exchange("[1,2,3]")));
+
+        ClientResponse beforeCommit = filter.filter(get("https://example.org/kp.json"), exchange("[1,2,3]")).block();
+        assertEquals(HttpStatus.OK, beforeCommit.statusCode());
+        assertNull(sent.get(1).headers().getFirst(HttpHeaders.IF_NONE_MATCH));
+
+        assertTrue(scope.commit());
+
+        ClientResponse afterCommit = filter.filter(get("https://example.org/kp.json"), exchange("[1,2,3]")).block();
+        assertEquals(HttpStatus.NOT_MODIFIED, afterCommit.statusCode());
+    }
+
+    @Test
+    void filter_shouldNotCacheResponseOfFailedRun() {
+        ResponseCacheScope scope = new ResponseCacheScope();
+        inRun(scope, filter.filter(get("https://example.org/kp.json"), exchange("[1,2,3]")));
+        scope.fail();
+
+        assertFalse(scope.commit());
+
+        ClientResponse next = filter.filter(get("https://example.org/kp.json"), exchange("[1,2,3]")).block();
+        assertEquals(HttpStatus.OK, next.statusCode());
+        assertEquals("[1,2,3]", next.bodyToMono(String.class).block());
+    }
+
+    private static void inRun(ResponseCacheScope scope, Mono<ClientResponse> exchange) {
+        exchange.flatMap(response -> response.bodyToMono(String.class))
+                .contextWrite(context -> context.put(ResponseCacheScope.CONTEXT_KEY, scope))
+                .block();
+    }
+
+    private ExchangeFunction exchange(String body) {
+        return request -> {
+            sent.add(request);
+            return Mono.just(ClientResponse.create(HttpStatus.OK)
+                    .header(HttpHeaders.ETAG, "\"v1\"")
+                    .body(body)
+                    .build());
+        };
+    }
+
+    private static ClientRequest get(String url) {
+        return ClientRequest.create(HttpMethod.GET, URI.create(url)).build();
+    }
+
+    private static ClientRequest keyed(String url) {
+        return ClientRequest.create(HttpMethod.GET, URI.create(url))
+                .attribute(ConditionalRequestFilter.CACHE_KEY_ATTRIBUTE, "query")
+                .build();
+    }
+}
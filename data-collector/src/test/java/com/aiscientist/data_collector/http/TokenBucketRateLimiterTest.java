@@ -0,0 +1,62 @@
+package com.aiscientist.data_collector.http;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+
+class TokenBucketRateLimiterTest {
+
+    private final AtomicLong clock = new AtomicLong();
+
+    @Test
+    void reserve_shouldAllowBurstThenSpaceOutCallers() {
+        TokenBucketRateLimiter limiter = new TokenBucketRateLimiter(2, 2, clock::get);
+
+        assertEquals(Duration.ZERO, limiter.reserve());
+        assertEquals(Duration.ZERO, limiter.reserve());
+        assertEquals(Duration.ofMillis(500), limiter.reserve());
+        assertEquals(Duration.ofMillis(1000), limiter.reserve());
+    }
+
+    @Test
+    void reserve_shouldRefillUpToBurstWhileIdle() {
+        TokenBucketRateLimiter limiter = new TokenBucketRateLimiter(2, 2, clock::get);
+        limiter.reserve();
+        limiter.reserve();
+
+        clock.addAndGet(Duration.ofSeconds(10).toNanos());
+
+        assertEquals(Duration.ZERO, limiter.reserve());
+        assertEquals(Duration.ZERO, limiter.reserve());
+        assertEquals(Duration.ofMillis(500), limiter.reserve());
+    }
+
+    @Test
+    void pauseFor_shouldHoldPermitsUntilPauseEnds() {
+        TokenBucketRateLimiter limiter = new TokenBucketRateLimiter(2, 2, clock::get);
+
+        limiter.pauseFor(Duration.ofSeconds(3));
+
+        assertEquals(Duration.ofMillis(3500), limiter.reserve());
+
+        clock.addAndGet(Duration.ofSeconds(4).toNanos());
+        assertEquals(Duration.ZERO, limiter.reserve());
+    }
+
+    @Test
+    void retryAfter_shouldParseSecondsAndCapLongPauses() {
+        HttpHeaders headers = new HttpHeaders();
+        headers.set(HttpHeaders.RETRY_AFTER, "7");
+        assertEquals(Duration.ofSeconds(7), RateLimitingFilter.retryAfter(headers));
+
+        headers.set(HttpHeaders.RETRY_AFTER, "86400");
+        assertEquals(Duration.ofMinutes(5), RateLimitingFilter.retryAfter(headers));
+
+        headers.set(HttpHeaders.RETRY_AFTER, "not-a-date");
+        assertEquals(Duration.ofSeconds(5), RateLimitingFilter.retryAfter(headers));
+    }
+}
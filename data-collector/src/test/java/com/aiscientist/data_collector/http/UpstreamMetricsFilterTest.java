@@ -0,0 +1,54 @@
+package com.aiscientist.data_collector.http;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.net.URI;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.reactive.function.client.ClientRequest;
+import org.springframework.web.reactive.function.client.ClientResponse;
+import org.springframework.web.reactive.function.client.ExchangeFunction;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import reactor.core.publisher.Mono;
+
+class UpstreamMetricsFilterTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final UpstreamMetricsFilter filter = new UpstreamMetricsFilter("test", meterRegistry);
+
+    @Test
+    void filter_shouldRecordLatencyByStatusAndSizeOnceBodyIsConsumed() {
+        ExchangeFunction upstream = request -> Mono.just(ClientResponse.create(HttpStatus.SERVICE_UNAVAILABLE)
+                .body("unavailable")
+                .build());
+
+        ClientResponse response = filter.filter(get(), upstream).block();
+
+        assertEquals(1, meterRegistry.get("collector.upstream.requests")
+                .tags("source", "test", "status", "503").timer().count());
+        assertEquals(0, meterRegistry.get("collector.upstream.response.size").summary().count());
+
+        response.bodyToMono(String.class).block();
+
+        assertEquals(1, meterRegistry.get("collector.upstream.response.size").summary().count());
+        assertEquals(11.0, meterRegistry.get("collector.upstream.response.size").summary().totalAmount());
+    }
+
+    @Test
+    void filter_shouldRecordIoErrors() {
+        ExchangeFunction upstream = request -> Mono.error(new IllegalStateException("connection reset"));
+
+        assertThrows(IllegalStateException.class, () -> filter.filter(get(), upstream).block());
+
+        assertEquals(1, meterRegistry.get("collector.upstream.requests")
+                .tags("source", "test", "status", "IO_ERROR").timer().count());
+    }
+
+    private static ClientRequest get() {
+        return ClientRequest.create(HttpMethod.GET, URI.create("https://example.org/kp.json")).build();
+    }
+}
@@ -0,0 +1,96 @@
+package com.aiscientist.data_collector.http;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Function;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.core.io.buffer.DefaultDataBufferFactory;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.client.reactive.ClientHttpConnector;
+import org.springframework.http.client.reactive.ClientHttpRequest;
+import org.springframework.http.client.reactive.ClientHttpResponse;
+import org.springframework.mock.http.client.reactive.MockClientHttpRequest;
+import org.springframework.mock.http.client.reactive.MockClientHttpResponse;
+import org.springframework.web.reactive.function.client.WebClient;
+
+import com.aiscientist.data_collector.config.AppConfig;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+class UpstreamWebClientFactoryTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final AppConfig appConfig = new AppConfig();
+    private final List<MockClientHttpRequest> sent = new ArrayList<>();
+
+    @Test
+    void create_shouldLeaveAcceptEncodingToTheConnector() {
+        appConfig.getHttp().setCompression(false);
+
+        String body = client().get().uri("/kp.json").retrieve().bodyToMono(String.class).block();
+
+        assertEquals("[1,2,3]", body);
+        assertEquals(URI.create("https://example.org/kp.json"), sent.get(0).getURI());
+        assertEquals(MediaType.APPLICATION_JSON_VALUE, sent.get(0).getHeaders().getFirst(HttpHeaders.ACCEPT));
+        assertNull(sent.get(0).getHeaders().getFirst(HttpHeaders.ACCEPT_ENCODING));
+    }
+
+    @Test
+    void create_shouldTagMetricsWithTheSource() {
+        client().get().uri("/kp.json").retrieve().bodyToMono(String.class).block();
+
+        assertNotNull(meterRegistry.find("collector.upstream.requests")
+                .tags("source", "test", "status", "200").timer());
+        assertEquals(7.0, meterRegistry.get("collector.upstream.response.size")
+                .tag("source", "test").summary().totalAmount());
+    }
+
+    @Test
+    void create_shouldSkipTheResponseCacheWhenDisabled() {
+        appConfig.getHttp().getResponseCache().setEnabled(false);
+        WebClient client = client();
+
+        client.get().uri("/kp.json").retrieve().bodyToMono(String.class).block();
+        client.get().uri("/kp.json").retrieve().bodyToMono(String.class).block();
+
+        assertNull(sent.get(1).getHeaders().getFirst(HttpHeaders.IF_NONE_MATCH));
+        assertEquals(2, meterRegistry.get("collector.upstream.requests").timer().count());
+        assertEquals(14.0, meterRegistry.get("collector.upstream.response.size").summary().totalAmount());
+    }
+
+    private WebClient client() {
+        UpstreamWebClientFactory factory = new UpstreamWebClientFactory(WebClient.builder(), new StubConnector(),
+                meterRegistry, appConfig, new UpstreamRateLimiterRegistry(appConfig));
+        return factory.create("test", "https://example.org");
+    }
+
+    private class StubConnector implements ClientHttpConnector {
+
+        @Override
+        public Mono<ClientHttpResponse> connect(HttpMethod method, URI uri,
+                                                Function<? super ClientHttpRequest, Mono<Void>> requestCallback) {
+            MockClientHttpRequest request = new MockClientHttpRequest(method, uri);
+            sent.add(request);
+            return requestCallback.apply(request).then(Mono.fromSupplier(() -> {
+                MockClientHttpResponse response = new MockClientHttpResponse(HttpStatus.OK);
+                response.getHeaders().setContentType(MediaType.APPLICATION_JSON);
+                response.getHeaders().setETag("\"v1\"");
+                response.setBody(Flux.just(DefaultDataBufferFactory.sharedInstance
+                        .wrap("[1,2,3]".getBytes(StandardCharsets.UTF_8))));
+                return response;
+            }));
+        }
+    }
+}
@@ -0,0 +1,72 @@
+package com.aiscientist.data_collector.kafka;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+
+import org.apache.kafka.common.header.Header;
+import org.apache.kafka.common.header.Headers;
+import org.junit.jupiter.api.Test;
+
+import com.aiscientist.data_collector.dto.EarthquakeEvent;
+import com.aiscientist.data_collector.dto.KpIndexEvent;
+import com.aiscientist.data_collector.dto.WaterLevelEvent;
+
+class EventHeadersTest {
+
+    private static final Instant EVENT_TIME = Instant.parse("2025-06-01T12:34:56Z");
+
+    @Test
+    void magnitudeBand_shouldRoundDownToHalfUnits() {
+        assertEquals("4.5", EventHeaders.magnitudeBand(4.5));
+        assertEquals("4.5", EventHeaders.magnitudeBand(4.99));
+        assertEquals("5.0", EventHeaders.magnitudeBand(5.0));
+        assertEquals("7.0", EventHeaders.magnitudeBand(7.3));
+        assertNull(EventHeaders.magnitudeBand(null));
+    }
+
+    @Test
+    void earthquake_shouldStampSourceTimeAndMagnitudeBand() {
+        EarthquakeEvent event = new EarthquakeEvent();
+        event.setDataSource("us");
+        event.setEventTime(EVENT_TIME);
+        event.setMagnitude(4.7);
+
+        Headers headers = EventHeaders.earthquake(event);
+
+        assertEquals("us", value(headers, EventHeaders.SOURCE));
+        assertEquals(String.valueOf(EVENT_TIME.toEpochMilli()), value(headers, EventHeaders.EVENT_TIME));
+        assertEquals("4.5", value(headers, EventHeaders.MAGNITUDE_BAND));
+    }
+
+    @Test
+    void kpIndex_shouldStampKpAndLeaveOutMissingValues() {
+        KpIndexEvent event = new KpIndexEvent();
+        event.setKpIndex(3.67);
+
+        Headers headers = EventHeaders.kpIndex(event);
+
+        assertEquals("3.67", value(headers, EventHeaders.KP));
+        assertNull(headers.lastHeader(EventHeaders.SOURCE));
+        assertNull(headers.lastHeader(EventHeaders.EVENT_TIME));
+    }
+
+    @Test
+    void waterLevel_shouldStampNoneUnlessFlooding() {
+        WaterLevelEvent event = new WaterLevelEvent();
+        event.setSource("usgs");
+        event.setFloodSeverity("MODERATE");
+
+        assertEquals("NONE", value(EventHeaders.waterLevel(event), EventHeaders.FLOOD_SEVERITY));
+
+        event.setFlooding(true);
+        assertEquals("MODERATE", value(EventHeaders.waterLevel(event), EventHeaders.FLOOD_SEVERITY));
+    }
+
+    private static String value(Headers headers, String key) {
+        Header header = headers.lastHeader(key);
+        return header != null ? new String(header.value(), StandardCharsets.UTF_8) : null;
+    }
+}
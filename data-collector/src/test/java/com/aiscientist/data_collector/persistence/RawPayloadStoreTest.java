@@ -0,0 +1,64 @@
+package com.aiscientist.data_collector.persistence;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import com.aiscientist.data_collector.repository.RawPayloadRepository;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+class RawPayloadStoreTest {
+
+    private final RawPayloadRepository repository = mock(RawPayloadRepository.class);
+    private final RawPayloadStore store = new RawPayloadStore(repository, new SimpleMeterRegistry());
+
+    @AfterEach
+    void clearSynchronization() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    @Test
+    void store_shouldInsertRepeatedPayloadOnce() {
+        String hash = store.store("{\"v\":\"1.234\"}");
+
+        assertEquals(hash, store.store("{\"v\":\"1.234\"}"));
+        verify(repository, times(1)).insertIfAbsent(anyString(), any(), anyInt(), anyInt());
+    }
+
+    @Test
+    void store_shouldRememberHashOnlyAfterCommit() {
+        TransactionSynchronizationManager.initSynchronization();
+        store.store("{\"v\":\"1.234\"}");
+        store.store("{\"v\":\"1.234\"}");
+        verify(repository, times(2)).insertIfAbsent(anyString(), any(), anyInt(), anyInt());
+
+        TransactionSynchronizationManager.getSynchronizations().forEach(TransactionSynchronization::afterCommit);
+        TransactionSynchronizationManager.clearSynchronization();
+        store.store("{\"v\":\"1.234\"}");
+        verify(repository, times(2)).insertIfAbsent(anyString(), any(), anyInt(), anyInt());
+    }
+
+    @Test
+    void store_shouldInsertAgainAfterRollback() {
+        TransactionSynchronizationManager.initSynchronization();
+        store.store("{\"v\":\"1.234\"}");
+        TransactionSynchronizationManager.getSynchronizations()
+                .forEach(sync -> sync.afterCompletion(TransactionSynchronization.STATUS_ROLLED_BACK));
+        TransactionSynchronizationManager.clearSynchronization();
+
+        store.store("{\"v\":\"1.234\"}");
+        verify(repository, times(2)).insertIfAbsent(anyString(), any(), anyInt(), anyInt());
+    }
+}
@@ -0,0 +1,142 @@
+package com.aiscientist.data_collector.persistence;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+import java.time.Instant;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Spy;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.mockito.junit.jupiter.MockitoSettings;
+import org.mockito.quality.Strictness;
+
+import com.aiscientist.data_collector.config.AppConfig;
+import com.aiscientist.data_collector.model.Region;
+import com.aiscientist.data_collector.model.RegionAlias;
+import com.aiscientist.data_collector.repository.RegionAliasRepository;
+import com.aiscientist.data_collector.repository.RegionRepository;
+
+import reactor.core.scheduler.Schedulers;
+
+@ExtendWith(MockitoExtension.class)
+@MockitoSettings(strictness = Strictness.LENIENT)
+class RegionDictionaryTest {
+
+    @Mock
+    private RegionRepository regionRepository;
+
+    @Mock
+    private RegionAliasRepository aliasRepository;
+
+    @Spy
+    private BlockingPersistence persistence = new BlockingPersistence(Schedulers.immediate(), new AppConfig());
+
+    @InjectMocks
+    private RegionDictionary dictionary;
+
+    // In-memory stand-in for the two tables
+    private final Map<String, Region> regions = new HashMap<>();
+    private final Map<String, Integer> aliases = new HashMap<>();
+
+    @BeforeEach
+    void setUp() {
+        when(regionRepository.findAll()).thenAnswer(invocation -> List.copyOf(regions.values()));
+        when(aliasRepository.findAll()).thenAnswer(invocation -> aliases.entrySet().stream()
+                .map(entry -> new RegionAlias(entry.getKey(), entry.getValue()))
+                .toList());
+        when(regionRepository.insertIfAbsent(anyString())).thenAnswer(invocation -> {
+            String name = invocation.getArgument(0);
+            if (regions.containsKey(name)) {
+                return 0;
+            }
+            regions.put(name, new Region(regions.size() + 1, name, Instant.now()));
+            return 1;
+        });
+        when(regionRepository.findByCanonicalName(anyString()))
+                .thenAnswer(invocation -> Optional.ofNullable(regions.get(invocation.<String>getArgument(0))));
+        when(aliasRepository.insertIfAbsent(anyString(), anyInt())).thenAnswer(invocation -> {
+            return aliases.putIfAbsent(invocation.getArgument(0), invocation.getArgument(1)) == null ? 1 : 0;
+        });
+        when(aliasRepository.findById(anyString())).thenAnswer(invocation -> Optional
+                .ofNullable(aliases.get(invocation.<String>getArgument(0)))
+                .map(id -> new RegionAlias(invocation.getArgument(0), id)));
+    }
+
+    @Test
+    void intern_shouldMapAbbreviationAndNameToOneRegion() {
+        Integer fromAbbreviation = dictionary.intern("CA");
+        Integer fromName = dictionary.intern("  california ");
+
+        assertEquals(fromAbbreviation, fromName);
+        assertEquals(Optional.of("California"), dictionary.nameOf(fromName));
+        assertEquals(1, regions.size());
+    }
+
+    @Test
+    void intern_shouldUseCacheForKnownSpellings() {
+        dictionary.intern("Alaska");
+        dictionary.intern("Alaska");
+
+        verify(regionRepository, times(1)).insertIfAbsent("Alaska");
+    }
+
+    @Test
+    void search_shouldMatchExactSpellingOrSubstring() {
+        Integer california = dictionary.intern("CA");
+        Integer alaska = dictionary.intern("Alaska");
+        Integer fiji = dictionary.intern("Fiji Islands");
+
+        assertEquals(Set.of(california), dictionary.search("ca"));
+        assertEquals(Set.of(alaska), dictionary.search("alas"));
+        assertEquals(Set.of(fiji), dictionary.search("FIJI"));
+        assertTrue(dictionary.search("atlantis").isEmpty());
+    }
+
+    @Test
+    void search_shouldNotReloadOnMiss() {
+        dictionary.intern("Alaska");
+
+        assertTrue(dictionary.search("atlantis").isEmpty());
+        assertTrue(dictionary.search("lemuria").isEmpty());
+
+        verify(aliasRepository, times(1)).findAll();
+    }
+
+    @Test
+    void search_shouldMatchPreloadedRegionsWithoutQueryingTheDatabase() {
+        regions.put("Fiji", new Region(7, "Fiji", Instant.now()));
+        aliases.put("fiji", 7);
+
+        assertTrue(dictionary.search("fiji").isEmpty());
+        verify(aliasRepository, never()).findAll();
+
+        dictionary.preload();
+
+        assertEquals(Set.of(7), dictionary.search("fiji"));
+        verify(persistence).call(any());
+    }
+
+    @Test
+    void refresh_shouldPickUpRegionsInternedElsewhere() {
+        assertTrue(dictionary.search("fiji").isEmpty());
+        // Interned by another instance
+        regions.put("Fiji", new Region(7, "Fiji", Instant.now()));
+        aliases.put("fiji", 7);
+
+        dictionary.refresh();
+
+        assertEquals(Set.of(7), dictionary.search("fiji"));
+        assertEquals(Optional.of("Fiji"), dictionary.nameOf(7));
+    }
+}
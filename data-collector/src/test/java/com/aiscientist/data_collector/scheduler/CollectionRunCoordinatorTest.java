@@ -0,0 +1,160 @@
+package com.aiscientist.data_collector.scheduler;
+
+import static org.awaitility.Awaitility.await;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+import org.junit.jupiter.api.Test;
+
+import com.aiscientist.data_collector.config.AppConfig;
+import com.aiscientist.data_collector.http.ResponseCacheScope;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+
+class CollectionRunCoordinatorTest {
+
+    private static final String RUN = "usgs";
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final AppConfig appConfig = new AppConfig();
+    private final CollectionRunCoordinator coordinator = new CollectionRunCoordinator(meterRegistry, appConfig);
+
+    @Test
+    void launch_shouldRecordItemsAndPublishedRecordsOfSuccessfulRun() {
+        assertTrue(coordinator.launch(RUN, () -> Flux.just(2, 0, 3)));
+
+        assertFalse(coordinator.isRunning(RUN));
+        assertEquals(1, meterRegistry.get("collector.run.duration").tags("run", RUN, "outcome", "success")
+                .timer().count());
+        assertEquals(3.0, meterRegistry.get("collector.run.items").tag("run", RUN).counter().count());
+        assertEquals(5.0, meterRegistry.get("collector.run.published").tag("run", RUN).counter().count());
+    }
+
+    @Test
+    void launch_shouldSkipOverlappingRunWithSkipPolicy() {
+        appConfig.getRuns().setOverlap(AppConfig.RunsConfig.OverlapPolicy.SKIP);
+        Sinks.Many<Integer> first = Sinks.many().unicast().onBackpressureBuffer();
+        AtomicBoolean secondStarted = new AtomicBoolean();
+
+        assertTrue(coordinator.launch(RUN, first::asFlux));
+        assertFalse(coordinator.launch(RUN, () -> Flux.just(1).doOnSubscribe(s -> secondStarted.set(true))));
+        first.tryEmitComplete();
+
+        assertFalse(secondStarted.get());
+        assertFalse(coordinator.isRunning(RUN));
+        assertEquals(1.0, skipped("overlap"));
+    }
+
+    @Test
+    void launch_shouldQueueOneRunAndCoalesceFurtherRequests() {
+        Sinks.Many<Integer> first = Sinks.many().unicast().onBackpressureBuffer();
+        Sinks.Many<Integer> queued = Sinks.many().unicast().onBackpressureBuffer();
+        AtomicInteger started = new AtomicInteger();
+
+        assertTrue(coordinator.launch(RUN, first::asFlux));
+        assertFalse(coordinator.launch(RUN, () -> Flux.just(1).doOnSubscribe(s -> started.incrementAndGet())));
+        assertFalse(coordinator.launch(RUN, () -> queued.asFlux().doOnSubscribe(s -> started.incrementAndGet())));
+        assertEquals(1.0, skipped("queued"));
+        assertEquals(1.0, skipped("coalesced"));
+
+        first.tryEmitComplete();
+
+        // Only the latest request runs, and the run stays in progress until it completes
+        assertEquals(1, started.get());
+        assertTrue(coordinator.isRunning(RUN));
+        queued.tryEmitNext(4);
+        queued.tryEmitComplete();
+        assertFalse(coordinator.isRunning(RUN));
+        assertEquals(2, meterRegistry.get("collector.run.duration").tag("outcome", "success").timer().count());
+    }
+
+    @Test
+    void launch_shouldCancelRunAtDeadline() {
+        appConfig.getRuns().getDeadlines().put(RUN, Duration.ofMillis(50));
+        AtomicBoolean cancelled = new AtomicBoolean();
+
+        assertTrue(coordinator.launch(RUN, () -> Flux.<Integer>never().doOnCancel(() -> cancelled.set(true))));
+
+        await().atMost(Duration.ofSeconds(5)).until(() -> !coordinator.isRunning(RUN));
+        assertTrue(cancelled.get());
+        assertEquals(1, meterRegistry.get("collector.run.duration").tag("outcome", "timeout").timer().count());
+        // A new run can start once the timed out one is gone
+        assertTrue(coordinator.launch(RUN, Flux::empty));
+    }
+
+    @Test
+    void launch_shouldRecordFailedRunAndAllowNextOne() {
+        assertTrue(coordinator.launch(RUN, () -> Flux.concat(Flux.just(1), Flux.error(new IllegalStateException()))));
+
+        assertFalse(coordinator.isRunning(RUN));
+        assertEquals(1, meterRegistry.get("collector.run.duration").tag("outcome", "error").timer().count());
+        assertEquals(1.0, meterRegistry.get("collector.run.items").counter().count());
+        assertTrue(coordinator.launch(RUN, Flux::empty));
+    }
+
+    @Test
+    void track_shouldAllowOverlappingRuns() {
+        Sinks.Many<Integer> first = Sinks.many().unicast().onBackpressureBuffer();
+        AtomicBoolean secondStarted = new AtomicBoolean();
+
+        coordinator.track(RUN, first::asFlux);
+        coordinator.track(RUN, () -> Flux.just(1).doOnSubscribe(s -> secondStarted.set(true)));
+
+        assertTrue(secondStarted.get());
+        assertFalse(coordinator.isRunning(RUN));
+        assertNull(meterRegistry.find("collector.run.skipped").counter());
+    }
+
+    @Test
+    void awaitPublished_shouldCountAcknowledgedSendsAndFailures() {
+        CompletableFuture<Object> failed = CompletableFuture.failedFuture(new IllegalStateException("broker down"));
+
+        Integer published = coordinator.awaitPublished(RUN, CompletableFuture.completedFuture("ack"), failed,
+                CompletableFuture.completedFuture("ack")).block();
+
+        assertEquals(2, published);
+        assertEquals(1.0, meterRegistry.get("collector.run.publish.failed").tag("run", RUN).counter().count());
+    }
+
+    @Test
+    void launch_shouldMarkRunsResponseCacheScopeFailedWhenPublishFails() {
+        AtomicReference<ResponseCacheScope> scope = new AtomicReference<>();
+        CompletableFuture<Object> failed = CompletableFuture.failedFuture(new IllegalStateException("broker down"));
+
+        coordinator.launch(RUN, () -> Flux.deferContextual(context -> {
+            scope.set(context.get(ResponseCacheScope.CONTEXT_KEY));
+            return coordinator.awaitPublished(RUN, failed);
+        }));
+
+        assertFalse(scope.get().commit());
+    }
+
+    @Test
+    void withCacheScope_shouldGiveWorkOutsideRunAScopeThatPublishFailuresMarkFailed() {
+        AtomicReference<ResponseCacheScope> scope = new AtomicReference<>();
+        CompletableFuture<Object> failed = CompletableFuture.failedFuture(new IllegalStateException("broker down"));
+
+        Integer published = coordinator.withCacheScope(() -> Mono.deferContextual(context -> {
+            scope.set(context.get(ResponseCacheScope.CONTEXT_KEY));
+            return coordinator.awaitPublished(RUN, failed);
+        })).block();
+
+        assertEquals(0, published);
+        assertFalse(scope.get().commit());
+    }
+
+    private double skipped(String reason) {
+        return meterRegistry.get("collector.run.skipped").tags("run", RUN, "reason", reason).counter().count();
+    }
+}
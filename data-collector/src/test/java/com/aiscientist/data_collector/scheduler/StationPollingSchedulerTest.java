@@ -0,0 +1,77 @@
+package com.aiscientist.data_collector.scheduler;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+
+import java.time.Duration;
+import java.time.Instant;
+
+import org.junit.jupiter.api.Test;
+
+import com.aiscientist.data_collector.config.AppConfig;
+import com.aiscientist.data_collector.model.WaterLevelMetric;
+
+class StationPollingSchedulerTest {
+
+    private static final Instant START = Instant.parse("2025-01-01T00:00:00Z");
+
+    private final AppConfig.PollingConfig config = new AppConfig.PollingConfig();
+    private final AppConfig.PollingConfig.Cadence cadence = new AppConfig.PollingConfig.Cadence();
+
+    @Test
+    void nextInterval_shouldTightenWhenLevelRisesFast() {
+        StationHistory history = historyOf(2.0, 2.3, 2.6); // +0.3 ft per 15 min = 1.2 ft/h
+
+        Duration next = StationPollingScheduler.nextInterval(history, cadence.getBaseInterval(), config, cadence);
+
+        assertEquals(cadence.getMinInterval(), next);
+    }
+
+    @Test
+    void nextInterval_shouldBackOffForStableStationUpToMax() {
+        StationHistory history = historyOf(2.0, 2.0, 2.01);
+
+        Duration next = StationPollingScheduler.nextInterval(history, cadence.getBaseInterval(), config, cadence);
+        assertEquals(Duration.ofMillis((long) (cadence.getBaseInterval().toMillis() * 1.5)), next);
+
+        Duration capped = StationPollingScheduler.nextInterval(history, cadence.getMaxInterval(), config, cadence);
+        assertEquals(cadence.getMaxInterval(), capped);
+    }
+
+    @Test
+    void nextInterval_shouldTightenNearFloodStage() {
+        StationHistory history = new StationHistory(6);
+        for (int i = 0; i < 3; i++) {
+            history.add(reading(i, 9.5, 10.0), config.getNearFloodMarginFeet());
+        }
+
+        Duration next = StationPollingScheduler.nextInterval(history, cadence.getMaxInterval(), config, cadence);
+
+        assertEquals(cadence.getMinInterval(), next);
+    }
+
+    @Test
+    void history_shouldIgnoreReadingsThatAreNotNewer() {
+        StationHistory history = new StationHistory(6);
+
+        history.add(reading(1, 2.0, null), 1.0);
+        assertFalse(history.add(reading(1, 5.0, null), 1.0));
+        assertEquals(1, history.size());
+    }
+
+    private StationHistory historyOf(double... levels) {
+        StationHistory history = new StationHistory(6);
+        for (int i = 0; i < levels.length; i++) {
+            history.add(reading(i, levels[i], null), config.getNearFloodMarginFeet());
+        }
+        return history;
+    }
+
+    private static WaterLevelMetric reading(int quarterHours, double levelFeet, Double floodStageFeet) {
+        return WaterLevelMetric.builder()
+                .timestamp(START.plus(Duration.ofMinutes(15L * quarterHours)))
+                .waterLevelFeet(levelFeet)
+                .floodStageFeet(floodStageFeet)
+                .build();
+    }
+}
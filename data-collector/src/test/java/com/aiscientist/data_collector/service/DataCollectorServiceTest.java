@@ -1,20 +1,34 @@
 package com.aiscientist.data_collector.service;
 
+import static org.awaitility.Awaitility.await;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.Mockito.*;
 
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicReference;
+
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
 
-import com.aiscientist.data_collector.dto.CMEEvent;
+import com.aiscientist.data_collector.config.AppConfig;
 import com.aiscientist.data_collector.dto.KpIndexEvent;
 import com.aiscientist.data_collector.kafka.SpaceWeatherProducer;
+import com.aiscientist.data_collector.persistence.BlockingPersistence;
+import com.aiscientist.data_collector.persistence.RawPayloadStore;
 import com.aiscientist.data_collector.repository.MetricRepository;
+import com.aiscientist.data_collector.scheduler.CollectionRunCoordinator;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 
 import reactor.core.publisher.Flux;
+import reactor.core.scheduler.Scheduler;
+import reactor.core.scheduler.Schedulers;
 
 @ExtendWith(MockitoExtension.class)
 class DataCollectorServiceTest {
@@ -22,15 +36,24 @@ class DataCollectorServiceTest {
     @Mock
     private NoaaApiService noaaApiService;
     
-    @Mock
-    private NasaApiService nasaApiService;
-    
     @Mock
     private SpaceWeatherProducer spaceWeatherProducer;
     
     @Mock
     private MetricRepository metricRepository;
     
+    @Mock
+    private RawPayloadStore rawPayloadStore;
+    
+    @Spy
+    private CollectionRunCoordinator runCoordinator =
+            new CollectionRunCoordinator(new SimpleMeterRegistry(), new AppConfig());
+    
+    private final Scheduler persistenceScheduler = Schedulers.newSingle("persistence");
+    
+    @Spy
+    private BlockingPersistence persistence = new BlockingPersistence(persistenceScheduler, new AppConfig());
+    
     @InjectMocks
     private DataCollectorService dataCollectorService;
 
@@ -45,32 +68,40 @@ class DataCollectorServiceTest {
         
         when(noaaApiService.fetchKpIndexData()).thenReturn(Flux.just(event));
         when(metricRepository.save(any())).thenAnswer(invocation -> invocation.getArgument(0));
+        when(spaceWeatherProducer.sendKpIndexEvent(any())).thenReturn(CompletableFuture.completedFuture(null));
         
         // When
         dataCollectorService.collectKpIndexData();
         
         // Then
+        await().atMost(Duration.ofSeconds(5)).until(() -> !runCoordinator.isRunning("noaa-kp"));
         verify(noaaApiService, times(1)).fetchKpIndexData();
         verify(spaceWeatherProducer, times(1)).sendKpIndexEvent(any());
     }
 
     @Test
-    void collectCMEData_shouldProcessAndSaveData() {
+    void collectKpIndexData_shouldSaveOnPersistenceScheduler() {
         // Given
-        CMEEvent event = CMEEvent.builder()
-                .activityId("2024-12-07-CME-001")
-                .speed(500)
-                .source("nasa")
+        KpIndexEvent event = KpIndexEvent.builder()
+                .timeTag("2024-12-07T00:00:00Z")
+                .kpIndex(3.0)
+                .source("noaa")
                 .build();
+        AtomicReference<String> savingThread = new AtomicReference<>();
         
-        when(nasaApiService.fetchCMEData()).thenReturn(Flux.just(event));
-        when(metricRepository.save(any())).thenAnswer(invocation -> invocation.getArgument(0));
+        when(noaaApiService.fetchKpIndexData()).thenReturn(Flux.just(event));
+        when(metricRepository.save(any())).thenAnswer(invocation -> {
+            savingThread.set(Thread.currentThread().getName());
+            return invocation.getArgument(0);
+        });
+        when(spaceWeatherProducer.sendKpIndexEvent(any())).thenReturn(CompletableFuture.completedFuture(null));
         
         // When
-        dataCollectorService.collectCMEData();
+        dataCollectorService.collectKpIndexData();
         
         // Then
-        verify(nasaApiService, times(1)).fetchCMEData();
-        verify(spaceWeatherProducer, times(1)).sendCMEEvent(any());
+        await().atMost(Duration.ofSeconds(5)).until(() -> savingThread.get() != null);
+        assertTrue(savingThread.get().startsWith("persistence"));
+        verify(rawPayloadStore).externalize(any());
     }
 }
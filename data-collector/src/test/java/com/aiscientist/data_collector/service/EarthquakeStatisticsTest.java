@@ -0,0 +1,133 @@
+package com.aiscientist.data_collector.service;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import com.aiscientist.data_collector.model.EarthquakeMetric;
+import com.aiscientist.data_collector.repository.EarthquakeRepository;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+@ExtendWith(MockitoExtension.class)
+class EarthquakeStatisticsTest {
+
+    private static final Instant NOW = Instant.parse("2025-06-01T12:00:00Z");
+
+    @Mock
+    private EarthquakeRepository earthquakeRepository;
+
+    private final AtomicLong clock = new AtomicLong(NOW.toEpochMilli());
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private EarthquakeStatistics statistics;
+
+    @BeforeEach
+    void setUp() {
+        statistics = new EarthquakeStatistics(earthquakeRepository, meterRegistry, clock::get);
+        when(earthquakeRepository.count()).thenReturn(0L);
+        when(earthquakeRepository.findFirstByOrderByEventTimeDesc()).thenReturn(Optional.empty());
+        when(earthquakeRepository.findStatsRowsByEventTimeGreaterThanEqual(any())).thenReturn(List.of());
+        statistics.reconcile();
+    }
+
+    @Test
+    void record_shouldCountByWindowAndBand() {
+        statistics.record(earthquake("a", NOW.minus(Duration.ofHours(1)), 5.5, false));
+        statistics.record(earthquake("b", NOW.minus(Duration.ofDays(2)), 7.1, true));
+        statistics.record(earthquake("c", NOW.minus(Duration.ofMinutes(5)), 4.6, true));
+
+        EarthquakeStatistics.Snapshot snapshot = statistics.snapshot();
+        assertEquals(3, snapshot.total());
+        assertEquals(2, snapshot.last24Hours());
+        assertEquals(3, snapshot.last7Days());
+        assertEquals(1, snapshot.dangerous24h());
+        assertEquals(1, snapshot.catastrophic7days());
+        assertEquals(1, snapshot.tsunamiWarnings24h());
+        assertEquals("c", snapshot.latest().getEarthquakeId());
+        assertEquals(2.0, meterRegistry.get("collector.earthquakes")
+                .tag("window", "24h").tag("band", "all").gauge().value());
+    }
+
+    @Test
+    void snapshot_shouldDropEventsLeavingTheWindow() {
+        statistics.record(earthquake("a", NOW.minus(Duration.ofHours(23)), 5.0, false));
+
+        clock.addAndGet(Duration.ofHours(2).toMillis());
+
+        EarthquakeStatistics.Snapshot snapshot = statistics.snapshot();
+        assertEquals(0, snapshot.last24Hours());
+        assertEquals(1, snapshot.last7Days());
+        assertEquals(1, snapshot.total());
+    }
+
+    @Test
+    void snapshot_shouldKeepWindowsRightAcrossLongIdlePeriods() {
+        statistics.record(earthquake("a", NOW.minus(Duration.ofDays(6)), 7.5, false));
+        statistics.record(earthquake("b", NOW.minus(Duration.ofMinutes(1)), 5.0, false));
+
+        clock.addAndGet(Duration.ofDays(3).toMillis());
+        statistics.record(earthquake("c", Instant.ofEpochMilli(clock.get()), 5.0, true));
+        assertEquals(2, statistics.snapshot().last7Days());
+        assertEquals(0, statistics.snapshot().catastrophic7days());
+
+        clock.addAndGet(Duration.ofDays(30).toMillis());
+        EarthquakeStatistics.Snapshot snapshot = statistics.snapshot();
+        assertEquals(0, snapshot.last7Days());
+        assertEquals(0, snapshot.tsunamiWarnings24h());
+        assertEquals(3, snapshot.total());
+    }
+
+    @Test
+    void snapshot_shouldNotQueryDatabaseBeforeFirstReconciliation() {
+        EarthquakeStatistics fresh = new EarthquakeStatistics(earthquakeRepository, new SimpleMeterRegistry(), clock::get);
+        fresh.record(earthquake("a", NOW.minus(Duration.ofHours(1)), 5.0, false));
+
+        EarthquakeStatistics.Snapshot snapshot = fresh.snapshot();
+
+        assertEquals(1, snapshot.last24Hours());
+        assertNull(snapshot.reconciledAt());
+        verify(earthquakeRepository, times(1)).count();
+    }
+
+    @Test
+    void reconcile_shouldReplaceCountsWithDatabaseState() {
+        statistics.record(earthquake("a", NOW.minus(Duration.ofHours(1)), 5.0, false));
+
+        EarthquakeRepository.EarthquakeStatsRow row = mock(EarthquakeRepository.EarthquakeStatsRow.class);
+        when(row.getEarthquakeId()).thenReturn("b");
+        when(row.getEventTime()).thenReturn(NOW.minus(Duration.ofHours(3)));
+        when(row.getMagnitude()).thenReturn(7.2);
+        when(row.getTsunamiWarning()).thenReturn(true);
+        when(earthquakeRepository.count()).thenReturn(42L);
+        when(earthquakeRepository.findStatsRowsByEventTimeGreaterThanEqual(any())).thenReturn(List.of(row));
+
+        statistics.reconcile();
+
+        EarthquakeStatistics.Snapshot snapshot = statistics.snapshot();
+        assertEquals(42, snapshot.total());
+        assertEquals(1, snapshot.last24Hours());
+        assertEquals(1, snapshot.catastrophic7days());
+        assertEquals(1, snapshot.tsunamiWarnings24h());
+    }
+
+    private static EarthquakeMetric earthquake(String id, Instant eventTime, double magnitude, boolean tsunami) {
+        return EarthquakeMetric.builder()
+                .earthquakeId(id)
+                .eventTime(eventTime)
+                .magnitude(magnitude)
+                .tsunamiWarning(tsunami)
+                .build();
+    }
+}
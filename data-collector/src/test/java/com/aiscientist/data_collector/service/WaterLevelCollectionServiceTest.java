@@ -0,0 +1,108 @@
+package com.aiscientist.data_collector.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.web.reactive.function.client.ClientResponse;
+import org.springframework.web.reactive.function.client.WebClient;
+
+import com.aiscientist.data_collector.config.AppConfig;
+import com.aiscientist.data_collector.http.UpstreamRateLimiterRegistry;
+import com.aiscientist.data_collector.http.UpstreamSource;
+import com.aiscientist.data_collector.kafka.KafkaProducerService;
+import com.aiscientist.data_collector.model.StationCurrentState;
+import com.aiscientist.data_collector.model.WaterLevelMetric;
+import com.aiscientist.data_collector.persistence.BlockingPersistence;
+import com.aiscientist.data_collector.persistence.RawPayloadStore;
+import com.aiscientist.data_collector.repository.StationCurrentStateRepository;
+import com.aiscientist.data_collector.repository.WaterLevelMetricRepository;
+import com.aiscientist.data_collector.scheduler.CollectionRunCoordinator;
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+
+class WaterLevelCollectionServiceTest {
+
+    private static final String STATION = "8518750";
+    private static final String READING = """
+        {"metadata": {"id": "8518750", "name": "The Battery", "lat": "40.7006", "lon": "-74.0142"},
+         "data": [{"t": "2025-06-01 12:00", "v": "1.234", "s": "0.003", "f": "1,0,0,0", "q": "p"}]}
+        """;
+
+    private final WaterLevelMetricRepository waterLevelRepository = mock(WaterLevelMetricRepository.class);
+    private final StationCurrentStateRepository stateRepository = mock(StationCurrentStateRepository.class);
+    private final KafkaProducerService kafkaProducerService = mock(KafkaProducerService.class);
+    private final Map<String, StationCurrentState> states = new HashMap<>();
+    private final AtomicLong ids = new AtomicLong();
+
+    private final AppConfig appConfig = new AppConfig();
+    private final BlockingPersistence persistence = new BlockingPersistence(Schedulers.immediate(), appConfig);
+    private final StationStateService stationStateService =
+            new StationStateService(stateRepository, waterLevelRepository, persistence);
+    private final WebClient noaaTidesWebClient = WebClient.builder()
+            .exchangeFunction(request -> Mono.just(ClientResponse.create(HttpStatus.OK)
+                    .header(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_JSON_VALUE)
+                    .body(READING)
+                    .build()))
+            .build();
+    private final NoaaTidesApiService noaaTidesApiService = new NoaaTidesApiService(noaaTidesWebClient,
+            waterLevelRepository, new ObjectMapper().disable(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES),
+            mock(UpstreamRateLimiterRegistry.class), persistence, mock(RawPayloadStore.class),
+            mock(WaterLevelRollupService.class), stationStateService);
+    private final WaterLevelCollectionService service = new WaterLevelCollectionService(noaaTidesApiService,
+            mock(UsgsWaterApiService.class), kafkaProducerService,
+            new CollectionRunCoordinator(new SimpleMeterRegistry(), appConfig));
+
+    @BeforeEach
+    void setUp() {
+        when(waterLevelRepository.save(any())).thenAnswer(invocation -> {
+            WaterLevelMetric metric = invocation.getArgument(0);
+            metric.setId(ids.incrementAndGet());
+            return metric;
+        });
+        when(stateRepository.findById(anyString()))
+                .thenAnswer(invocation -> Optional.ofNullable(states.get(invocation.<String>getArgument(0))));
+        when(stateRepository.findAllById(any()))
+                .thenAnswer(invocation -> List.copyOf(states.values()));
+        when(stateRepository.saveAll(any())).thenAnswer(invocation -> {
+            invocation.<Iterable<StationCurrentState>>getArgument(0)
+                    .forEach(state -> states.put(state.getStationId(), state));
+            return List.of();
+        });
+        when(kafkaProducerService.sendWaterLevelEvent(anyString(), any()))
+                .thenReturn(CompletableFuture.completedFuture(null));
+    }
+
+    @Test
+    void pollStation_shouldNotSaveOrPublishReadingItAlreadyHas() {
+        WaterLevelMetric first = service.pollStation(UpstreamSource.NOAA_TIDES, STATION)
+                .block(Duration.ofSeconds(5));
+        WaterLevelMetric second = service.pollStation(UpstreamSource.NOAA_TIDES, STATION)
+                .block(Duration.ofSeconds(5));
+
+        assertEquals(STATION, first.getStationId());
+        assertNull(second);
+        verify(waterLevelRepository, times(1)).save(any());
+        verify(kafkaProducerService, times(1)).sendWaterLevelEvent(anyString(), any());
+    }
+}
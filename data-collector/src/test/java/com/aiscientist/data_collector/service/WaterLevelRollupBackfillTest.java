@@ -0,0 +1,91 @@
+package com.aiscientist.data_collector.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
+
+import com.aiscientist.data_collector.config.AppConfig;
+import com.aiscientist.data_collector.model.CompletedTask;
+import com.aiscientist.data_collector.model.WaterLevelRollup;
+import com.aiscientist.data_collector.model.WaterLevelRollup.Resolution;
+import com.aiscientist.data_collector.persistence.BlockingPersistence;
+import com.aiscientist.data_collector.repository.CompletedTaskRepository;
+import com.aiscientist.data_collector.repository.WaterLevelMetricRepository;
+
+import reactor.core.scheduler.Schedulers;
+
+class WaterLevelRollupBackfillTest {
+
+    private final WaterLevelRollupService rollupService = mock(WaterLevelRollupService.class);
+    private final WaterLevelMetricRepository waterLevelRepository = mock(WaterLevelMetricRepository.class);
+    private final CompletedTaskRepository completedTaskRepository = mock(CompletedTaskRepository.class);
+    private final AppConfig appConfig = new AppConfig();
+    private final WaterLevelRollupBackfill backfill = new WaterLevelRollupBackfill(rollupService,
+            waterLevelRepository, completedTaskRepository,
+            new BlockingPersistence(Schedulers.immediate(), appConfig), appConfig);
+
+    @Test
+    void backfill_shouldRetryConflictingStationDayAndRecordCompletion() {
+        givenStation();
+        doThrow(conflict()).doReturn(1).when(rollupService).rebuild(any(), any(), any());
+
+        // The range is widened to whole days: 2 days back from now spans 3 of them
+        assertEquals(3, backfill.backfill(2));
+
+        verify(rollupService, times(4)).rebuild(any(), any(), any());
+        ArgumentCaptor<CompletedTask> task = ArgumentCaptor.forClass(CompletedTask.class);
+        verify(completedTaskRepository).save(task.capture());
+        assertEquals(WaterLevelRollupBackfill.TASK, task.getValue().getName());
+    }
+
+    @Test
+    void backfill_shouldRebuildWholeUtcDays() {
+        givenStation();
+        ArgumentCaptor<Instant> start = ArgumentCaptor.forClass(Instant.class);
+        ArgumentCaptor<Instant> end = ArgumentCaptor.forClass(Instant.class);
+
+        backfill.backfill(2);
+
+        verify(rollupService, times(3)).rebuild(eq("8518750"), start.capture(), end.capture());
+        for (int i = 0; i < 3; i++) {
+            assertEquals(Resolution.DAILY.bucketStart(start.getAllValues().get(i)), start.getAllValues().get(i));
+            assertEquals(start.getAllValues().get(i).plus(Duration.ofDays(1)), end.getAllValues().get(i));
+        }
+    }
+
+    @Test
+    void backfill_shouldStayPendingWhenStationDayKeepsConflicting() {
+        givenStation();
+        doThrow(conflict(), conflict(), conflict()).doReturn(1).when(rollupService).rebuild(any(), any(), any());
+
+        assertEquals(2, backfill.backfill(2));
+
+        verify(completedTaskRepository, never()).save(any());
+    }
+
+    @Test
+    void backfillIfPending_shouldSkipCompletedBackfill() {
+        when(completedTaskRepository.existsById(WaterLevelRollupBackfill.TASK)).thenReturn(true);
+
+        backfill.backfillIfPending();
+
+        verifyNoInteractions(rollupService, waterLevelRepository);
+    }
+
+    private void givenStation() {
+        when(waterLevelRepository.findStationIdsSince(any())).thenReturn(List.of("8518750"));
+    }
+
+    private static ObjectOptimisticLockingFailureException conflict() {
+        return new ObjectOptimisticLockingFailureException(WaterLevelRollup.class, 1L);
+    }
+}
@@ -0,0 +1,186 @@
+package com.aiscientist.data_collector.service;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import com.aiscientist.data_collector.model.WaterLevelMetric;
+import com.aiscientist.data_collector.model.WaterLevelRollup;
+import com.aiscientist.data_collector.model.WaterLevelRollup.Resolution;
+import com.aiscientist.data_collector.repository.WaterLevelMetricRepository;
+import com.aiscientist.data_collector.repository.WaterLevelRollupRepository;
+
+@ExtendWith(MockitoExtension.class)
+class WaterLevelRollupServiceTest {
+
+    private static final Instant HOUR = Instant.parse("2025-06-01T10:00:00Z");
+
+    @Mock
+    private WaterLevelRollupRepository rollupRepository;
+
+    @Mock
+    private WaterLevelMetricRepository waterLevelRepository;
+
+    @InjectMocks
+    private WaterLevelRollupService rollupService;
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void record_shouldAggregateReadingsPerBucket() {
+        when(rollupRepository.findByStationIdAndResolutionAndBucketStartIn(any(), any(), any()))
+                .thenReturn(List.of());
+
+        rollupService.record(List.of(
+                reading(HOUR.plus(Duration.ofMinutes(20)), 3.0),
+                reading(HOUR.plus(Duration.ofMinutes(5)), 1.0),
+                reading(HOUR.plus(Duration.ofMinutes(10)), 2.0)));
+
+        ArgumentCaptor<Iterable<WaterLevelRollup>> saved = ArgumentCaptor.forClass(Iterable.class);
+        verify(rollupRepository, times(3)).saveAll(saved.capture());
+
+        List<WaterLevelRollup> rollups = new ArrayList<>();
+        saved.getAllValues().forEach(batch -> batch.forEach(rollups::add));
+        WaterLevelRollup hourly = rollups.stream()
+                .filter(rollup -> rollup.getResolution() == Resolution.HOURLY)
+                .findFirst().orElseThrow();
+
+        assertEquals(HOUR, hourly.getBucketStart());
+        assertEquals(3, hourly.getSampleCount());
+        assertEquals(1.0, hourly.getWaterLevelFeet().getMin());
+        assertEquals(3.0, hourly.getWaterLevelFeet().getMax());
+        assertEquals(2.0, hourly.getWaterLevelFeet().getAverage());
+        assertEquals(3.0, hourly.getWaterLevelFeet().getLast());
+        assertEquals(0, hourly.getDischargeCfs().getCount());
+
+        // 10:05 and 10:10 share the first 15-minute bucket, 10:20 is in the second
+        assertEquals(2, rollups.stream().filter(rollup -> rollup.getResolution() == Resolution.MINUTES_15).count());
+    }
+
+    @Test
+    void record_shouldSkipReadingsAlreadyInBucket() {
+        WaterLevelRollup existing = WaterLevelRollup.builder()
+                .stationId("8518750")
+                .resolution(Resolution.DAILY)
+                .bucketStart(Resolution.DAILY.bucketStart(HOUR))
+                .build();
+        existing.add(reading(HOUR, 1.0));
+
+        assertFalse(existing.add(reading(HOUR, 5.0)));
+        assertTrue(existing.add(reading(HOUR.plusSeconds(360), 5.0)));
+        assertEquals(2, existing.getSampleCount());
+        assertEquals(5.0, existing.getWaterLevelFeet().getLast());
+    }
+
+    @Test
+    void record_shouldCreateMissingBucketsBeforeUpdatingThem() {
+        // What insertIfAbsent creates, or a concurrent writer created first
+        WaterLevelRollup created = WaterLevelRollup.builder()
+                .stationId("8518750")
+                .resolution(Resolution.HOURLY)
+                .bucketStart(HOUR)
+                .lastTimestamp(HOUR)
+                .version(0L)
+                .build();
+        when(rollupRepository.findByStationIdAndResolutionAndBucketStartIn(any(), any(), any()))
+                .thenReturn(List.of());
+        when(rollupRepository.findByStationIdAndResolutionAndBucketStartIn(any(), eq(Resolution.HOURLY), any()))
+                .thenReturn(List.of(), List.of(created));
+
+        rollupService.record(List.of(reading(HOUR, 1.0)));
+
+        verify(rollupRepository).insertIfAbsent("8518750", "HOURLY", HOUR);
+        // An empty bucket takes a reading at its start
+        assertEquals(1, created.getSampleCount());
+        assertEquals(1.0, created.getWaterLevelFeet().getLast());
+    }
+
+    @Test
+    void rebuild_shouldKeepOlderReadingsOfBucketsLiveWritesReachedFirst() {
+        Map<String, WaterLevelRollup> stored = storedBuckets();
+        Instant day = Resolution.DAILY.bucketStart(HOUR);
+        when(waterLevelRepository.findByStationIdAndTimestampBetweenOrderByTimestampAsc(any(), any(), any()))
+                .thenReturn(List.of(
+                        reading(HOUR.plus(Duration.ofMinutes(5)), 1.0),
+                        reading(HOUR.plus(Duration.ofMinutes(20)), 2.0),
+                        reading(HOUR.plus(Duration.ofMinutes(50)), 3.0)));
+
+        // A live write rolls up 10:50 before the backfill reaches the hour with 10:05 and 10:20
+        rollupService.record(List.of(reading(HOUR.plus(Duration.ofMinutes(50)), 3.0)));
+        assertEquals(3, rollupService.rebuild("8518750", day, day.plus(Duration.ofDays(1))));
+        // Live re-poll of 10:50 and a retried backfill of the same day
+        rollupService.record(List.of(reading(HOUR.plus(Duration.ofMinutes(50)), 3.0)));
+        rollupService.rebuild("8518750", day, day.plus(Duration.ofDays(1)));
+
+        WaterLevelRollup hourly = stored.get(Resolution.HOURLY + "@" + HOUR);
+        assertEquals(3, hourly.getSampleCount());
+        assertEquals(1.0, hourly.getWaterLevelFeet().getMin());
+        assertEquals(3.0, hourly.getWaterLevelFeet().getLast());
+        assertEquals(HOUR.plus(Duration.ofMinutes(50)), hourly.getLastTimestamp());
+        assertEquals(3, stored.get(Resolution.DAILY + "@" + day).getSampleCount());
+        assertEquals(1, stored.get(Resolution.MINUTES_15 + "@" + HOUR).getSampleCount());
+        assertEquals(1, stored.get(Resolution.MINUTES_15 + "@" + HOUR.plus(Duration.ofMinutes(45))).getSampleCount());
+    }
+
+    @Test
+    void history_shouldUseRawReadingsWhenTheyFit() {
+        when(waterLevelRepository.countByStationIdAndTimestampBetween(any(), any(), any())).thenReturn(100L);
+
+        assertNull(rollupService.chooseResolution("8518750", HOUR.minus(Duration.ofDays(1)), HOUR, 500));
+    }
+
+    @Test
+    void chooseRollup_shouldPickFinestResolutionWithinBudget() {
+        assertEquals(Resolution.MINUTES_15, WaterLevelRollupService.chooseRollup(Duration.ofDays(2), 500));
+        assertEquals(Resolution.HOURLY, WaterLevelRollupService.chooseRollup(Duration.ofDays(7), 500));
+        assertEquals(Resolution.DAILY, WaterLevelRollupService.chooseRollup(Duration.ofDays(30), 500));
+        assertEquals(Resolution.DAILY, WaterLevelRollupService.chooseRollup(Duration.ofDays(3650), 500));
+    }
+
+    /**
+     * Buckets kept in a map, created by insertIfAbsent like the table
+     */
+    private Map<String, WaterLevelRollup> storedBuckets() {
+        Map<String, WaterLevelRollup> stored = new HashMap<>();
+        when(rollupRepository.findByStationIdAndResolutionAndBucketStartIn(any(), any(), any()))
+                .thenAnswer(invocation -> invocation.<Collection<Instant>>getArgument(2).stream()
+                        .map(start -> stored.get(invocation.getArgument(1) + "@" + start))
+                        .filter(Objects::nonNull)
+                        .toList());
+        when(rollupRepository.insertIfAbsent(any(), any(), any())).thenAnswer(invocation -> {
+            Instant start = invocation.getArgument(2);
+            stored.putIfAbsent(invocation.getArgument(1) + "@" + start, WaterLevelRollup.builder()
+                    .stationId(invocation.getArgument(0))
+                    .resolution(Resolution.valueOf(invocation.getArgument(1)))
+                    .bucketStart(start)
+                    .lastTimestamp(start)
+                    .version(0L)
+                    .build());
+            return 1;
+        });
+        return stored;
+    }
+
+    private static WaterLevelMetric reading(Instant timestamp, double feet) {
+        return WaterLevelMetric.builder()
+                .stationId("8518750")
+                .timestamp(timestamp)
+                .waterLevelFeet(feet)
+                .build();
+    }
+}
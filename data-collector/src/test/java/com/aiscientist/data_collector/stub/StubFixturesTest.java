@@ -0,0 +1,71 @@
+package com.aiscientist.data_collector.stub;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.time.Instant;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.core.io.DefaultResourceLoader;
+
+import com.aiscientist.data_collector.http.UpstreamSource;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+class StubFixturesTest {
+
+    private static final Instant NOW = Instant.parse("2025-06-01T12:34:56Z");
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final StubFixtures fixtures = new StubFixtures(objectMapper, new DefaultResourceLoader(), null,
+            NOW::toEpochMilli);
+
+    @Test
+    void fixtureName_shouldUseLastPathSegmentWithoutExtension() {
+        assertEquals("nasa-donki-flr", StubFixtures.fixtureName(UpstreamSource.NASA_DONKI, "/stub/nasa-donki/DONKI/FLR"));
+        assertEquals("noaa-swpc-noaa-planetary-k-index",
+                StubFixtures.fixtureName(UpstreamSource.NOAA_SWPC, "/products/noaa-planetary-k-index.json"));
+        assertEquals("usgs-water-iv", StubFixtures.fixtureName(UpstreamSource.USGS_WATER, "/nwis/iv/"));
+    }
+
+    @Test
+    void render_shouldScaleEventsWithDistinctIds() throws Exception {
+        JsonNode flares = render(UpstreamSource.NASA_DONKI, "nasa-donki-flr", Map.of(), 10);
+        Set<String> ids = new HashSet<>();
+        flares.forEach(flare -> ids.add(flare.get("flrID").asText()));
+        assertEquals(30, flares.size());
+        assertEquals(30, ids.size());
+
+        JsonNode earthquakes = render(UpstreamSource.USGS_EARTHQUAKE, "usgs-earthquake-query", Map.of(), 3);
+        assertEquals(12, earthquakes.get("features").size());
+        assertEquals(12, earthquakes.get("metadata").get("count").asInt());
+    }
+
+    @Test
+    void render_shouldKeepKpReadingsInOrderWithoutDuplicateTimes() throws Exception {
+        JsonNode readings = render(UpstreamSource.NOAA_SWPC, "noaa-swpc-noaa-planetary-k-index", Map.of(), 3);
+        assertEquals(24, readings.size());
+        for (int i = 1; i < readings.size(); i++) {
+            assertTrue(readings.get(i - 1).get("time_tag").asText().compareTo(readings.get(i).get("time_tag").asText()) < 0);
+        }
+        assertEquals("2025-05-31T21:00:00", readings.get(23).get("time_tag").asText());
+    }
+
+    @Test
+    void render_shouldServeTheRequestedStationNow() throws Exception {
+        JsonNode reading = render(UpstreamSource.NOAA_TIDES, "noaa-tides-datagetter", Map.of("station", "STUB-T000042"), 1);
+        assertEquals("STUB-T000042", reading.get("metadata").get("id").asText());
+        assertEquals("2025-06-01 12:34", reading.get("data").get(0).get("t").asText());
+    }
+
+    @Test
+    void render_shouldBeEmptyWithoutFixture() {
+        assertTrue(fixtures.render(UpstreamSource.NOAA_SWPC, "noaa-swpc-unknown", Map.of(), 1).isEmpty());
+    }
+
+    private JsonNode render(String source, String fixture, Map<String, String> params, int scale) throws Exception {
+        return objectMapper.readTree(fixtures.render(source, fixture, params, scale).orElseThrow());
+    }
+}
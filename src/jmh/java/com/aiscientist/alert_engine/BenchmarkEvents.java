@@ -0,0 +1,124 @@
+package com.aiscientist.alert_engine;
+
+import java.time.Instant;
+import java.util.UUID;
+
+import com.aiscientist.alert_engine.description.AlertDescriptions;
+import com.aiscientist.alert_engine.description.DescriptionTemplate;
+import com.aiscientist.alert_engine.dto.CmeEvent;
+import com.aiscientist.alert_engine.dto.EarthquakeEvent;
+import com.aiscientist.alert_engine.dto.FloodAlertEvent;
+import com.aiscientist.alert_engine.dto.KpIndexEvent;
+import com.aiscientist.alert_engine.model.Alert;
+
+/**
+ * Representative events as published by data-collector, shared by the benchmarks
+ */
+public final class BenchmarkEvents {
+
+    private static final Instant EVENT_TIME = Instant.parse("2025-06-01T12:34:56Z");
+
+    private BenchmarkEvents() {
+    }
+
+    public static EarthquakeEvent earthquake() {
+        return EarthquakeEvent.builder()
+                .earthquakeId("us7000abcd")
+                .magnitude(7.3)
+                .magnitudeType("mww")
+                .depthKm(18.5)
+                .latitude(38.297)
+                .longitude(142.373)
+                .eventTime(EVENT_TIME)
+                .location("72 km E of Ishinomaki, Japan")
+                .region("Japan")
+                .severity("CRITICAL")
+                .dangerous(true)
+                .catastrophic(true)
+                .shallow(true)
+                .tsunamiWarning(true)
+                .tsunamiRiskScore(85)
+                .alertLevel("orange")
+                .significance(1021)
+                .feltReports(312)
+                .dataSource("us")
+                .eventUrl("https://earthquake.usgs.gov/earthquakes/eventpage/us7000abcd")
+                .collectedAt(EVENT_TIME.plusSeconds(90))
+                .eventType("earthquake")
+                .build();
+    }
+
+    public static FloodAlertEvent flood() {
+        return FloodAlertEvent.builder()
+                .stationId("01646500")
+                .stationName("POTOMAC RIVER NEAR WASH, DC LITTLE FALLS PUMP STA")
+                .source("usgs")
+                .locationType("river")
+                .latitude(38.9497)
+                .longitude(-77.1275)
+                .timestamp(EVENT_TIME)
+                .waterLevelMeters(4.42)
+                .waterLevelFeet(14.5)
+                .datum("NAVD88")
+                .dischargeCfs(98200.0)
+                .gageHeightFeet(14.5)
+                .floodStageFeet(10.0)
+                .floodSeverity("MODERATE")
+                .isFlooding(true)
+                .qualityCode("P")
+                .build();
+    }
+
+    public static KpIndexEvent kpIndex() {
+        return KpIndexEvent.builder()
+                .timeTag("2025-06-01 12:00:00.000")
+                .kpIndex(7.33)
+                .estimatedKp(7.33)
+                .source("noaa")
+                .timestamp(EVENT_TIME)
+                .rawData("[\"2025-06-01 12:00:00.000\",\"7.33\",\"7.33\",\"8\"]")
+                .build();
+    }
+
+    public static CmeEvent cme() {
+        return CmeEvent.builder()
+                .activityId("2025-06-01T08:36:00-CME-001")
+                .startTime(EVENT_TIME)
+                .sourceLocation("S15W30")
+                .note("Fast halo CME associated with an X1.2 flare from AR 14100.")
+                .type("O")
+                .halfAngle(true)
+                .speed(1650.0)
+                .latitude("-15.0")
+                .longitude("30.0")
+                .mostAccurateSpeed(1710.0)
+                .collectedAt(EVENT_TIME.plusSeconds(300))
+                .build();
+    }
+
+    /**
+     * A saved earthquake alert, as returned by the repository
+     */
+    public static Alert savedAlert() {
+        EarthquakeEvent event = earthquake();
+        return Alert.builder()
+                .id(UUID.fromString("3f2b8c1e-0d4a-4c6e-9b7a-5e1f2a3b4c5d"))
+                .alertType("EARTHQUAKE")
+                .severity("CRITICAL")
+                .earthquakeId(event.getEarthquakeId())
+                .magnitude(event.getMagnitude())
+                .depthKm(event.getDepthKm())
+                .location(event.getLocation())
+                .region(event.getRegion())
+                .latitude(event.getLatitude())
+                .longitude(event.getLongitude())
+                .descriptionTemplate(DescriptionTemplate.EARTHQUAKE.id())
+                .descriptionParams(AlertDescriptions.params("magnitude", event.getMagnitude(),
+                        "location", event.getLocation(), "depthKm", event.getDepthKm(),
+                        "dangerous", true))
+                .timestamp(event.getEventTime())
+                .acknowledged(false)
+                .createdAt(EVENT_TIME.plusSeconds(95))
+                .build();
+    }
+}
@@ -0,0 +1,66 @@
+package com.aiscientist.alert_engine.correlation;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Optional;
+import java.util.SplittableRandom;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.aiscientist.alert_engine.model.Alert;
+
+/**
+ * Correlation of a stream of mixed alerts with full windows, i.e. the work
+ * the CorrelationEngine does on a listener thread before any database write
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class IncidentWindowsBenchmark {
+
+    private static final String[] TYPES = {"EARTHQUAKE", "TSUNAMI", "FLOOD", "CME", "GEOMAGNETIC_STORM"};
+    private static final String[] SEVERITIES = {"MODERATE", "MAJOR", "CRITICAL"};
+
+    private IncidentWindows windows;
+    private SplittableRandom random;
+    private Instant eventTime;
+
+    @Setup
+    public void setUp() {
+        // app.correlation from application.yml
+        windows = new IncidentWindows(new IncidentWindows.Settings(Duration.ofHours(6), Duration.ofHours(24), 1.0,
+                Duration.ofHours(12), Duration.ofHours(96), Duration.ofHours(12), 10_000));
+        random = new SplittableRandom(42);
+        eventTime = Instant.now().minus(Duration.ofDays(30));
+    }
+
+    @Benchmark
+    public Optional<IncidentWindows.Update> add() {
+        eventTime = eventTime.plusMillis(500);
+        String type = TYPES[random.nextInt(TYPES.length)];
+        return windows.add(Alert.builder()
+                .id(UUID.randomUUID())
+                .alertType(type)
+                .severity(SEVERITIES[random.nextInt(SEVERITIES.length)])
+                .earthquakeId(type.equals("EARTHQUAKE") || type.equals("TSUNAMI") ? "us" + random.nextInt(2_000) : null)
+                .latitude(type.equals("CME") ? null : random.nextDouble(-60, 60))
+                .longitude(type.equals("CME") ? null : random.nextDouble(-180, 180))
+                .sourceKey(type + ":" + random.nextInt(1_000_000))
+                .timestamp(eventTime)
+                .build());
+    }
+}
@@ -0,0 +1,84 @@
+package com.aiscientist.alert_engine.kafka;
+
+import java.time.Instant;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.kafka.support.serializer.JsonSerializer;
+
+import com.aiscientist.alert_engine.BenchmarkEvents;
+import com.aiscientist.alert_engine.dto.EarthquakeEvent;
+import com.aiscientist.alert_engine.model.Alert;
+
+/**
+ * Building an Alert and serializing it with the producer's JsonSerializer,
+ * as the alert services do before kafkaTemplate.send
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class AlertSerializationBenchmark {
+
+    private static final String TOPIC = "alerts.critical";
+
+    private final JsonSerializer<Alert> serializer = new JsonSerializer<>();
+    private EarthquakeEvent event;
+    private Alert alert;
+
+    @Setup
+    public void setUp() {
+        event = BenchmarkEvents.earthquake();
+        alert = BenchmarkEvents.savedAlert();
+    }
+
+    @TearDown
+    public void tearDown() {
+        serializer.close();
+    }
+
+    @Benchmark
+    public Alert build() {
+        return buildAlert();
+    }
+
+    @Benchmark
+    public byte[] serialize() {
+        return serializer.serialize(TOPIC, alert);
+    }
+
+    @Benchmark
+    public byte[] buildAndSerialize() {
+        return serializer.serialize(TOPIC, buildAlert());
+    }
+
+    private Alert buildAlert() {
+        return Alert.builder()
+                .alertType("EARTHQUAKE")
+                .severity("CRITICAL")
+                .earthquakeId(event.getEarthquakeId())
+                .magnitude(event.getMagnitude())
+                .depthKm(event.getDepthKm())
+                .location(event.getLocation())
+                .region(event.getRegion())
+                .latitude(event.getLatitude())
+                .longitude(event.getLongitude())
+                .description(alert.getDescription())
+                .timestamp(event.getEventTime())
+                .acknowledged(false)
+                .createdAt(Instant.now())
+                .build();
+    }
+}
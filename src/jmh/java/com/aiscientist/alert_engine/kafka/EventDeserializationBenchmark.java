@@ -0,0 +1,141 @@
+package com.aiscientist.alert_engine.kafka;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.kafka.common.header.Headers;
+import org.apache.kafka.common.header.internals.RecordHeaders;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.kafka.support.serializer.JsonDeserializer;
+import org.springframework.kafka.support.serializer.JsonSerializer;
+
+import com.aiscientist.alert_engine.BenchmarkEvents;
+import com.aiscientist.alert_engine.dto.CmeEvent;
+import com.aiscientist.alert_engine.dto.EarthquakeEvent;
+import com.aiscientist.alert_engine.dto.FloodAlertEvent;
+import com.aiscientist.alert_engine.dto.KpIndexEvent;
+import com.aiscientist.alert_engine.metrics.IngestMetrics;
+import com.aiscientist.alert_engine.service.AlertStateTracker;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+/**
+ * Record value deserialization as done by the consumers: the JsonDeserializer
+ * configured in KafkaConfig plus each listener's spring.json.value.default.type,
+ * and the PrefilteringDeserializer in front of it for a Kp sample it drops
+ * and one it passes on
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class EventDeserializationBenchmark {
+
+    private static final String TOPIC = "benchmark";
+    private static final String KP_TOPIC = "raw.spaceweather.kp";
+
+    private JsonDeserializer<Object> earthquakeDeserializer;
+    private JsonDeserializer<Object> floodDeserializer;
+    private JsonDeserializer<Object> kpIndexDeserializer;
+    private JsonDeserializer<Object> cmeDeserializer;
+    private PrefilteringDeserializer prefilteringKpIndexDeserializer;
+
+    private byte[] earthquakePayload;
+    private byte[] floodPayload;
+    private byte[] kpIndexPayload;
+    private byte[] cmePayload;
+    private Headers quietKpHeaders;
+    private Headers stormKpHeaders;
+
+    @Setup
+    public void setUp() {
+        earthquakeDeserializer = deserializerFor(EarthquakeEvent.class);
+        floodDeserializer = deserializerFor(FloodAlertEvent.class);
+        kpIndexDeserializer = deserializerFor(KpIndexEvent.class);
+        cmeDeserializer = deserializerFor(CmeEvent.class);
+        prefilteringKpIndexDeserializer = prefilteringDeserializerFor(KpIndexEvent.class);
+        quietKpHeaders = new RecordHeaders().add(RecordPrefilter.KP, "2.33".getBytes(StandardCharsets.UTF_8));
+        stormKpHeaders = new RecordHeaders().add(RecordPrefilter.KP, "6.67".getBytes(StandardCharsets.UTF_8));
+
+        // Same serializer and settings as data-collector's producer (no type headers)
+        try (JsonSerializer<Object> serializer = new JsonSerializer<>()) {
+            serializer.configure(Map.of(JsonSerializer.ADD_TYPE_INFO_HEADERS, false), false);
+            earthquakePayload = serializer.serialize(TOPIC, BenchmarkEvents.earthquake());
+            floodPayload = serializer.serialize(TOPIC, BenchmarkEvents.flood());
+            kpIndexPayload = serializer.serialize(TOPIC, BenchmarkEvents.kpIndex());
+            cmePayload = serializer.serialize(TOPIC, BenchmarkEvents.cme());
+        }
+    }
+
+    @Benchmark
+    public Object earthquakeEvent() {
+        return earthquakeDeserializer.deserialize(TOPIC, earthquakePayload);
+    }
+
+    @Benchmark
+    public Object floodAlertEvent() {
+        return floodDeserializer.deserialize(TOPIC, floodPayload);
+    }
+
+    @Benchmark
+    public Object kpIndexEvent() {
+        return kpIndexDeserializer.deserialize(TOPIC, kpIndexPayload);
+    }
+
+    @Benchmark
+    public Object cmeEvent() {
+        return cmeDeserializer.deserialize(TOPIC, cmePayload);
+    }
+
+    @Benchmark
+    public Object kpIndexEventPrefiltered() {
+        return prefilteringKpIndexDeserializer.deserialize(KP_TOPIC, quietKpHeaders, kpIndexPayload);
+    }
+
+    @Benchmark
+    public Object kpIndexEventPassedPrefilter() {
+        return prefilteringKpIndexDeserializer.deserialize(KP_TOPIC, stormKpHeaders, kpIndexPayload);
+    }
+
+    private static JsonDeserializer<Object> deserializerFor(Class<?> defaultType) {
+        JsonDeserializer<Object> deserializer = new JsonDeserializer<>();
+        deserializer.configure(configFor(defaultType), false);
+        return deserializer;
+    }
+
+    private static PrefilteringDeserializer prefilteringDeserializerFor(Class<?> defaultType) {
+        // app.kafka.topics and app.alert.thresholds.kp-index.minor from application.yml, no storm open
+        AlertStateTracker alertStateTracker = new AlertStateTracker(null, null, null,
+                Duration.ofHours(2), Duration.ofHours(6), Duration.ofHours(24), 64);
+        RecordPrefilter prefilter = new RecordPrefilter(new IngestMetrics(new SimpleMeterRegistry()), alertStateTracker,
+                "raw.earthquake.data", "raw.earthquake.alert", KP_TOPIC, "raw.flood.alert", 4.0, Set.of(), true);
+        Map<String, Object> config = configFor(defaultType);
+        config.put(PrefilteringDeserializer.PREFILTER_CONFIG, prefilter);
+        PrefilteringDeserializer deserializer = new PrefilteringDeserializer();
+        deserializer.configure(config, false);
+        return deserializer;
+    }
+
+    private static Map<String, Object> configFor(Class<?> defaultType) {
+        Map<String, Object> config = new HashMap<>();
+        config.put(JsonDeserializer.TRUSTED_PACKAGES, "*");
+        config.put(JsonDeserializer.USE_TYPE_INFO_HEADERS, false);
+        config.put(JsonDeserializer.VALUE_DEFAULT_TYPE, defaultType.getName());
+        return config;
+    }
+}
@@ -0,0 +1,138 @@
+package com.aiscientist.alert_engine.service;
+
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import com.aiscientist.alert_engine.BenchmarkEvents;
+import com.aiscientist.alert_engine.description.AlertDescriptions;
+import com.aiscientist.alert_engine.description.DescriptionTemplate;
+import com.aiscientist.alert_engine.dto.AlertDTO;
+import com.aiscientist.alert_engine.dto.CmeEvent;
+import com.aiscientist.alert_engine.dto.EarthquakeEvent;
+import com.aiscientist.alert_engine.dto.FloodAlertEvent;
+import com.aiscientist.alert_engine.model.Alert;
+
+/**
+ * Severity classification, description parameters and rendering and DTO
+ * conversion of the alert services, without the repository or Kafka
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class AlertServicesBenchmark {
+
+    private EarthquakeAlertService earthquakeService;
+    private FloodAlertService floodService;
+    private CmeAlertService cmeService;
+    private AlertDetectionService detectionService;
+    private AlertDescriptions descriptions;
+
+    private EarthquakeEvent earthquake;
+    private FloodAlertEvent flood;
+    private CmeEvent cme;
+    private double kpValue;
+    private Alert savedAlert;
+    private Alert floodAlert;
+    private Alert cmeAlert;
+    private Alert kpAlert;
+
+    @Setup
+    public void setUp() {
+        descriptions = new AlertDescriptions();
+        earthquakeService = new EarthquakeAlertService(null, null, null, null, descriptions, null);
+        floodService = new FloodAlertService(null, null, null, descriptions, null, null);
+        cmeService = new CmeAlertService(null, null, null, descriptions, null, null);
+        detectionService = new AlertDetectionService(null, null, null, null, null, descriptions, null, null);
+        // app.alert.thresholds.kp-index from application.yml
+        ReflectionTestUtils.setField(detectionService, "minorThreshold", 4.0);
+        ReflectionTestUtils.setField(detectionService, "moderateThreshold", 5.0);
+        ReflectionTestUtils.setField(detectionService, "strongThreshold", 6.0);
+        ReflectionTestUtils.setField(detectionService, "severeThreshold", 7.0);
+        ReflectionTestUtils.setField(detectionService, "extremeThreshold", 8.0);
+
+        earthquake = BenchmarkEvents.earthquake();
+        flood = BenchmarkEvents.flood();
+        cme = BenchmarkEvents.cme();
+        kpValue = BenchmarkEvents.kpIndex().getKpIndex();
+        savedAlert = BenchmarkEvents.savedAlert();
+        floodAlert = described(DescriptionTemplate.FLOOD, floodService.descriptionParams(flood));
+        cmeAlert = described(DescriptionTemplate.CME, cmeService.descriptionParams(cme, cme.getMostAccurateSpeed()));
+        kpAlert = described(DescriptionTemplate.GEOMAGNETIC_STORM,
+                AlertDescriptions.params("severity", detectionService.determineSeverity(kpValue), "kp", kpValue));
+    }
+
+    @Benchmark
+    public String earthquakeSeverity() {
+        return earthquakeService.determineSeverity(earthquake.getMagnitude());
+    }
+
+    @Benchmark
+    public Map<String, Object> earthquakeDescriptionParams() {
+        return earthquakeService.descriptionParams(earthquake);
+    }
+
+    @Benchmark
+    public String earthquakeDescription() {
+        return descriptions.describe(savedAlert);
+    }
+
+    @Benchmark
+    public String earthquakeDescriptionSpanish() {
+        return descriptions.describe(savedAlert, Locale.forLanguageTag("es"));
+    }
+
+    @Benchmark
+    public String floodSeverity() {
+        return floodService.determineSeverity(flood.getFloodSeverity());
+    }
+
+    @Benchmark
+    public String floodDescription() {
+        return descriptions.describe(floodAlert);
+    }
+
+    @Benchmark
+    public String cmeSeverity() {
+        return cmeService.determineSeverity(cme.getMostAccurateSpeed());
+    }
+
+    @Benchmark
+    public String cmeDescription() {
+        return descriptions.describe(cmeAlert);
+    }
+
+    @Benchmark
+    public String kpSeverity() {
+        return detectionService.determineSeverity(kpValue);
+    }
+
+    @Benchmark
+    public String kpDescription() {
+        return descriptions.describe(kpAlert);
+    }
+
+    @Benchmark
+    public AlertDTO convertToDTO() {
+        return detectionService.convertToDTO(savedAlert);
+    }
+
+    private static Alert described(DescriptionTemplate template, Map<String, Object> params) {
+        return Alert.builder().descriptionTemplate(template.id()).descriptionParams(params).build();
+    }
+}
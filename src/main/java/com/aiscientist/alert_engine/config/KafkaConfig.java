@@ -1,27 +1,78 @@
 package com.aiscientist.alert_engine.config;
 
 import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.Map;
+import java.util.function.Consumer;
 
 import org.apache.kafka.clients.consumer.ConsumerConfig;
 import org.apache.kafka.clients.producer.ProducerConfig;
+import org.apache.kafka.common.TopicPartition;
+import org.apache.kafka.common.serialization.ByteArraySerializer;
+import org.apache.kafka.common.serialization.Serializer;
 import org.apache.kafka.common.serialization.StringDeserializer;
 import org.apache.kafka.common.serialization.StringSerializer;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
 import org.springframework.kafka.annotation.EnableKafka;
 import org.springframework.kafka.config.ConcurrentKafkaListenerContainerFactory;
 import org.springframework.kafka.core.*;
+import org.springframework.kafka.listener.DeadLetterPublishingRecoverer;
+import org.springframework.kafka.listener.DefaultErrorHandler;
+import org.springframework.kafka.retrytopic.DeadLetterPublishingRecovererFactory;
+import org.springframework.kafka.retrytopic.RetryTopicConfiguration;
+import org.springframework.kafka.retrytopic.RetryTopicConfigurationBuilder;
+import org.springframework.kafka.retrytopic.RetryTopicConfigurationSupport;
+import org.springframework.kafka.retrytopic.RetryTopicSchedulerWrapper;
+import org.springframework.kafka.support.serializer.DelegatingByTypeSerializer;
 import org.springframework.kafka.support.serializer.ErrorHandlingDeserializer;
 import org.springframework.kafka.support.serializer.JsonDeserializer;
 import org.springframework.kafka.support.serializer.JsonSerializer;
+import org.springframework.kafka.support.serializer.SerializationUtils;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskScheduler;
+import org.springframework.util.backoff.FixedBackOff;
 
+import com.aiscientist.alert_engine.kafka.LaneGovernor;
+import com.aiscientist.alert_engine.kafka.LaneRouter;
+import com.aiscientist.alert_engine.kafka.PrefilteringDeserializer;
+import com.aiscientist.alert_engine.kafka.RecordPrefilter;
+import com.aiscientist.alert_engine.metrics.IngestMetrics;
+import com.aiscientist.alert_engine.metrics.StartupReport;
 import com.aiscientist.alert_engine.model.Alert;
 
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Kafka clients and listener containers.
+ *
+ * Records a listener fails on are not retried in place, which would stall
+ * the partition behind them, but forwarded to retry topics with
+ * exponentially growing delays (&lt;topic&gt;-retry-0, -1, ...) that are
+ * consumed by copies of the listener, and finally to &lt;topic&gt;-dlt.
+ * Records that cannot be deserialized go to the DLT directly. Dead letters
+ * are kept until re-driven, see DeadLetterRedriver. Records the standard
+ * lane found no database connection for are retried in place instead.
+ *
+ * Tsunami warnings and critical earthquakes have a lane of their own (see
+ * LaneRouter): a container factory whose listeners run in a separate
+ * consumer group on their own threads, and a separate alert producer.
+ */
 @Configuration
 @EnableKafka
-public class KafkaConfig {
+@RequiredArgsConstructor
+@Slf4j
+public class KafkaConfig extends RetryTopicConfigurationSupport {
+    
+    public static final String RETRY_TOPIC_SUFFIX = "-retry";
+    public static final String DLT_SUFFIX = "-dlt";
+    public static final String PRIORITY_CONTAINER_FACTORY = "priorityKafkaListenerContainerFactory";
+    public static final String PRIORITY_KAFKA_TEMPLATE = "priorityKafkaTemplate";
+    
+    private final IngestMetrics ingestMetrics;
     
     @Value("${spring.kafka.bootstrap-servers}")
     private String bootstrapServers;
@@ -30,32 +81,118 @@ public class KafkaConfig {
     private String groupId;
     
     @Bean
-    public ConsumerFactory<String, Object> consumerFactory() {
+    public ConsumerFactory<String, Object> consumerFactory(MeterRegistry meterRegistry, RecordPrefilter recordPrefilter,
+                                                           LaneRouter laneRouter) {
         Map<String, Object> config = new HashMap<>();
         config.put(ConsumerConfig.BOOTSTRAP_SERVERS_CONFIG, bootstrapServers);
         config.put(ConsumerConfig.GROUP_ID_CONFIG, groupId);
         config.put(ConsumerConfig.KEY_DESERIALIZER_CLASS_CONFIG, StringDeserializer.class);
         config.put(ConsumerConfig.VALUE_DESERIALIZER_CLASS_CONFIG, ErrorHandlingDeserializer.class);
-        config.put(ErrorHandlingDeserializer.VALUE_DESERIALIZER_CLASS, JsonDeserializer.class.getName());
+        // JSON, unless the record's headers show it cannot lead to an alert
+        config.put(ErrorHandlingDeserializer.VALUE_DESERIALIZER_CLASS, PrefilteringDeserializer.class.getName());
+        config.put(PrefilteringDeserializer.PREFILTER_CONFIG, recordPrefilter);
+        config.put(PrefilteringDeserializer.LANE_ROUTER_CONFIG, laneRouter);
+        config.put(PrefilteringDeserializer.LANE_CONFIG, LaneRouter.Lane.STANDARD);
         config.put(JsonDeserializer.TRUSTED_PACKAGES, "*");
         config.put(JsonDeserializer.USE_TYPE_INFO_HEADERS, false); // Use property-based type mapping
         config.put(ConsumerConfig.AUTO_OFFSET_RESET_CONFIG, "earliest");
         config.put(ConsumerConfig.ENABLE_AUTO_COMMIT_CONFIG, true);
         
-        return new DefaultKafkaConsumerFactory<>(config);
+        DefaultKafkaConsumerFactory<String, Object> factory = new DefaultKafkaConsumerFactory<>(config);
+        // Client metrics: kafka.consumer.fetch.manager.records.lag{topic,partition}, records.per.request.avg, ...
+        factory.addListener(new MicrometerConsumerListener<>(meterRegistry));
+        return factory;
     }
     
+    @Value("${app.kafka.retry.attempts:4}")
+    private int retryAttempts;
+    
+    @Value("${app.kafka.retry.backoff-initial-ms:1000}")
+    private long retryBackoffInitialMs;
+    
+    @Value("${app.kafka.retry.backoff-multiplier:4.0}")
+    private double retryBackoffMultiplier;
+    
+    @Value("${app.kafka.retry.backoff-max-ms:60000}")
+    private long retryBackoffMaxMs;
+    
+    @Value("${app.kafka.retry.topic-partitions:3}")
+    private int retryTopicPartitions;
+    
+    @Value("${app.kafka.retry.topic-replication-factor:-1}")
+    private short retryTopicReplicationFactor;
+    
+    @Value("${app.lanes.standard.busy-back-off-ms:1000}")
+    private long laneBusyBackOffMs;
+    
     @Bean
-    public ConcurrentKafkaListenerContainerFactory<String, Object> kafkaListenerContainerFactory() {
+    public ConcurrentKafkaListenerContainerFactory<String, Object> kafkaListenerContainerFactory(
+            ConsumerFactory<String, Object> consumerFactory, StartupReport startupReport) {
+        return listenerContainerFactory(consumerFactory, 3, startupReport);
+    }
+    
+    /**
+     * Containers of the priority lane: the standard consumer config, but
+     * deserializing only priority records
+     */
+    @Bean(PRIORITY_CONTAINER_FACTORY)
+    public ConcurrentKafkaListenerContainerFactory<String, Object> priorityKafkaListenerContainerFactory(
+            ConsumerFactory<String, Object> consumerFactory, MeterRegistry meterRegistry,
+            StartupReport startupReport, @Value("${app.lanes.priority.concurrency:2}") int concurrency) {
+        Map<String, Object> config = new HashMap<>(consumerFactory.getConfigurationProperties());
+        config.put(PrefilteringDeserializer.LANE_CONFIG, LaneRouter.Lane.PRIORITY);
+        DefaultKafkaConsumerFactory<String, Object> priorityConsumerFactory = new DefaultKafkaConsumerFactory<>(config);
+        priorityConsumerFactory.addListener(new MicrometerConsumerListener<>(meterRegistry));
+        return listenerContainerFactory(priorityConsumerFactory, concurrency, startupReport);
+    }
+    
+    private ConcurrentKafkaListenerContainerFactory<String, Object> listenerContainerFactory(
+            ConsumerFactory<String, Object> consumerFactory, int concurrency, StartupReport startupReport) {
         ConcurrentKafkaListenerContainerFactory<String, Object> factory = 
             new ConcurrentKafkaListenerContainerFactory<>();
-        factory.setConsumerFactory(consumerFactory());
-        factory.setConcurrency(3);
+        factory.setConsumerFactory(consumerFactory);
+        factory.setConcurrency(concurrency);
+        factory.setRecordInterceptor((record, consumer) -> {
+            startupReport.recordConsumed(record);
+            return record;
+        });
+        // Records the PrefilteringDeserializer dropped or left to the other lane; a failed deserialization also leaves a null value
+        factory.setRecordFilterStrategy(record -> record.value() == null
+            && record.headers().lastHeader(SerializationUtils.VALUE_DESERIALIZER_EXCEPTION_HEADER) == null);
+        // Only for listeners outside the retry topics below; records it gives up on are counted
+        factory.setCommonErrorHandler(new DefaultErrorHandler((record, error) -> {
+            ingestMetrics.recordFailure(record.topic(), error);
+            log.error("Skipping record {}-{}@{}: {}", record.topic(), record.partition(), record.offset(),
+                error.getMessage());
+        }));
+        return factory;
+    }
+    
+    @Bean
+    public ProducerFactory<String, Object> producerFactory(MeterRegistry meterRegistry) {
+        Map<String, Object> config = new HashMap<>();
+        config.put(ProducerConfig.BOOTSTRAP_SERVERS_CONFIG, bootstrapServers);
+        config.put(ProducerConfig.ACKS_CONFIG, "all");
+        config.put(ProducerConfig.RETRIES_CONFIG, 3);
+        config.put(ProducerConfig.ENABLE_IDEMPOTENCE_CONFIG, true);
+        
+        // byte[] values (undeserializable records on their way to a DLT, re-driven dead letters) are sent as-is
+        Map<Class<?>, Serializer<?>> valueSerializers = new LinkedHashMap<>();
+        valueSerializers.put(byte[].class, new ByteArraySerializer());
+        valueSerializers.put(Object.class, new JsonSerializer<>());
+        DefaultKafkaProducerFactory<String, Object> factory = new DefaultKafkaProducerFactory<>(config,
+            new StringSerializer(), new DelegatingByTypeSerializer(valueSerializers, true));
+        factory.addListener(new MicrometerProducerListener<>(meterRegistry));
         return factory;
     }
     
     @Bean
-    public ProducerFactory<String, Object> producerFactory() {
+    public KafkaTemplate<String, Object> kafkaTemplate(ProducerFactory<String, Object> producerFactory) {
+        return new KafkaTemplate<>(producerFactory);
+    }
+    
+    @Bean
+    public ProducerFactory<String, Alert> alertProducerFactory(MeterRegistry meterRegistry) {
         Map<String, Object> config = new HashMap<>();
         config.put(ProducerConfig.BOOTSTRAP_SERVERS_CONFIG, bootstrapServers);
         config.put(ProducerConfig.KEY_SERIALIZER_CLASS_CONFIG, StringSerializer.class);
@@ -63,29 +200,108 @@ public class KafkaConfig {
         config.put(ProducerConfig.ACKS_CONFIG, "all");
         config.put(ProducerConfig.RETRIES_CONFIG, 3);
         config.put(ProducerConfig.ENABLE_IDEMPOTENCE_CONFIG, true);
-        
-        return new DefaultKafkaProducerFactory<>(config);
+        DefaultKafkaProducerFactory<String, Alert> factory = new DefaultKafkaProducerFactory<>(config);
+        factory.addListener(new MicrometerProducerListener<>(meterRegistry));
+        return factory;
     }
     
     @Bean
-    public KafkaTemplate<String, Object> kafkaTemplate() {
-        return new KafkaTemplate<>(producerFactory());
+    @Primary
+    public KafkaTemplate<String, Alert> alertKafkaTemplate(ProducerFactory<String, Alert> alertProducerFactory) {
+        return new KafkaTemplate<>(alertProducerFactory);
     }
     
+    /**
+     * A producer of its own for the priority lane's critical alerts, so they
+     * never queue behind other alerts in a shared send buffer
+     */
     @Bean
-    public ProducerFactory<String, Alert> alertProducerFactory() {
+    public ProducerFactory<String, Alert> priorityProducerFactory(MeterRegistry meterRegistry) {
         Map<String, Object> config = new HashMap<>();
         config.put(ProducerConfig.BOOTSTRAP_SERVERS_CONFIG, bootstrapServers);
+        config.put(ProducerConfig.CLIENT_ID_CONFIG, "alert-engine-priority");
         config.put(ProducerConfig.KEY_SERIALIZER_CLASS_CONFIG, StringSerializer.class);
         config.put(ProducerConfig.VALUE_SERIALIZER_CLASS_CONFIG, JsonSerializer.class);
         config.put(ProducerConfig.ACKS_CONFIG, "all");
         config.put(ProducerConfig.RETRIES_CONFIG, 3);
         config.put(ProducerConfig.ENABLE_IDEMPOTENCE_CONFIG, true);
-        return new DefaultKafkaProducerFactory<>(config);
+        config.put(ProducerConfig.LINGER_MS_CONFIG, 0);
+        DefaultKafkaProducerFactory<String, Alert> factory = new DefaultKafkaProducerFactory<>(config);
+        factory.addListener(new MicrometerProducerListener<>(meterRegistry));
+        return factory;
     }
     
+    @Bean(PRIORITY_KAFKA_TEMPLATE)
+    public KafkaTemplate<String, Alert> priorityKafkaTemplate(ProducerFactory<String, Alert> priorityProducerFactory) {
+        return new KafkaTemplate<>(priorityProducerFactory);
+    }
+    
+    /**
+     * Non-blocking retries for all listeners, e.g. 1s, 4s and 16s apart
+     */
     @Bean
-    public KafkaTemplate<String, Alert> alertKafkaTemplate() {
-        return new KafkaTemplate<>(alertProducerFactory());
+    public RetryTopicConfiguration retryTopicConfiguration(KafkaTemplate<String, Object> kafkaTemplate) {
+        return RetryTopicConfigurationBuilder.newInstance()
+            .maxAttempts(retryAttempts)
+            .exponentialBackoff(retryBackoffInitialMs, retryBackoffMultiplier, retryBackoffMaxMs)
+            .retryTopicSuffix(RETRY_TOPIC_SUFFIX)
+            .suffixTopicsWithIndexValues()
+            .dltSuffix(DLT_SUFFIX)
+            // Dead letters are parked until re-driven, nothing consumes the DLTs
+            .autoStartDltHandler(false)
+            .autoCreateTopicsWith(retryTopicPartitions, retryTopicReplicationFactor)
+            .create(kafkaTemplate);
+    }
+    
+    @Bean
+    public RetryTopicSchedulerWrapper retryTopicSchedulerWrapper() {
+        ThreadPoolTaskScheduler scheduler = new ThreadPoolTaskScheduler();
+        scheduler.setThreadNamePrefix("kafka-retry-");
+        return new RetryTopicSchedulerWrapper(scheduler);
+    }
+    
+    /**
+     * Records the standard lane had no database connection for are seeked
+     * back and redelivered after a short back-off, as often as it takes,
+     * instead of using up their retry topic attempts
+     */
+    @Override
+    protected void configureBlockingRetries(BlockingRetriesConfigurer blockingRetries) {
+        blockingRetries
+            .retryOn(LaneGovernor.StandardLaneBusyException.class)
+            .backOff(new FixedBackOff(laneBusyBackOffMs, FixedBackOff.UNLIMITED_ATTEMPTS));
+    }
+    
+    /**
+     * Count records forwarded to a retry topic or a DLT
+     */
+    @Override
+    protected Consumer<DeadLetterPublishingRecovererFactory> configureDeadLetterPublishingContainerFactory() {
+        return factory -> factory.setDeadLetterPublisherCreator((templateResolver, destinationResolver) ->
+            new DeadLetterPublishingRecoverer(templateResolver, (record, error) -> {
+                TopicPartition destination = destinationResolver.apply(record, error);
+                if (destination != null) {
+                    String topic = sourceTopic(record.topic());
+                    if (destination.topic().endsWith(DLT_SUFFIX)) {
+                        ingestMetrics.recordFailure(topic, error);
+                        log.error("Dead-lettering record {}-{}@{} to {}: {}", record.topic(), record.partition(),
+                            record.offset(), destination.topic(), error.getMessage());
+                    } else {
+                        ingestMetrics.recordRetry(topic);
+                    }
+                }
+                return destination;
+            }));
+    }
+    
+    /**
+     * The raw topic of a retry topic or DLT, e.g. raw.flood.alert for raw.flood.alert-retry-1
+     */
+    public static String sourceTopic(String topic) {
+        int retry = topic.lastIndexOf(RETRY_TOPIC_SUFFIX);
+        if (retry > 0) {
+            return topic.substring(0, retry);
+        }
+        return topic.endsWith(DLT_SUFFIX) ? topic.substring(0, topic.length() - DLT_SUFFIX.length()) : topic;
     }
 }
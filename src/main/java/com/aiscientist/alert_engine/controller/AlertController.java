@@ -6,9 +6,11 @@ import java.util.List;
 import java.util.UUID;
 import java.util.stream.Collectors;
 
+import org.springframework.context.i18n.LocaleContextHolder;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
+import com.aiscientist.alert_engine.description.AlertDescriptions;
 import com.aiscientist.alert_engine.dto.AlertDTO;
 import com.aiscientist.alert_engine.model.Alert;
 import com.aiscientist.alert_engine.repository.AlertRepository;
@@ -23,6 +25,7 @@ import lombok.extern.slf4j.Slf4j;
 public class AlertController {
     
     private final AlertRepository alertRepository;
+    private final AlertDescriptions alertDescriptions;
     
     @GetMapping
     public ResponseEntity<List<AlertDTO>> getAllAlerts(
@@ -208,7 +211,7 @@ public class AlertController {
                 .alertType(alert.getAlertType())
                 .severity(alert.getSeverity())
                 .kpValue(alert.getKpValue())
-                .description(alert.getDescription())
+                .description(alertDescriptions.describe(alert, LocaleContextHolder.getLocale()))
                 .timestamp(alert.getTimestamp())
                 .createdAt(alert.getCreatedAt())
                 .build();
@@ -0,0 +1,34 @@
+package com.aiscientist.alert_engine.controller;
+
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import com.aiscientist.alert_engine.dto.DeadLetterStatus;
+import com.aiscientist.alert_engine.dto.RedriveRequest;
+import com.aiscientist.alert_engine.kafka.DeadLetterRedriver;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+@RestController
+@RequestMapping("/api/v1/dead-letters")
+@RequiredArgsConstructor
+@Slf4j
+public class DeadLetterController {
+
+    private final DeadLetterRedriver deadLetterRedriver;
+
+    @GetMapping
+    public ResponseEntity<DeadLetterStatus> getDeadLetters() {
+        return ResponseEntity.ok(deadLetterRedriver.status());
+    }
+
+    @PostMapping("/redrive")
+    public ResponseEntity<?> redrive(@RequestBody(required = false) RedriveRequest request) {
+        try {
+            return ResponseEntity.ok(deadLetterRedriver.redrive(request != null ? request : new RedriveRequest()));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,87 @@
+package com.aiscientist.alert_engine.controller;
+
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.Comparator;
+import java.util.List;
+import java.util.UUID;
+
+import org.springframework.context.i18n.LocaleContextHolder;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import com.aiscientist.alert_engine.description.AlertDescriptions;
+import com.aiscientist.alert_engine.dto.AlertDTO;
+import com.aiscientist.alert_engine.dto.IncidentDTO;
+import com.aiscientist.alert_engine.model.Alert;
+import com.aiscientist.alert_engine.model.Incident;
+import com.aiscientist.alert_engine.repository.AlertRepository;
+import com.aiscientist.alert_engine.repository.IncidentRepository;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+@RestController
+@RequestMapping("/api/v1/incidents")
+@RequiredArgsConstructor
+@Slf4j
+public class IncidentController {
+    
+    private final IncidentRepository incidentRepository;
+    private final AlertRepository alertRepository;
+    private final AlertDescriptions alertDescriptions;
+    
+    @GetMapping
+    public ResponseEntity<List<IncidentDTO>> getIncidents(
+            @RequestParam(defaultValue = "24") int hours) {
+        
+        Instant startTime = Instant.now().minus(hours, ChronoUnit.HOURS);
+        List<IncidentDTO> incidents = incidentRepository.findByLastAlertAtAfterOrderByLastAlertAtDesc(startTime).stream()
+                .map(this::convertToDTO)
+                .toList();
+        
+        log.info("Retrieved {} incidents from last {} hours", incidents.size(), hours);
+        return ResponseEntity.ok(incidents);
+    }
+    
+    @GetMapping("/{id}")
+    public ResponseEntity<IncidentDTO> getIncident(@PathVariable UUID id) {
+        return incidentRepository.findById(id)
+                .map(incident -> ResponseEntity.ok(convertToDTO(incident)))
+                .orElse(ResponseEntity.notFound().build());
+    }
+    
+    @GetMapping("/{id}/alerts")
+    public ResponseEntity<List<AlertDTO>> getIncidentAlerts(@PathVariable UUID id) {
+        return incidentRepository.findById(id)
+                .map(incident -> ResponseEntity.ok(alertRepository.findAllById(incident.getAlertIds()).stream()
+                        .sorted(Comparator.comparing(Alert::getTimestamp))
+                        .map(this::convertToDTO)
+                        .toList()))
+                .orElse(ResponseEntity.notFound().build());
+    }
+    
+    private IncidentDTO convertToDTO(Incident incident) {
+        return IncidentDTO.builder()
+                .id(incident.getId())
+                .incidentType(incident.getIncidentType())
+                .severity(incident.getSeverity())
+                .alertCount(incident.getAlertCount())
+                .alertIds(List.copyOf(incident.getAlertIds()))
+                .startedAt(incident.getStartedAt())
+                .lastAlertAt(incident.getLastAlertAt())
+                .build();
+    }
+    
+    private AlertDTO convertToDTO(Alert alert) {
+        return AlertDTO.builder()
+                .id(alert.getId())
+                .alertType(alert.getAlertType())
+                .severity(alert.getSeverity())
+                .kpValue(alert.getKpValue())
+                .description(alertDescriptions.describe(alert, LocaleContextHolder.getLocale()))
+                .timestamp(alert.getTimestamp())
+                .createdAt(alert.getCreatedAt())
+                .build();
+    }
+}
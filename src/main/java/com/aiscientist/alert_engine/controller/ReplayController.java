@@ -0,0 +1,54 @@
+package com.aiscientist.alert_engine.controller;
+
+import java.util.List;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import com.aiscientist.alert_engine.dto.ReplayRequest;
+import com.aiscientist.alert_engine.dto.ReplayStatus;
+import com.aiscientist.alert_engine.replay.ReplayService;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+@RestController
+@RequestMapping("/api/v1/replay")
+@RequiredArgsConstructor
+@Slf4j
+public class ReplayController {
+
+    private final ReplayService replayService;
+
+    @PostMapping
+    public ResponseEntity<?> startReplay(@RequestBody(required = false) ReplayRequest request) {
+        try {
+            ReplayStatus status = replayService.start(request != null ? request : new ReplayRequest());
+            return ResponseEntity.status(HttpStatus.ACCEPTED).body(status);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(e.getMessage());
+        } catch (IllegalStateException e) {
+            return ResponseEntity.status(HttpStatus.CONFLICT).body(e.getMessage());
+        }
+    }
+
+    @GetMapping
+    public ResponseEntity<List<ReplayStatus>> getReplays() {
+        return ResponseEntity.ok(replayService.statuses());
+    }
+
+    @GetMapping("/{id}")
+    public ResponseEntity<ReplayStatus> getReplay(@PathVariable String id) {
+        return replayService.status(id)
+                .map(ResponseEntity::ok)
+                .orElse(ResponseEntity.notFound().build());
+    }
+
+    @DeleteMapping("/{id}")
+    public ResponseEntity<ReplayStatus> cancelReplay(@PathVariable String id) {
+        return replayService.cancel(id)
+                .map(ResponseEntity::ok)
+                .orElse(ResponseEntity.notFound().build());
+    }
+}
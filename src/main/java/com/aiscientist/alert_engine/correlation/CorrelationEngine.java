@@ -0,0 +1,130 @@
+package com.aiscientist.alert_engine.correlation;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import com.aiscientist.alert_engine.model.Alert;
+import com.aiscientist.alert_engine.repository.IncidentRepository;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Groups related alerts into incidents as they are stored, so operators see
+ * one incident instead of separate alerts for an earthquake, its tsunami
+ * warning and a flood nearby, or for a CME and the storm it causes.
+ *
+ * Matching happens in memory on event time, see IncidentWindows; only the
+ * incidents that gained a second alert are written. Meters:
+ *
+ * alert.correlation.linked{rule}       alerts that joined an incident
+ * alert.correlation.open.keys{window}  keys held per window
+ *
+ * Alerts are correlated only once committed: an alert of a rolled back
+ * transaction would otherwise stay in the windows and be linked by id to an
+ * incident, and its redelivery would join as a second alert. Callers
+ * correlate after their transaction; inside one, correlation is deferred to
+ * its commit, at the cost of a second connection while the first is still held.
+ *
+ * Replays do not correlate, they only recompute alerts.
+ */
+@Component
+@Slf4j
+public class CorrelationEngine {
+
+    private static final List<String> WINDOWS = List.of(IncidentWindows.SAME_EARTHQUAKE, IncidentWindows.SAME_AREA,
+            IncidentWindows.CME_ARRIVAL, IncidentWindows.SAME_STORM);
+
+    private final IncidentRepository incidentRepository;
+    private final MeterRegistry meterRegistry;
+    private final IncidentWindows windows;
+    private final boolean enabled;
+
+    public CorrelationEngine(IncidentRepository incidentRepository,
+                             MeterRegistry meterRegistry,
+                             @Value("${app.correlation.enabled:true}") boolean enabled,
+                             @Value("${app.correlation.earthquake-window:6h}") Duration earthquakeWindow,
+                             @Value("${app.correlation.area-window:24h}") Duration areaWindow,
+                             @Value("${app.correlation.cell-size-degrees:1.0}") double cellDegrees,
+                             @Value("${app.correlation.cme-min-transit:12h}") Duration cmeMinTransit,
+                             @Value("${app.correlation.cme-max-transit:96h}") Duration cmeMaxTransit,
+                             @Value("${app.correlation.storm-gap:12h}") Duration stormGap,
+                             @Value("${app.correlation.max-keys:10000}") int maxKeys) {
+        this.incidentRepository = incidentRepository;
+        this.meterRegistry = meterRegistry;
+        this.enabled = enabled;
+        this.windows = new IncidentWindows(new IncidentWindows.Settings(earthquakeWindow, areaWindow, cellDegrees,
+                cmeMinTransit, cmeMaxTransit, stormGap, maxKeys));
+
+        for (String window : WINDOWS) {
+            Gauge.builder("alert.correlation.open.keys", this, engine -> engine.openKeys(window))
+                    .description("Keys held in a correlation window")
+                    .tag("window", window)
+                    .register(meterRegistry);
+        }
+    }
+
+    /**
+     * Add a stored alert to its incident, once its transaction (if any)
+     * committed. Failures are logged, never thrown: the alert is stored and
+     * redelivering it would not correlate it again.
+     */
+    public void correlate(Alert alert) {
+        if (!enabled) {
+            return;
+        }
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    add(alert);
+                }
+            });
+        } else {
+            add(alert);
+        }
+    }
+
+    private void add(Alert alert) {
+        Optional<IncidentWindows.Update> update;
+        synchronized (windows) {
+            update = windows.add(alert);
+        }
+        update.ifPresent(this::store);
+    }
+
+    private void store(IncidentWindows.Update update) {
+        try {
+            incidentRepository.upsert(update.incidentId(), update.incidentType(), update.severity(),
+                    update.startedAt(), update.lastAlertAt(), update.alertCount());
+            for (UUID alertId : update.newAlertIds()) {
+                incidentRepository.addAlert(update.incidentId(), alertId);
+            }
+            Counter.builder("alert.correlation.linked")
+                    .description("Alerts that joined an incident")
+                    .tag("rule", update.rule())
+                    .register(meterRegistry)
+                    .increment();
+            log.info("Incident {} ({}, {}) now has {} alerts, matched by {}", update.incidentId(),
+                    update.incidentType(), update.severity(), update.alertCount(), update.rule());
+        } catch (DataAccessException e) {
+            log.warn("Failed to store incident {}: {}", update.incidentId(), e.getMessage());
+        }
+    }
+
+    private int openKeys(String window) {
+        synchronized (windows) {
+            return windows.size(window);
+        }
+    }
+}
@@ -0,0 +1,308 @@
+package com.aiscientist.alert_engine.correlation;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+
+import com.aiscientist.alert_engine.model.Alert;
+
+/**
+ * In-memory, event-time state of the CorrelationEngine: which open incident
+ * an alert belongs to, looked up by
+ *
+ * - earthquake id, for an earthquake and its tsunami warning
+ * - spatial cell (and its neighbours), for earthquakes, tsunamis and floods
+ *   in the same area
+ * - CME arrival window, for a geomagnetic storm 12 hours to 4 days after a CME
+ * - the ongoing storm, for consecutive Kp alerts
+ *
+ * Each key expires a window length after the latest alert that refreshed it.
+ * Keys are evicted once the watermark (latest event time seen, never ahead
+ * of the wall clock) passes their expiry, and each window keeps at most
+ * maxKeys keys, dropping the least recently refreshed ones, so memory stays
+ * bounded whatever arrives. Not thread-safe, the engine serializes access.
+ */
+class IncidentWindows {
+
+    static final String SAME_EARTHQUAKE = "earthquake";
+    static final String SAME_AREA = "area";
+    static final String CME_ARRIVAL = "cme";
+    static final String SAME_STORM = "storm";
+
+    private static final String STORM_KEY = "kp";
+
+    /**
+     * Window lengths and bounds, see app.correlation in application.yml
+     */
+    record Settings(Duration earthquakeWindow,
+                    Duration areaWindow,
+                    double cellDegrees,
+                    Duration cmeMinTransit,
+                    Duration cmeMaxTransit,
+                    Duration stormGap,
+                    int maxKeys) {
+    }
+
+    /**
+     * A stored incident after an alert joined it
+     *
+     * @param rule How the alert was matched, e.g. {@link #SAME_EARTHQUAKE}
+     * @param newAlertIds Alerts to link: the new one, plus the first one when the incident is stored for the first time
+     */
+    record Update(UUID incidentId, String incidentType, String severity, Instant startedAt, Instant lastAlertAt,
+                  int alertCount, String rule, List<UUID> newAlertIds) {
+    }
+
+    private static final class OpenIncident {
+        final UUID id = UUID.randomUUID();
+        final UUID firstAlertId;
+        String type;
+        String severity;
+        Instant startedAt;
+        Instant lastAlertAt;
+        int alertCount = 1;
+
+        OpenIncident(Alert alert) {
+            firstAlertId = alert.getId();
+            type = hazard(alert.getAlertType());
+            severity = alert.getSeverity();
+            startedAt = alert.getTimestamp();
+            lastAlertAt = alert.getTimestamp();
+        }
+
+        Update join(Alert alert, String rule) {
+            alertCount++;
+            if (!type.equals(hazard(alert.getAlertType()))) {
+                type = "MULTI_HAZARD";
+            }
+            if (Alert.severityRank(alert.getSeverity()) > Alert.severityRank(severity)) {
+                severity = alert.getSeverity();
+            }
+            if (alert.getTimestamp().isBefore(startedAt)) {
+                startedAt = alert.getTimestamp();
+            }
+            if (alert.getTimestamp().isAfter(lastAlertAt)) {
+                lastAlertAt = alert.getTimestamp();
+            }
+            List<UUID> newAlertIds = alertCount == 2 ? List.of(firstAlertId, alert.getId()) : List.of(alert.getId());
+            return new Update(id, type, severity, startedAt, lastAlertAt, alertCount, rule, newAlertIds);
+        }
+    }
+
+    /**
+     * Incident of a key for event times in [from, until]
+     */
+    private record Entry(OpenIncident incident, Instant from, Instant until) {
+        boolean covers(Instant time) {
+            return !time.isBefore(from) && !time.isAfter(until);
+        }
+    }
+
+    private static final class Window {
+        private final Map<String, Entry> entries;
+
+        Window(int maxKeys) {
+            // Insertion order, refreshed keys are re-inserted: the head is the least recently refreshed
+            entries = new LinkedHashMap<>() {
+                @Override
+                protected boolean removeEldestEntry(Map.Entry<String, Entry> eldest) {
+                    return size() > maxKeys;
+                }
+            };
+        }
+
+        OpenIncident get(String key, Instant time) {
+            Entry entry = entries.get(key);
+            return entry != null && entry.covers(time) ? entry.incident() : null;
+        }
+
+        void put(String key, OpenIncident incident, Instant from, Instant until) {
+            Entry previous = entries.remove(key);
+            if (previous != null && previous.incident() == incident) {
+                from = from.isBefore(previous.from()) ? from : previous.from();
+                until = until.isAfter(previous.until()) ? until : previous.until();
+            }
+            entries.put(key, new Entry(incident, from, until));
+        }
+
+        /**
+         * Drop keys from the head that expired before the watermark; an
+         * expired key behind a live one stays until it reaches the head
+         */
+        void evict(Instant watermark) {
+            Iterator<Entry> it = entries.values().iterator();
+            while (it.hasNext() && it.next().until().isBefore(watermark)) {
+                it.remove();
+            }
+        }
+
+        int size() {
+            return entries.size();
+        }
+    }
+
+    private final Settings settings;
+    private final Window earthquakes;
+    private final Window cells;
+    private final Window cmes;
+    private final Window storms;
+    private Instant watermark = Instant.EPOCH;
+
+    IncidentWindows(Settings settings) {
+        this.settings = settings;
+        this.earthquakes = new Window(settings.maxKeys());
+        this.cells = new Window(settings.maxKeys());
+        this.cmes = new Window(settings.maxKeys());
+        this.storms = new Window(settings.maxKeys());
+    }
+
+    /**
+     * Add a stored alert to the incident it belongs to, or open one
+     *
+     * @return The update to store if the alert joined an incident
+     */
+    Optional<Update> add(Alert alert) {
+        Instant time = alert.getTimestamp();
+        if (alert.getId() == null || time == null || alert.getAlertType() == null) {
+            return Optional.empty();
+        }
+        Update update = switch (alert.getAlertType()) {
+            case "EARTHQUAKE", "TSUNAMI", "FLOOD" -> addLocated(alert, time);
+            case "CME" -> addCme(alert, time);
+            case "GEOMAGNETIC_STORM" -> addStorm(alert, time);
+            default -> null;
+        };
+        advance(time);
+        return Optional.ofNullable(update);
+    }
+
+    /**
+     * Open keys per window, for the gauges
+     */
+    int size(String window) {
+        return switch (window) {
+            case SAME_EARTHQUAKE -> earthquakes.size();
+            case SAME_AREA -> cells.size();
+            case CME_ARRIVAL -> cmes.size();
+            case SAME_STORM -> storms.size();
+            default -> 0;
+        };
+    }
+
+    private Update addLocated(Alert alert, Instant time) {
+        String earthquakeKey = alert.getEarthquakeId();
+        List<String> cellKeys = alert.getLatitude() != null && alert.getLongitude() != null
+                ? cellKeys(alert.getLatitude(), alert.getLongitude())
+                : List.of();
+
+        OpenIncident incident = earthquakeKey != null ? earthquakes.get(earthquakeKey, time) : null;
+        String rule = SAME_EARTHQUAKE;
+        if (incident == null) {
+            rule = SAME_AREA;
+            for (String cellKey : cellKeys) {
+                OpenIncident candidate = cells.get(cellKey, time);
+                if (candidate != null && (incident == null || candidate.lastAlertAt.isAfter(incident.lastAlertAt))) {
+                    incident = candidate;
+                }
+            }
+        }
+        Update update = null;
+        if (incident != null) {
+            update = incident.join(alert, rule);
+        } else {
+            incident = new OpenIncident(alert);
+        }
+
+        if (earthquakeKey != null) {
+            earthquakes.put(earthquakeKey, incident, time.minus(settings.earthquakeWindow()),
+                    time.plus(settings.earthquakeWindow()));
+        }
+        if (!cellKeys.isEmpty()) {
+            // Only the alert's own cell, the neighbours are for the lookup
+            cells.put(cellKeys.get(0), incident, time.minus(settings.areaWindow()), time.plus(settings.areaWindow()));
+        }
+        return update;
+    }
+
+    private Update addCme(Alert alert, Instant time) {
+        String key = alert.getSourceKey() != null ? alert.getSourceKey() : alert.getId().toString();
+        OpenIncident incident = cmes.entries.containsKey(key) ? cmes.entries.get(key).incident() : null;
+        Update update = null;
+        if (incident != null) {
+            // Same CME stored again under a new alert, e.g. after a re-drive
+            update = incident.join(alert, CME_ARRIVAL);
+        } else {
+            incident = new OpenIncident(alert);
+        }
+        cmes.put(key, incident, time.plus(settings.cmeMinTransit()), time.plus(settings.cmeMaxTransit()));
+        return update;
+    }
+
+    private Update addStorm(Alert alert, Instant time) {
+        OpenIncident incident = storms.get(STORM_KEY, time);
+        String rule = SAME_STORM;
+        if (incident == null) {
+            // The latest CME that can have arrived by now
+            rule = CME_ARRIVAL;
+            Instant latestFrom = null;
+            for (Entry entry : cmes.entries.values()) {
+                if (entry.covers(time) && (latestFrom == null || entry.from().isAfter(latestFrom))) {
+                    incident = entry.incident();
+                    latestFrom = entry.from();
+                }
+            }
+        }
+        Update update = null;
+        if (incident != null) {
+            update = incident.join(alert, rule);
+        } else {
+            incident = new OpenIncident(alert);
+        }
+        storms.put(STORM_KEY, incident, time.minus(settings.stormGap()), time.plus(settings.stormGap()));
+        return update;
+    }
+
+    /**
+     * Own cell first, then the 8 around it, so alerts near a cell border match
+     */
+    private List<String> cellKeys(double latitude, double longitude) {
+        long row = (long) Math.floor(latitude / settings.cellDegrees());
+        long column = (long) Math.floor(longitude / settings.cellDegrees());
+        List<String> keys = new ArrayList<>(9);
+        keys.add(row + ":" + column);
+        for (long r = row - 1; r <= row + 1; r++) {
+            for (long c = column - 1; c <= column + 1; c++) {
+                if (r != row || c != column) {
+                    keys.add(r + ":" + c);
+                }
+            }
+        }
+        return keys;
+    }
+
+    private void advance(Instant time) {
+        Instant now = Instant.now();
+        Instant candidate = time.isAfter(now) ? now : time;
+        if (candidate.isAfter(watermark)) {
+            watermark = candidate;
+            earthquakes.evict(watermark);
+            cells.evict(watermark);
+            cmes.evict(watermark);
+            storms.evict(watermark);
+        }
+    }
+
+    private static String hazard(String alertType) {
+        return switch (alertType) {
+            case "EARTHQUAKE", "TSUNAMI" -> "SEISMIC";
+            case "CME", "GEOMAGNETIC_STORM" -> "SPACE_WEATHER";
+            default -> alertType;
+        };
+    }
+}
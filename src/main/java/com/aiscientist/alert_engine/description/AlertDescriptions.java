@@ -0,0 +1,90 @@
+package com.aiscientist.alert_engine.description;
+
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.ResourceBundle;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.springframework.stereotype.Component;
+
+import com.aiscientist.alert_engine.model.Alert;
+
+/**
+ * Renders alert descriptions from their template id and parameters.
+ *
+ * Alerts store a {@link DescriptionTemplate} id and typed parameters
+ * instead of description prose, so ingest does no formatting. The text is
+ * rendered when an alert is read or published, in the reader's language
+ * where a bundle exists (English otherwise). Bundles are compiled once per
+ * language and cached. Alerts stored before templates existed keep their
+ * stored description.
+ */
+@Component
+public class AlertDescriptions {
+
+    static final String BUNDLE = "alert-descriptions";
+
+    /** Language of published alerts and of readers without a preference */
+    public static final Locale DEFAULT_LOCALE = Locale.ENGLISH;
+
+    private static final int MAX_CACHED_LOCALES = 32;
+
+    private final Map<Locale, DescriptionTexts> textsByLocale = new ConcurrentHashMap<>();
+
+    /**
+     * Template parameters from name/value pairs, leaving out null values
+     */
+    public static Map<String, Object> params(Object... namesAndValues) {
+        Map<String, Object> params = new LinkedHashMap<>(namesAndValues.length);
+        for (int i = 0; i + 1 < namesAndValues.length; i += 2) {
+            if (namesAndValues[i + 1] != null) {
+                params.put((String) namesAndValues[i], namesAndValues[i + 1]);
+            }
+        }
+        return params;
+    }
+
+    public String describe(Alert alert) {
+        return describe(alert, DEFAULT_LOCALE);
+    }
+
+    /**
+     * The description of an alert in the given language
+     */
+    public String describe(Alert alert, Locale locale) {
+        DescriptionTemplate template = DescriptionTemplate.byId(alert.getDescriptionTemplate());
+        if (template == null) {
+            return alert.getDescription();
+        }
+        Map<String, Object> params = alert.getDescriptionParams() != null ? alert.getDescriptionParams() : Map.of();
+        StringBuilder out = new StringBuilder(160);
+        template.render(params, texts(locale), out);
+        return out.toString();
+    }
+
+    /**
+     * A copy of the alert with its description rendered, for publishing;
+     * the stored alert is not touched
+     */
+    public Alert withDescription(Alert alert) {
+        if (alert.getDescriptionTemplate() == null) {
+            return alert;
+        }
+        return alert.toBuilder().description(describe(alert)).build();
+    }
+
+    private DescriptionTexts texts(Locale locale) {
+        DescriptionTexts texts = textsByLocale.get(locale);
+        if (texts == null) {
+            ResourceBundle bundle = ResourceBundle.getBundle(BUNDLE, locale,
+                    ResourceBundle.Control.getNoFallbackControl(ResourceBundle.Control.FORMAT_PROPERTIES));
+            texts = textsByLocale.computeIfAbsent(bundle.getLocale(), found -> DescriptionTexts.compile(bundle));
+            // Requested locales are client input (Accept-Language): remember only a few
+            if (textsByLocale.size() < MAX_CACHED_LOCALES) {
+                textsByLocale.putIfAbsent(locale, texts);
+            }
+        }
+        return texts;
+    }
+}
@@ -0,0 +1,116 @@
+package com.aiscientist.alert_engine.description;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * One description text compiled once into literals and parameter slots, so
+ * rendering only appends to a StringBuilder: no parsing, no
+ * String.format and no intermediate strings.
+ *
+ * Placeholders are {@code {name}}, or {@code {name:2}} for a number with a
+ * fixed number of decimals. A parameter without a value renders as nothing.
+ */
+final class CompiledText {
+
+    private static final long[] POWERS_OF_TEN = {1, 10, 100, 1_000, 10_000, 100_000, 1_000_000};
+    // Scaled values from here on may not hold the digits exactly
+    private static final double MAX_EXACT_SCALED = 1e15;
+    private static final double TIE_TOLERANCE = 1e-6;
+
+    private final String[] literals;
+    private final String[] names;
+    private final int[] decimals;
+
+    private CompiledText(String[] literals, String[] names, int[] decimals) {
+        this.literals = literals;
+        this.names = names;
+        this.decimals = decimals;
+    }
+
+    static CompiledText compile(String pattern) {
+        List<String> literals = new ArrayList<>();
+        List<String> names = new ArrayList<>();
+        List<Integer> decimals = new ArrayList<>();
+        int start = 0;
+        int open;
+        while ((open = pattern.indexOf('{', start)) >= 0) {
+            int close = pattern.indexOf('}', open);
+            if (close < 0) {
+                break;
+            }
+            literals.add(pattern.substring(start, open));
+            String placeholder = pattern.substring(open + 1, close);
+            int colon = placeholder.indexOf(':');
+            if (colon < 0) {
+                names.add(placeholder.trim());
+                decimals.add(-1);
+            } else {
+                names.add(placeholder.substring(0, colon).trim());
+                int places = Integer.parseInt(placeholder.substring(colon + 1).trim());
+                if (places < 0 || places >= POWERS_OF_TEN.length) {
+                    throw new IllegalArgumentException("Unsupported decimals in " + pattern);
+                }
+                decimals.add(places);
+            }
+            start = close + 1;
+        }
+        literals.add(pattern.substring(start));
+        return new CompiledText(literals.toArray(String[]::new), names.toArray(String[]::new),
+                decimals.stream().mapToInt(Integer::intValue).toArray());
+    }
+
+    void appendTo(StringBuilder out, Map<String, ?> params, char decimalSeparator) {
+        for (int i = 0; i < names.length; i++) {
+            out.append(literals[i]);
+            Object value = params.get(names[i]);
+            if (value instanceof Number number && decimals[i] >= 0) {
+                appendFixed(out, number.doubleValue(), decimals[i], decimalSeparator);
+            } else if (value != null) {
+                out.append(value);
+            }
+        }
+        out.append(literals[names.length]);
+    }
+
+    /**
+     * Same digits as {@code String.format("%.Nf")}, which rounds the
+     * shortest decimal representation of the value half up.
+     * {@code Math.round} on the scaled binary value agrees with that except
+     * near a tie (2.675 is 2.67499... in binary), so those values and ones
+     * too large to scale exactly go through BigDecimal.
+     */
+    static void appendFixed(StringBuilder out, double value, int decimals, char decimalSeparator) {
+        if (!Double.isFinite(value)) {
+            out.append(value);
+            return;
+        }
+        // Formatter keeps the sign of values that round to zero, -0.0 included
+        if (value < 0 || Double.doubleToRawLongBits(value) == Long.MIN_VALUE) {
+            out.append('-');
+        }
+        long scale = POWERS_OF_TEN[decimals];
+        double abs = Math.abs(value);
+        double shifted = abs * scale;
+        if (shifted >= MAX_EXACT_SCALED) {
+            out.append(BigDecimal.valueOf(abs).setScale(decimals, RoundingMode.HALF_UP).toPlainString()
+                    .replace('.', decimalSeparator));
+            return;
+        }
+        long scaled = Math.abs(shifted - Math.floor(shifted) - 0.5) < TIE_TOLERANCE
+                ? BigDecimal.valueOf(abs).setScale(decimals, RoundingMode.HALF_UP).unscaledValue().longValue()
+                : Math.round(shifted);
+        out.append(scaled / scale);
+        if (decimals > 0) {
+            out.append(decimalSeparator);
+            long fraction = scaled % scale;
+            for (long digit = scale / 10; digit > 1 && fraction < digit; digit /= 10) {
+                out.append('0');
+            }
+            out.append(fraction);
+        }
+    }
+}
@@ -0,0 +1,142 @@
+package com.aiscientist.alert_engine.description;
+
+import java.util.Map;
+
+/**
+ * Alert description templates. A template decides which texts of the
+ * description bundle make up a description and in which order; the texts
+ * themselves, with their parameter placeholders, are per language in
+ * alert-descriptions*.properties. The id is what alerts store.
+ */
+public enum DescriptionTemplate {
+
+    EARTHQUAKE("earthquake") {
+        @Override
+        void render(Map<String, ?> p, DescriptionTexts t, StringBuilder out) {
+            t.append("earthquake", p, out);
+            if (has(p, "depthKm")) {
+                t.append("earthquake.depth", p, out);
+            }
+            if (flag(p, "dangerous")) {
+                t.append("earthquake.dangerous", p, out);
+            }
+            if (flag(p, "catastrophic")) {
+                t.append("earthquake.catastrophic", p, out);
+            }
+            if (flag(p, "tsunamiWarning")) {
+                t.append("earthquake.tsunami", p, out);
+            }
+        }
+    },
+
+    TSUNAMI("tsunami") {
+        @Override
+        void render(Map<String, ?> p, DescriptionTexts t, StringBuilder out) {
+            t.append("tsunami", p, out);
+            if (has(p, "riskScore")) {
+                t.append("tsunami.risk", p, out);
+            }
+            t.append("tsunami.prepare", p, out);
+            if (number(p, "riskScore") >= 70) {
+                t.append("tsunami.evacuate", p, out);
+            }
+        }
+    },
+
+    FLOOD("flood") {
+        @Override
+        void render(Map<String, ?> p, DescriptionTexts t, StringBuilder out) {
+            t.append("flood", p, out);
+            if (has(p, "waterLevelFeet")) {
+                t.append("flood.level", p, out);
+            }
+            if (has(p, "aboveFloodStage")) {
+                t.append("flood.above-stage", p, out);
+            }
+            if (has(p, "floodSeverity")) {
+                t.append("flood.severity", p, out);
+                String severity = String.valueOf(p.get("floodSeverity"));
+                if ("MAJOR".equalsIgnoreCase(severity)) {
+                    t.append("flood.major", p, out);
+                } else if ("MODERATE".equalsIgnoreCase(severity)) {
+                    t.append("flood.moderate", p, out);
+                }
+            }
+        }
+    },
+
+    CME("cme") {
+        @Override
+        void render(Map<String, ?> p, DescriptionTexts t, StringBuilder out) {
+            t.append("cme", p, out);
+            if (has(p, "type")) {
+                t.append("cme.type", p, out);
+            }
+            if (has(p, "sourceLocation")) {
+                t.append("cme.source", p, out);
+            }
+            double speed = number(p, "speed");
+            if (speed >= 2000) {
+                t.append("cme.extreme", p, out);
+            } else if (speed >= 1500) {
+                t.append("cme.critical", p, out);
+            } else if (speed >= 1000) {
+                t.append("cme.major", p, out);
+            }
+            if (has(p, "note")) {
+                t.append("cme.note", p, out);
+            }
+        }
+    },
+
+    GEOMAGNETIC_STORM("geomagnetic-storm") {
+        @Override
+        void render(Map<String, ?> p, DescriptionTexts t, StringBuilder out) {
+            String key = switch (String.valueOf(p.get("severity"))) {
+                case "EXTREME" -> "geomagnetic-storm.extreme";
+                case "SEVERE" -> "geomagnetic-storm.severe";
+                case "STRONG" -> "geomagnetic-storm.strong";
+                case "MODERATE" -> "geomagnetic-storm.moderate";
+                default -> "geomagnetic-storm.minor";
+            };
+            t.append(key, p, out);
+        }
+    };
+
+    private final String id;
+
+    DescriptionTemplate(String id) {
+        this.id = id;
+    }
+
+    public String id() {
+        return id;
+    }
+
+    /**
+     * The template with the given id, or null if there is none
+     */
+    public static DescriptionTemplate byId(String id) {
+        for (DescriptionTemplate template : values()) {
+            if (template.id.equals(id)) {
+                return template;
+            }
+        }
+        return null;
+    }
+
+    abstract void render(Map<String, ?> params, DescriptionTexts texts, StringBuilder out);
+
+    private static boolean has(Map<String, ?> params, String name) {
+        Object value = params.get(name);
+        return value != null && !(value instanceof String text && text.isEmpty());
+    }
+
+    private static boolean flag(Map<String, ?> params, String name) {
+        return Boolean.TRUE.equals(params.get(name));
+    }
+
+    private static double number(Map<String, ?> params, String name) {
+        return params.get(name) instanceof Number number ? number.doubleValue() : Double.NaN;
+    }
+}
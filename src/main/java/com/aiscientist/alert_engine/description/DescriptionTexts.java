@@ -0,0 +1,45 @@
+package com.aiscientist.alert_engine.description;
+
+import java.text.DecimalFormatSymbols;
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.ResourceBundle;
+
+/**
+ * The description texts of one language, compiled
+ */
+final class DescriptionTexts {
+
+    private final Locale locale;
+    private final char decimalSeparator;
+    private final Map<String, CompiledText> texts;
+
+    private DescriptionTexts(Locale locale, Map<String, CompiledText> texts) {
+        this.locale = locale;
+        this.decimalSeparator = DecimalFormatSymbols.getInstance(locale).getDecimalSeparator();
+        this.texts = texts;
+    }
+
+    static DescriptionTexts compile(ResourceBundle bundle) {
+        Map<String, CompiledText> texts = new HashMap<>();
+        for (String key : bundle.keySet()) {
+            texts.put(key, CompiledText.compile(bundle.getString(key)));
+        }
+        return new DescriptionTexts(bundle.getLocale(), texts);
+    }
+
+    Locale locale() {
+        return locale;
+    }
+
+    /**
+     * Append a text; texts missing from the bundle are skipped
+     */
+    void append(String key, Map<String, ?> params, StringBuilder out) {
+        CompiledText text = texts.get(key);
+        if (text != null) {
+            text.appendTo(out, params, decimalSeparator);
+        }
+    }
+}
@@ -0,0 +1,22 @@
+package com.aiscientist.alert_engine.dto;
+
+import java.util.Map;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Dead letters of the raw topics: not yet re-driven per raw topic, and,
+ * after a re-drive, how many records it sent back per raw topic
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class DeadLetterStatus {
+
+    private Map<String, Long> pending;
+    private Map<String, Long> redriven;
+}
@@ -0,0 +1,22 @@
+package com.aiscientist.alert_engine.dto;
+
+import java.util.List;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Which dead letters to send back: raw topics whose DLTs to drain (all if
+ * left out) and at most how many records in total
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class RedriveRequest {
+
+    private List<String> topics;
+    private Integer maxRecords;
+}
@@ -0,0 +1,41 @@
+package com.aiscientist.alert_engine.dto;
+
+import java.time.Instant;
+import java.util.List;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * What to replay: raw topics and a range, given either as record
+ * timestamps or as offsets (applied to every partition). Anything left
+ * out defaults to all replayable raw topics (those of one-off alerts),
+ * from the beginning to the current end.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ReplayRequest {
+
+    public enum PublishMode {
+        /** Write alerts only */
+        NONE,
+        /** Write alerts and publish them to the shadow topic instead of alerts.* */
+        SHADOW
+    }
+
+    private List<String> topics;
+    private Instant from;
+    private Instant to;
+    private Long fromOffset;
+    private Long toOffset;
+
+    @Builder.Default
+    private PublishMode publish = PublishMode.NONE;
+
+    /** Overrides app.replay.max-records-per-second */
+    private Integer maxRecordsPerSecond;
+}
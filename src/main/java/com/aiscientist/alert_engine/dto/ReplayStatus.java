@@ -0,0 +1,35 @@
+package com.aiscientist.alert_engine.dto;
+
+import java.time.Instant;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Progress of a replay run
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ReplayStatus {
+
+    public enum State { RUNNING, COMPLETED, CANCELLED, FAILED }
+
+    private String id;
+    private State state;
+    private ReplayRequest request;
+    private Instant startedAt;
+    private Instant finishedAt;
+    private long recordsTotal;
+    private long recordsRead;
+    private long recordsSkipped; // below alert thresholds
+    private long recordsFailed;  // could not be decoded or processed
+    private long alertsWritten;
+    private long alertsPublished;
+    private double percentComplete;
+    private double recordsPerSecond;
+    private String error;
+}
@@ -8,6 +8,7 @@ import org.springframework.kafka.support.SendResult;
 import org.springframework.stereotype.Component;
 
 import com.aiscientist.alert_engine.dto.AlertDTO;
+import com.aiscientist.alert_engine.metrics.IngestMetrics;
 
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
@@ -18,6 +19,7 @@ import lombok.extern.slf4j.Slf4j;
 public class AlertProducer {
     
     private final KafkaTemplate<String, Object> kafkaTemplate;
+    private final IngestMetrics ingestMetrics;
     
     @Value("${app.kafka.topics.alerts-critical}")
     private String criticalAlertsTopic;
@@ -29,7 +31,7 @@ public class AlertProducer {
         String key = alert.getAlertType() + "-" + alert.getSeverity();
         
         CompletableFuture<SendResult<String, Object>> future = 
-            kafkaTemplate.send(criticalAlertsTopic, key, alert);
+            ingestMetrics.observePublish(criticalAlertsTopic, kafkaTemplate.send(criticalAlertsTopic, key, alert));
         
         future.whenComplete((result, ex) -> {
             if (ex == null) {
@@ -46,7 +48,7 @@ public class AlertProducer {
         String key = alert.getAlertType() + "-" + alert.getSeverity();
         
         CompletableFuture<SendResult<String, Object>> future = 
-            kafkaTemplate.send(warningAlertsTopic, key, alert);
+            ingestMetrics.observePublish(warningAlertsTopic, kafkaTemplate.send(warningAlertsTopic, key, alert));
         
         future.whenComplete((result, ex) -> {
             if (ex == null) {
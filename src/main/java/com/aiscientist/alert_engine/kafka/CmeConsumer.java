@@ -1,7 +1,9 @@
 package com.aiscientist.alert_engine.kafka;
 
 import com.aiscientist.alert_engine.dto.CmeEvent;
+import com.aiscientist.alert_engine.metrics.IngestMetrics;
 import com.aiscientist.alert_engine.service.CmeAlertService;
+import io.micrometer.core.instrument.Timer;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.kafka.annotation.KafkaListener;
@@ -13,6 +15,8 @@ import org.springframework.stereotype.Component;
 public class CmeConsumer {
 
     private final CmeAlertService cmeAlertService;
+    private final IngestMetrics ingestMetrics;
+    private final LaneGovernor laneGovernor;
 
     @KafkaListener(
         topics = "raw.spaceweather.cme", 
@@ -22,14 +26,18 @@ public class CmeConsumer {
         }
     )
     public void consumeCmeEvent(CmeEvent event) {
+        Timer.Sample sample = ingestMetrics.startProcessing();
         try {
             log.info("Received CME event: {} - Speed: {} km/s, Type: {}", 
                 event.getActivityId(), event.getSpeed(), event.getType());
             
-            cmeAlertService.processCmeEvent(event);
-            
+            laneGovernor.runStandard(() -> cmeAlertService.processCmeEvent(event));
+            ingestMetrics.stopProcessing(sample, "cme", IngestMetrics.SUCCESS);
         } catch (Exception e) {
-            log.error("Error processing CME event: {}", event.getActivityId(), e);
+            ingestMetrics.stopProcessing(sample, "cme", IngestMetrics.FAILURE);
+            log.warn("Error processing CME event {}: {}", event.getActivityId(), e.getMessage());
+            // Forwarded to the retry topics and finally the DLT, see KafkaConfig
+            throw e;
         }
     }
 }
@@ -0,0 +1,49 @@
+package com.aiscientist.alert_engine.kafka;
+
+import com.aiscientist.alert_engine.config.KafkaConfig;
+import com.aiscientist.alert_engine.dto.EarthquakeEvent;
+import com.aiscientist.alert_engine.metrics.IngestMetrics;
+import com.aiscientist.alert_engine.service.EarthquakeAlertService;
+import io.micrometer.core.instrument.Timer;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.kafka.annotation.KafkaListener;
+import org.springframework.stereotype.Component;
+
+/**
+ * Earthquakes the LaneRouter classifies as critical, on the priority lane;
+ * EarthquakeConsumer gets the others
+ */
+@Component
+@Slf4j
+@RequiredArgsConstructor
+public class CriticalEarthquakeConsumer {
+
+    private final EarthquakeAlertService earthquakeAlertService;
+    private final IngestMetrics ingestMetrics;
+    private final LaneGovernor laneGovernor;
+
+    @KafkaListener(
+        topics = {"raw.earthquake.data", "raw.earthquake.alert"},
+        groupId = "${app.lanes.priority.group-id}",
+        containerFactory = KafkaConfig.PRIORITY_CONTAINER_FACTORY,
+        properties = {
+            "spring.json.value.default.type=com.aiscientist.alert_engine.dto.EarthquakeEvent"
+        }
+    )
+    public void consumeCriticalEarthquakeEvent(EarthquakeEvent event) {
+        Timer.Sample sample = ingestMetrics.startProcessing();
+        try {
+            log.warn("Received critical earthquake event: {} - Magnitude: {}, Location: {}",
+                event.getEarthquakeId(), event.getMagnitude(), event.getLocation());
+
+            laneGovernor.runPriority(() -> earthquakeAlertService.processEarthquakeEvent(event));
+            ingestMetrics.stopProcessing(sample, "earthquake-critical", IngestMetrics.SUCCESS);
+        } catch (Exception e) {
+            ingestMetrics.stopProcessing(sample, "earthquake-critical", IngestMetrics.FAILURE);
+            log.warn("Error processing critical earthquake event {}: {}", event.getEarthquakeId(), e.getMessage());
+            // Forwarded to the retry topics and finally the DLT, see KafkaConfig
+            throw e;
+        }
+    }
+}
@@ -0,0 +1,219 @@
+package com.aiscientist.alert_engine.kafka;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.CompletableFuture;
+
+import org.apache.kafka.clients.consumer.Consumer;
+import org.apache.kafka.clients.consumer.ConsumerConfig;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.apache.kafka.clients.consumer.ConsumerRecords;
+import org.apache.kafka.clients.consumer.OffsetAndMetadata;
+import org.apache.kafka.clients.producer.ProducerRecord;
+import org.apache.kafka.common.PartitionInfo;
+import org.apache.kafka.common.TopicPartition;
+import org.apache.kafka.common.header.Header;
+import org.apache.kafka.common.header.Headers;
+import org.apache.kafka.common.header.internals.RecordHeaders;
+import org.apache.kafka.common.serialization.ByteArrayDeserializer;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.kafka.core.ConsumerFactory;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.kafka.support.KafkaHeaders;
+import org.springframework.stereotype.Service;
+
+import com.aiscientist.alert_engine.config.KafkaConfig;
+import com.aiscientist.alert_engine.dto.DeadLetterStatus;
+import com.aiscientist.alert_engine.dto.RedriveRequest;
+import com.aiscientist.alert_engine.metrics.IngestMetrics;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Sends dead letters back to their raw topic, e.g. once the database is
+ * reachable again or a bad deployment has been rolled back.
+ *
+ * The DLTs are read as raw bytes with a dedicated consumer group whose
+ * committed offsets mark what has been re-driven, and each record is
+ * republished unchanged apart from the retry and dead-letter headers, so
+ * it gets the full set of retries again. Offsets are committed only after
+ * the raw topic acknowledged the records.
+ */
+@Service
+@Slf4j
+public class DeadLetterRedriver {
+
+    private static final Duration POLL_TIMEOUT = Duration.ofSeconds(1);
+    private static final List<String> DROPPED_HEADER_PREFIXES =
+            List.of(KafkaHeaders.PREFIX + "dlt-", KafkaHeaders.PREFIX + "original-", "retry_topic-");
+
+    private final ConsumerFactory<String, Object> consumerFactory;
+    private final KafkaTemplate<String, Object> kafkaTemplate;
+    private final IngestMetrics ingestMetrics;
+    private final List<String> rawTopics;
+    private final String groupId;
+    private final int batchSize;
+
+    public DeadLetterRedriver(ConsumerFactory<String, Object> consumerFactory,
+                              KafkaTemplate<String, Object> kafkaTemplate,
+                              IngestMetrics ingestMetrics,
+                              @Value("${app.kafka.topics.raw-earthquake-data}") String earthquakeDataTopic,
+                              @Value("${app.kafka.topics.raw-earthquake-alert}") String earthquakeAlertTopic,
+                              @Value("${app.kafka.topics.raw-tsunami-warning}") String tsunamiTopic,
+                              @Value("${app.kafka.topics.raw-flood-alert}") String floodTopic,
+                              @Value("${app.kafka.topics.raw-spaceweather-cme}") String cmeTopic,
+                              @Value("${app.kafka.topics.raw-spaceweather-kp}") String kpTopic,
+                              @Value("${app.kafka.retry.redrive-group-id:alert-engine-dlt-redrive}") String groupId,
+                              @Value("${app.kafka.retry.redrive-batch-size:500}") int batchSize) {
+        this.consumerFactory = consumerFactory;
+        this.kafkaTemplate = kafkaTemplate;
+        this.ingestMetrics = ingestMetrics;
+        this.rawTopics = List.of(earthquakeDataTopic, earthquakeAlertTopic, tsunamiTopic, floodTopic, cmeTopic, kpTopic);
+        this.groupId = groupId;
+        this.batchSize = batchSize;
+    }
+
+    /**
+     * Dead letters not yet re-driven, per raw topic
+     */
+    public DeadLetterStatus status() {
+        try (Consumer<String, Object> consumer = createConsumer()) {
+            return DeadLetterStatus.builder()
+                    .pending(pending(consumer, partitions(consumer, rawTopics)))
+                    .build();
+        }
+    }
+
+    /**
+     * Send the dead letters that are in the requested DLTs now back to their
+     * raw topics, oldest first per partition
+     *
+     * @throws IllegalArgumentException if the request names a topic that is not a raw topic
+     */
+    public synchronized DeadLetterStatus redrive(RedriveRequest request) {
+        List<String> topics = request.getTopics() == null || request.getTopics().isEmpty()
+                ? rawTopics
+                : request.getTopics();
+        for (String topic : topics) {
+            if (!rawTopics.contains(topic)) {
+                throw new IllegalArgumentException("Not a raw topic: " + topic + ", expected one of " + rawTopics);
+            }
+        }
+        long limit = request.getMaxRecords() != null ? request.getMaxRecords() : Long.MAX_VALUE;
+        Map<String, Long> redriven = new TreeMap<>();
+
+        try (Consumer<String, Object> consumer = createConsumer()) {
+            List<TopicPartition> partitions = partitions(consumer, topics);
+            consumer.assign(partitions);
+            // Records dead-lettered while this runs wait for the next re-drive
+            Map<TopicPartition, Long> end = consumer.endOffsets(partitions);
+            Set<TopicPartition> remaining = new HashSet<>();
+            start(consumer, partitions).forEach((partition, offset) -> {
+                consumer.seek(partition, offset);
+                if (offset < end.get(partition)) {
+                    remaining.add(partition);
+                }
+            });
+            consumer.pause(partitions.stream().filter(partition -> !remaining.contains(partition)).toList());
+
+            long sent = 0;
+            while (!remaining.isEmpty() && sent < limit) {
+                ConsumerRecords<String, Object> records = consumer.poll(POLL_TIMEOUT);
+                Map<TopicPartition, OffsetAndMetadata> done = new HashMap<>();
+                List<CompletableFuture<?>> sends = new ArrayList<>();
+                for (ConsumerRecord<String, Object> record : records) {
+                    TopicPartition partition = new TopicPartition(record.topic(), record.partition());
+                    if (sent >= limit || record.offset() >= end.get(partition)) {
+                        continue;
+                    }
+                    String rawTopic = KafkaConfig.sourceTopic(record.topic());
+                    sends.add(kafkaTemplate.send(new ProducerRecord<>(rawTopic, null, record.key(), record.value(),
+                            redriveHeaders(record.headers()))));
+                    done.put(partition, new OffsetAndMetadata(record.offset() + 1));
+                    redriven.merge(rawTopic, 1L, Long::sum);
+                    sent++;
+                }
+                CompletableFuture.allOf(sends.toArray(CompletableFuture[]::new)).join();
+                if (!done.isEmpty()) {
+                    consumer.commitSync(done);
+                }
+                for (TopicPartition partition : List.copyOf(remaining)) {
+                    if (consumer.position(partition) >= end.get(partition)) {
+                        remaining.remove(partition);
+                        consumer.pause(List.of(partition));
+                    }
+                }
+            }
+            redriven.forEach(ingestMetrics::recordRedrive);
+            log.info("Re-drove {} dead letters: {}", sent, redriven);
+            return DeadLetterStatus.builder()
+                    .pending(pending(consumer, partitions))
+                    .redriven(redriven)
+                    .build();
+        }
+    }
+
+    private Consumer<String, Object> createConsumer() {
+        Properties overrides = new Properties();
+        overrides.put(ConsumerConfig.ENABLE_AUTO_COMMIT_CONFIG, false);
+        overrides.put(ConsumerConfig.MAX_POLL_RECORDS_CONFIG, batchSize);
+        overrides.put(ConsumerConfig.VALUE_DESERIALIZER_CLASS_CONFIG, ByteArrayDeserializer.class);
+        return consumerFactory.createConsumer(groupId, null, "-redrive", overrides);
+    }
+
+    /**
+     * Partitions of the DLTs of raw topics; a DLT is only created with its
+     * retry topics, so it may not exist yet
+     */
+    private static List<TopicPartition> partitions(Consumer<String, Object> consumer, List<String> rawTopics) {
+        List<TopicPartition> partitions = new ArrayList<>();
+        for (String rawTopic : rawTopics) {
+            String deadLetterTopic = rawTopic + KafkaConfig.DLT_SUFFIX;
+            List<PartitionInfo> infos = consumer.partitionsFor(deadLetterTopic);
+            if (infos != null) {
+                infos.forEach(info -> partitions.add(new TopicPartition(deadLetterTopic, info.partition())));
+            }
+        }
+        return partitions;
+    }
+
+    /**
+     * First offset not re-driven yet: the committed one, unless retention
+     * has deleted it
+     */
+    private static Map<TopicPartition, Long> start(Consumer<String, Object> consumer, List<TopicPartition> partitions) {
+        Map<TopicPartition, OffsetAndMetadata> committed = consumer.committed(new HashSet<>(partitions));
+        Map<TopicPartition, Long> start = new HashMap<>(consumer.beginningOffsets(partitions));
+        committed.forEach((partition, offset) -> {
+            if (offset != null) {
+                start.merge(partition, offset.offset(), Math::max);
+            }
+        });
+        return start;
+    }
+
+    private static Map<String, Long> pending(Consumer<String, Object> consumer, List<TopicPartition> partitions) {
+        Map<String, Long> pending = new TreeMap<>();
+        Map<TopicPartition, Long> end = consumer.endOffsets(partitions);
+        start(consumer, partitions).forEach((partition, offset) -> pending.merge(
+                KafkaConfig.sourceTopic(partition.topic()), Math.max(0, end.get(partition) - offset), Long::sum));
+        return pending;
+    }
+
+    private static Headers redriveHeaders(Headers headers) {
+        Headers kept = new RecordHeaders();
+        for (Header header : headers) {
+            if (DROPPED_HEADER_PREFIXES.stream().noneMatch(header.key()::startsWith)) {
+                kept.add(header);
+            }
+        }
+        return kept;
+    }
+}
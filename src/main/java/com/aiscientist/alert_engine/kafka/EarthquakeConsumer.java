@@ -1,7 +1,9 @@
 package com.aiscientist.alert_engine.kafka;
 
 import com.aiscientist.alert_engine.dto.EarthquakeEvent;
+import com.aiscientist.alert_engine.metrics.IngestMetrics;
 import com.aiscientist.alert_engine.service.EarthquakeAlertService;
+import io.micrometer.core.instrument.Timer;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.kafka.annotation.KafkaListener;
@@ -13,6 +15,8 @@ import org.springframework.stereotype.Component;
 public class EarthquakeConsumer {
 
     private final EarthquakeAlertService earthquakeAlertService;
+    private final IngestMetrics ingestMetrics;
+    private final LaneGovernor laneGovernor;
 
     @KafkaListener(
         topics = {"raw.earthquake.data", "raw.earthquake.alert"}, 
@@ -22,14 +26,18 @@ public class EarthquakeConsumer {
         }
     )
     public void consumeEarthquakeEvent(EarthquakeEvent event) {
+        Timer.Sample sample = ingestMetrics.startProcessing();
         try {
             log.info("Received earthquake event: {} - Magnitude: {}, Location: {}", 
                 event.getEarthquakeId(), event.getMagnitude(), event.getLocation());
             
-            earthquakeAlertService.processEarthquakeEvent(event);
-            
+            laneGovernor.runStandard(() -> earthquakeAlertService.processEarthquakeEvent(event));
+            ingestMetrics.stopProcessing(sample, "earthquake", IngestMetrics.SUCCESS);
         } catch (Exception e) {
-            log.error("Error processing earthquake event: {}", event.getEarthquakeId(), e);
+            ingestMetrics.stopProcessing(sample, "earthquake", IngestMetrics.FAILURE);
+            log.warn("Error processing earthquake event {}: {}", event.getEarthquakeId(), e.getMessage());
+            // Forwarded to the retry topics and finally the DLT, see KafkaConfig
+            throw e;
         }
     }
 }
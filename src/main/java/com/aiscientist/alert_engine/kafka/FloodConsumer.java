@@ -1,7 +1,9 @@
 package com.aiscientist.alert_engine.kafka;
 
 import com.aiscientist.alert_engine.dto.FloodAlertEvent;
+import com.aiscientist.alert_engine.metrics.IngestMetrics;
 import com.aiscientist.alert_engine.service.FloodAlertService;
+import io.micrometer.core.instrument.Timer;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.kafka.annotation.KafkaListener;
@@ -13,6 +15,8 @@ import org.springframework.stereotype.Component;
 public class FloodConsumer {
 
     private final FloodAlertService floodAlertService;
+    private final IngestMetrics ingestMetrics;
+    private final LaneGovernor laneGovernor;
 
     @KafkaListener(
         topics = "raw.flood.alert", 
@@ -22,15 +26,19 @@ public class FloodConsumer {
         }
     )
     public void consumeFloodAlert(FloodAlertEvent event) {
+        Timer.Sample sample = ingestMetrics.startProcessing();
         try {
             log.info("Received flood alert: {} - {} - Severity: {}, Water Level: {} ft", 
                 event.getStationId(), event.getStationName(), 
                 event.getFloodSeverity(), event.getWaterLevelFeet());
             
-            floodAlertService.processFloodAlert(event);
-            
+            laneGovernor.runStandard(() -> floodAlertService.processFloodAlert(event));
+            ingestMetrics.stopProcessing(sample, "flood", IngestMetrics.SUCCESS);
         } catch (Exception e) {
-            log.error("Error processing flood alert: {}", event.getStationId(), e);
+            ingestMetrics.stopProcessing(sample, "flood", IngestMetrics.FAILURE);
+            log.warn("Error processing flood alert {}: {}", event.getStationId(), e.getMessage());
+            // Forwarded to the retry topics and finally the DLT, see KafkaConfig
+            throw e;
         }
     }
 }
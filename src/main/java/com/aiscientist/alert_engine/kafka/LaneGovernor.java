@@ -0,0 +1,196 @@
+package com.aiscientist.alert_engine.kafka;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.kafka.config.KafkaListenerEndpointRegistry;
+import org.springframework.kafka.listener.MessageListenerContainer;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.distribution.ValueAtPercentile;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Keeps the standard lane (see LaneRouter) from slowing down the priority
+ * lane:
+ *
+ * - standard listeners run with one of a limited number of permits, so
+ *   app.lanes.priority.reserved-connections of the Hikari pool stay free for
+ *   the priority listeners whatever the standard backlog. A record that gets
+ *   no permit within connection-wait is retried in place after a back-off
+ *   (see KafkaConfig), so the consumer thread never blocks for long
+ * - when the priority lane's p99 processing time rises above pause-above,
+ *   all standard listener containers (and their retry containers) are
+ *   paused until it falls below resume-below, for at most max-pause at a time
+ *
+ * A pause takes effect once the records already polled are processed.
+ *
+ * The reservation is best-effort: only the standard listeners take permits.
+ * REST requests, replays, dead letter re-drives and scheduled jobs (e.g. the
+ * AlertStateTracker sweep) use the pool without one, and a permit counts one
+ * connection per record, not every connection the record may hold.
+ *
+ * Meters:
+ *
+ * alert.lanes.priority.latency                  priority listener processing time, with its p99
+ * alert.lanes.standard.paused                   1 while the standard lane is paused
+ * alert.lanes.standard.connections.available    permits free for standard listeners
+ * alert.lanes.standard.busy                     records backed off for lack of a permit
+ */
+@Component
+@Slf4j
+public class LaneGovernor {
+
+    private static final double P99 = 0.99;
+
+    /**
+     * No permit was free for a standard lane record; retried in place, see
+     * KafkaConfig
+     */
+    public static class StandardLaneBusyException extends DataAccessResourceFailureException {
+        public StandardLaneBusyException(String message) {
+            super(message);
+        }
+    }
+
+    private final KafkaListenerEndpointRegistry registry;
+    private final Timer priorityLatency;
+    private final Semaphore standardPermits;
+    private final Counter standardBusy;
+    private final String priorityGroupId;
+    private final Duration connectionWait;
+    private final double pauseAboveMs;
+    private final double resumeBelowMs;
+    private final Duration minPause;
+    private final Duration maxPause;
+    private volatile Instant pausedAt;
+    private Instant resumedAt = Instant.EPOCH;
+
+    public LaneGovernor(KafkaListenerEndpointRegistry registry,
+                        MeterRegistry meterRegistry,
+                        @Value("${spring.datasource.hikari.maximum-pool-size:10}") int poolSize,
+                        @Value("${app.lanes.priority.reserved-connections:3}") int reservedConnections,
+                        @Value("${app.lanes.priority.group-id}") String priorityGroupId,
+                        @Value("${app.lanes.standard.connection-wait:1s}") Duration connectionWait,
+                        @Value("${app.lanes.governor.pause-above:500ms}") Duration pauseAbove,
+                        @Value("${app.lanes.governor.resume-below:200ms}") Duration resumeBelow,
+                        @Value("${app.lanes.governor.window:30s}") Duration window,
+                        @Value("${app.lanes.governor.min-pause:10s}") Duration minPause,
+                        @Value("${app.lanes.governor.max-pause:2m}") Duration maxPause) {
+        this.registry = registry;
+        this.standardPermits = new Semaphore(Math.max(1, poolSize - reservedConnections), true);
+        this.priorityGroupId = priorityGroupId;
+        this.connectionWait = connectionWait;
+        this.pauseAboveMs = pauseAbove.toMillis();
+        this.resumeBelowMs = resumeBelow.toMillis();
+        this.minPause = minPause;
+        this.maxPause = maxPause;
+        this.priorityLatency = Timer.builder("alert.lanes.priority.latency")
+                .description("Processing time of priority lane records")
+                .publishPercentiles(P99)
+                .distributionStatisticExpiry(window)
+                .distributionStatisticBufferLength(3)
+                .register(meterRegistry);
+
+        this.standardBusy = Counter.builder("alert.lanes.standard.busy")
+                .description("Standard lane records backed off because no database connection permit was free")
+                .register(meterRegistry);
+
+        Gauge.builder("alert.lanes.standard.paused", this, governor -> governor.pausedAt != null ? 1 : 0)
+                .description("Whether the standard lane listeners are paused")
+                .register(meterRegistry);
+        Gauge.builder("alert.lanes.standard.connections.available", standardPermits, Semaphore::availablePermits)
+                .description("Database connection permits free for standard lane listeners")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Process a priority lane record, timing it for the pause decision
+     */
+    public void runPriority(Runnable work) {
+        priorityLatency.record(work);
+    }
+
+    /**
+     * Process a standard lane record once a database connection permit is
+     * free
+     *
+     * @throws StandardLaneBusyException if no permit is free within
+     *         app.lanes.standard.connection-wait, for the record to be retried
+     */
+    public void runStandard(Runnable work) {
+        try {
+            if (!standardPermits.tryAcquire(connectionWait.toMillis(), TimeUnit.MILLISECONDS)) {
+                standardBusy.increment();
+                throw new StandardLaneBusyException(
+                        "No database connection free for the standard lane within " + connectionWait);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new DataAccessResourceFailureException("Interrupted waiting for a database connection", e);
+        }
+        try {
+            work.run();
+        } finally {
+            standardPermits.release();
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${app.lanes.governor.interval:PT1S}")
+    public void govern() {
+        double p99 = priorityP99Ms();
+        Instant now = Instant.now();
+        if (pausedAt == null) {
+            if (p99 > pauseAboveMs && !now.isBefore(resumedAt.plus(minPause))) {
+                List<MessageListenerContainer> paused = standardContainers().stream()
+                        .filter(MessageListenerContainer::isRunning)
+                        .toList();
+                paused.forEach(MessageListenerContainer::pause);
+                pausedAt = now;
+                log.warn("Priority lane p99 at {} ms, paused {} standard lane containers", Math.round(p99),
+                        paused.size());
+            }
+        } else {
+            boolean recovered = p99 < resumeBelowMs && !now.isBefore(pausedAt.plus(minPause));
+            if (recovered || !now.isBefore(pausedAt.plus(maxPause))) {
+                standardContainers().stream()
+                        .filter(MessageListenerContainer::isPauseRequested)
+                        .forEach(MessageListenerContainer::resume);
+                log.info("Priority lane p99 at {} ms, resumed standard lane after {}", Math.round(p99),
+                        Duration.between(pausedAt, now));
+                pausedAt = null;
+                resumedAt = now;
+            }
+        }
+    }
+
+    /**
+     * Containers of all listeners outside the priority lane's consumer
+     * group, whose retry containers use it with a suffix
+     */
+    private List<MessageListenerContainer> standardContainers() {
+        return registry.getAllListenerContainers().stream()
+                .filter(container -> container.getGroupId() == null
+                        || !container.getGroupId().startsWith(priorityGroupId))
+                .toList();
+    }
+
+    private double priorityP99Ms() {
+        for (ValueAtPercentile value : priorityLatency.takeSnapshot().percentileValues()) {
+            if (value.percentile() == P99) {
+                return value.value(TimeUnit.MILLISECONDS);
+            }
+        }
+        return 0;
+    }
+}
@@ -0,0 +1,62 @@
+package com.aiscientist.alert_engine.kafka;
+
+import java.util.Set;
+
+import org.apache.kafka.common.header.Headers;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import com.aiscientist.alert_engine.config.KafkaConfig;
+
+/**
+ * Splits raw records between two lanes, each with its own consumer group,
+ * listener threads and database connections (see KafkaConfig and
+ * LaneGovernor):
+ *
+ * - PRIORITY: tsunami warnings, and earthquakes whose magnitude band is at
+ *   least app.lanes.priority.min-magnitude
+ * - STANDARD: everything else, including earthquakes without the
+ *   classification headers
+ *
+ * Both lanes read the earthquake topics and their retry topics. Each lane's
+ * PrefilteringDeserializer drops the other lane's records without parsing
+ * them, so every record is processed by exactly one lane.
+ */
+@Component
+public class LaneRouter {
+
+    public enum Lane {
+        PRIORITY,
+        STANDARD
+    }
+
+    private final String tsunamiTopic;
+    private final Set<String> earthquakeTopics;
+    private final double minMagnitude;
+
+    public LaneRouter(@Value("${app.kafka.topics.raw-tsunami-warning}") String tsunamiTopic,
+                      @Value("${app.kafka.topics.raw-earthquake-data}") String earthquakeDataTopic,
+                      @Value("${app.kafka.topics.raw-earthquake-alert}") String earthquakeAlertTopic,
+                      @Value("${app.lanes.priority.min-magnitude:7.0}") double minMagnitude) {
+        this.tsunamiTopic = tsunamiTopic;
+        this.earthquakeTopics = Set.of(earthquakeDataTopic, earthquakeAlertTopic);
+        this.minMagnitude = minMagnitude;
+    }
+
+    /**
+     * @param topic Raw topic, or one of its retry topics
+     */
+    public Lane laneOf(String topic, Headers headers) {
+        String rawTopic = KafkaConfig.sourceTopic(topic);
+        if (rawTopic.equals(tsunamiTopic)) {
+            return Lane.PRIORITY;
+        }
+        if (headers != null && earthquakeTopics.contains(rawTopic)) {
+            Double band = RecordPrefilter.number(headers, RecordPrefilter.MAGNITUDE_BAND);
+            if (band != null && band >= minMagnitude) {
+                return Lane.PRIORITY;
+            }
+        }
+        return Lane.STANDARD;
+    }
+}
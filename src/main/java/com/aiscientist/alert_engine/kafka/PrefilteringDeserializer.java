@@ -0,0 +1,56 @@
+package com.aiscientist.alert_engine.kafka;
+
+import java.util.Map;
+
+import org.apache.kafka.common.header.Headers;
+import org.apache.kafka.common.serialization.Deserializer;
+import org.springframework.kafka.support.serializer.JsonDeserializer;
+
+/**
+ * JSON deserializer that first asks the {@link LaneRouter} whether the
+ * record belongs to the consumer's lane and the {@link RecordPrefilter}
+ * whether it is wanted (both passed in the consumer config), and returns
+ * null without parsing it if not. The listener container drops null values
+ * before they reach a listener, see KafkaConfig.
+ */
+public class PrefilteringDeserializer implements Deserializer<Object> {
+
+    public static final String PREFILTER_CONFIG = "alert-engine.record.prefilter";
+    public static final String LANE_ROUTER_CONFIG = "alert-engine.lane.router";
+    public static final String LANE_CONFIG = "alert-engine.lane";
+
+    private final JsonDeserializer<Object> delegate = new JsonDeserializer<>();
+    private RecordPrefilter prefilter;
+    private LaneRouter laneRouter;
+    private LaneRouter.Lane lane;
+
+    @Override
+    public void configure(Map<String, ?> configs, boolean isKey) {
+        prefilter = (RecordPrefilter) configs.get(PREFILTER_CONFIG);
+        laneRouter = (LaneRouter) configs.get(LANE_ROUTER_CONFIG);
+        lane = (LaneRouter.Lane) configs.get(LANE_CONFIG);
+        delegate.configure(configs, isKey);
+    }
+
+    @Override
+    public Object deserialize(String topic, byte[] data) {
+        return delegate.deserialize(topic, data);
+    }
+
+    @Override
+    public Object deserialize(String topic, Headers headers, byte[] data) {
+        // The other lane's records are not counted as filtered, that lane counts them
+        if (laneRouter != null && lane != null && laneRouter.laneOf(topic, headers) != lane) {
+            return null;
+        }
+        if (prefilter != null && !prefilter.accept(topic, headers)) {
+            return null;
+        }
+        return delegate.deserialize(topic, headers, data);
+    }
+
+    @Override
+    public void close() {
+        delegate.close();
+    }
+}
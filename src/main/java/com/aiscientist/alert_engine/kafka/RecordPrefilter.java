@@ -0,0 +1,121 @@
+package com.aiscientist.alert_engine.kafka;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Set;
+
+import org.apache.kafka.common.header.Header;
+import org.apache.kafka.common.header.Headers;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import com.aiscientist.alert_engine.config.KafkaConfig;
+import com.aiscientist.alert_engine.metrics.IngestMetrics;
+import com.aiscientist.alert_engine.service.AlertDetectionService;
+import com.aiscientist.alert_engine.service.AlertStateTracker;
+import com.aiscientist.alert_engine.service.EarthquakeAlertService;
+
+/**
+ * Decides from the classification headers data-collector stamps on raw
+ * records whether a record can lead to an alert, before its JSON payload is
+ * deserialized (see PrefilteringDeserializer):
+ *
+ * - earthquakes below the alert magnitude
+ * - Kp samples below the alert threshold, unless a storm may be open and
+ *   the sample end it (see AlertStateTracker.mayHaveOpenAlert)
+ * - water levels of stations that are not flooding
+ * - any record from an excluded source
+ *
+ * Records without the headers, e.g. from an older data-collector, are
+ * always deserialized. Dropped records are counted in alert.ingest.filtered.
+ */
+@Component
+public class RecordPrefilter {
+
+    public static final String SOURCE = "x-source";
+    public static final String MAGNITUDE_BAND = "x-magnitude-band";
+    public static final String KP = "x-kp";
+    public static final String FLOOD_SEVERITY = "x-flood-severity";
+
+    private final IngestMetrics ingestMetrics;
+    private final AlertStateTracker alertStateTracker;
+    private final Set<String> earthquakeTopics;
+    private final String kpTopic;
+    private final String floodTopic;
+    private final double kpThreshold;
+    private final Set<String> excludedSources;
+    private final boolean enabled;
+
+    public RecordPrefilter(IngestMetrics ingestMetrics,
+                           AlertStateTracker alertStateTracker,
+                           @Value("${app.kafka.topics.raw-earthquake-data}") String earthquakeDataTopic,
+                           @Value("${app.kafka.topics.raw-earthquake-alert}") String earthquakeAlertTopic,
+                           @Value("${app.kafka.topics.raw-spaceweather-kp}") String kpTopic,
+                           @Value("${app.kafka.topics.raw-flood-alert}") String floodTopic,
+                           @Value("${app.alert.thresholds.kp-index.minor}") double kpThreshold,
+                           @Value("${app.kafka.filter.excluded-sources:}") Set<String> excludedSources,
+                           @Value("${app.kafka.filter.enabled:true}") boolean enabled) {
+        this.ingestMetrics = ingestMetrics;
+        this.alertStateTracker = alertStateTracker;
+        this.earthquakeTopics = Set.of(earthquakeDataTopic, earthquakeAlertTopic);
+        this.kpTopic = kpTopic;
+        this.floodTopic = floodTopic;
+        this.kpThreshold = kpThreshold;
+        this.excludedSources = excludedSources;
+        this.enabled = enabled;
+    }
+
+    /**
+     * @param topic Raw topic, or one of its retry topics
+     * @return Whether the record must be deserialized and passed to its listener
+     */
+    public boolean accept(String topic, Headers headers) {
+        if (!enabled || headers == null) {
+            return true;
+        }
+        String rawTopic = KafkaConfig.sourceTopic(topic);
+        String reason = rejectReason(rawTopic, headers);
+        if (reason == null) {
+            return true;
+        }
+        ingestMetrics.recordFiltered(rawTopic, reason);
+        return false;
+    }
+
+    private String rejectReason(String rawTopic, Headers headers) {
+        String source = value(headers, SOURCE);
+        if (source != null && excludedSources.contains(source)) {
+            return "source";
+        }
+        if (earthquakeTopics.contains(rawTopic)) {
+            Double band = number(headers, MAGNITUDE_BAND);
+            // The band is the magnitude rounded down, so below the threshold band all magnitudes are too
+            return band != null && band < EarthquakeAlertService.MIN_MAGNITUDE ? "magnitude" : null;
+        }
+        if (rawTopic.equals(kpTopic)) {
+            Double kp = number(headers, KP);
+            return kp != null && kp < kpThreshold
+                    && !alertStateTracker.mayHaveOpenAlert(AlertDetectionService.STORM_ENTITY_KEY) ? "kp" : null;
+        }
+        if (rawTopic.equals(floodTopic)) {
+            return "NONE".equals(value(headers, FLOOD_SEVERITY)) ? "not-flooding" : null;
+        }
+        return null;
+    }
+
+    static String value(Headers headers, String key) {
+        Header header = headers.lastHeader(key);
+        return header != null && header.value() != null ? new String(header.value(), StandardCharsets.UTF_8) : null;
+    }
+
+    static Double number(Headers headers, String key) {
+        String value = value(headers, key);
+        if (value == null) {
+            return null;
+        }
+        try {
+            return Double.valueOf(value);
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+}
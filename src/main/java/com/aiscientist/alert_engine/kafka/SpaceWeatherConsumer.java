@@ -4,8 +4,10 @@ import org.springframework.kafka.annotation.KafkaListener;
 import org.springframework.stereotype.Component;
 
 import com.aiscientist.alert_engine.dto.KpIndexEvent;
+import com.aiscientist.alert_engine.metrics.IngestMetrics;
 import com.aiscientist.alert_engine.service.AlertDetectionService;
 
+import io.micrometer.core.instrument.Timer;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 
@@ -15,6 +17,8 @@ import lombok.extern.slf4j.Slf4j;
 public class SpaceWeatherConsumer {
     
     private final AlertDetectionService alertDetectionService;
+    private final IngestMetrics ingestMetrics;
+    private final LaneGovernor laneGovernor;
     
     @KafkaListener(
         topics = "${app.kafka.topics.raw-spaceweather-kp}",
@@ -24,15 +28,18 @@ public class SpaceWeatherConsumer {
         }
     )
     public void consumeKpIndexEvent(KpIndexEvent event) {
+        Timer.Sample sample = ingestMetrics.startProcessing();
         try {
             log.info("Received Kp-index event: kp={}, timestamp={}", event.getKpIndex(), event.getTimestamp());
             
             // Process the event and detect alerts
-            alertDetectionService.analyzeKpIndex(event);
-            
+            laneGovernor.runStandard(() -> alertDetectionService.analyzeKpIndex(event));
+            ingestMetrics.stopProcessing(sample, "kp-index", IngestMetrics.SUCCESS);
         } catch (Exception e) {
-            log.error("Error processing Kp-index event: {}", event, e);
-            // In production, you might want to send to Dead Letter Queue
+            ingestMetrics.stopProcessing(sample, "kp-index", IngestMetrics.FAILURE);
+            log.warn("Error processing Kp-index event {}: {}", event, e.getMessage());
+            // Forwarded to the retry topics and finally the DLT, see KafkaConfig
+            throw e;
         }
     }
 }
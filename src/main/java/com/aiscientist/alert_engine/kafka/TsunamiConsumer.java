@@ -1,7 +1,10 @@
 package com.aiscientist.alert_engine.kafka;
 
+import com.aiscientist.alert_engine.config.KafkaConfig;
 import com.aiscientist.alert_engine.dto.EarthquakeEvent;
+import com.aiscientist.alert_engine.metrics.IngestMetrics;
 import com.aiscientist.alert_engine.service.TsunamiAlertService;
+import io.micrometer.core.instrument.Timer;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.kafka.annotation.KafkaListener;
@@ -13,23 +16,30 @@ import org.springframework.stereotype.Component;
 public class TsunamiConsumer {
 
     private final TsunamiAlertService tsunamiAlertService;
+    private final IngestMetrics ingestMetrics;
+    private final LaneGovernor laneGovernor;
 
     @KafkaListener(
         topics = "raw.tsunami.warning", 
-        groupId = "${spring.kafka.consumer.group-id}",
+        groupId = "${app.lanes.priority.group-id}",
+        containerFactory = KafkaConfig.PRIORITY_CONTAINER_FACTORY,
         properties = {
             "spring.json.value.default.type=com.aiscientist.alert_engine.dto.EarthquakeEvent"
         }
     )
     public void consumeTsunamiWarning(EarthquakeEvent event) {
+        Timer.Sample sample = ingestMetrics.startProcessing();
         try {
             log.warn("Received tsunami warning: {} - Risk Score: {}, Location: {}", 
                 event.getEarthquakeId(), event.getTsunamiRiskScore(), event.getLocation());
             
-            tsunamiAlertService.processTsunamiWarning(event);
-            
+            laneGovernor.runPriority(() -> tsunamiAlertService.processTsunamiWarning(event));
+            ingestMetrics.stopProcessing(sample, "tsunami", IngestMetrics.SUCCESS);
         } catch (Exception e) {
-            log.error("Error processing tsunami warning: {}", event.getEarthquakeId(), e);
+            ingestMetrics.stopProcessing(sample, "tsunami", IngestMetrics.FAILURE);
+            log.warn("Error processing tsunami warning {}: {}", event.getEarthquakeId(), e.getMessage());
+            // Forwarded to the retry topics and finally the DLT, see KafkaConfig
+            throw e;
         }
     }
 }
@@ -0,0 +1,203 @@
+package com.aiscientist.alert_engine.metrics;
+
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.BooleanSupplier;
+import java.util.function.Supplier;
+
+import org.springframework.kafka.support.serializer.DeserializationException;
+import org.springframework.stereotype.Component;
+
+import com.aiscientist.alert_engine.model.Alert;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.RequiredArgsConstructor;
+
+/**
+ * Meters along the ingest path, from consumed record to published alert:
+ *
+ * alert.ingest.filtered{topic, reason}        records dropped on their headers, never deserialized
+ * alert.ingest.processing{listener, outcome}  time spent in a listener
+ * alert.ingest.retries{topic}                 records forwarded to a retry topic
+ * alert.ingest.failures{topic, reason}        records given up on (dead-lettered)
+ * alert.dlt.redriven{topic}                   dead letters sent back to their raw topic
+ * alert.db.save{type}                         alert save latency
+ * alert.state.transitions{type, transition}   readings per outcome, see AlertStateTracker
+ * alert.publish{topic, outcome}               Kafka send until ack
+ * alert.event.age{type}                       alert createdAt minus source event time
+ *
+ * Tags only take values from small fixed sets (listener names, alert types,
+ * topics), never ids or free text. Kafka client metrics (per-topic lag,
+ * records per fetch) are bound on the consumer and producer factories in
+ * KafkaConfig.
+ */
+@Component
+@RequiredArgsConstructor
+public class IngestMetrics {
+
+    public static final String SUCCESS = "success";
+    public static final String FAILURE = "failure";
+
+    private static final Duration MIN_EVENT_AGE = Duration.ofMillis(100);
+    private static final Duration MAX_EVENT_AGE = Duration.ofDays(7);
+
+    private final MeterRegistry meterRegistry;
+
+    public Timer.Sample startProcessing() {
+        return Timer.start(meterRegistry);
+    }
+
+    /**
+     * Record the time a listener spent on one record
+     *
+     * @param listener Listener name, e.g. "earthquake"
+     * @param outcome {@link #SUCCESS} or {@link #FAILURE}
+     */
+    public void stopProcessing(Timer.Sample sample, String listener, String outcome) {
+        sample.stop(Timer.builder("alert.ingest.processing")
+                .description("Time spent processing one consumed record")
+                .tag("listener", listener)
+                .tag("outcome", outcome)
+                .register(meterRegistry));
+    }
+
+    /**
+     * Count a record dropped on its headers before deserialization
+     *
+     * @param reason e.g. "magnitude", see RecordPrefilter
+     */
+    public void recordFiltered(String topic, String reason) {
+        Counter.builder("alert.ingest.filtered")
+                .description("Records dropped on their headers before deserialization")
+                .tag("topic", topic)
+                .tag("reason", reason)
+                .register(meterRegistry)
+                .increment();
+    }
+
+    /**
+     * Count a failed record forwarded to a retry topic of a raw topic
+     */
+    public void recordRetry(String topic) {
+        Counter.builder("alert.ingest.retries")
+                .description("Failed records forwarded to a retry topic")
+                .tag("topic", topic)
+                .register(meterRegistry)
+                .increment();
+    }
+
+    /**
+     * Count a record the listener container could not process, e.g. one
+     * that failed to deserialize or ran out of retries
+     */
+    public void recordFailure(String topic, Throwable error) {
+        Counter.builder("alert.ingest.failures")
+                .description("Consumed records that could not be processed")
+                .tag("topic", topic)
+                .tag("reason", isDeserializationFailure(error) ? "deserialization" : "processing")
+                .register(meterRegistry)
+                .increment();
+    }
+
+    /**
+     * Count dead letters of a raw topic sent back to it
+     */
+    public void recordRedrive(String topic, long records) {
+        Counter.builder("alert.dlt.redriven")
+                .description("Dead letters sent back to their raw topic")
+                .tag("topic", topic)
+                .register(meterRegistry)
+                .increment(records);
+    }
+
+    /**
+     * Count readings of tracked entities by what they did to the entity's alert
+     *
+     * @param transition e.g. "opened" or "updated"
+     */
+    public void recordTransitions(String alertType, String transition, int readings) {
+        Counter.builder("alert.state.transitions")
+                .description("Readings per alert state transition")
+                .tag("type", alertType)
+                .tag("transition", transition)
+                .register(meterRegistry)
+                .increment(readings);
+    }
+
+    /**
+     * Time saving an alert and record its event age
+     *
+     * @return The saved alert
+     */
+    public Alert timeSave(Supplier<Alert> save) {
+        Timer.Sample sample = Timer.start(meterRegistry);
+        Alert saved = save.get();
+        sample.stop(saveTimer(saved));
+        recordEventAge(saved);
+        return saved;
+    }
+
+    /**
+     * Time inserting an alert that may already be stored, and record its
+     * event age if it was inserted
+     *
+     * @return Whether the alert was inserted
+     */
+    public boolean timeInsert(Alert alert, BooleanSupplier insert) {
+        Timer.Sample sample = Timer.start(meterRegistry);
+        boolean inserted = insert.getAsBoolean();
+        sample.stop(saveTimer(alert));
+        if (inserted) {
+            recordEventAge(alert);
+        }
+        return inserted;
+    }
+
+    private Timer saveTimer(Alert alert) {
+        return Timer.builder("alert.db.save")
+                .description("Alert save latency")
+                .tag("type", alert.getAlertType())
+                .register(meterRegistry);
+    }
+
+    /**
+     * Time a Kafka send until it is acknowledged or fails
+     *
+     * @return The same future
+     */
+    public <T> CompletableFuture<T> observePublish(String topic, CompletableFuture<T> send) {
+        Timer.Sample sample = Timer.start(meterRegistry);
+        send.whenComplete((result, error) -> sample.stop(Timer.builder("alert.publish")
+                .description("Alert publish latency until broker ack")
+                .tag("topic", topic)
+                .tag("outcome", error == null ? SUCCESS : FAILURE)
+                .register(meterRegistry)));
+        return send;
+    }
+
+    private void recordEventAge(Alert alert) {
+        if (alert.getTimestamp() == null || alert.getCreatedAt() == null) {
+            return;
+        }
+        Duration age = Duration.between(alert.getTimestamp(), alert.getCreatedAt());
+        Timer.builder("alert.event.age")
+                .description("Alert creation time minus source event time")
+                .tag("type", alert.getAlertType())
+                .publishPercentileHistogram()
+                .minimumExpectedValue(MIN_EVENT_AGE)
+                .maximumExpectedValue(MAX_EVENT_AGE)
+                .register(meterRegistry)
+                .record(age.isNegative() ? Duration.ZERO : age);
+    }
+
+    private static boolean isDeserializationFailure(Throwable error) {
+        for (Throwable cause = error; cause != null; cause = cause.getCause()) {
+            if (cause instanceof DeserializationException) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
@@ -0,0 +1,76 @@
+package com.aiscientist.alert_engine.metrics;
+
+import java.lang.management.ManagementFactory;
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.springframework.aot.AotDetector;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import com.sun.management.HotSpotDiagnosticMXBean;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.TimeGauge;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * How long a new instance takes to become useful, e.g. when scaling out
+ * during a storm:
+ *
+ * alert.startup.first.record  JVM uptime when the first record was consumed
+ *
+ * Readiness itself is already published by Boot as application.started.time
+ * and application.ready.time. Both are also logged, together with whether
+ * the instance runs from AOT-processed code and a CDS archive (see the
+ * fast-start profile).
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class StartupReport {
+
+    private final MeterRegistry meterRegistry;
+    private final AtomicBoolean firstRecordConsumed = new AtomicBoolean();
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void ready(ApplicationReadyEvent event) {
+        log.info("Ready in {} ms, {} ms after JVM start (AOT: {}, CDS archive: {})",
+                event.getTimeTaken().toMillis(), uptime().toMillis(),
+                AotDetector.useGeneratedArtifacts(), sharedArchiveFile());
+    }
+
+    /**
+     * Called for every record a listener container consumes; only the first
+     * one is recorded
+     */
+    public void recordConsumed(ConsumerRecord<?, ?> record) {
+        if (firstRecordConsumed.get() || !firstRecordConsumed.compareAndSet(false, true)) {
+            return;
+        }
+        Duration uptime = uptime();
+        TimeGauge.builder("alert.startup.first.record", uptime::toMillis, TimeUnit.MILLISECONDS)
+                .description("JVM uptime when the first record was consumed")
+                .register(meterRegistry);
+        log.info("First record consumed {} ms after JVM start ({}-{}@{})",
+                uptime.toMillis(), record.topic(), record.partition(), record.offset());
+    }
+
+    private static Duration uptime() {
+        return Duration.ofMillis(ManagementFactory.getRuntimeMXBean().getUptime());
+    }
+
+    private static String sharedArchiveFile() {
+        try {
+            String file = ManagementFactory.getPlatformMXBean(HotSpotDiagnosticMXBean.class)
+                    .getVMOption("SharedArchiveFile").getValue();
+            return file.isEmpty() ? "JDK default" : file;
+        } catch (RuntimeException e) {
+            return "unknown";
+        }
+    }
+}
@@ -1,8 +1,13 @@
 package com.aiscientist.alert_engine.model;
 
 import java.time.Instant;
+import java.util.List;
+import java.util.Map;
 import java.util.UUID;
 
+import org.hibernate.annotations.JdbcTypeCode;
+import org.hibernate.type.SqlTypes;
+
 import jakarta.persistence.*;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
@@ -13,14 +18,18 @@ import lombok.NoArgsConstructor;
 @Table(name = "alerts", indexes = {
     @Index(name = "idx_alert_severity", columnList = "severity"),
     @Index(name = "idx_alert_timestamp", columnList = "timestamp"),
-    @Index(name = "idx_alert_type", columnList = "alert_type")
+    @Index(name = "idx_alert_type", columnList = "alert_type"),
+    @Index(name = "idx_alert_source_key", columnList = "source_key", unique = true),
+    @Index(name = "idx_alert_entity_state", columnList = "entity_key, alert_state")
 })
 @Data
-@Builder
+@Builder(toBuilder = true)
 @NoArgsConstructor
 @AllArgsConstructor
 public class Alert {
     
+    private static final List<String> SEVERITIES = List.of("MINOR", "MODERATE", "MAJOR", "SEVERE", "CRITICAL", "EXTREME");
+    
     @Id
     @GeneratedValue(strategy = GenerationType.UUID)
     private UUID id;
@@ -81,14 +90,40 @@ public class Alert {
     @Column(name = "longitude")
     private Double longitude;
     
+    @Column(name = "description_template", length = 40)
+    private String descriptionTemplate; // DescriptionTemplate id, rendered on read by AlertDescriptions
+    
+    @JdbcTypeCode(SqlTypes.JSON)
+    @Column(name = "description_params", columnDefinition = "jsonb")
+    private Map<String, Object> descriptionParams;
+    
     @Column(name = "description", columnDefinition = "TEXT")
-    private String description;
+    private String description; // Stored text of alerts from before templates; rendered text when published
     
     @Column(name = "timestamp", nullable = false)
     private Instant timestamp;
     
-    @Column(name = "raw_data", columnDefinition = "TEXT")
-    private String rawData;
+    @Column(name = "raw_payload_id", length = 64)
+    private String rawPayloadId; // SHA-256 key into raw_payloads
+    
+    @Column(name = "source_key", length = 200)
+    private String sourceKey; // Alert type + upstream event id, one alert per source event
+    
+    // Lifecycle of alerts that track an entity over repeated readings, see AlertStateTracker
+    @Column(name = "entity_key", length = 200)
+    private String entityKey; // e.g. FLOOD:<station id>; null for one-off alerts
+    
+    @Column(name = "alert_state", length = 10)
+    private String alertState; // OPEN or CLOSED; null for one-off alerts
+    
+    @Column(name = "last_seen_at")
+    private Instant lastSeenAt; // Event time of the latest reading
+    
+    @Column(name = "update_count")
+    private Integer updateCount; // Readings folded into the alert after the first
+    
+    @Column(name = "closed_at")
+    private Instant closedAt;
     
     @Column(name = "created_at", nullable = false, updatable = false)
     private Instant createdAt;
@@ -99,6 +134,26 @@ public class Alert {
     @Column(name = "acknowledged_at")
     private Instant acknowledgedAt;
     
+    /**
+     * Identity of the source event an alert is derived from, or null if the
+     * event has no id
+     */
+    public static String sourceKey(String alertType, String eventId) {
+        if (eventId == null || eventId.isBlank()) {
+            return null;
+        }
+        String key = alertType + ":" + eventId;
+        return key.length() > 200 ? key.substring(0, 200) : key;
+    }
+    
+    /**
+     * Order of the severities used across alert types, higher is more severe;
+     * -1 for unknown ones
+     */
+    public static int severityRank(String severity) {
+        return SEVERITIES.indexOf(severity);
+    }
+    
     @PrePersist
     protected void onCreate() {
         createdAt = Instant.now();
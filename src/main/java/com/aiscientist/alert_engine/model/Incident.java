@@ -0,0 +1,59 @@
+package com.aiscientist.alert_engine.model;
+
+import java.time.Instant;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.UUID;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Alerts of related hazards grouped by the CorrelationEngine, e.g. an
+ * earthquake and its tsunami warning, or a CME and the geomagnetic storm it
+ * causes days later. Only groups of two or more alerts are stored.
+ */
+@Entity
+@Table(name = "incidents", indexes = {
+    @Index(name = "idx_incident_last_alert_at", columnList = "last_alert_at")
+})
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class Incident {
+    
+    @Id
+    private UUID id; // Assigned when the incident opens, before it is stored
+    
+    @Column(name = "incident_type", nullable = false, length = 20)
+    private String incidentType; // SEISMIC, FLOOD, SPACE_WEATHER or MULTI_HAZARD
+    
+    @Column(name = "severity", nullable = false, length = 20)
+    private String severity; // Highest severity of its alerts
+    
+    @Column(name = "started_at", nullable = false)
+    private Instant startedAt; // Earliest event time of its alerts
+    
+    @Column(name = "last_alert_at", nullable = false)
+    private Instant lastAlertAt; // Latest event time of its alerts
+    
+    @Column(name = "alert_count", nullable = false)
+    private Integer alertCount;
+    
+    @Builder.Default
+    @ElementCollection
+    @CollectionTable(name = "incident_alerts", joinColumns = @JoinColumn(name = "incident_id"),
+        indexes = @Index(name = "idx_incident_alert_alert_id", columnList = "alert_id"))
+    @Column(name = "alert_id", nullable = false)
+    private Set<UUID> alertIds = new HashSet<>();
+    
+    @Column(name = "created_at", nullable = false)
+    private Instant createdAt;
+    
+    @Column(name = "updated_at", nullable = false)
+    private Instant updatedAt;
+}
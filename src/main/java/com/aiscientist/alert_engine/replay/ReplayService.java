@@ -0,0 +1,422 @@
+package com.aiscientist.alert_engine.replay;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Properties;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+
+import org.apache.kafka.clients.consumer.Consumer;
+import org.apache.kafka.clients.consumer.ConsumerConfig;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.apache.kafka.clients.consumer.ConsumerRecords;
+import org.apache.kafka.clients.consumer.OffsetAndTimestamp;
+import org.apache.kafka.common.PartitionInfo;
+import org.apache.kafka.common.TopicPartition;
+import org.apache.kafka.common.serialization.ByteArrayDeserializer;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.kafka.core.ConsumerFactory;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.stereotype.Service;
+
+import com.aiscientist.alert_engine.description.AlertDescriptions;
+import com.aiscientist.alert_engine.dto.EarthquakeEvent;
+import com.aiscientist.alert_engine.dto.ReplayRequest;
+import com.aiscientist.alert_engine.dto.ReplayStatus;
+import com.aiscientist.alert_engine.model.Alert;
+import com.aiscientist.alert_engine.repository.AlertBulkRepository;
+import com.aiscientist.alert_engine.service.EarthquakeAlertService;
+import com.aiscientist.alert_engine.service.TsunamiAlertService;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Recomputes alerts from the history kept in the raw.* topics, e.g. after a
+ * threshold change or a bug fix.
+ *
+ * A replay reads the requested range with its own consumer group (live
+ * ingest is not affected), runs each polled batch through the services'
+ * buildAlert() on a small worker pool and upserts the alerts with JDBC
+ * batches keyed by source_key, so replaying the same range twice leaves the
+ * same alerts. Alerts are never published to alerts.*; optionally they go
+ * to a shadow topic for comparison. Replays are throttled to
+ * max-records-per-second and run one at a time.
+ *
+ * Only topics of one-off alerts (earthquakes, tsunami warnings) are
+ * replayable. Floods, CMEs and Kp readings are folded into episode alerts
+ * by AlertStateTracker, whose outcome depends on the order and state of
+ * live ingest; recomputing them per reading would write one alert per
+ * reading next to, or over, the episodes. Requests naming those topics are
+ * rejected.
+ */
+@Service
+@Slf4j
+public class ReplayService {
+
+    private static final Duration POLL_TIMEOUT = Duration.ofSeconds(1);
+
+    private final ConsumerFactory<String, Object> consumerFactory;
+    private final KafkaTemplate<String, Alert> alertKafkaTemplate;
+    private final AlertBulkRepository alertBulkRepository;
+    private final ObjectMapper objectMapper;
+    private final AlertDescriptions alertDescriptions;
+    private final Map<String, Handler<?>> handlers = new HashMap<>();
+    private final Set<String> episodeTopics;
+
+    private final int workerCount;
+    private final int batchSize;
+    private final int maxRecordsPerSecond;
+    private final String shadowTopic;
+    private final String groupIdPrefix;
+
+    private final ExecutorService runner = Executors.newSingleThreadExecutor(Thread.ofPlatform().name("replay-runner").factory());
+    private final ExecutorService workers;
+    private final Map<String, ReplayJob> jobs = new ConcurrentHashMap<>();
+
+    /**
+     * How to turn a record of one raw topic into an alert
+     */
+    private record Handler<T>(Class<T> eventType, Function<T, Alert> buildAlert) {
+    }
+
+    public ReplayService(ConsumerFactory<String, Object> consumerFactory,
+                         KafkaTemplate<String, Alert> alertKafkaTemplate,
+                         AlertBulkRepository alertBulkRepository,
+                         ObjectMapper objectMapper,
+                         AlertDescriptions alertDescriptions,
+                         EarthquakeAlertService earthquakeAlertService,
+                         TsunamiAlertService tsunamiAlertService,
+                         @Value("${app.kafka.topics.raw-earthquake-data}") String earthquakeDataTopic,
+                         @Value("${app.kafka.topics.raw-earthquake-alert}") String earthquakeAlertTopic,
+                         @Value("${app.kafka.topics.raw-tsunami-warning}") String tsunamiTopic,
+                         @Value("${app.kafka.topics.raw-flood-alert}") String floodTopic,
+                         @Value("${app.kafka.topics.raw-spaceweather-cme}") String cmeTopic,
+                         @Value("${app.kafka.topics.raw-spaceweather-kp}") String kpTopic,
+                         @Value("${app.replay.workers:4}") int workers,
+                         @Value("${app.replay.batch-size:500}") int batchSize,
+                         @Value("${app.replay.max-records-per-second:2000}") int maxRecordsPerSecond,
+                         @Value("${app.replay.shadow-topic:alerts.shadow}") String shadowTopic,
+                         @Value("${app.replay.group-id-prefix:alert-engine-replay}") String groupIdPrefix) {
+        this.consumerFactory = consumerFactory;
+        this.alertKafkaTemplate = alertKafkaTemplate;
+        this.alertBulkRepository = alertBulkRepository;
+        this.objectMapper = objectMapper;
+        this.alertDescriptions = alertDescriptions;
+        this.workerCount = workers;
+        this.batchSize = batchSize;
+        this.maxRecordsPerSecond = maxRecordsPerSecond;
+        this.shadowTopic = shadowTopic;
+        this.groupIdPrefix = groupIdPrefix;
+        this.workers = Executors.newFixedThreadPool(workers, Thread.ofPlatform().name("replay-worker-", 0).factory());
+
+        handlers.put(earthquakeDataTopic, new Handler<>(EarthquakeEvent.class, earthquakeAlertService::buildAlert));
+        handlers.put(earthquakeAlertTopic, new Handler<>(EarthquakeEvent.class, earthquakeAlertService::buildAlert));
+        handlers.put(tsunamiTopic, new Handler<>(EarthquakeEvent.class, tsunamiAlertService::buildAlert));
+        this.episodeTopics = Set.of(floodTopic, cmeTopic, kpTopic);
+    }
+
+    /**
+     * Start a replay in the background
+     *
+     * @throws IllegalArgumentException if the request names a topic that is not a raw topic of
+     *         one-off alerts
+     * @throws IllegalStateException if a replay is already running
+     */
+    public synchronized ReplayStatus start(ReplayRequest request) {
+        List<String> topics = request.getTopics() == null || request.getTopics().isEmpty()
+                ? handlers.keySet().stream().sorted().toList()
+                : request.getTopics();
+        for (String topic : topics) {
+            if (episodeTopics.contains(topic)) {
+                throw new IllegalArgumentException("Alerts of " + topic + " are tracked as episodes and can't be replayed");
+            }
+            if (!handlers.containsKey(topic)) {
+                throw new IllegalArgumentException("Not a replayable topic: " + topic + ", expected one of " + handlers.keySet());
+            }
+        }
+        if (jobs.values().stream().anyMatch(job -> job.state == ReplayStatus.State.RUNNING)) {
+            throw new IllegalStateException("A replay is already running");
+        }
+        request.setTopics(topics);
+
+        ReplayJob job = new ReplayJob(UUID.randomUUID().toString(), request);
+        jobs.put(job.id, job);
+        runner.submit(() -> run(job));
+        log.info("Replay {} started: {}", job.id, request);
+        return job.toStatus();
+    }
+
+    public Optional<ReplayStatus> status(String id) {
+        return Optional.ofNullable(jobs.get(id)).map(ReplayJob::toStatus);
+    }
+
+    public List<ReplayStatus> statuses() {
+        return jobs.values().stream()
+                .sorted(Comparator.comparing((ReplayJob job) -> job.startedAt).reversed())
+                .map(ReplayJob::toStatus)
+                .toList();
+    }
+
+    /**
+     * Ask a running replay to stop after its current batch
+     */
+    public Optional<ReplayStatus> cancel(String id) {
+        ReplayJob job = jobs.get(id);
+        if (job == null) {
+            return Optional.empty();
+        }
+        job.cancelled = true;
+        return Optional.of(job.toStatus());
+    }
+
+    @PreDestroy
+    void shutdown() {
+        jobs.values().forEach(job -> job.cancelled = true);
+        runner.shutdown();
+        workers.shutdown();
+    }
+
+    private void run(ReplayJob job) {
+        ReplayRequest request = job.request;
+        Properties overrides = new Properties();
+        overrides.put(ConsumerConfig.ENABLE_AUTO_COMMIT_CONFIG, false);
+        overrides.put(ConsumerConfig.MAX_POLL_RECORDS_CONFIG, batchSize);
+        overrides.put(ConsumerConfig.VALUE_DESERIALIZER_CLASS_CONFIG, ByteArrayDeserializer.class);
+        int rateLimit = request.getMaxRecordsPerSecond() != null ? request.getMaxRecordsPerSecond() : maxRecordsPerSecond;
+
+        try (Consumer<String, Object> consumer = consumerFactory.createConsumer(
+                groupIdPrefix + "-" + job.id, null, "-replay", overrides)) {
+            List<TopicPartition> partitions = new ArrayList<>();
+            for (String topic : request.getTopics()) {
+                for (PartitionInfo partition : consumer.partitionsFor(topic)) {
+                    partitions.add(new TopicPartition(topic, partition.partition()));
+                }
+            }
+            consumer.assign(partitions);
+            Map<TopicPartition, Long> end = endOffsets(consumer, partitions, request);
+            seekToStart(consumer, partitions, request);
+
+            Set<TopicPartition> remaining = new HashSet<>();
+            long total = 0;
+            for (TopicPartition partition : partitions) {
+                long start = consumer.position(partition);
+                if (start < end.get(partition)) {
+                    remaining.add(partition);
+                    total += end.get(partition) - start;
+                }
+            }
+            job.recordsTotal = total;
+            consumer.pause(partitions.stream().filter(partition -> !remaining.contains(partition)).toList());
+
+            long started = System.nanoTime();
+            while (!remaining.isEmpty() && !job.cancelled) {
+                ConsumerRecords<String, Object> records = consumer.poll(POLL_TIMEOUT);
+                List<ConsumerRecord<String, Object>> inRange = new ArrayList<>(records.count());
+                for (ConsumerRecord<String, Object> record : records) {
+                    TopicPartition partition = new TopicPartition(record.topic(), record.partition());
+                    if (record.offset() < end.get(partition)) {
+                        inRange.add(record);
+                    }
+                }
+                process(job, inRange, request.getPublish());
+                consumer.commitSync();
+
+                for (TopicPartition partition : List.copyOf(remaining)) {
+                    if (consumer.position(partition) >= end.get(partition)) {
+                        remaining.remove(partition);
+                        consumer.pause(List.of(partition));
+                    }
+                }
+                throttle(started, job.recordsRead.get(), rateLimit);
+            }
+            job.finish(job.cancelled ? ReplayStatus.State.CANCELLED : ReplayStatus.State.COMPLETED, null);
+            log.info("Replay {} {}: {}", job.id, job.state, job.toStatus());
+        } catch (Exception e) {
+            job.finish(ReplayStatus.State.FAILED, e.getMessage());
+            log.error("Replay {} failed", job.id, e);
+        }
+    }
+
+    /**
+     * Turn a batch into alerts on the worker pool, one chunk per worker, and
+     * wait for all chunks so the next poll waits for the database
+     */
+    private void process(ReplayJob job, List<ConsumerRecord<String, Object>> records,
+                         ReplayRequest.PublishMode publish) throws Exception {
+        if (records.isEmpty()) {
+            return;
+        }
+        int chunkSize = Math.max(1, (records.size() + workerCount - 1) / workerCount);
+        List<Future<?>> chunks = new ArrayList<>();
+        for (int from = 0; from < records.size(); from += chunkSize) {
+            List<ConsumerRecord<String, Object>> chunk = records.subList(from, Math.min(records.size(), from + chunkSize));
+            chunks.add(workers.submit(() -> processChunk(job, chunk, publish)));
+        }
+        for (Future<?> chunk : chunks) {
+            chunk.get();
+        }
+        job.recordsRead.addAndGet(records.size());
+    }
+
+    private void processChunk(ReplayJob job, Collection<ConsumerRecord<String, Object>> records,
+                              ReplayRequest.PublishMode publish) {
+        List<Alert> alerts = new ArrayList<>();
+        for (ConsumerRecord<String, Object> record : records) {
+            try {
+                Alert alert = buildAlert(handlers.get(record.topic()), (byte[]) record.value());
+                if (alert == null || alert.getTimestamp() == null) {
+                    job.recordsSkipped.incrementAndGet();
+                } else {
+                    alerts.add(alert);
+                }
+            } catch (Exception e) {
+                job.recordsFailed.incrementAndGet();
+                log.debug("Replay {} skipping {}-{}@{}: {}", job.id, record.topic(), record.partition(),
+                        record.offset(), e.getMessage());
+            }
+        }
+        job.alertsWritten.addAndGet(alertBulkRepository.upsertAll(alerts));
+
+        if (publish == ReplayRequest.PublishMode.SHADOW && !alerts.isEmpty()) {
+            CompletableFuture.allOf(alerts.stream()
+                            .map(alert -> alertKafkaTemplate.send(shadowTopic, alert.getSourceKey(),
+                                    alertDescriptions.withDescription(alert)))
+                            .toArray(CompletableFuture[]::new))
+                    .join();
+            job.alertsPublished.addAndGet(alerts.size());
+        }
+    }
+
+    private <T> Alert buildAlert(Handler<T> handler, byte[] payload) throws IOException {
+        if (payload == null) {
+            throw new IOException("Empty record");
+        }
+        return handler.buildAlert().apply(objectMapper.readValue(payload, handler.eventType()));
+    }
+
+    private static Map<TopicPartition, Long> endOffsets(Consumer<String, Object> consumer,
+                                                        List<TopicPartition> partitions, ReplayRequest request) {
+        // Bounded by the end at start time, so a replay finishes even while live data keeps arriving
+        Map<TopicPartition, Long> end = new HashMap<>(consumer.endOffsets(partitions));
+        if (request.getTo() != null) {
+            offsetsForTime(consumer, partitions, request.getTo()).forEach((partition, offset) -> {
+                if (offset != null) {
+                    end.merge(partition, offset, Math::min);
+                }
+            });
+        }
+        if (request.getToOffset() != null) {
+            end.replaceAll((partition, offset) -> Math.min(offset, request.getToOffset()));
+        }
+        return end;
+    }
+
+    private static void seekToStart(Consumer<String, Object> consumer, List<TopicPartition> partitions,
+                                    ReplayRequest request) {
+        consumer.seekToBeginning(partitions);
+        Map<TopicPartition, Long> beginning = consumer.beginningOffsets(partitions);
+        if (request.getFrom() != null) {
+            Map<TopicPartition, Long> byTime = offsetsForTime(consumer, partitions, request.getFrom());
+            Map<TopicPartition, Long> end = consumer.endOffsets(partitions);
+            // No record at or after the time: nothing to replay in that partition
+            partitions.forEach(partition -> consumer.seek(partition,
+                    byTime.get(partition) != null ? byTime.get(partition) : end.get(partition)));
+        } else if (request.getFromOffset() != null) {
+            partitions.forEach(partition -> consumer.seek(partition,
+                    Math.max(beginning.get(partition), request.getFromOffset())));
+        }
+    }
+
+    private static Map<TopicPartition, Long> offsetsForTime(Consumer<String, Object> consumer,
+                                                            List<TopicPartition> partitions, Instant time) {
+        Map<TopicPartition, Long> query = new HashMap<>();
+        partitions.forEach(partition -> query.put(partition, time.toEpochMilli()));
+        Map<TopicPartition, Long> offsets = new HashMap<>();
+        for (Map.Entry<TopicPartition, OffsetAndTimestamp> entry : consumer.offsetsForTimes(query).entrySet()) {
+            offsets.put(entry.getKey(), entry.getValue() == null ? null : entry.getValue().offset());
+        }
+        return offsets;
+    }
+
+    /**
+     * Sleep as long as needed to stay at or below the rate limit
+     */
+    private static void throttle(long startedNanos, long recordsRead, int recordsPerSecond) throws InterruptedException {
+        if (recordsPerSecond <= 0) {
+            return;
+        }
+        long dueNanos = (long) (recordsRead * 1e9 / recordsPerSecond);
+        long aheadMillis = (dueNanos - (System.nanoTime() - startedNanos)) / 1_000_000;
+        if (aheadMillis > 0) {
+            Thread.sleep(aheadMillis);
+        }
+    }
+
+    private static final class ReplayJob {
+        private final String id;
+        private final ReplayRequest request;
+        private final Instant startedAt = Instant.now();
+        private final AtomicLong recordsRead = new AtomicLong();
+        private final AtomicLong recordsSkipped = new AtomicLong();
+        private final AtomicLong recordsFailed = new AtomicLong();
+        private final AtomicLong alertsWritten = new AtomicLong();
+        private final AtomicLong alertsPublished = new AtomicLong();
+        private volatile long recordsTotal;
+        private volatile ReplayStatus.State state = ReplayStatus.State.RUNNING;
+        private volatile boolean cancelled;
+        private volatile Instant finishedAt;
+        private volatile String error;
+
+        private ReplayJob(String id, ReplayRequest request) {
+            this.id = id;
+            this.request = request;
+        }
+
+        private void finish(ReplayStatus.State state, String error) {
+            this.error = error;
+            this.finishedAt = Instant.now();
+            this.state = state;
+        }
+
+        private ReplayStatus toStatus() {
+            long read = recordsRead.get();
+            Instant until = finishedAt != null ? finishedAt : Instant.now();
+            double seconds = Math.max(0.001, Duration.between(startedAt, until).toMillis() / 1000.0);
+            return ReplayStatus.builder()
+                    .id(id)
+                    .state(state)
+                    .request(request)
+                    .startedAt(startedAt)
+                    .finishedAt(finishedAt)
+                    .recordsTotal(recordsTotal)
+                    .recordsRead(read)
+                    .recordsSkipped(recordsSkipped.get())
+                    .recordsFailed(recordsFailed.get())
+                    .alertsWritten(alertsWritten.get())
+                    .alertsPublished(alertsPublished.get())
+                    .percentComplete(recordsTotal == 0 ? (state == ReplayStatus.State.RUNNING ? 0 : 100)
+                            : Math.min(100, 100.0 * read / recordsTotal))
+                    .recordsPerSecond(read / seconds)
+                    .error(error)
+                    .build();
+        }
+    }
+}
@@ -0,0 +1,163 @@
+package com.aiscientist.alert_engine.repository;
+
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import org.springframework.jdbc.core.BatchPreparedStatementSetter;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import com.aiscientist.alert_engine.model.Alert;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import lombok.RequiredArgsConstructor;
+
+/**
+ * Writes of one-off alerts with plain JDBC, bypassing the persistence
+ * context: bulk upserts with one batch per call for replay, where alerts
+ * are recomputed in volume, and race-free inserts. Episode alerts (see
+ * AlertStateTracker) are only written through JPA; the columns that track
+ * them are left null here.
+ */
+@Repository
+@RequiredArgsConstructor
+public class AlertBulkRepository {
+
+    private static final String INSERT = """
+            INSERT INTO alerts (id, alert_type, severity, kp_value, earthquake_id, magnitude, depth_km,
+                                location, region, tsunami_risk_score, station_id, station_name,
+                                water_level_feet, flood_stage_feet, cme_speed, cme_type, latitude, longitude,
+                                description_template, description_params, description,
+                                timestamp, raw_payload_id, source_key, created_at, acknowledged)
+            VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?::jsonb, ?, ?, ?, ?, ?, ?)
+            """;
+
+    /**
+     * Insert, or refresh the recomputed fields of an alert already stored
+     * for the same source event. Acknowledgement is kept, and an episode
+     * alert stored under the same source key is never overwritten.
+     */
+    private static final String UPSERT = INSERT + """
+            ON CONFLICT (source_key) DO UPDATE
+               SET severity = EXCLUDED.severity,
+                   description_template = EXCLUDED.description_template,
+                   description_params = EXCLUDED.description_params,
+                   description = EXCLUDED.description
+             WHERE alerts.entity_key IS NULL
+            """;
+
+    /**
+     * Insert unless an alert for the same source event is stored
+     */
+    private static final String INSERT_IF_ABSENT = INSERT + "ON CONFLICT (source_key) DO NOTHING";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final ObjectMapper objectMapper;
+
+    /**
+     * @return Number of alerts inserted or updated
+     * @throws IllegalArgumentException if one of the alerts is an episode alert
+     */
+    public int upsertAll(List<Alert> alerts) {
+        if (alerts.isEmpty()) {
+            return 0;
+        }
+        if (alerts.stream().anyMatch(alert -> alert.getEntityKey() != null)) {
+            throw new IllegalArgumentException("Episode alerts are written by AlertStateTracker, not upserted");
+        }
+        Instant now = Instant.now();
+        int[] counts = jdbcTemplate.batchUpdate(UPSERT, new BatchPreparedStatementSetter() {
+            @Override
+            public void setValues(PreparedStatement ps, int i) throws SQLException {
+                Alert alert = alerts.get(i);
+                bind(ps, alert, alert.getId() != null ? alert.getId() : UUID.randomUUID(), now);
+            }
+
+            @Override
+            public int getBatchSize() {
+                return alerts.size();
+            }
+        });
+        int written = 0;
+        for (int count : counts) {
+            // The driver may report SUCCESS_NO_INFO (-2) for batched statements
+            written += count == Statement.SUCCESS_NO_INFO ? 1 : count;
+        }
+        return written;
+    }
+
+    /**
+     * Insert a one-off alert unless one for the same source event is already
+     * stored, e.g. inserted meanwhile by another listener thread or lane for
+     * a redelivered event. Unlike a check followed by a save, concurrent
+     * inserts of the same event can't fail on idx_alert_source_key. Assigns
+     * the alert's id and creation time.
+     *
+     * @return Whether the alert was inserted
+     */
+    public boolean insertIfAbsent(Alert alert) {
+        UUID id = UUID.randomUUID();
+        Instant now = Instant.now();
+        int inserted = jdbcTemplate.update(INSERT_IF_ABSENT, ps -> bind(ps, alert, id, now));
+        if (inserted == 0) {
+            return false;
+        }
+        alert.setId(id);
+        if (alert.getCreatedAt() == null) {
+            alert.setCreatedAt(now);
+        }
+        if (alert.getAcknowledged() == null) {
+            alert.setAcknowledged(false);
+        }
+        return true;
+    }
+
+    private void bind(PreparedStatement ps, Alert alert, UUID id, Instant now) throws SQLException {
+        int column = 1;
+        ps.setObject(column++, id);
+        ps.setString(column++, alert.getAlertType());
+        ps.setString(column++, alert.getSeverity());
+        ps.setObject(column++, alert.getKpValue(), Types.DOUBLE);
+        ps.setString(column++, alert.getEarthquakeId());
+        ps.setObject(column++, alert.getMagnitude(), Types.DOUBLE);
+        ps.setObject(column++, alert.getDepthKm(), Types.DOUBLE);
+        ps.setString(column++, alert.getLocation());
+        ps.setString(column++, alert.getRegion());
+        ps.setObject(column++, alert.getTsunamiRiskScore(), Types.INTEGER);
+        ps.setString(column++, alert.getStationId());
+        ps.setString(column++, alert.getStationName());
+        ps.setObject(column++, alert.getWaterLevelFeet(), Types.DOUBLE);
+        ps.setObject(column++, alert.getFloodStageFeet(), Types.DOUBLE);
+        ps.setObject(column++, alert.getCmeSpeed(), Types.DOUBLE);
+        ps.setString(column++, alert.getCmeType());
+        ps.setObject(column++, alert.getLatitude(), Types.DOUBLE);
+        ps.setObject(column++, alert.getLongitude(), Types.DOUBLE);
+        ps.setString(column++, alert.getDescriptionTemplate());
+        ps.setString(column++, toJson(alert.getDescriptionParams()));
+        ps.setString(column++, alert.getDescription());
+        ps.setTimestamp(column++, Timestamp.from(alert.getTimestamp()));
+        ps.setString(column++, alert.getRawPayloadId());
+        ps.setString(column++, alert.getSourceKey());
+        ps.setTimestamp(column++, Timestamp.from(alert.getCreatedAt() != null ? alert.getCreatedAt() : now));
+        ps.setBoolean(column, Boolean.TRUE.equals(alert.getAcknowledged()));
+    }
+
+    private String toJson(Map<String, Object> params) throws SQLException {
+        if (params == null) {
+            return null;
+        }
+        try {
+            return objectMapper.writeValueAsString(params);
+        } catch (JsonProcessingException e) {
+            throw new SQLException("Unserializable description parameters", e);
+        }
+    }
+}
@@ -2,12 +2,15 @@ package com.aiscientist.alert_engine.repository;
 
 import java.time.Instant;
 import java.util.List;
+import java.util.Optional;
 import java.util.UUID;
 
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
 import com.aiscientist.alert_engine.model.Alert;
 
@@ -22,6 +25,40 @@ public interface AlertRepository extends JpaRepository<Alert, UUID> {
     
     List<Alert> findByAcknowledged(Boolean acknowledged);
     
+    boolean existsBySourceKey(String sourceKey);
+    
+    /**
+     * Whether an alert for the same source event is already stored, e.g.
+     * because the event was redelivered or published to two topics
+     */
+    default boolean isAlreadyStored(Alert alert) {
+        return alert.getSourceKey() != null && existsBySourceKey(alert.getSourceKey());
+    }
+    
+    Optional<Alert> findFirstByEntityKeyAndAlertStateOrderByTimestampDesc(String entityKey, String alertState);
+    
+    /**
+     * Close an open alert on the reading that ended its episode, whose event
+     * time becomes the alert's lastSeenAt
+     */
+    @Modifying
+    @Transactional
+    @Query("UPDATE Alert a SET a.alertState = 'CLOSED', a.closedAt = :closedAt, a.lastSeenAt = :lastSeenAt " +
+           "WHERE a.id = :id AND a.alertState = 'OPEN'")
+    int close(@Param("id") UUID id, @Param("closedAt") Instant closedAt, @Param("lastSeenAt") Instant lastSeenAt);
+    
+    /**
+     * Close the open alerts of a type whose entity has not been seen since
+     * lastSeenBefore
+     */
+    @Modifying
+    @Transactional
+    @Query("UPDATE Alert a SET a.alertState = 'CLOSED', a.closedAt = :closedAt " +
+           "WHERE a.alertType = :alertType AND a.alertState = 'OPEN' AND a.lastSeenAt < :lastSeenBefore")
+    int closeNotSeenSince(@Param("alertType") String alertType,
+                          @Param("lastSeenBefore") Instant lastSeenBefore,
+                          @Param("closedAt") Instant closedAt);
+    
     @Query("SELECT a FROM Alert a WHERE a.timestamp >= :startTime AND a.timestamp <= :endTime ORDER BY a.timestamp DESC")
     List<Alert> findAlertsBetween(@Param("startTime") Instant startTime, @Param("endTime") Instant endTime);
     
@@ -0,0 +1,54 @@
+package com.aiscientist.alert_engine.repository;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.UUID;
+
+import org.springframework.data.jpa.repository.EntityGraph;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.aiscientist.alert_engine.model.Incident;
+
+/**
+ * Incidents are written with upserts from the listener threads once the
+ * alert that caused them committed, in their own transaction: also when
+ * CorrelationEngine runs in an afterCommit callback, where a joined
+ * transaction would never commit.
+ */
+@Repository
+public interface IncidentRepository extends JpaRepository<Incident, UUID> {
+    
+    @EntityGraph(attributePaths = "alertIds")
+    List<Incident> findByLastAlertAtAfterOrderByLastAlertAtDesc(Instant lastAlertAt);
+    
+    /**
+     * Insert or update an incident; updates computed from fewer alerts than
+     * the stored one (out of order across listener threads) are ignored
+     */
+    @Modifying
+    @Transactional(propagation = Propagation.REQUIRES_NEW)
+    @Query(value = "INSERT INTO incidents (id, incident_type, severity, started_at, last_alert_at, alert_count, created_at, updated_at) " +
+           "VALUES (:id, :incidentType, :severity, :startedAt, :lastAlertAt, :alertCount, now(), now()) " +
+           "ON CONFLICT (id) DO UPDATE SET incident_type = EXCLUDED.incident_type, severity = EXCLUDED.severity, " +
+           "started_at = EXCLUDED.started_at, last_alert_at = EXCLUDED.last_alert_at, " +
+           "alert_count = EXCLUDED.alert_count, updated_at = now() " +
+           "WHERE incidents.alert_count < EXCLUDED.alert_count", nativeQuery = true)
+    int upsert(@Param("id") UUID id,
+               @Param("incidentType") String incidentType,
+               @Param("severity") String severity,
+               @Param("startedAt") Instant startedAt,
+               @Param("lastAlertAt") Instant lastAlertAt,
+               @Param("alertCount") int alertCount);
+    
+    @Modifying
+    @Transactional(propagation = Propagation.REQUIRES_NEW)
+    @Query(value = "INSERT INTO incident_alerts (incident_id, alert_id) VALUES (:incidentId, :alertId) " +
+           "ON CONFLICT DO NOTHING", nativeQuery = true)
+    int addAlert(@Param("incidentId") UUID incidentId, @Param("alertId") UUID alertId);
+}
@@ -0,0 +1,27 @@
+package com.aiscientist.alert_engine.repository;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.aiscientist.alert_engine.model.RawPayload;
+
+@Repository
+public interface RawPayloadRepository extends JpaRepository<RawPayload, String> {
+    
+    /**
+     * Insert a payload unless one with the same hash is already stored
+     */
+    @Modifying
+    @Transactional
+    @Query(value = "INSERT INTO raw_payloads (hash, content, original_size, compressed_size, created_at) " +
+           "VALUES (:hash, :content, :originalSize, :compressedSize, now()) " +
+           "ON CONFLICT (hash) DO NOTHING", nativeQuery = true)
+    int insertIfAbsent(@Param("hash") String hash,
+                       @Param("content") byte[] content,
+                       @Param("originalSize") int originalSize,
+                       @Param("compressedSize") int compressedSize);
+}
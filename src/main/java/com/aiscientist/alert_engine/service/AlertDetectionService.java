@@ -4,11 +4,14 @@ import java.time.Instant;
 
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
-import org.springframework.transaction.annotation.Transactional;
 
+import com.aiscientist.alert_engine.correlation.CorrelationEngine;
+import com.aiscientist.alert_engine.description.AlertDescriptions;
+import com.aiscientist.alert_engine.description.DescriptionTemplate;
 import com.aiscientist.alert_engine.dto.AlertDTO;
 import com.aiscientist.alert_engine.dto.KpIndexEvent;
 import com.aiscientist.alert_engine.kafka.AlertProducer;
+import com.aiscientist.alert_engine.metrics.IngestMetrics;
 import com.aiscientist.alert_engine.model.Alert;
 import com.aiscientist.alert_engine.repository.AlertRepository;
 import com.fasterxml.jackson.core.JsonProcessingException;
@@ -22,9 +25,17 @@ import lombok.extern.slf4j.Slf4j;
 @Slf4j
 public class AlertDetectionService {
     
+    // Kp is global, so there is one storm at a time
+    public static final String STORM_ENTITY_KEY = "GEOMAGNETIC_STORM:kp";
+    
     private final AlertRepository alertRepository;
     private final AlertProducer alertProducer;
     private final ObjectMapper objectMapper;
+    private final RawPayloadStore rawPayloadStore;
+    private final IngestMetrics ingestMetrics;
+    private final AlertDescriptions alertDescriptions;
+    private final CorrelationEngine correlationEngine;
+    private final AlertStateTracker alertStateTracker;
     
     @Value("${app.alert.thresholds.kp-index.minor}")
     private Double minorThreshold;
@@ -41,32 +52,40 @@ public class AlertDetectionService {
     @Value("${app.alert.thresholds.kp-index.extreme}")
     private Double extremeThreshold;
     
-    @Transactional
+    /**
+     * Not transactional: the raw payload insert is idempotent and the tracker
+     * commits the alert in its own transaction, so the alert is committed
+     * before it is correlated and published.
+     */
     public void analyzeKpIndex(KpIndexEvent event) {
         Double kpValue = event.getKpIndex();
         
-        if (kpValue == null || kpValue < minorThreshold) {
+        Alert reading = buildAlert(event);
+        if (reading == null) {
             log.debug("Kp-index {} is below alert threshold {}", kpValue, minorThreshold);
+            // A later sample below threshold ends the storm
+            alertStateTracker.resolve("GEOMAGNETIC_STORM", STORM_ENTITY_KEY, event.getTimestamp());
+            return;
+        }
+        if (alertRepository.isAlreadyStored(reading)) {
             return;
         }
         
-        String severity = determineSeverity(kpValue);
-        String description = generateDescription(severity, kpValue);
-        
-        log.info("Geomagnetic storm detected! Kp={}, Severity={}", kpValue, severity);
-        
-        // Create and save alert
-        Alert alert = Alert.builder()
-                .alertType("GEOMAGNETIC_STORM")
-                .severity(severity)
-                .kpValue(kpValue)
-                .description(description)
-                .timestamp(event.getTimestamp())
-                .rawData(serializeToJson(event))
-                .build();
+        // Open the storm's alert or update it in place
+        reading.setRawPayloadId(rawPayloadStore.store(rawPayloadOf(event)));
+        AlertStateTracker.Result result = alertStateTracker.track(reading);
+        if (!result.isStateChange()) {
+            return;
+        }
+        Alert savedAlert = result.alert();
+        String severity = savedAlert.getSeverity();
+        log.info("Geomagnetic storm {}: Kp={}, Severity={}, id={}", result.transition(), kpValue, severity,
+                savedAlert.getId());
         
-        Alert savedAlert = alertRepository.save(alert);
-        log.info("Alert saved to database: id={}", savedAlert.getId());
+        // Link to an incident of related alerts
+        if (result.transition() == AlertStateTracker.Transition.OPENED) {
+            correlationEngine.correlate(savedAlert);
+        }
         
         // Convert to DTO and publish to Kafka
         AlertDTO alertDTO = convertToDTO(savedAlert);
@@ -78,7 +97,32 @@ public class AlertDetectionService {
         }
     }
     
-    private String determineSeverity(Double kpValue) {
+    /**
+     * The alert for a Kp reading, or null if it is below the alert
+     * threshold. No side effects (the raw payload is not stored), so replay
+     * can recompute alerts with it.
+     */
+    public Alert buildAlert(KpIndexEvent event) {
+        Double kpValue = event.getKpIndex();
+        if (kpValue == null || kpValue < minorThreshold) {
+            return null;
+        }
+        
+        String severity = determineSeverity(kpValue);
+        return Alert.builder()
+                .alertType("GEOMAGNETIC_STORM")
+                .severity(severity)
+                .kpValue(kpValue)
+                .descriptionTemplate(DescriptionTemplate.GEOMAGNETIC_STORM.id())
+                .descriptionParams(AlertDescriptions.params("severity", severity, "kp", kpValue))
+                .timestamp(event.getTimestamp())
+                .sourceKey(Alert.sourceKey("GEOMAGNETIC_STORM",
+                        event.getTimeTag() != null ? event.getTimeTag() : String.valueOf(event.getTimestamp())))
+                .entityKey(STORM_ENTITY_KEY)
+                .build();
+    }
+    
+    String determineSeverity(Double kpValue) {
         if (kpValue >= extremeThreshold) {
             return "EXTREME";  // Kp >= 8
         } else if (kpValue >= strongThreshold) {
@@ -90,29 +134,18 @@ public class AlertDetectionService {
         }
     }
     
-    private String generateDescription(String severity, Double kpValue) {
-        return switch (severity) {
-            case "EXTREME" -> String.format("EXTREME geomagnetic storm detected (Kp=%.2f). " +
-                "Widespread power system problems, transformer damage possible. " +
-                "Satellite navigation severely degraded. HF radio propagation impossible.", kpValue);
-            case "SEVERE" -> String.format("SEVERE geomagnetic storm detected (Kp=%.2f). " +
-                "Widespread voltage control problems. Protective systems may trip out key assets. " +
-                "Satellite surface charging, navigation degraded for hours.", kpValue);
-            case "STRONG" -> String.format("STRONG geomagnetic storm detected (Kp=%.2f). " +
-                "Voltage corrections required on power systems. Satellite orientation issues. " +
-                "Intermittent satellite navigation and HF radio problems.", kpValue);
-            case "MODERATE" -> String.format("MODERATE geomagnetic storm detected (Kp=%.2f). " +
-                "High-latitude power systems affected. Satellite drag increased. " +
-                "HF radio propagation fades at higher latitudes.", kpValue);
-            default -> String.format("MINOR geomagnetic storm detected (Kp=%.2f). " +
-                "Weak power grid fluctuations. Minor impact on satellite operations.", kpValue);
-        };
-    }
-    
     private boolean isCriticalSeverity(String severity) {
         return "SEVERE".equals(severity) || "EXTREME".equals(severity);
     }
     
+    /**
+     * The upstream record the event was built from; the event itself already
+     * embeds it, so serializing the event would store it twice
+     */
+    private String rawPayloadOf(KpIndexEvent event) {
+        return event.getRawData() != null ? event.getRawData() : serializeToJson(event);
+    }
+    
     private String serializeToJson(Object object) {
         try {
             return objectMapper.writeValueAsString(object);
@@ -122,13 +155,13 @@ public class AlertDetectionService {
         }
     }
     
-    private AlertDTO convertToDTO(Alert alert) {
+    AlertDTO convertToDTO(Alert alert) {
         return AlertDTO.builder()
                 .id(alert.getId())
                 .alertType(alert.getAlertType())
                 .severity(alert.getSeverity())
                 .kpValue(alert.getKpValue())
-                .description(alert.getDescription())
+                .description(alertDescriptions.describe(alert))
                 .timestamp(alert.getTimestamp())
                 .createdAt(alert.getCreatedAt())
                 .build();
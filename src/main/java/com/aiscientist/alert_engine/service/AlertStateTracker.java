@@ -0,0 +1,307 @@
+package com.aiscientist.alert_engine.service;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReentrantLock;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.aiscientist.alert_engine.metrics.IngestMetrics;
+import com.aiscientist.alert_engine.model.Alert;
+import com.aiscientist.alert_engine.repository.AlertRepository;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * One alert per episode of an entity that reports repeatedly, e.g. a flood
+ * gauge above flood stage for two days, a geomagnetic storm over several Kp
+ * samples or a CME whose speed is revised.
+ *
+ * The first reading opens an alert; later ones update it in place, and only
+ * a change of severity (escalation or de-escalation) is reported back as a
+ * state change, for the caller to publish. The alert closes when the entity
+ * reports it is over or has not been seen for the type's TTL.
+ *
+ * Readings of one entity are serialized on a striped lock. The open alerts
+ * are cached per entity key; on a miss (first reading after a restart or a
+ * partition rebalance) the open alert is looked up in the database. Keys
+ * found without an open alert are remembered for NO_OPEN_ALERT_RECHECK, so
+ * the readings that would close an alert stay cheap while none is open.
+ *
+ * A reading no newer than the latest closed episode of its entity, e.g. a
+ * resent reading that was folded into that episode or one delivered after
+ * the reading that closed it, does not open a new one: closing stores the
+ * closing reading's event time as the episode's lastSeenAt.
+ */
+@Service
+@Slf4j
+public class AlertStateTracker {
+
+    public static final String OPEN = "OPEN";
+    public static final String CLOSED = "CLOSED";
+
+    public enum Transition {
+        OPENED,
+        ESCALATED,
+        DE_ESCALATED,
+        UPDATED,    // Same severity, stored in place
+        STALE,      // Older than the latest reading, dropped
+        DUPLICATE,  // Alert for the same source event already stored
+        CLOSED;
+
+        public boolean isStateChange() {
+            return this == OPENED || this == ESCALATED || this == DE_ESCALATED;
+        }
+    }
+
+    /**
+     * @param alert The stored alert, null if nothing was stored
+     */
+    public record Result(Transition transition, Alert alert) {
+        public boolean isStateChange() {
+            return transition.isStateChange();
+        }
+    }
+
+    /**
+     * How long a key found without an open alert is trusted to have none;
+     * bounds how long an alert opened by another instance goes unnoticed here
+     */
+    static final Duration NO_OPEN_ALERT_RECHECK = Duration.ofMinutes(1);
+
+    private record OpenAlert(UUID id, String severity, Instant lastSeenAt) {
+        static OpenAlert of(Alert alert) {
+            return new OpenAlert(alert.getId(), alert.getSeverity(), alert.getLastSeenAt());
+        }
+    }
+
+    private final AlertRepository alertRepository;
+    private final IngestMetrics ingestMetrics;
+    private final TransactionTemplate transactionTemplate;
+    private final Map<String, Duration> ttls;
+    private final ReentrantLock[] stripes;
+    private final Map<String, OpenAlert> openAlerts = new ConcurrentHashMap<>();
+    /** Keys without an open alert, and when that was last checked */
+    private final Map<String, Instant> noOpenAlert = new ConcurrentHashMap<>();
+
+    public AlertStateTracker(AlertRepository alertRepository,
+                             IngestMetrics ingestMetrics,
+                             TransactionTemplate transactionTemplate,
+                             @Value("${app.alert.state.ttl.flood:2h}") Duration floodTtl,
+                             @Value("${app.alert.state.ttl.geomagnetic-storm:6h}") Duration stormTtl,
+                             @Value("${app.alert.state.ttl.cme:24h}") Duration cmeTtl,
+                             @Value("${app.alert.state.lock-stripes:64}") int lockStripes) {
+        this.alertRepository = alertRepository;
+        this.ingestMetrics = ingestMetrics;
+        this.transactionTemplate = transactionTemplate;
+        this.ttls = Map.of("FLOOD", floodTtl, "GEOMAGNETIC_STORM", stormTtl, "CME", cmeTtl);
+        this.stripes = new ReentrantLock[lockStripes];
+        for (int i = 0; i < lockStripes; i++) {
+            stripes[i] = new ReentrantLock();
+        }
+    }
+
+    /**
+     * Store a reading: open an alert for its entity or update the open one.
+     * Alerts without an entity key are stored as new alerts.
+     */
+    public Result track(Alert reading) {
+        String key = reading.getEntityKey();
+        if (key == null) {
+            return record(reading, alertRepository.isAlreadyStored(reading)
+                    ? new Result(Transition.DUPLICATE, null)
+                    : new Result(Transition.OPENED, ingestMetrics.timeSave(() -> alertRepository.save(reading))));
+        }
+        ReentrantLock lock = stripe(key);
+        lock.lock();
+        try {
+            Result result = transactionTemplate.execute(status -> apply(key, reading));
+            if (result.isStateChange()) {
+                openAlerts.put(key, OpenAlert.of(result.alert()));
+                noOpenAlert.remove(key);
+            } else if (result.transition() == Transition.UPDATED) {
+                openAlerts.computeIfPresent(key, (k, open) ->
+                        new OpenAlert(open.id(), open.severity(), result.alert().getLastSeenAt()));
+            }
+            return record(reading, result);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Whether an entity may have an open alert: false only if this instance
+     * recently found it has none. A cache check only, cheap enough for every
+     * consumed record.
+     */
+    public boolean mayHaveOpenAlert(String entityKey) {
+        return openAlerts.containsKey(entityKey) || !knownWithoutOpenAlert(entityKey, Instant.now());
+    }
+
+    /**
+     * Close the open alert of an entity that reported the episode is over,
+     * unless a later reading kept it open
+     */
+    public void resolve(String alertType, String entityKey, Instant eventTime) {
+        ReentrantLock lock = stripe(entityKey);
+        lock.lock();
+        try {
+            Instant now = Instant.now();
+            OpenAlert open = openAlerts.get(entityKey);
+            if (open == null && !knownWithoutOpenAlert(entityKey, now)) {
+                // Not cached, e.g. opened before a restart or rebalance
+                open = alertRepository.findFirstByEntityKeyAndAlertStateOrderByTimestampDesc(entityKey, OPEN)
+                        .map(OpenAlert::of)
+                        .orElse(null);
+                if (open != null) {
+                    openAlerts.put(entityKey, open);
+                } else {
+                    noOpenAlert.put(entityKey, now);
+                }
+            }
+            if (open == null || eventTime == null
+                    || (open.lastSeenAt() != null && !eventTime.isAfter(open.lastSeenAt()))) {
+                return;
+            }
+            alertRepository.close(open.id(), now, eventTime);
+            openAlerts.remove(entityKey);
+            noOpenAlert.put(entityKey, now);
+            ingestMetrics.recordTransitions(alertType, transitionName(Transition.CLOSED), 1);
+            log.info("Closed {} alert {} for {}", alertType, open.id(), entityKey);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Close the alerts of entities not seen within their type's TTL
+     */
+    @Scheduled(fixedDelayString = "${app.alert.state.sweep-interval:PT5M}",
+               initialDelayString = "${app.alert.state.sweep-interval:PT5M}")
+    public void closeExpired() {
+        Instant now = Instant.now();
+        ttls.forEach((alertType, ttl) -> {
+            Instant cutoff = now.minus(ttl);
+            int closed = alertRepository.closeNotSeenSince(alertType, cutoff, now);
+            if (closed > 0) {
+                log.info("Closed {} {} alerts not seen since {}", closed, alertType, cutoff);
+                ingestMetrics.recordTransitions(alertType, transitionName(Transition.CLOSED), closed);
+            }
+        });
+        // Drop closed alerts from the cache; a reading racing the sweep finds the row closed and opens a new alert
+        openAlerts.entrySet().removeIf(entry -> {
+            Duration ttl = ttls.get(alertTypeOf(entry.getKey()));
+            return ttl != null && entry.getValue().lastSeenAt().isBefore(now.minus(ttl));
+        });
+        noOpenAlert.values().removeIf(checkedAt -> !checkedAt.isAfter(now.minus(NO_OPEN_ALERT_RECHECK)));
+    }
+
+    private Result apply(String key, Alert reading) {
+        Alert open = openAlert(key).orElse(null);
+        if (open == null) {
+            if (alertRepository.isAlreadyStored(reading)) {
+                return new Result(Transition.DUPLICATE, null);
+            }
+            // Only the first reading's source key is stored, so compare with the episode's last (or closing) reading
+            Instant closedLastSeenAt = alertRepository.findFirstByEntityKeyAndAlertStateOrderByTimestampDesc(key, CLOSED)
+                    .map(Alert::getLastSeenAt)
+                    .orElse(null);
+            if (reading.getTimestamp() != null && closedLastSeenAt != null
+                    && !reading.getTimestamp().isAfter(closedLastSeenAt)) {
+                return new Result(Transition.STALE, null);
+            }
+            reading.setAlertState(OPEN);
+            reading.setLastSeenAt(reading.getTimestamp());
+            reading.setUpdateCount(0);
+            return new Result(Transition.OPENED, ingestMetrics.timeSave(() -> alertRepository.save(reading)));
+        }
+        if (reading.getTimestamp() != null && open.getLastSeenAt() != null) {
+            if (reading.getTimestamp().isBefore(open.getLastSeenAt())) {
+                return new Result(Transition.STALE, null);
+            }
+            // Upstream feeds resend their latest readings on every poll
+            if (reading.getTimestamp().equals(open.getLastSeenAt())
+                    && Objects.equals(reading.getSeverity(), open.getSeverity())
+                    && Objects.equals(reading.getDescriptionParams(), open.getDescriptionParams())) {
+                return new Result(Transition.DUPLICATE, null);
+            }
+        }
+
+        int change = Alert.severityRank(reading.getSeverity()) - Alert.severityRank(open.getSeverity());
+        Transition transition = change > 0 ? Transition.ESCALATED
+                : change < 0 ? Transition.DE_ESCALATED
+                : Transition.UPDATED;
+        // Managed entity, flushed on commit
+        open.setSeverity(reading.getSeverity());
+        open.setKpValue(reading.getKpValue());
+        open.setWaterLevelFeet(reading.getWaterLevelFeet());
+        open.setFloodStageFeet(reading.getFloodStageFeet());
+        open.setCmeSpeed(reading.getCmeSpeed());
+        open.setCmeType(reading.getCmeType());
+        open.setDescriptionTemplate(reading.getDescriptionTemplate());
+        open.setDescriptionParams(reading.getDescriptionParams());
+        if (reading.getRawPayloadId() != null) {
+            open.setRawPayloadId(reading.getRawPayloadId());
+        }
+        open.setLastSeenAt(reading.getTimestamp() != null ? reading.getTimestamp() : open.getLastSeenAt());
+        open.setUpdateCount(open.getUpdateCount() != null ? open.getUpdateCount() + 1 : 1);
+        return new Result(transition, open);
+    }
+
+    /**
+     * The open alert of an entity, loaded in the current transaction
+     */
+    private Optional<Alert> openAlert(String key) {
+        OpenAlert cached = openAlerts.get(key);
+        Optional<Alert> open = cached != null
+                ? alertRepository.findById(cached.id())
+                : alertRepository.findFirstByEntityKeyAndAlertStateOrderByTimestampDesc(key, OPEN);
+        // Closed by the sweep, or gone with a rolled back transaction
+        open = open.filter(alert -> OPEN.equals(alert.getAlertState()));
+        if (open.isEmpty()) {
+            openAlerts.remove(key);
+        }
+        return open;
+    }
+
+    private boolean knownWithoutOpenAlert(String key, Instant now) {
+        Instant checkedAt = noOpenAlert.get(key);
+        return checkedAt != null && checkedAt.isAfter(now.minus(NO_OPEN_ALERT_RECHECK));
+    }
+
+    private Result record(Alert reading, Result result) {
+        ingestMetrics.recordTransitions(reading.getAlertType(), transitionName(result.transition()), 1);
+        return result;
+    }
+
+    private ReentrantLock stripe(String key) {
+        return stripes[Math.floorMod(key.hashCode(), stripes.length)];
+    }
+
+    private static String transitionName(Transition transition) {
+        return transition.name().toLowerCase().replace('_', '-');
+    }
+
+    /**
+     * Entity keys start with the alert type, e.g. FLOOD:01646500
+     */
+    private static String alertTypeOf(String entityKey) {
+        int separator = entityKey.indexOf(':');
+        return separator < 0 ? entityKey : entityKey.substring(0, separator);
+    }
+
+    /**
+     * Key of the entity an alert tracks
+     */
+    public static String entityKey(String alertType, String entityId) {
+        return entityId == null || entityId.isBlank() ? null : Alert.sourceKey(alertType, entityId);
+    }
+}
@@ -1,6 +1,10 @@
 package com.aiscientist.alert_engine.service;
 
+import com.aiscientist.alert_engine.correlation.CorrelationEngine;
+import com.aiscientist.alert_engine.description.AlertDescriptions;
+import com.aiscientist.alert_engine.description.DescriptionTemplate;
 import com.aiscientist.alert_engine.dto.CmeEvent;
+import com.aiscientist.alert_engine.metrics.IngestMetrics;
 import com.aiscientist.alert_engine.model.Alert;
 import com.aiscientist.alert_engine.repository.AlertRepository;
 import lombok.RequiredArgsConstructor;
@@ -9,6 +13,7 @@ import org.springframework.kafka.core.KafkaTemplate;
 import org.springframework.stereotype.Service;
 
 import java.time.Instant;
+import java.util.Map;
 
 @Service
 @Slf4j
@@ -17,44 +22,71 @@ public class CmeAlertService {
 
     private final AlertRepository alertRepository;
     private final KafkaTemplate<String, Alert> kafkaTemplate;
+    private final IngestMetrics ingestMetrics;
+    private final AlertDescriptions alertDescriptions;
+    private final CorrelationEngine correlationEngine;
+    private final AlertStateTracker alertStateTracker;
 
     public void processCmeEvent(CmeEvent event) {
+        Alert reading = buildAlert(event);
+        if (reading == null) {
+            return;
+        }
+        
+        // Open the CME's alert or update it with a revised speed; a closed one is a duplicate
+        AlertStateTracker.Result result = alertStateTracker.track(reading);
+        if (!result.isStateChange()) {
+            return;
+        }
+        Alert alert = result.alert();
+        String severity = alert.getSeverity();
+        log.info("CME alert {}: {} - Speed: {} km/s, Type: {}", result.transition(),
+            event.getActivityId(), alert.getCmeSpeed(), event.getType());
+        
+        // Link to an incident of related alerts
+        if (result.transition() == AlertStateTracker.Transition.OPENED) {
+            correlationEngine.correlate(alert);
+        }
+        
+        // Publish to Kafka based on severity
+        if ("CRITICAL".equals(severity) || "EXTREME".equals(severity)) {
+            ingestMetrics.observePublish("alerts.critical", kafkaTemplate.send("alerts.critical", alertDescriptions.withDescription(alert)));
+        } else if ("MAJOR".equals(severity) || "MODERATE".equals(severity)) {
+            ingestMetrics.observePublish("alerts.warning", kafkaTemplate.send("alerts.warning", alertDescriptions.withDescription(alert)));
+        }
+    }
+
+    /**
+     * The alert for a CME, or null if it does not warrant one. No side
+     * effects, so replay can recompute alerts with it.
+     */
+    public Alert buildAlert(CmeEvent event) {
         // Determine severity based on CME speed
         Double speed = event.getMostAccurateSpeed() != null ? 
             event.getMostAccurateSpeed() : event.getSpeed();
         
-        String severity = determineSeverity(speed);
-        
         // Only create alerts for significant CMEs (speed >= 500 km/s)
-        if (speed != null && speed >= 500) {
-            Alert alert = Alert.builder()
-                .alertType("CME")
-                .severity(severity)
-                .cmeSpeed(speed)
-                .cmeType(event.getType())
-                .latitude(parseCoordinate(event.getLatitude()))
-                .longitude(parseCoordinate(event.getLongitude()))
-                .description(buildDescription(event, speed))
-                .timestamp(event.getStartTime())
-                .acknowledged(false)
-                .createdAt(Instant.now())
-                .build();
-            
-            // Save to database
-            alertRepository.save(alert);
-            log.info("Created CME alert: {} - Speed: {} km/s, Type: {}", 
-                event.getActivityId(), speed, event.getType());
-            
-            // Publish to Kafka based on severity
-            if ("CRITICAL".equals(severity) || "EXTREME".equals(severity)) {
-                kafkaTemplate.send("alerts.critical", alert);
-            } else if ("MAJOR".equals(severity) || "MODERATE".equals(severity)) {
-                kafkaTemplate.send("alerts.warning", alert);
-            }
+        if (speed == null || speed < 500) {
+            return null;
         }
+        return Alert.builder()
+            .alertType("CME")
+            .severity(determineSeverity(speed))
+            .cmeSpeed(speed)
+            .cmeType(event.getType())
+            .latitude(parseCoordinate(event.getLatitude()))
+            .longitude(parseCoordinate(event.getLongitude()))
+            .descriptionTemplate(DescriptionTemplate.CME.id())
+            .descriptionParams(descriptionParams(event, speed))
+            .timestamp(event.getStartTime())
+            .sourceKey(Alert.sourceKey("CME", event.getActivityId()))
+            .entityKey(AlertStateTracker.entityKey("CME", event.getActivityId()))
+            .acknowledged(false)
+            .createdAt(Instant.now())
+            .build();
     }
 
-    private String determineSeverity(Double speed) {
+    String determineSeverity(Double speed) {
         if (speed == null) {
             return "MINOR";
         }
@@ -72,33 +104,12 @@ public class CmeAlertService {
         }
     }
 
-    private String buildDescription(CmeEvent event, Double speed) {
-        StringBuilder desc = new StringBuilder();
-        desc.append(String.format("Coronal Mass Ejection detected with speed of %.0f km/s", speed));
-        
-        if (event.getType() != null) {
-            desc.append(String.format(" (Type: %s)", event.getType()));
-        }
-        
-        if (event.getSourceLocation() != null) {
-            desc.append(String.format(". Source: %s", event.getSourceLocation()));
-        }
-        
-        if (speed >= 2000) {
-            desc.append(". EXTREME SPEED - High probability of severe geomagnetic storm. " +
-                "Satellite operations and power grids may be significantly affected.");
-        } else if (speed >= 1500) {
-            desc.append(". CRITICAL - Strong geomagnetic storm possible. " +
-                "Monitor for potential impacts to satellites and communications.");
-        } else if (speed >= 1000) {
-            desc.append(". Moderate geomagnetic storm possible. Minor impacts may occur.");
-        }
-        
-        if (event.getNote() != null && !event.getNote().isEmpty()) {
-            desc.append(String.format(" Note: %s", event.getNote()));
-        }
-        
-        return desc.toString();
+    Map<String, Object> descriptionParams(CmeEvent event, Double speed) {
+        return AlertDescriptions.params(
+            "speed", speed,
+            "type", event.getType(),
+            "sourceLocation", event.getSourceLocation(),
+            "note", event.getNote() != null && !event.getNote().isEmpty() ? event.getNote() : null);
     }
     
     private Double parseCoordinate(String coordinate) {
@@ -1,60 +1,90 @@
 package com.aiscientist.alert_engine.service;
 
+import com.aiscientist.alert_engine.config.KafkaConfig;
+import com.aiscientist.alert_engine.correlation.CorrelationEngine;
+import com.aiscientist.alert_engine.description.AlertDescriptions;
+import com.aiscientist.alert_engine.description.DescriptionTemplate;
 import com.aiscientist.alert_engine.dto.EarthquakeEvent;
+import com.aiscientist.alert_engine.metrics.IngestMetrics;
 import com.aiscientist.alert_engine.model.Alert;
-import com.aiscientist.alert_engine.repository.AlertRepository;
+import com.aiscientist.alert_engine.repository.AlertBulkRepository;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.kafka.core.KafkaTemplate;
 import org.springframework.stereotype.Service;
 
 import java.time.Instant;
+import java.util.Map;
 
 @Service
 @Slf4j
 @RequiredArgsConstructor
 public class EarthquakeAlertService {
 
-    private final AlertRepository alertRepository;
+    // Smallest magnitude that warrants an alert
+    public static final double MIN_MAGNITUDE = 5.0;
+
+    private final AlertBulkRepository alertBulkRepository;
     private final KafkaTemplate<String, Alert> kafkaTemplate;
+    @Qualifier(KafkaConfig.PRIORITY_KAFKA_TEMPLATE)
+    private final KafkaTemplate<String, Alert> priorityKafkaTemplate;
+    private final IngestMetrics ingestMetrics;
+    private final AlertDescriptions alertDescriptions;
+    private final CorrelationEngine correlationEngine;
 
     public void processEarthquakeEvent(EarthquakeEvent event) {
-        // Determine severity based on magnitude
-        String severity = determineSeverity(event.getMagnitude());
+        Alert alert = buildAlert(event);
+        // Save to database, unless stored already: redelivered, or another listener thread or
+        // the other lane (after a magnitude band change) got the same event first
+        if (alert == null || !ingestMetrics.timeInsert(alert, () -> alertBulkRepository.insertIfAbsent(alert))) {
+            return;
+        }
+        String severity = alert.getSeverity();
+        
+        log.info("Created earthquake alert: {} - {} magnitude at {}", 
+            event.getEarthquakeId(), event.getMagnitude(), event.getLocation());
+        
+        // Link to an incident of related alerts
+        correlationEngine.correlate(alert);
         
+        // Publish to Kafka based on severity, critical alerts on the priority lane's producer
+        if ("CRITICAL".equals(severity) || "MAJOR".equals(severity)) {
+            ingestMetrics.observePublish("alerts.critical", priorityKafkaTemplate.send("alerts.critical", alertDescriptions.withDescription(alert)));
+        } else if ("MODERATE".equals(severity)) {
+            ingestMetrics.observePublish("alerts.warning", kafkaTemplate.send("alerts.warning", alertDescriptions.withDescription(alert)));
+        }
+    }
+
+    /**
+     * The alert for an event, or null if it does not warrant one. No side
+     * effects, so replay can recompute alerts with it.
+     */
+    public Alert buildAlert(EarthquakeEvent event) {
         // Only create alerts for significant earthquakes (magnitude >= 5.0)
-        if (event.getMagnitude() >= 5.0) {
-            Alert alert = Alert.builder()
-                .alertType("EARTHQUAKE")
-                .severity(severity)
-                .earthquakeId(event.getEarthquakeId())
-                .magnitude(event.getMagnitude())
-                .depthKm(event.getDepthKm())
-                .location(event.getLocation())
-                .region(event.getRegion())
-                .latitude(event.getLatitude())
-                .longitude(event.getLongitude())
-                .description(buildDescription(event))
-                .timestamp(event.getEventTime())
-                .acknowledged(false)
-                .createdAt(Instant.now())
-                .build();
-            
-            // Save to database
-            alertRepository.save(alert);
-            log.info("Created earthquake alert: {} - {} magnitude at {}", 
-                event.getEarthquakeId(), event.getMagnitude(), event.getLocation());
-            
-            // Publish to Kafka based on severity
-            if ("CRITICAL".equals(severity) || "MAJOR".equals(severity)) {
-                kafkaTemplate.send("alerts.critical", alert);
-            } else if ("MODERATE".equals(severity)) {
-                kafkaTemplate.send("alerts.warning", alert);
-            }
+        if (event.getMagnitude() == null || event.getMagnitude() < MIN_MAGNITUDE) {
+            return null;
         }
+        return Alert.builder()
+            .alertType("EARTHQUAKE")
+            .severity(determineSeverity(event.getMagnitude()))
+            .earthquakeId(event.getEarthquakeId())
+            .magnitude(event.getMagnitude())
+            .depthKm(event.getDepthKm())
+            .location(event.getLocation())
+            .region(event.getRegion())
+            .latitude(event.getLatitude())
+            .longitude(event.getLongitude())
+            .descriptionTemplate(DescriptionTemplate.EARTHQUAKE.id())
+            .descriptionParams(descriptionParams(event))
+            .timestamp(event.getEventTime())
+            .sourceKey(Alert.sourceKey("EARTHQUAKE", event.getEarthquakeId()))
+            .acknowledged(false)
+            .createdAt(Instant.now())
+            .build();
     }
 
-    private String determineSeverity(Double magnitude) {
+    String determineSeverity(Double magnitude) {
         if (magnitude >= 8.0) {
             return "EXTREME"; // Great earthquake
         } else if (magnitude >= 7.0) {
@@ -68,27 +98,13 @@ public class EarthquakeAlertService {
         }
     }
 
-    private String buildDescription(EarthquakeEvent event) {
-        StringBuilder desc = new StringBuilder();
-        desc.append(String.format("Magnitude %.1f earthquake detected at %s", 
-            event.getMagnitude(), event.getLocation()));
-        
-        if (event.getDepthKm() != null) {
-            desc.append(String.format(", depth: %.1f km", event.getDepthKm()));
-        }
-        
-        if (event.getDangerous() != null && event.getDangerous()) {
-            desc.append(". WARNING: This is classified as a dangerous earthquake.");
-        }
-        
-        if (event.getCatastrophic() != null && event.getCatastrophic()) {
-            desc.append(" CATASTROPHIC EVENT - Expect severe damage.");
-        }
-        
-        if (event.getTsunamiWarning() != null && event.getTsunamiWarning()) {
-            desc.append(" TSUNAMI WARNING ISSUED.");
-        }
-        
-        return desc.toString();
+    Map<String, Object> descriptionParams(EarthquakeEvent event) {
+        return AlertDescriptions.params(
+            "magnitude", event.getMagnitude(),
+            "location", event.getLocation(),
+            "depthKm", event.getDepthKm(),
+            "dangerous", Boolean.TRUE.equals(event.getDangerous()) ? true : null,
+            "catastrophic", Boolean.TRUE.equals(event.getCatastrophic()) ? true : null,
+            "tsunamiWarning", Boolean.TRUE.equals(event.getTsunamiWarning()) ? true : null);
     }
 }
@@ -1,6 +1,10 @@
 package com.aiscientist.alert_engine.service;
 
+import com.aiscientist.alert_engine.correlation.CorrelationEngine;
+import com.aiscientist.alert_engine.description.AlertDescriptions;
+import com.aiscientist.alert_engine.description.DescriptionTemplate;
 import com.aiscientist.alert_engine.dto.FloodAlertEvent;
+import com.aiscientist.alert_engine.metrics.IngestMetrics;
 import com.aiscientist.alert_engine.model.Alert;
 import com.aiscientist.alert_engine.repository.AlertRepository;
 import lombok.RequiredArgsConstructor;
@@ -9,6 +13,7 @@ import org.springframework.kafka.core.KafkaTemplate;
 import org.springframework.stereotype.Service;
 
 import java.time.Instant;
+import java.util.Map;
 
 @Service
 @Slf4j
@@ -17,40 +22,66 @@ public class FloodAlertService {
 
     private final AlertRepository alertRepository;
     private final KafkaTemplate<String, Alert> kafkaTemplate;
+    private final IngestMetrics ingestMetrics;
+    private final AlertDescriptions alertDescriptions;
+    private final CorrelationEngine correlationEngine;
+    private final AlertStateTracker alertStateTracker;
 
     public void processFloodAlert(FloodAlertEvent event) {
-        // Determine severity based on flood severity
-        String severity = determineSeverity(event.getFloodSeverity());
+        Alert reading = buildAlert(event);
+        if (alertRepository.isAlreadyStored(reading)) {
+            return;
+        }
+        
+        // Open the station's alert or update it in place
+        AlertStateTracker.Result result = alertStateTracker.track(reading);
+        if (!result.isStateChange()) {
+            return;
+        }
+        Alert alert = result.alert();
+        String severity = alert.getSeverity();
+        log.info("Flood alert {}: {} - {} - Severity: {}", result.transition(),
+            event.getStationId(), event.getStationName(), event.getFloodSeverity());
         
-        Alert alert = Alert.builder()
+        // Link to an incident of related alerts
+        if (result.transition() == AlertStateTracker.Transition.OPENED) {
+            correlationEngine.correlate(alert);
+        }
+        
+        // Publish to Kafka based on severity
+        if ("CRITICAL".equals(severity) || "MAJOR".equals(severity)) {
+            ingestMetrics.observePublish("alerts.critical", kafkaTemplate.send("alerts.critical", alertDescriptions.withDescription(alert)));
+        } else if ("MODERATE".equals(severity)) {
+            ingestMetrics.observePublish("alerts.warning", kafkaTemplate.send("alerts.warning", alertDescriptions.withDescription(alert)));
+        }
+    }
+
+    /**
+     * The alert for a flood event. No side effects, so replay can recompute
+     * alerts with it.
+     */
+    public Alert buildAlert(FloodAlertEvent event) {
+        return Alert.builder()
             .alertType("FLOOD")
-            .severity(severity)
+            .severity(determineSeverity(event.getFloodSeverity()))
             .stationId(event.getStationId())
             .stationName(event.getStationName())
             .waterLevelFeet(event.getWaterLevelFeet())
             .floodStageFeet(event.getFloodStageFeet())
             .latitude(event.getLatitude())
             .longitude(event.getLongitude())
-            .description(buildDescription(event))
+            .descriptionTemplate(DescriptionTemplate.FLOOD.id())
+            .descriptionParams(descriptionParams(event))
             .timestamp(event.getTimestamp())
+            .sourceKey(event.getStationId() == null || event.getTimestamp() == null ? null
+                : Alert.sourceKey("FLOOD", event.getStationId() + "@" + event.getTimestamp()))
+            .entityKey(AlertStateTracker.entityKey("FLOOD", event.getStationId()))
             .acknowledged(false)
             .createdAt(Instant.now())
             .build();
-        
-        // Save to database
-        alertRepository.save(alert);
-        log.info("Created flood alert: {} - {} - Severity: {}", 
-            event.getStationId(), event.getStationName(), event.getFloodSeverity());
-        
-        // Publish to Kafka based on severity
-        if ("CRITICAL".equals(severity) || "MAJOR".equals(severity)) {
-            kafkaTemplate.send("alerts.critical", alert);
-        } else if ("MODERATE".equals(severity)) {
-            kafkaTemplate.send("alerts.warning", alert);
-        }
     }
 
-    private String determineSeverity(String floodSeverity) {
+    String determineSeverity(String floodSeverity) {
         if (floodSeverity == null) {
             return "MINOR";
         }
@@ -64,31 +95,15 @@ public class FloodAlertService {
         };
     }
 
-    private String buildDescription(FloodAlertEvent event) {
-        StringBuilder desc = new StringBuilder();
-        desc.append(String.format("Flood alert at %s (%s)", 
-            event.getStationName(), event.getStationId()));
-        
-        if (event.getWaterLevelFeet() != null) {
-            desc.append(String.format(": Water level at %.2f ft", event.getWaterLevelFeet()));
-        }
-        
-        if (event.getFloodStageFeet() != null && event.getWaterLevelFeet() != null) {
-            double aboveFloodStage = event.getWaterLevelFeet() - event.getFloodStageFeet();
-            desc.append(String.format(", %.2f ft above flood stage (%.2f ft)", 
-                aboveFloodStage, event.getFloodStageFeet()));
-        }
-        
-        if (event.getFloodSeverity() != null) {
-            desc.append(String.format(". Flood severity: %s", event.getFloodSeverity()));
-        }
-        
-        if ("MAJOR".equalsIgnoreCase(event.getFloodSeverity())) {
-            desc.append(". MAJOR FLOODING - Extensive property damage likely. Evacuate if instructed.");
-        } else if ("MODERATE".equalsIgnoreCase(event.getFloodSeverity())) {
-            desc.append(". Moderate flooding - Some property damage possible.");
-        }
-        
-        return desc.toString();
+    Map<String, Object> descriptionParams(FloodAlertEvent event) {
+        Double aboveFloodStage = event.getFloodStageFeet() != null && event.getWaterLevelFeet() != null
+            ? event.getWaterLevelFeet() - event.getFloodStageFeet() : null;
+        return AlertDescriptions.params(
+            "stationName", event.getStationName(),
+            "stationId", event.getStationId(),
+            "waterLevelFeet", event.getWaterLevelFeet(),
+            "aboveFloodStage", aboveFloodStage,
+            "floodStageFeet", event.getFloodStageFeet(),
+            "floodSeverity", event.getFloodSeverity());
     }
 }
@@ -0,0 +1,128 @@
+package com.aiscientist.alert_engine.service;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Collections;
+import java.util.HexFormat;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import com.aiscientist.alert_engine.repository.RawPayloadRepository;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Content-addressed store for raw event payloads.
+ *
+ * Payloads are hashed (SHA-256), gzip-compressed and inserted once into
+ * raw_payloads; alerts keep only the hash. Hashes stored recently (and
+ * committed) are remembered so repeated payloads skip the database.
+ *
+ * data-collector has its own copy for the same raw_payloads layout, as the
+ * two services share no module; keep their hashing, compression and
+ * remembering in step.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class RawPayloadStore {
+    
+    private static final int RECENT_HASHES = 10_000;
+    
+    private final RawPayloadRepository rawPayloadRepository;
+    
+    private final Set<String> recentHashes = Collections.newSetFromMap(Collections.synchronizedMap(
+            new LinkedHashMap<>(1024, 0.75f, true) {
+                @Override
+                protected boolean removeEldestEntry(Map.Entry<String, Boolean> eldest) {
+                    return size() > RECENT_HASHES;
+                }
+            }));
+    
+    /**
+     * Store a payload if not stored yet
+     *
+     * @return Hash referencing the payload, or null for a null payload
+     */
+    public String store(String payload) {
+        if (payload == null) {
+            return null;
+        }
+        
+        byte[] bytes = payload.getBytes(StandardCharsets.UTF_8);
+        String hash = sha256(bytes);
+        if (recentHashes.contains(hash)) {
+            return hash;
+        }
+        
+        byte[] compressed = gzip(bytes);
+        rawPayloadRepository.insertIfAbsent(hash, compressed, bytes.length, compressed.length);
+        remember(hash);
+        return hash;
+    }
+    
+    /**
+     * Remember a stored hash, inside a transaction only once it commits: a
+     * rolled back insert must not make later identical payloads skip theirs
+     */
+    private void remember(String hash) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            recentHashes.add(hash);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                recentHashes.add(hash);
+            }
+        });
+    }
+    
+    /**
+     * Load and decompress a payload
+     */
+    public Optional<String> load(String hash) {
+        return rawPayloadRepository.findById(hash)
+                .map(payload -> new String(gunzip(payload.getContent()), StandardCharsets.UTF_8));
+    }
+    
+    private static String sha256(byte[] bytes) {
+        try {
+            return HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256").digest(bytes));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+    
+    private static byte[] gzip(byte[] bytes) {
+        ByteArrayOutputStream out = new ByteArrayOutputStream(Math.max(64, bytes.length / 4));
+        try (GZIPOutputStream gzip = new GZIPOutputStream(out)) {
+            gzip.write(bytes);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return out.toByteArray();
+    }
+    
+    private static byte[] gunzip(byte[] bytes) {
+        try (GZIPInputStream gzip = new GZIPInputStream(new ByteArrayInputStream(bytes))) {
+            return gzip.readAllBytes();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
@@ -1,30 +1,59 @@
 package com.aiscientist.alert_engine.service;
 
+import com.aiscientist.alert_engine.config.KafkaConfig;
+import com.aiscientist.alert_engine.correlation.CorrelationEngine;
+import com.aiscientist.alert_engine.description.AlertDescriptions;
+import com.aiscientist.alert_engine.description.DescriptionTemplate;
 import com.aiscientist.alert_engine.dto.EarthquakeEvent;
+import com.aiscientist.alert_engine.metrics.IngestMetrics;
 import com.aiscientist.alert_engine.model.Alert;
-import com.aiscientist.alert_engine.repository.AlertRepository;
+import com.aiscientist.alert_engine.repository.AlertBulkRepository;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.kafka.core.KafkaTemplate;
 import org.springframework.stereotype.Service;
 
 import java.time.Instant;
+import java.util.Map;
 
 @Service
 @Slf4j
 @RequiredArgsConstructor
 public class TsunamiAlertService {
 
-    private final AlertRepository alertRepository;
-    private final KafkaTemplate<String, Alert> kafkaTemplate;
+    private final AlertBulkRepository alertBulkRepository;
+    @Qualifier(KafkaConfig.PRIORITY_KAFKA_TEMPLATE)
+    private final KafkaTemplate<String, Alert> priorityKafkaTemplate;
+    private final IngestMetrics ingestMetrics;
+    private final AlertDescriptions alertDescriptions;
+    private final CorrelationEngine correlationEngine;
 
     public void processTsunamiWarning(EarthquakeEvent event) {
-        // Determine severity based on tsunami risk score
-        String severity = determineSeverity(event.getTsunamiRiskScore());
+        Alert alert = buildAlert(event);
+        // Save to database, unless stored already (redelivered, or raced by another listener thread)
+        if (!ingestMetrics.timeInsert(alert, () -> alertBulkRepository.insertIfAbsent(alert))) {
+            return;
+        }
+        
+        log.warn("Created tsunami alert: {} - Risk Score: {}, Location: {}", 
+            event.getEarthquakeId(), event.getTsunamiRiskScore(), event.getLocation());
+        
+        // Link to an incident of related alerts
+        correlationEngine.correlate(alert);
         
-        Alert alert = Alert.builder()
+        // Always publish tsunami warnings to critical topic, on the priority lane's producer
+        ingestMetrics.observePublish("alerts.critical", priorityKafkaTemplate.send("alerts.critical", alertDescriptions.withDescription(alert)));
+    }
+
+    /**
+     * The alert for a tsunami warning. No side effects, so replay can
+     * recompute alerts with it.
+     */
+    public Alert buildAlert(EarthquakeEvent event) {
+        return Alert.builder()
             .alertType("TSUNAMI")
-            .severity(severity)
+            .severity(determineSeverity(event.getTsunamiRiskScore()))
             .earthquakeId(event.getEarthquakeId())
             .magnitude(event.getMagnitude())
             .tsunamiRiskScore(event.getTsunamiRiskScore())
@@ -32,19 +61,13 @@ public class TsunamiAlertService {
             .region(event.getRegion())
             .latitude(event.getLatitude())
             .longitude(event.getLongitude())
-            .description(buildDescription(event))
+            .descriptionTemplate(DescriptionTemplate.TSUNAMI.id())
+            .descriptionParams(descriptionParams(event))
             .timestamp(event.getEventTime())
+            .sourceKey(Alert.sourceKey("TSUNAMI", event.getEarthquakeId()))
             .acknowledged(false)
             .createdAt(Instant.now())
             .build();
-        
-        // Save to database
-        alertRepository.save(alert);
-        log.warn("Created tsunami alert: {} - Risk Score: {}, Location: {}", 
-            event.getEarthquakeId(), event.getTsunamiRiskScore(), event.getLocation());
-        
-        // Always publish tsunami warnings to critical topic
-        kafkaTemplate.send("alerts.critical", alert);
     }
 
     private String determineSeverity(Integer riskScore) {
@@ -63,21 +86,10 @@ public class TsunamiAlertService {
         }
     }
 
-    private String buildDescription(EarthquakeEvent event) {
-        StringBuilder desc = new StringBuilder();
-        desc.append(String.format("TSUNAMI WARNING: Magnitude %.1f earthquake at %s", 
-            event.getMagnitude(), event.getLocation()));
-        
-        if (event.getTsunamiRiskScore() != null) {
-            desc.append(String.format(" with tsunami risk score of %d", event.getTsunamiRiskScore()));
-        }
-        
-        desc.append(". Coastal areas should prepare for potential tsunami waves.");
-        
-        if (event.getTsunamiRiskScore() != null && event.getTsunamiRiskScore() >= 70) {
-            desc.append(" IMMEDIATE EVACUATION RECOMMENDED for coastal communities.");
-        }
-        
-        return desc.toString();
+    private Map<String, Object> descriptionParams(EarthquakeEvent event) {
+        return AlertDescriptions.params(
+            "magnitude", event.getMagnitude(),
+            "location", event.getLocation(),
+            "riskScore", event.getTsunamiRiskScore());
     }
 }
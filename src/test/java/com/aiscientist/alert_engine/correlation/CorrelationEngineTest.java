@@ -0,0 +1,87 @@
+package com.aiscientist.alert_engine.correlation;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.UUID;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import com.aiscientist.alert_engine.model.Alert;
+import com.aiscientist.alert_engine.repository.IncidentRepository;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+class CorrelationEngineTest {
+
+    private static final Instant T0 = Instant.now().minus(1, ChronoUnit.DAYS);
+
+    private final IncidentRepository incidentRepository = mock(IncidentRepository.class);
+    private final CorrelationEngine engine = new CorrelationEngine(incidentRepository, new SimpleMeterRegistry(), true,
+            Duration.ofHours(6), Duration.ofHours(24), 1.0, Duration.ofHours(12), Duration.ofHours(96),
+            Duration.ofHours(12), 100);
+
+    @AfterEach
+    void clearSynchronization() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    @Test
+    void correlate_shouldStoreIncidentOutsideTransactionRightAway() {
+        engine.correlate(earthquake(T0));
+        engine.correlate(earthquake(T0.plus(Duration.ofMinutes(5))));
+
+        verify(incidentRepository).upsert(any(), anyString(), anyString(), any(), any(), anyInt());
+        verify(incidentRepository, times(2)).addAlert(any(), any());
+    }
+
+    @Test
+    void correlate_shouldWaitForCommit() {
+        engine.correlate(earthquake(T0));
+        TransactionSynchronizationManager.initSynchronization();
+        engine.correlate(earthquake(T0.plus(Duration.ofMinutes(5))));
+        verify(incidentRepository, never()).upsert(any(), anyString(), anyString(), any(), any(), anyInt());
+
+        TransactionSynchronizationManager.getSynchronizations().forEach(TransactionSynchronization::afterCommit);
+
+        verify(incidentRepository).upsert(any(), anyString(), anyString(), any(), any(), anyInt());
+    }
+
+    @Test
+    void correlate_shouldForgetAlertOfRolledBackTransaction() {
+        TransactionSynchronizationManager.initSynchronization();
+        engine.correlate(earthquake(T0));
+        TransactionSynchronizationManager.getSynchronizations()
+                .forEach(sync -> sync.afterCompletion(TransactionSynchronization.STATUS_ROLLED_BACK));
+        TransactionSynchronizationManager.clearSynchronization();
+
+        // The redelivered alert opens the incident instead of joining the rolled back one
+        engine.correlate(earthquake(T0));
+        verify(incidentRepository, never()).upsert(any(), anyString(), anyString(), any(), any(), anyInt());
+    }
+
+    private static Alert earthquake(Instant timestamp) {
+        return Alert.builder()
+                .id(UUID.randomUUID())
+                .alertType("EARTHQUAKE")
+                .severity("MODERATE")
+                .timestamp(timestamp)
+                .latitude(10.5)
+                .longitude(20.5)
+                .earthquakeId("us7000abcd")
+                .build();
+    }
+}
@@ -0,0 +1,154 @@
+package com.aiscientist.alert_engine.correlation;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+import org.junit.jupiter.api.Test;
+
+import com.aiscientist.alert_engine.model.Alert;
+
+class IncidentWindowsTest {
+
+    private static final Instant T0 = Instant.now().minus(30, ChronoUnit.DAYS);
+
+    private IncidentWindows windows = windows(100);
+
+    @Test
+    void add_shouldJoinTsunamiToItsEarthquake() {
+        Alert earthquake = located("EARTHQUAKE", "MODERATE", T0, 10.5, 20.5, "us7000abcd");
+        Alert tsunami = located("TSUNAMI", "CRITICAL", T0.plus(Duration.ofMinutes(10)), null, null, "us7000abcd");
+
+        assertTrue(windows.add(earthquake).isEmpty());
+        IncidentWindows.Update update = windows.add(tsunami).orElseThrow();
+
+        assertEquals(IncidentWindows.SAME_EARTHQUAKE, update.rule());
+        assertEquals("SEISMIC", update.incidentType());
+        assertEquals("CRITICAL", update.severity());
+        assertEquals(2, update.alertCount());
+        assertEquals(List.of(earthquake.getId(), tsunami.getId()), update.newAlertIds());
+        assertEquals(T0, update.startedAt());
+    }
+
+    @Test
+    void add_shouldJoinAlertInNeighbourCellButNotFurtherAway() {
+        windows.add(located("EARTHQUAKE", "MINOR", T0, 10.9, 20.9, null));
+
+        Optional<IncidentWindows.Update> neighbour = windows.add(
+                located("FLOOD", "MODERATE", T0.plus(Duration.ofHours(3)), 11.1, 21.1, null));
+        Optional<IncidentWindows.Update> distant = windows.add(
+                located("FLOOD", "MODERATE", T0.plus(Duration.ofHours(4)), 13.5, 20.9, null));
+
+        assertEquals(IncidentWindows.SAME_AREA, neighbour.orElseThrow().rule());
+        assertEquals("MULTI_HAZARD", neighbour.orElseThrow().incidentType());
+        assertEquals(2, neighbour.orElseThrow().alertCount());
+        assertTrue(distant.isEmpty());
+    }
+
+    @Test
+    void add_shouldJoinStormToCmeOnlyWithinTransitWindow() {
+        windows.add(cme(T0));
+        assertTrue(windows.add(storm(T0.plus(Duration.ofHours(6)))).isEmpty());
+
+        windows = windows(100);
+        windows.add(cme(T0));
+        IncidentWindows.Update arrival = windows.add(storm(T0.plus(Duration.ofHours(30)))).orElseThrow();
+        assertEquals(IncidentWindows.CME_ARRIVAL, arrival.rule());
+        assertEquals("SPACE_WEATHER", arrival.incidentType());
+
+        windows = windows(100);
+        windows.add(cme(T0));
+        assertTrue(windows.add(storm(T0.plus(Duration.ofDays(5)))).isEmpty());
+    }
+
+    @Test
+    void add_shouldKeepConsecutiveStormAlertsInOneIncident() {
+        windows.add(storm(T0));
+
+        IncidentWindows.Update update = windows.add(storm(T0.plus(Duration.ofHours(9)))).orElseThrow();
+
+        assertEquals(IncidentWindows.SAME_STORM, update.rule());
+        assertTrue(windows.add(storm(T0.plus(Duration.ofHours(30)))).isEmpty());
+    }
+
+    @Test
+    void add_shouldEvictKeysOnceWatermarkPassesTheirWindow() {
+        windows.add(located("EARTHQUAKE", "MINOR", T0, 10.5, 20.5, "first"));
+        assertEquals(1, windows.size(IncidentWindows.SAME_EARTHQUAKE));
+
+        // A later alert elsewhere moves the watermark past the first earthquake's window
+        windows.add(located("EARTHQUAKE", "MINOR", T0.plus(Duration.ofHours(7)), -40.5, 170.5, "second"));
+
+        assertEquals(1, windows.size(IncidentWindows.SAME_EARTHQUAKE));
+        assertEquals(2, windows.size(IncidentWindows.SAME_AREA));
+        assertTrue(windows.add(located("TSUNAMI", "MAJOR", T0.plus(Duration.ofHours(1)), null, null, "first"))
+                .isEmpty());
+    }
+
+    @Test
+    void add_shouldDropLeastRecentlyRefreshedKeysBeyondMaxKeys() {
+        windows = windows(2);
+        windows.add(located("EARTHQUAKE", "MINOR", T0, 10.5, 20.5, "first"));
+        windows.add(located("EARTHQUAKE", "MINOR", T0.plus(Duration.ofMinutes(1)), 30.5, 40.5, "second"));
+        windows.add(located("EARTHQUAKE", "MINOR", T0.plus(Duration.ofMinutes(2)), 50.5, 60.5, "third"));
+
+        assertEquals(2, windows.size(IncidentWindows.SAME_EARTHQUAKE));
+        assertEquals(2, windows.size(IncidentWindows.SAME_AREA));
+        assertTrue(windows.add(located("TSUNAMI", "MAJOR", T0.plus(Duration.ofMinutes(3)), null, null, "first"))
+                .isEmpty());
+        assertTrue(windows.add(located("TSUNAMI", "MAJOR", T0.plus(Duration.ofMinutes(4)), null, null, "third"))
+                .isPresent());
+    }
+
+    @Test
+    void add_shouldIgnoreAlertsWithoutIdOrTimestamp() {
+        Alert alert = located("EARTHQUAKE", "MINOR", T0, 10.5, 20.5, "first");
+        alert.setId(null);
+
+        assertTrue(windows.add(alert).isEmpty());
+        assertEquals(0, windows.size(IncidentWindows.SAME_EARTHQUAKE));
+    }
+
+    private static IncidentWindows windows(int maxKeys) {
+        return new IncidentWindows(new IncidentWindows.Settings(Duration.ofHours(6), Duration.ofHours(24), 1.0,
+                Duration.ofHours(12), Duration.ofHours(96), Duration.ofHours(12), maxKeys));
+    }
+
+    private static Alert located(String type, String severity, Instant timestamp, Double latitude, Double longitude,
+                                 String earthquakeId) {
+        return Alert.builder()
+                .id(UUID.randomUUID())
+                .alertType(type)
+                .severity(severity)
+                .timestamp(timestamp)
+                .latitude(latitude)
+                .longitude(longitude)
+                .earthquakeId(earthquakeId)
+                .build();
+    }
+
+    private static Alert cme(Instant timestamp) {
+        return Alert.builder()
+                .id(UUID.randomUUID())
+                .alertType("CME")
+                .severity("MODERATE")
+                .timestamp(timestamp)
+                .sourceKey(Alert.sourceKey("CME", timestamp.toString()))
+                .build();
+    }
+
+    private static Alert storm(Instant timestamp) {
+        return Alert.builder()
+                .id(UUID.randomUUID())
+                .alertType("GEOMAGNETIC_STORM")
+                .severity("MINOR")
+                .timestamp(timestamp)
+                .build();
+    }
+}
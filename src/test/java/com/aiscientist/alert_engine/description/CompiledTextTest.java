@@ -0,0 +1,50 @@
+package com.aiscientist.alert_engine.description;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.util.Locale;
+import java.util.Map;
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+
+class CompiledTextTest {
+
+    @Test
+    void appendFixed_shouldMatchFormatterOnHalfwayValues() {
+        double[] values = {2.675, 1.005, 0.125, 0.5, 1.5, 2.5, -0.5, -2.675, 7.335, 8.345, 1.0005, 0.0, -0.0,
+                -0.001, 123456.785, 1e17, 4.35, 5.45};
+        for (double value : values) {
+            for (int decimals = 0; decimals <= 3; decimals++) {
+                assertFormatted(value, decimals);
+            }
+        }
+    }
+
+    @Test
+    void appendFixed_shouldMatchFormatterOnRandomValues() {
+        Random random = new Random(42);
+        for (int i = 0; i < 100_000; i++) {
+            // Values like the ones alerts carry, with 1 to 4 decimals so ties are common
+            double value = Math.round((random.nextDouble() * 2000 - 1000) * 10_000) / Math.pow(10, 1 + random.nextInt(4));
+            assertFormatted(value, random.nextInt(4));
+        }
+    }
+
+    @Test
+    void appendTo_shouldFillSlotsAndSkipMissingParameters() {
+        CompiledText text = CompiledText.compile("M{magnitude:1} earthquake near {location}{missing}.");
+        StringBuilder out = new StringBuilder();
+
+        text.appendTo(out, Map.of("magnitude", 6.25, "location", "Fiji"), ',');
+
+        assertEquals("M6,3 earthquake near Fiji.", out.toString());
+    }
+
+    private static void assertFormatted(double value, int decimals) {
+        StringBuilder out = new StringBuilder();
+        CompiledText.appendFixed(out, value, decimals, '.');
+        assertEquals(String.format(Locale.ROOT, "%." + decimals + "f", value), out.toString(),
+                () -> value + " with " + decimals + " decimals");
+    }
+}
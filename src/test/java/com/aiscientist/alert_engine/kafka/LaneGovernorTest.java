@@ -0,0 +1,155 @@
+package com.aiscientist.alert_engine.kafka;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.kafka.config.KafkaListenerEndpointRegistry;
+import org.springframework.kafka.listener.MessageListenerContainer;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+class LaneGovernorTest {
+
+    private static final String PRIORITY_GROUP = "alert-engine-priority";
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final KafkaListenerEndpointRegistry registry = mock(KafkaListenerEndpointRegistry.class);
+    private final MessageListenerContainer standard = container("alert-engine");
+    private final MessageListenerContainer standardRetry = container("alert-engine-retry-0");
+    private final MessageListenerContainer priority = container(PRIORITY_GROUP);
+    private final MessageListenerContainer priorityRetry = container(PRIORITY_GROUP + "-retry-0");
+
+    @BeforeEach
+    void setUp() {
+        when(registry.getAllListenerContainers()).thenReturn(List.of(standard, standardRetry, priority, priorityRetry));
+    }
+
+    @Test
+    void govern_shouldPauseOnlyStandardContainersWhilePriorityP99IsHigh() {
+        LaneGovernor governor = governor(Duration.ZERO, Duration.ofHours(1));
+        slowPriorityRecords(governor);
+
+        governor.govern();
+
+        verify(standard).pause();
+        verify(standardRetry).pause();
+        verify(priority, never()).pause();
+        verify(priorityRetry, never()).pause();
+        assertEquals(1.0, meterRegistry.get("alert.lanes.standard.paused").gauge().value());
+    }
+
+    @Test
+    void govern_shouldStayPausedUntilP99FallsBelowResumeBelow() {
+        LaneGovernor governor = governor(Duration.ZERO, Duration.ofHours(1));
+        slowPriorityRecords(governor);
+
+        governor.govern();
+        governor.govern();
+
+        verify(standard, times(1)).pause();
+        verify(standard, never()).resume();
+    }
+
+    @Test
+    void govern_shouldResumeAfterMaxPauseAndNotPauseAgainWithinMinPause() {
+        LaneGovernor governor = governor(Duration.ofHours(1), Duration.ZERO);
+        slowPriorityRecords(governor);
+
+        governor.govern();
+        when(standard.isPauseRequested()).thenReturn(true);
+        governor.govern();
+        governor.govern();
+
+        verify(standard).resume();
+        verify(standard, times(1)).pause();
+        verify(priority, never()).resume();
+        assertEquals(0.0, meterRegistry.get("alert.lanes.standard.paused").gauge().value());
+    }
+
+    @Test
+    void govern_shouldNotPauseWhilePriorityLaneIsFast() {
+        LaneGovernor governor = governor(Duration.ZERO, Duration.ofHours(1));
+        governor.runPriority(() -> { });
+
+        governor.govern();
+
+        verify(standard, never()).pause();
+    }
+
+    @Test
+    void runStandard_shouldBackOffWhenNoPermitIsFreeWithinConnectionWait() throws Exception {
+        LaneGovernor governor = governor(Duration.ZERO, Duration.ofHours(1));
+        CountDownLatch holding = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        try {
+            // Pool of 4 with 3 reserved leaves one permit
+            executor.submit(() -> governor.runStandard(() -> {
+                holding.countDown();
+                await(release);
+            }));
+            assertTrue(holding.await(5, TimeUnit.SECONDS));
+
+            assertThrows(LaneGovernor.StandardLaneBusyException.class, () -> governor.runStandard(() -> { }));
+            assertEquals(1.0, meterRegistry.get("alert.lanes.standard.busy").counter().count());
+
+            release.countDown();
+            AtomicBoolean ran = new AtomicBoolean();
+            governor.runStandard(() -> ran.set(true));
+            assertTrue(ran.get());
+        } finally {
+            release.countDown();
+            executor.shutdownNow();
+        }
+    }
+
+    private LaneGovernor governor(Duration minPause, Duration maxPause) {
+        return new LaneGovernor(registry, meterRegistry, 4, 3, PRIORITY_GROUP, Duration.ofMillis(200),
+                Duration.ofMillis(10), Duration.ofMillis(5), Duration.ofSeconds(30), minPause, maxPause);
+    }
+
+    private static void slowPriorityRecords(LaneGovernor governor) {
+        for (int i = 0; i < 3; i++) {
+            governor.runPriority(() -> sleep(30));
+        }
+    }
+
+    private static MessageListenerContainer container(String groupId) {
+        MessageListenerContainer container = mock(MessageListenerContainer.class);
+        when(container.getGroupId()).thenReturn(groupId);
+        when(container.isRunning()).thenReturn(true);
+        return container;
+    }
+
+    private static void sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
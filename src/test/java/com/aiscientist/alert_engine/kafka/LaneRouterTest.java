@@ -0,0 +1,45 @@
+package com.aiscientist.alert_engine.kafka;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.nio.charset.StandardCharsets;
+
+import org.apache.kafka.common.header.Headers;
+import org.apache.kafka.common.header.internals.RecordHeaders;
+import org.junit.jupiter.api.Test;
+
+class LaneRouterTest {
+
+    private static final String TSUNAMIS = "raw.tsunami.warning";
+    private static final String EARTHQUAKES = "raw.earthquake.data";
+    private static final String EARTHQUAKE_ALERTS = "raw.earthquake.alert";
+
+    private final LaneRouter router = new LaneRouter(TSUNAMIS, EARTHQUAKES, EARTHQUAKE_ALERTS, 7.0);
+
+    @Test
+    void laneOf_shouldRouteTsunamiWarningsToPriorityLane() {
+        assertEquals(LaneRouter.Lane.PRIORITY, router.laneOf(TSUNAMIS, null));
+        assertEquals(LaneRouter.Lane.PRIORITY, router.laneOf(TSUNAMIS + "-retry-1", new RecordHeaders()));
+    }
+
+    @Test
+    void laneOf_shouldRouteEarthquakesByMagnitudeBand() {
+        assertEquals(LaneRouter.Lane.PRIORITY, router.laneOf(EARTHQUAKES, band("7.0")));
+        assertEquals(LaneRouter.Lane.PRIORITY, router.laneOf(EARTHQUAKE_ALERTS + "-retry-0", band("8.5")));
+        assertEquals(LaneRouter.Lane.STANDARD, router.laneOf(EARTHQUAKES, band("6.5")));
+    }
+
+    @Test
+    void laneOf_shouldKeepEarthquakesWithoutBandAndOtherTopicsOnStandardLane() {
+        assertEquals(LaneRouter.Lane.STANDARD, router.laneOf(EARTHQUAKES, null));
+        assertEquals(LaneRouter.Lane.STANDARD, router.laneOf(EARTHQUAKES, new RecordHeaders()));
+        assertEquals(LaneRouter.Lane.STANDARD, router.laneOf(EARTHQUAKES, band("unknown")));
+        assertEquals(LaneRouter.Lane.STANDARD, router.laneOf("raw.flood.alert", band("9.0")));
+    }
+
+    private static Headers band(String band) {
+        RecordHeaders headers = new RecordHeaders();
+        headers.add(RecordPrefilter.MAGNITUDE_BAND, band.getBytes(StandardCharsets.UTF_8));
+        return headers;
+    }
+}
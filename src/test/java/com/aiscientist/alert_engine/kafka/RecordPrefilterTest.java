@@ -0,0 +1,88 @@
+package com.aiscientist.alert_engine.kafka;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Set;
+
+import org.apache.kafka.common.header.Headers;
+import org.apache.kafka.common.header.internals.RecordHeaders;
+import org.junit.jupiter.api.Test;
+
+import com.aiscientist.alert_engine.metrics.IngestMetrics;
+import com.aiscientist.alert_engine.service.AlertDetectionService;
+import com.aiscientist.alert_engine.service.AlertStateTracker;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+class RecordPrefilterTest {
+
+    private static final String EARTHQUAKES = "raw.earthquake.data";
+    private static final String KP = "raw.spaceweather.kp";
+    private static final String FLOODS = "raw.flood.alert";
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final AlertStateTracker alertStateTracker = mock(AlertStateTracker.class);
+    private final RecordPrefilter prefilter = new RecordPrefilter(new IngestMetrics(meterRegistry), alertStateTracker,
+            EARTHQUAKES, "raw.earthquake.alert", KP, FLOODS, 4.0, Set.of("legacy"), true);
+
+    @Test
+    void accept_shouldDropEarthquakesBelowTheAlertMagnitudeBand() {
+        assertFalse(prefilter.accept(EARTHQUAKES, headers(RecordPrefilter.MAGNITUDE_BAND, "4.0")));
+        // 5.0 is the band of magnitudes 5.0-5.9, all of which alert
+        assertTrue(prefilter.accept(EARTHQUAKES, headers(RecordPrefilter.MAGNITUDE_BAND, "5.0")));
+        assertEquals(1.0, filtered(EARTHQUAKES, "magnitude"));
+    }
+
+    @Test
+    void accept_shouldDropKpBelowThresholdOnlyWithoutOpenStorm() {
+        when(alertStateTracker.mayHaveOpenAlert(AlertDetectionService.STORM_ENTITY_KEY)).thenReturn(false);
+        assertFalse(prefilter.accept(KP, headers(RecordPrefilter.KP, "3.67")));
+        assertTrue(prefilter.accept(KP, headers(RecordPrefilter.KP, "4.0")));
+
+        when(alertStateTracker.mayHaveOpenAlert(AlertDetectionService.STORM_ENTITY_KEY)).thenReturn(true);
+        assertTrue(prefilter.accept(KP, headers(RecordPrefilter.KP, "3.67")));
+        assertEquals(1.0, filtered(KP, "kp"));
+    }
+
+    @Test
+    void accept_shouldDropFloodReadingsThatAreNotFlooding() {
+        assertFalse(prefilter.accept(FLOODS, headers(RecordPrefilter.FLOOD_SEVERITY, "NONE")));
+        assertTrue(prefilter.accept(FLOODS, headers(RecordPrefilter.FLOOD_SEVERITY, "ACTION")));
+        assertEquals(1.0, filtered(FLOODS, "not-flooding"));
+    }
+
+    @Test
+    void accept_shouldDropRecordsOfExcludedSourcesOnRetryTopicsToo() {
+        Headers headers = headers(RecordPrefilter.SOURCE, "legacy");
+        headers.add(RecordPrefilter.MAGNITUDE_BAND, "7.0".getBytes(StandardCharsets.UTF_8));
+
+        assertFalse(prefilter.accept(EARTHQUAKES + "-retry-0", headers));
+        assertTrue(prefilter.accept(EARTHQUAKES, headers(RecordPrefilter.SOURCE, "usgs")));
+        assertEquals(1.0, filtered(EARTHQUAKES, "source"));
+    }
+
+    @Test
+    void accept_shouldPassRecordsWithoutHeaders() {
+        assertTrue(prefilter.accept(EARTHQUAKES, new RecordHeaders()));
+        assertTrue(prefilter.accept(KP, new RecordHeaders()));
+        assertTrue(prefilter.accept(FLOODS, null));
+        assertTrue(prefilter.accept(KP, headers(RecordPrefilter.KP, "not-a-number")));
+        assertNull(meterRegistry.find("alert.ingest.filtered").counter());
+    }
+
+    private static Headers headers(String key, String value) {
+        RecordHeaders headers = new RecordHeaders();
+        headers.add(key, value.getBytes(StandardCharsets.UTF_8));
+        return headers;
+    }
+
+    private double filtered(String topic, String reason) {
+        return meterRegistry.get("alert.ingest.filtered").tags("topic", topic, "reason", reason).counter().count();
+    }
+}
@@ -0,0 +1,315 @@
+package com.aiscientist.alert_engine.load;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+import java.util.stream.Collectors;
+
+import org.apache.kafka.clients.admin.AdminClient;
+import org.apache.kafka.clients.admin.AdminClientConfig;
+import org.apache.kafka.clients.admin.OffsetSpec;
+import org.apache.kafka.clients.consumer.ConsumerConfig;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.apache.kafka.clients.consumer.KafkaConsumer;
+import org.apache.kafka.clients.consumer.OffsetAndMetadata;
+import org.apache.kafka.clients.producer.KafkaProducer;
+import org.apache.kafka.clients.producer.ProducerConfig;
+import org.apache.kafka.clients.producer.ProducerRecord;
+import org.apache.kafka.common.TopicPartition;
+import org.apache.kafka.common.serialization.ByteArrayDeserializer;
+import org.apache.kafka.common.serialization.ByteArraySerializer;
+import org.apache.kafka.common.serialization.StringDeserializer;
+import org.apache.kafka.common.serialization.StringSerializer;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.kafka.config.KafkaListenerEndpointRegistry;
+import org.springframework.kafka.listener.MessageListenerContainer;
+import org.springframework.kafka.support.JacksonUtils;
+import org.springframework.kafka.test.EmbeddedKafkaBroker;
+import org.springframework.kafka.test.context.EmbeddedKafka;
+import org.springframework.kafka.test.utils.ContainerTestUtils;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * End-to-end throughput harness: the full alert-engine context against an
+ * embedded Kafka broker and the configured database, fed by a synthetic or
+ * recorded event stream at a configurable rate and shape.
+ *
+ * Measures the offered and sustained events/sec, event-to-alert latency
+ * (send until the alert shows up on alerts.critical / alerts.warning) and
+ * the alert-engine consumer group's lag, and writes a {@link LoadReport}.
+ * Lag is read from committed offsets, which the consumers auto-commit every
+ * 5s, so lag and consumed counts move in 5s steps.
+ *
+ * Opt-in, not part of the regular build. Needs the database from
+ * spring.datasource.* (docker compose in infra/, or -Dspring.datasource.url=...):
+ *
+ * mvn test -Dtest=AlertEngineLoadTest -Dloadtest=true -Dloadtest.rate=500 -Dloadtest.shape=RAMP
+ *
+ * See {@link LoadProfile} for the other -Dloadtest.* options.
+ */
+@SpringBootTest(properties = {
+    "spring.kafka.bootstrap-servers=${spring.embedded.kafka.brokers}",
+    "eureka.client.enabled=false",
+    // Event times lie in the past, the TTL sweep would close the harness's alerts mid-run
+    "app.alert.state.sweep-interval=PT24H",
+    "logging.level.com.aiscientist.alert_engine=WARN",
+    "logging.level.org.hibernate.SQL=WARN"
+})
+@EmbeddedKafka(partitions = AlertEngineLoadTest.PARTITIONS, topics = {
+    LoadProfile.EARTHQUAKE_DATA, LoadProfile.EARTHQUAKE_ALERT, LoadProfile.FLOOD_ALERT,
+    LoadProfile.KP_INDEX, LoadProfile.CME, LoadProfile.TSUNAMI_WARNING,
+    AlertEngineLoadTest.ALERTS_CRITICAL, AlertEngineLoadTest.ALERTS_WARNING
+})
+@EnabledIfSystemProperty(named = "loadtest", matches = "true")
+@Slf4j
+class AlertEngineLoadTest {
+
+    static final int PARTITIONS = 3;
+    static final String ALERTS_CRITICAL = "alerts.critical";
+    static final String ALERTS_WARNING = "alerts.warning";
+
+    private static final long LAG_SAMPLE_MILLIS = 500;
+
+    @Autowired
+    private EmbeddedKafkaBroker broker;
+
+    @Autowired
+    private KafkaListenerEndpointRegistry listenerRegistry;
+
+    @Value("${spring.kafka.consumer.group-id}")
+    private String groupId;
+
+    private final ObjectMapper objectMapper = JacksonUtils.enhancedObjectMapper();
+
+    /** Correlation key to System.nanoTime() at send */
+    private final Map<String, Long> pending = new ConcurrentHashMap<>();
+    private final List<Long> latencies = new ArrayList<>();
+    private final AtomicLong maxLag = new AtomicLong();
+    private final AtomicBoolean running = new AtomicBoolean(true);
+
+    @Test
+    void measureThroughput() throws Exception {
+        LoadProfile profile = LoadProfile.fromSystemProperties();
+        Instant startedAt = Instant.now();
+        EventStreams.EventStream stream = EventStreams.of(profile, objectMapper, startedAt);
+        log.warn("Load run: {}", profile);
+
+        for (MessageListenerContainer container : listenerRegistry.getListenerContainers()) {
+            ContainerTestUtils.waitForAssignment(container,
+                    container.getContainerProperties().getTopics().length * PARTITIONS);
+        }
+
+        ExecutorService alertReader = Executors.newSingleThreadExecutor();
+        ScheduledExecutorService lagSampler = Executors.newSingleThreadScheduledExecutor();
+        try (AdminClient admin = AdminClient.create(Map.of(
+                     AdminClientConfig.BOOTSTRAP_SERVERS_CONFIG, broker.getBrokersAsString()));
+             KafkaProducer<String, byte[]> producer = producer()) {
+
+            KafkaConsumer<String, byte[]> alertConsumer = alertConsumer();
+            // The reader thread owns the consumer from here on
+            alertReader.submit(() -> {
+                try (alertConsumer) {
+                    readAlerts(alertConsumer);
+                }
+            });
+            lagSampler.scheduleAtFixedRate(() -> sampleLag(admin), 0, LAG_SAMPLE_MILLIS, TimeUnit.MILLISECONDS);
+
+            // Send phase
+            Map<String, Long> sentByTopic = EventStreams.emptyCounts();
+            long expectedAlerts = 0;
+            long sent = 0;
+            double due = 0;
+            long start = System.nanoTime();
+            long last = start;
+            long end = start + profile.duration().toNanos();
+            while (System.nanoTime() < end) {
+                long now = System.nanoTime();
+                due += profile.rateAt((now - start) / 1e9) * (now - last) / 1e9;
+                last = now;
+                for (; sent < (long) due; sent++) {
+                    EventStreams.LoadEvent event = stream.next(sent);
+                    if (event.correlationKey() != null) {
+                        pending.put(event.correlationKey(), System.nanoTime());
+                        expectedAlerts++;
+                    }
+                    producer.send(new ProducerRecord<>(event.topic(), event.key(),
+                            objectMapper.writeValueAsBytes(event.value())));
+                    sentByTopic.merge(event.topic(), 1L, Long::sum);
+                }
+                LockSupport.parkNanos(1_000_000);
+            }
+            producer.flush();
+            double sendSeconds = (System.nanoTime() - start) / 1e9;
+            long lagAtEndOfSend = lag(admin);
+
+            // Drain phase: until the consumers have committed everything and no more alerts arrive
+            long drainStart = System.nanoTime();
+            long drainDeadline = drainStart + profile.drainTimeout().toNanos();
+            long lag = lagAtEndOfSend;
+            while (lag > 0 && System.nanoTime() < drainDeadline) {
+                Thread.sleep(LAG_SAMPLE_MILLIS);
+                lag = lag(admin);
+            }
+            double drainSeconds = (System.nanoTime() - drainStart) / 1e9;
+            long matched = awaitAlerts(drainDeadline);
+
+            long consumed = committed(admin).values().stream().mapToLong(Long::longValue).sum();
+            double consumeSeconds = sendSeconds + drainSeconds;
+            double offered = sent / sendSeconds;
+            double sustained = consumed / consumeSeconds;
+            LoadReport report = new LoadReport(startedAt, profile, sentByTopic, sent, sendSeconds, offered,
+                    consumed, consumeSeconds, sustained, expectedAlerts, matched,
+                    LoadReport.Latency.of(latencies()), maxLag.get(), lagAtEndOfSend, lag, drainSeconds,
+                    lag == 0 && sustained >= 0.95 * offered);
+            report.writeTo(profile.reportFile(), objectMapper);
+
+            log.warn("Load run finished: sent={} offered={}/s sustained={}/s latency p50={}ms p99={}ms maxLag={} keptUp={} report={}",
+                    sent, Math.round(offered), Math.round(sustained),
+                    report.eventToAlertMillis().p50(), report.eventToAlertMillis().p99(),
+                    report.maxConsumerLag(), report.keptUp(), profile.reportFile().toAbsolutePath());
+            assertTrue(sent > 0, "No events sent, check loadtest.rate and loadtest.duration");
+        } finally {
+            running.set(false);
+            lagSampler.shutdownNow();
+            alertReader.shutdown();
+            alertReader.awaitTermination(5, TimeUnit.SECONDS);
+        }
+    }
+
+    private void readAlerts(KafkaConsumer<String, byte[]> consumer) {
+        while (running.get()) {
+            for (ConsumerRecord<String, byte[]> record : consumer.poll(Duration.ofMillis(100))) {
+                long receivedAt = System.nanoTime();
+                try {
+                    JsonNode alert = objectMapper.readTree(record.value());
+                    Instant timestamp = objectMapper.treeToValue(alert.get("timestamp"), Instant.class);
+                    Long sentAt = pending.remove(alert.path("alertType").asText() + "|" + timestamp);
+                    if (sentAt != null) {
+                        synchronized (latencies) {
+                            latencies.add(TimeUnit.NANOSECONDS.toMillis(receivedAt - sentAt));
+                        }
+                    }
+                } catch (Exception e) {
+                    log.debug("Skipping unreadable alert: {}", e.getMessage());
+                }
+            }
+        }
+    }
+
+    /**
+     * Wait until no new alert has matched for two seconds, or the deadline
+     */
+    private long awaitAlerts(long deadline) throws InterruptedException {
+        long matched = -1;
+        while (System.nanoTime() < deadline) {
+            Thread.sleep(2000);
+            long now = latencies().length;
+            if (now == matched || pending.isEmpty()) {
+                return now;
+            }
+            matched = now;
+        }
+        return latencies().length;
+    }
+
+    private long[] latencies() {
+        synchronized (latencies) {
+            return latencies.stream().mapToLong(Long::longValue).toArray();
+        }
+    }
+
+    private void sampleLag(AdminClient admin) {
+        try {
+            maxLag.accumulateAndGet(lag(admin), Math::max);
+        } catch (Exception e) {
+            log.debug("Lag sample failed: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * Messages in the raw topics not yet committed by the alert-engine group
+     */
+    private long lag(AdminClient admin) throws Exception {
+        Map<TopicPartition, Long> committed = committed(admin);
+        Map<TopicPartition, OffsetSpec> latest = rawPartitions().stream()
+                .collect(Collectors.toMap(partition -> partition, partition -> OffsetSpec.latest()));
+        return admin.listOffsets(latest).all().get().entrySet().stream()
+                .mapToLong(entry -> entry.getValue().offset() - committed.getOrDefault(entry.getKey(), 0L))
+                .sum();
+    }
+
+    private Map<TopicPartition, Long> committed(AdminClient admin) throws Exception {
+        Map<TopicPartition, Long> offsets = new HashMap<>();
+        Set<TopicPartition> raw = Set.copyOf(rawPartitions());
+        for (Map.Entry<TopicPartition, OffsetAndMetadata> entry
+                : admin.listConsumerGroupOffsets(groupId).partitionsToOffsetAndMetadata().get().entrySet()) {
+            if (raw.contains(entry.getKey()) && entry.getValue() != null) {
+                offsets.put(entry.getKey(), entry.getValue().offset());
+            }
+        }
+        return offsets;
+    }
+
+    private static List<TopicPartition> rawPartitions() {
+        List<TopicPartition> partitions = new ArrayList<>();
+        for (String topic : LoadProfile.TOPICS) {
+            for (int partition = 0; partition < PARTITIONS; partition++) {
+                partitions.add(new TopicPartition(topic, partition));
+            }
+        }
+        return partitions;
+    }
+
+    private KafkaProducer<String, byte[]> producer() {
+        return new KafkaProducer<>(Map.of(
+                ProducerConfig.BOOTSTRAP_SERVERS_CONFIG, broker.getBrokersAsString(),
+                ProducerConfig.KEY_SERIALIZER_CLASS_CONFIG, StringSerializer.class,
+                ProducerConfig.VALUE_SERIALIZER_CLASS_CONFIG, ByteArraySerializer.class,
+                ProducerConfig.LINGER_MS_CONFIG, 5,
+                ProducerConfig.ACKS_CONFIG, "1"));
+    }
+
+    /**
+     * Reads the alert topics from their current end, assigned before the first send
+     */
+    private KafkaConsumer<String, byte[]> alertConsumer() {
+        KafkaConsumer<String, byte[]> consumer = new KafkaConsumer<>(Map.of(
+                ConsumerConfig.BOOTSTRAP_SERVERS_CONFIG, broker.getBrokersAsString(),
+                ConsumerConfig.GROUP_ID_CONFIG, "alert-engine-load-harness",
+                ConsumerConfig.ENABLE_AUTO_COMMIT_CONFIG, false,
+                ConsumerConfig.KEY_DESERIALIZER_CLASS_CONFIG, StringDeserializer.class,
+                ConsumerConfig.VALUE_DESERIALIZER_CLASS_CONFIG, ByteArrayDeserializer.class));
+        List<TopicPartition> partitions = new ArrayList<>();
+        for (String topic : List.of(ALERTS_CRITICAL, ALERTS_WARNING)) {
+            for (int partition = 0; partition < PARTITIONS; partition++) {
+                partitions.add(new TopicPartition(topic, partition));
+            }
+        }
+        consumer.assign(partitions);
+        consumer.seekToEnd(partitions);
+        partitions.forEach(consumer::position);
+        return consumer;
+    }
+}
@@ -0,0 +1,238 @@
+package com.aiscientist.alert_engine.load;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import com.aiscientist.alert_engine.dto.CmeEvent;
+import com.aiscientist.alert_engine.dto.EarthquakeEvent;
+import com.aiscientist.alert_engine.dto.FloodAlertEvent;
+import com.aiscientist.alert_engine.dto.KpIndexEvent;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+
+/**
+ * Event streams for the load harness: synthetic events generated from a
+ * seed, or a recorded stream replayed in a loop.
+ *
+ * Every event gets a unique event time, one second apart (the Kp alert DTO
+ * only keeps whole seconds), counted from a base before the run. Alerts carry
+ * that time in "timestamp", which is how the harness matches an alert to the
+ * event that caused it.
+ *
+ * The engine keeps one alert per episode (see AlertStateTracker) and
+ * publishes its start time, so the synthetic stream gives every flood
+ * reading its own station and expects a Kp alert only from the sample that
+ * opens a storm. Kp samples share one record key to stay in order, as
+ * data-collector sends them.
+ */
+final class EventStreams {
+
+    private static final Duration EVENT_TIME_OFFSET = Duration.ofDays(30);
+    private static final String KP_KEY = "load-kp";
+
+    /**
+     * One record to send, and the key its alert will be matched by, or
+     * null if the event is not expected to produce an alert on alerts.*
+     */
+    record LoadEvent(String topic, String key, ObjectNode value, String correlationKey) {
+    }
+
+    interface EventStream {
+        LoadEvent next(long sequence);
+    }
+
+    private EventStreams() {
+    }
+
+    static EventStream of(LoadProfile profile, ObjectMapper objectMapper, Instant runStart) throws IOException {
+        return profile.replayFile() != null
+                ? recorded(profile.replayFile(), objectMapper, runStart)
+                : synthetic(profile, objectMapper, runStart);
+    }
+
+    /**
+     * Events drawn from the topic mix. A share of alertingRatio is above the
+     * thresholds at which the services open an alert, the rest below; a Kp
+     * sample below the threshold ends the storm.
+     */
+    static EventStream synthetic(LoadProfile profile, ObjectMapper objectMapper, Instant runStart) {
+        Random random = new Random(profile.seed());
+        List<String> topics = new ArrayList<>();
+        profile.topicWeights().forEach((topic, weight) -> {
+            for (int i = 0; i < weight; i++) {
+                topics.add(topic);
+            }
+        });
+        AtomicBoolean stormOpen = new AtomicBoolean();
+
+        return sequence -> {
+            String topic = topics.get(random.nextInt(topics.size()));
+            boolean alerting = random.nextDouble() < profile.alertingRatio();
+            Instant eventTime = eventTime(runStart, sequence);
+            Object event = switch (topic) {
+                case LoadProfile.FLOOD_ALERT -> flood(random, sequence, eventTime, alerting);
+                case LoadProfile.KP_INDEX -> kpIndex(random, eventTime, alerting);
+                case LoadProfile.CME -> cme(random, sequence, eventTime, alerting);
+                default -> earthquake(random, sequence, eventTime, alerting,
+                        LoadProfile.TSUNAMI_WARNING.equals(topic));
+            };
+            // Tsunami warnings always alert; the others only above their thresholds, Kp only when a storm opens
+            boolean expectsAlert = LoadProfile.KP_INDEX.equals(topic)
+                    ? !stormOpen.getAndSet(alerting) && alerting
+                    : alerting || LoadProfile.TSUNAMI_WARNING.equals(topic);
+            String key = LoadProfile.KP_INDEX.equals(topic) ? KP_KEY : "load-" + sequence;
+            return new LoadEvent(topic, key, objectMapper.valueToTree(event),
+                    expectsAlert ? correlationKey(topic, eventTime) : null);
+        };
+    }
+
+    /**
+     * A recorded stream, one {"topic": ..., "key": ..., "value": {...}} object
+     * per line, replayed in a loop with event times rewritten to stay unique
+     */
+    static EventStream recorded(Path file, ObjectMapper objectMapper, Instant runStart) throws IOException {
+        List<JsonNode> records = new ArrayList<>();
+        for (String line : Files.readAllLines(file)) {
+            if (!line.isBlank()) {
+                records.add(objectMapper.readTree(line));
+            }
+        }
+        if (records.isEmpty()) {
+            throw new IllegalArgumentException("No records in " + file);
+        }
+
+        return sequence -> {
+            JsonNode record = records.get((int) (sequence % records.size()));
+            String topic = record.get("topic").asText();
+            ObjectNode value = record.get("value").deepCopy();
+            Instant eventTime = eventTime(runStart, sequence);
+            value.set(eventTimeField(topic), objectMapper.valueToTree(eventTime));
+            String key = record.hasNonNull("key") ? record.get("key").asText() : "replay-" + sequence;
+            // Whether a recorded event alerts is up to the engine; unmatched keys are simply not counted
+            return new LoadEvent(topic, key, value, correlationKey(topic, eventTime));
+        };
+    }
+
+    /**
+     * Alert type and event time, as found in the alert published for the event
+     */
+    static String correlationKey(String topic, Instant eventTime) {
+        return alertTypeOf(topic) + "|" + eventTime;
+    }
+
+    static String alertTypeOf(String topic) {
+        return switch (topic) {
+            case LoadProfile.FLOOD_ALERT -> "FLOOD";
+            case LoadProfile.KP_INDEX -> "GEOMAGNETIC_STORM";
+            case LoadProfile.CME -> "CME";
+            case LoadProfile.TSUNAMI_WARNING -> "TSUNAMI";
+            default -> "EARTHQUAKE";
+        };
+    }
+
+    private static String eventTimeField(String topic) {
+        return switch (topic) {
+            case LoadProfile.FLOOD_ALERT, LoadProfile.KP_INDEX -> "timestamp";
+            case LoadProfile.CME -> "startTime";
+            default -> "eventTime";
+        };
+    }
+
+    private static Instant eventTime(Instant runStart, long sequence) {
+        return runStart.truncatedTo(ChronoUnit.SECONDS).minus(EVENT_TIME_OFFSET).plusSeconds(sequence);
+    }
+
+    private static EarthquakeEvent earthquake(Random random, long sequence, Instant eventTime,
+                                              boolean alerting, boolean tsunami) {
+        // 5.0-7.9 publishes an alert; 8+ is stored as EXTREME but not published
+        double magnitude = alerting ? 5.0 + random.nextDouble() * 2.9 : 2.5 + random.nextDouble() * 2.4;
+        int riskScore = tsunami ? 30 + random.nextInt(70) : random.nextInt(30);
+        return EarthquakeEvent.builder()
+                .earthquakeId("load" + sequence)
+                .magnitude(Math.round(magnitude * 10) / 10.0)
+                .magnitudeType("mww")
+                .depthKm(5 + random.nextDouble() * 300)
+                .latitude(-60 + random.nextDouble() * 120)
+                .longitude(-180 + random.nextDouble() * 360)
+                .eventTime(eventTime)
+                .location(random.nextInt(200) + " km SE of Synthetic Island")
+                .region("Synthetic Region " + random.nextInt(20))
+                .dangerous(magnitude >= 5.0)
+                .catastrophic(magnitude >= 7.0)
+                .shallow(random.nextBoolean())
+                .tsunamiWarning(tsunami)
+                .tsunamiRiskScore(riskScore)
+                .alertLevel(alerting ? "yellow" : "green")
+                .significance(random.nextInt(1000))
+                .dataSource("load")
+                .collectedAt(eventTime)
+                .eventType("earthquake")
+                .build();
+    }
+
+    private static FloodAlertEvent flood(Random random, long sequence, Instant eventTime, boolean alerting) {
+        // Flood alerts publish for MINOR and above; ACTION is stored only
+        String severity = alerting ? List.of("MINOR", "MODERATE", "MAJOR").get(random.nextInt(3)) : "ACTION";
+        double floodStage = 8 + random.nextDouble() * 10;
+        return FloodAlertEvent.builder()
+                .stationId(String.format("%08d", sequence))
+                .stationName("SYNTHETIC RIVER AT STATION " + sequence)
+                .source("usgs")
+                .locationType("river")
+                .latitude(25 + random.nextDouble() * 23)
+                .longitude(-124 + random.nextDouble() * 57)
+                .timestamp(eventTime)
+                .waterLevelFeet(floodStage + (alerting ? random.nextDouble() * 6 : -random.nextDouble()))
+                .floodStageFeet(floodStage)
+                .floodSeverity(severity)
+                .isFlooding(alerting)
+                .qualityCode("P")
+                .build();
+    }
+
+    private static KpIndexEvent kpIndex(Random random, Instant eventTime, boolean alerting) {
+        double kp = alerting ? 4.0 + random.nextDouble() * 5.0 : random.nextDouble() * 3.9;
+        return KpIndexEvent.builder()
+                .timeTag(eventTime.toString())
+                .kpIndex(Math.round(kp * 100) / 100.0)
+                .estimatedKp(kp)
+                .source("noaa")
+                .timestamp(eventTime)
+                .build();
+    }
+
+    private static CmeEvent cme(Random random, long sequence, Instant eventTime, boolean alerting) {
+        // Every CME from 500 km/s up is published
+        double speed = alerting ? 500 + random.nextDouble() * 2000 : 100 + random.nextDouble() * 399;
+        return CmeEvent.builder()
+                .activityId("load-CME-" + sequence)
+                .startTime(eventTime)
+                .sourceLocation("S" + random.nextInt(40) + "W" + random.nextInt(90))
+                .type(alerting ? "O" : "S")
+                .speed(speed)
+                .mostAccurateSpeed(speed)
+                .latitude(String.valueOf(-40 + random.nextInt(80)))
+                .longitude(String.valueOf(-90 + random.nextInt(180)))
+                .collectedAt(eventTime)
+                .build();
+    }
+
+    static Map<String, Long> emptyCounts() {
+        Map<String, Long> counts = new LinkedHashMap<>();
+        for (String topic : LoadProfile.TOPICS) {
+            counts.put(topic, 0L);
+        }
+        return counts;
+    }
+}
@@ -0,0 +1,91 @@
+package com.aiscientist.alert_engine.load;
+
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Shape of one load run, read from -Dloadtest.* system properties.
+ *
+ * The send rate at a point in time follows {@link Shape}: CONSTANT holds
+ * {@code rate}, RAMP climbs linearly from zero to {@code rate} over the run
+ * (to find the rate where the node starts falling behind), BURST holds
+ * {@code rate} and multiplies it by {@code burstFactor} for
+ * {@code burstLength} out of every {@code burstPeriod}.
+ */
+record LoadProfile(double rate,
+                   Duration duration,
+                   Shape shape,
+                   double burstFactor,
+                   Duration burstPeriod,
+                   Duration burstLength,
+                   double alertingRatio,
+                   Map<String, Integer> topicWeights,
+                   Path replayFile,
+                   Duration drainTimeout,
+                   Path reportFile,
+                   long seed) {
+
+    enum Shape { CONSTANT, RAMP, BURST }
+
+    static final String EARTHQUAKE_DATA = "raw.earthquake.data";
+    static final String EARTHQUAKE_ALERT = "raw.earthquake.alert";
+    static final String FLOOD_ALERT = "raw.flood.alert";
+    static final String KP_INDEX = "raw.spaceweather.kp";
+    static final String CME = "raw.spaceweather.cme";
+    static final String TSUNAMI_WARNING = "raw.tsunami.warning";
+
+    static final String[] TOPICS = {EARTHQUAKE_DATA, EARTHQUAKE_ALERT, FLOOD_ALERT, KP_INDEX, CME, TSUNAMI_WARNING};
+
+    static LoadProfile fromSystemProperties() {
+        String replay = System.getProperty("loadtest.replay-file");
+        return new LoadProfile(
+                Double.parseDouble(System.getProperty("loadtest.rate", "200")),
+                Duration.parse(System.getProperty("loadtest.duration", "PT60S")),
+                Shape.valueOf(System.getProperty("loadtest.shape", "CONSTANT").toUpperCase()),
+                Double.parseDouble(System.getProperty("loadtest.burst-factor", "5")),
+                Duration.parse(System.getProperty("loadtest.burst-period", "PT10S")),
+                Duration.parse(System.getProperty("loadtest.burst-length", "PT2S")),
+                Double.parseDouble(System.getProperty("loadtest.alerting-ratio", "0.5")),
+                topicWeights(System.getProperty("loadtest.mix",
+                        "raw.earthquake.data=4,raw.earthquake.alert=1,raw.flood.alert=3,"
+                                + "raw.spaceweather.kp=1,raw.spaceweather.cme=1,raw.tsunami.warning=1")),
+                replay == null || replay.isBlank() ? null : Path.of(replay),
+                Duration.parse(System.getProperty("loadtest.drain-timeout", "PT120S")),
+                Path.of(System.getProperty("loadtest.report", "target/loadtest/report.json")),
+                Long.parseLong(System.getProperty("loadtest.seed", "42")));
+    }
+
+    /**
+     * Target events per second at {@code seconds} into the run
+     */
+    double rateAt(double seconds) {
+        return switch (shape) {
+            case CONSTANT -> rate;
+            case RAMP -> rate * Math.min(1.0, seconds / duration.toMillis() * 1000.0);
+            case BURST -> {
+                double period = burstPeriod.toMillis() / 1000.0;
+                double inPeriod = seconds % period;
+                yield inPeriod < burstLength.toMillis() / 1000.0 ? rate * burstFactor : rate;
+            }
+        };
+    }
+
+    /**
+     * "topic=weight,topic=weight" to an ordered map, topics not listed get no traffic
+     */
+    private static Map<String, Integer> topicWeights(String mix) {
+        Map<String, Integer> weights = new LinkedHashMap<>();
+        for (String entry : mix.split(",")) {
+            String[] parts = entry.trim().split("=");
+            if (parts.length == 2 && Integer.parseInt(parts[1].trim()) > 0) {
+                weights.put(parts[0].trim(), Integer.parseInt(parts[1].trim()));
+            }
+        }
+        if (weights.isEmpty()) {
+            throw new IllegalArgumentException("loadtest.mix selects no topic: " + mix);
+        }
+        return weights;
+    }
+}
@@ -0,0 +1,68 @@
+package com.aiscientist.alert_engine.load;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.util.Arrays;
+import java.util.Map;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+
+/**
+ * Machine-readable result of one load run, written as JSON
+ */
+record LoadReport(Instant startedAt,
+                  LoadProfile profile,
+                  Map<String, Long> sentByTopic,
+                  long sent,
+                  double sendSeconds,
+                  double offeredEventsPerSecond,
+                  long consumed,
+                  double consumeSeconds,
+                  double sustainedEventsPerSecond,
+                  long expectedAlerts,
+                  long matchedAlerts,
+                  Latency eventToAlertMillis,
+                  long maxConsumerLag,
+                  long lagAtEndOfSend,
+                  long finalConsumerLag,
+                  double drainSeconds,
+                  boolean keptUp) {
+
+    /**
+     * Latency percentiles over the matched alerts
+     */
+    record Latency(long count, double p50, double p90, double p99, double p999, double max, double mean) {
+
+        static Latency of(long[] millis) {
+            if (millis.length == 0) {
+                return new Latency(0, 0, 0, 0, 0, 0, 0);
+            }
+            long[] sorted = millis.clone();
+            Arrays.sort(sorted);
+            return new Latency(sorted.length,
+                    percentile(sorted, 0.50), percentile(sorted, 0.90),
+                    percentile(sorted, 0.99), percentile(sorted, 0.999),
+                    sorted[sorted.length - 1],
+                    Arrays.stream(sorted).average().orElse(0));
+        }
+
+        private static double percentile(long[] sorted, double quantile) {
+            int index = (int) Math.ceil(quantile * sorted.length) - 1;
+            return sorted[Math.max(0, Math.min(sorted.length - 1, index))];
+        }
+    }
+
+    void writeTo(Path file, ObjectMapper objectMapper) throws IOException {
+        if (file.getParent() != null) {
+            Files.createDirectories(file.getParent());
+        }
+        objectMapper.copy()
+                .enable(SerializationFeature.INDENT_OUTPUT)
+                .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
+                .disable(SerializationFeature.WRITE_DURATIONS_AS_TIMESTAMPS)
+                .writeValue(file.toFile(), this);
+    }
+}
@@ -0,0 +1,157 @@
+package com.aiscientist.alert_engine.replay;
+
+import static org.awaitility.Awaitility.await;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.atLeastOnce;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.apache.kafka.clients.consumer.MockConsumer;
+import org.apache.kafka.clients.consumer.OffsetResetStrategy;
+import org.apache.kafka.common.PartitionInfo;
+import org.apache.kafka.common.TopicPartition;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.kafka.core.ConsumerFactory;
+import org.springframework.kafka.core.KafkaTemplate;
+
+import com.aiscientist.alert_engine.description.AlertDescriptions;
+import com.aiscientist.alert_engine.dto.ReplayRequest;
+import com.aiscientist.alert_engine.dto.ReplayStatus;
+import com.aiscientist.alert_engine.model.Alert;
+import com.aiscientist.alert_engine.repository.AlertBulkRepository;
+import com.aiscientist.alert_engine.service.EarthquakeAlertService;
+import com.aiscientist.alert_engine.service.TsunamiAlertService;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+class ReplayServiceTest {
+
+    private static final String EARTHQUAKES = "raw.earthquake.data";
+    private static final TopicPartition PARTITION = new TopicPartition(EARTHQUAKES, 0);
+
+    private final MockConsumer<String, Object> consumer = new MockConsumer<>(OffsetResetStrategy.EARLIEST);
+    @SuppressWarnings("unchecked")
+    private final ConsumerFactory<String, Object> consumerFactory = mock(ConsumerFactory.class);
+    @SuppressWarnings("unchecked")
+    private final KafkaTemplate<String, Alert> kafkaTemplate = mock(KafkaTemplate.class);
+    private final AlertBulkRepository alertBulkRepository = mock(AlertBulkRepository.class);
+    private ReplayService replayService;
+
+    @BeforeEach
+    void setUp() {
+        when(consumerFactory.createConsumer(anyString(), any(), anyString(), any(Properties.class))).thenReturn(consumer);
+        when(alertBulkRepository.upsertAll(anyList())).thenAnswer(invocation -> invocation.<List<?>>getArgument(0).size());
+
+        replayService = new ReplayService(consumerFactory, kafkaTemplate, alertBulkRepository,
+                new ObjectMapper().findAndRegisterModules(), mock(AlertDescriptions.class),
+                new EarthquakeAlertService(null, null, null, null, null, null),
+                mock(TsunamiAlertService.class),
+                EARTHQUAKES, "raw.earthquake.alert", "raw.tsunami.warning", "raw.flood.alert",
+                "raw.spaceweather.cme", "raw.spaceweather.kp",
+                2, 500, 0, "alerts.shadow", "alert-engine-replay");
+    }
+
+    @AfterEach
+    void tearDown() {
+        replayService.shutdown();
+    }
+
+    @Test
+    void start_shouldUpsertRecomputedAlertsAndCountSkippedAndFailedRecords() {
+        givenRecords(
+                quake("us1", 6.5),
+                quake("us2", 4.0),   // below the alert threshold
+                "not json",
+                quake("us1", 6.5));  // same event again
+
+        ReplayStatus status = runToEnd(ReplayRequest.builder().topics(List.of(EARTHQUAKES)).build());
+
+        assertEquals(ReplayStatus.State.COMPLETED, status.getState());
+        assertEquals(4, status.getRecordsRead());
+        assertEquals(1, status.getRecordsSkipped());
+        assertEquals(1, status.getRecordsFailed());
+        assertEquals(2, status.getAlertsWritten());
+        // Both copies go to the upsert, which keys them by source_key
+        assertEquals(List.of("EARTHQUAKE:us1", "EARTHQUAKE:us1"), upserted().stream().map(Alert::getSourceKey).toList());
+        verifyNoInteractions(kafkaTemplate);
+    }
+
+    @Test
+    void start_shouldReplayFromOffset() {
+        givenRecords(quake("us1", 6.5), quake("us2", 7.1), quake("us3", 5.2));
+
+        ReplayStatus status = runToEnd(ReplayRequest.builder().topics(List.of(EARTHQUAKES)).fromOffset(1L).build());
+
+        assertEquals(2, status.getRecordsRead());
+        // Chunks are written by parallel workers, in no particular order
+        assertEquals(List.of("EARTHQUAKE:us2", "EARTHQUAKE:us3"),
+                upserted().stream().map(Alert::getSourceKey).sorted().toList());
+    }
+
+    @Test
+    void start_shouldRejectTopicThatIsNotRaw() {
+        assertThrows(IllegalArgumentException.class,
+                () -> replayService.start(ReplayRequest.builder().topics(List.of("alerts.critical")).build()));
+    }
+
+    @Test
+    void start_shouldRejectTopicsOfEpisodeAlerts() {
+        assertThrows(IllegalArgumentException.class,
+                () -> replayService.start(ReplayRequest.builder().topics(List.of("raw.flood.alert")).build()));
+        assertThrows(IllegalArgumentException.class,
+                () -> replayService.start(ReplayRequest.builder().topics(List.of(EARTHQUAKES, "raw.spaceweather.kp"))
+                        .build()));
+        verifyNoInteractions(consumerFactory);
+    }
+
+    private void givenRecords(String... payloads) {
+        consumer.updatePartitions(EARTHQUAKES, List.of(new PartitionInfo(EARTHQUAKES, 0, null, null, null)));
+        consumer.updateBeginningOffsets(Map.of(PARTITION, 0L));
+        consumer.updateEndOffsets(Map.of(PARTITION, (long) payloads.length));
+        consumer.schedulePollTask(() -> {
+            for (int offset = 0; offset < payloads.length; offset++) {
+                if (offset >= consumer.position(PARTITION)) {
+                    consumer.addRecord(new ConsumerRecord<>(EARTHQUAKES, 0, offset, null,
+                            payloads[offset].getBytes(StandardCharsets.UTF_8)));
+                }
+            }
+        });
+    }
+
+    private ReplayStatus runToEnd(ReplayRequest request) {
+        String id = replayService.start(request).getId();
+        await().atMost(Duration.ofSeconds(10))
+                .until(() -> replayService.status(id).orElseThrow().getState() != ReplayStatus.State.RUNNING);
+        return replayService.status(id).orElseThrow();
+    }
+
+    @SuppressWarnings("unchecked")
+    private List<Alert> upserted() {
+        ArgumentCaptor<List<Alert>> batches = ArgumentCaptor.forClass(List.class);
+        verify(alertBulkRepository, atLeastOnce()).upsertAll(batches.capture());
+        List<Alert> alerts = new ArrayList<>();
+        batches.getAllValues().forEach(alerts::addAll);
+        return alerts;
+    }
+
+    private static String quake(String id, double magnitude) {
+        return "{\"earthquakeId\":\"" + id + "\",\"magnitude\":" + magnitude
+                + ",\"eventTime\":\"2025-06-01T10:00:00Z\",\"location\":\"Somewhere\"}";
+    }
+}
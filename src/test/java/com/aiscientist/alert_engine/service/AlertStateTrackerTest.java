@@ -0,0 +1,207 @@
+package com.aiscientist.alert_engine.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Optional;
+import java.util.UUID;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.support.TransactionCallback;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.aiscientist.alert_engine.metrics.IngestMetrics;
+import com.aiscientist.alert_engine.model.Alert;
+import com.aiscientist.alert_engine.repository.AlertRepository;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+class AlertStateTrackerTest {
+
+    private static final String KEY = "FLOOD:01646500";
+    private static final Instant T0 = Instant.parse("2026-10-01T12:00:00Z");
+
+    private final AlertRepository alertRepository = mock(AlertRepository.class);
+    private final TransactionTemplate transactionTemplate = mock(TransactionTemplate.class);
+    private final AlertStateTracker tracker = new AlertStateTracker(alertRepository,
+            new IngestMetrics(new SimpleMeterRegistry()), transactionTemplate, Duration.ofHours(2),
+            Duration.ofHours(6), Duration.ofHours(24), 4);
+
+    @BeforeEach
+    void setUp() {
+        when(transactionTemplate.execute(any())).thenAnswer(invocation ->
+                invocation.<TransactionCallback<?>>getArgument(0).doInTransaction(null));
+        when(alertRepository.findFirstByEntityKeyAndAlertStateOrderByTimestampDesc(eq(KEY), any()))
+                .thenReturn(Optional.empty());
+        when(alertRepository.save(any())).thenAnswer(invocation -> {
+            Alert alert = invocation.getArgument(0);
+            alert.setId(UUID.randomUUID());
+            return alert;
+        });
+    }
+
+    @Test
+    void track_shouldOpenAlertForFirstReading() {
+        AlertStateTracker.Result result = tracker.track(reading("MODERATE", T0));
+
+        assertEquals(AlertStateTracker.Transition.OPENED, result.transition());
+        assertEquals(AlertStateTracker.OPEN, result.alert().getAlertState());
+        assertEquals(T0, result.alert().getLastSeenAt());
+        assertTrue(tracker.mayHaveOpenAlert(KEY));
+    }
+
+    @Test
+    void track_shouldEscalateAndDeEscalateOpenAlertInPlace() {
+        Alert open = open();
+
+        AlertStateTracker.Result escalated = tracker.track(reading("CRITICAL", T0.plusSeconds(60)));
+        AlertStateTracker.Result deEscalated = tracker.track(reading("MAJOR", T0.plusSeconds(120)));
+
+        assertEquals(AlertStateTracker.Transition.ESCALATED, escalated.transition());
+        assertEquals(AlertStateTracker.Transition.DE_ESCALATED, deEscalated.transition());
+        assertEquals("MAJOR", open.getSeverity());
+        assertEquals(T0.plusSeconds(120), open.getLastSeenAt());
+        assertEquals(2, open.getUpdateCount());
+        verify(alertRepository, times(1)).save(any());
+    }
+
+    @Test
+    void track_shouldUpdateOpenAlertWithoutStateChangeAtSameSeverity() {
+        Alert open = open();
+
+        AlertStateTracker.Result result = tracker.track(reading("MODERATE", T0.plusSeconds(60)));
+
+        assertEquals(AlertStateTracker.Transition.UPDATED, result.transition());
+        assertFalse(result.isStateChange());
+        assertEquals(T0.plusSeconds(60), open.getLastSeenAt());
+    }
+
+    @Test
+    void track_shouldDropReadingOlderThanOpenAlertsLatest() {
+        Alert open = open();
+        tracker.track(reading("MODERATE", T0.plusSeconds(60)));
+
+        AlertStateTracker.Result result = tracker.track(reading("CRITICAL", T0.plusSeconds(30)));
+
+        assertEquals(AlertStateTracker.Transition.STALE, result.transition());
+        assertNull(result.alert());
+        assertEquals("MODERATE", open.getSeverity());
+    }
+
+    @Test
+    void track_shouldDropResentLatestReading() {
+        open();
+
+        AlertStateTracker.Result result = tracker.track(reading("MODERATE", T0));
+
+        assertEquals(AlertStateTracker.Transition.DUPLICATE, result.transition());
+    }
+
+    @Test
+    void track_shouldNotReopenClosedEpisodeForReadingFoldedIntoIt() {
+        Alert closed = reading("MODERATE", T0);
+        closed.setAlertState(AlertStateTracker.CLOSED);
+        closed.setLastSeenAt(T0.plusSeconds(600));
+        when(alertRepository.findFirstByEntityKeyAndAlertStateOrderByTimestampDesc(KEY, AlertStateTracker.CLOSED))
+                .thenReturn(Optional.of(closed));
+
+        AlertStateTracker.Result resent = tracker.track(reading("MAJOR", T0.plusSeconds(300)));
+        AlertStateTracker.Result next = tracker.track(reading("MAJOR", T0.plusSeconds(900)));
+
+        assertEquals(AlertStateTracker.Transition.STALE, resent.transition());
+        assertEquals(AlertStateTracker.Transition.OPENED, next.transition());
+        verify(alertRepository, times(1)).save(any());
+    }
+
+    @Test
+    void resolve_shouldCloseOpenAlertNotInCache() {
+        Alert open = reading("MODERATE", T0);
+        open.setId(UUID.randomUUID());
+        open.setAlertState(AlertStateTracker.OPEN);
+        open.setLastSeenAt(T0);
+        when(alertRepository.findFirstByEntityKeyAndAlertStateOrderByTimestampDesc(KEY, AlertStateTracker.OPEN))
+                .thenReturn(Optional.of(open));
+
+        tracker.resolve("FLOOD", KEY, T0.plusSeconds(60));
+
+        verify(alertRepository).close(eq(open.getId()), any(), eq(T0.plusSeconds(60)));
+        assertFalse(tracker.mayHaveOpenAlert(KEY));
+    }
+
+    @Test
+    void resolve_shouldKeepAlertThatALaterReadingKeptOpen() {
+        Alert open = open();
+
+        tracker.resolve("FLOOD", KEY, T0.minusSeconds(60));
+
+        verify(alertRepository, never()).close(any(), any(), any());
+        assertTrue(tracker.mayHaveOpenAlert(KEY));
+        assertEquals(AlertStateTracker.OPEN, open.getAlertState());
+    }
+
+    @Test
+    void resolve_shouldRememberEntityWithoutOpenAlert() {
+        assertTrue(tracker.mayHaveOpenAlert(KEY));
+
+        tracker.resolve("FLOOD", KEY, T0);
+        tracker.resolve("FLOOD", KEY, T0.plusSeconds(60));
+
+        assertFalse(tracker.mayHaveOpenAlert(KEY));
+        verify(alertRepository, times(1))
+                .findFirstByEntityKeyAndAlertStateOrderByTimestampDesc(KEY, AlertStateTracker.OPEN);
+    }
+
+    @Test
+    void track_shouldNotReopenStormForReadingDeliveredAfterTheOneThatClosedIt() {
+        Alert open = open();
+        // The repository closes the alert like the UPDATE does
+        when(alertRepository.close(eq(open.getId()), any(), any())).thenAnswer(invocation -> {
+            open.setAlertState(AlertStateTracker.CLOSED);
+            open.setLastSeenAt(invocation.getArgument(2));
+            return 1;
+        });
+        when(alertRepository.findFirstByEntityKeyAndAlertStateOrderByTimestampDesc(KEY, AlertStateTracker.CLOSED))
+                .thenAnswer(invocation -> Optional.of(open).filter(alert ->
+                        AlertStateTracker.CLOSED.equals(alert.getAlertState())));
+
+        // Samples at T0, T0+120s (below threshold) and T0+60s, delivered in that order
+        tracker.resolve("FLOOD", KEY, T0.plusSeconds(120));
+        AlertStateTracker.Result late = tracker.track(reading("MAJOR", T0.plusSeconds(60)));
+        AlertStateTracker.Result next = tracker.track(reading("MAJOR", T0.plusSeconds(180)));
+
+        assertEquals(AlertStateTracker.Transition.STALE, late.transition());
+        assertEquals(AlertStateTracker.Transition.OPENED, next.transition());
+        verify(alertRepository, times(2)).save(any());
+    }
+
+    /**
+     * Open an alert for KEY at T0, found by id afterwards like a managed entity
+     */
+    private Alert open() {
+        Alert open = tracker.track(reading("MODERATE", T0)).alert();
+        when(alertRepository.findById(open.getId())).thenReturn(Optional.of(open));
+        return open;
+    }
+
+    private static Alert reading(String severity, Instant timestamp) {
+        return Alert.builder()
+                .alertType("FLOOD")
+                .severity(severity)
+                .timestamp(timestamp)
+                .sourceKey(Alert.sourceKey("FLOOD", "01646500@" + timestamp))
+                .entityKey(KEY)
+                .build();
+    }
+}
@@ -0,0 +1,97 @@
+package com.aiscientist.alert_engine.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+import java.time.Instant;
+import java.util.concurrent.CompletableFuture;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.kafka.core.KafkaTemplate;
+
+import com.aiscientist.alert_engine.correlation.CorrelationEngine;
+import com.aiscientist.alert_engine.description.AlertDescriptions;
+import com.aiscientist.alert_engine.dto.EarthquakeEvent;
+import com.aiscientist.alert_engine.metrics.IngestMetrics;
+import com.aiscientist.alert_engine.model.Alert;
+import com.aiscientist.alert_engine.repository.AlertBulkRepository;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+class EarthquakeAlertServiceTest {
+
+    private final AlertBulkRepository alertBulkRepository = mock(AlertBulkRepository.class);
+    @SuppressWarnings("unchecked")
+    private final KafkaTemplate<String, Alert> kafkaTemplate = mock(KafkaTemplate.class);
+    @SuppressWarnings("unchecked")
+    private final KafkaTemplate<String, Alert> priorityKafkaTemplate = mock(KafkaTemplate.class);
+    private final AlertDescriptions alertDescriptions = mock(AlertDescriptions.class);
+    private final CorrelationEngine correlationEngine = mock(CorrelationEngine.class);
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final EarthquakeAlertService service = new EarthquakeAlertService(alertBulkRepository, kafkaTemplate,
+            priorityKafkaTemplate, new IngestMetrics(meterRegistry), alertDescriptions, correlationEngine);
+
+    @BeforeEach
+    void setUp() {
+        when(alertDescriptions.withDescription(any())).thenAnswer(invocation -> invocation.getArgument(0));
+        when(kafkaTemplate.send(anyString(), any())).thenReturn(new CompletableFuture<>());
+        when(priorityKafkaTemplate.send(anyString(), any())).thenReturn(new CompletableFuture<>());
+    }
+
+    @Test
+    void processEarthquakeEvent_shouldStoreCorrelateAndPublishNewEvent() {
+        when(alertBulkRepository.insertIfAbsent(any())).thenReturn(true);
+
+        service.processEarthquakeEvent(quake(7.2));
+
+        verify(correlationEngine).correlate(any());
+        verify(priorityKafkaTemplate).send(anyString(), any());
+        verifyNoInteractions(kafkaTemplate);
+        assertEquals(1, meterRegistry.get("alert.db.save").tag("type", "EARTHQUAKE").timer().count());
+    }
+
+    @Test
+    void processEarthquakeEvent_shouldSkipEventAlreadyStored() {
+        // Redelivered, or inserted first by another listener thread or lane
+        when(alertBulkRepository.insertIfAbsent(any())).thenReturn(false);
+
+        service.processEarthquakeEvent(quake(5.5));
+
+        verify(correlationEngine, never()).correlate(any());
+        verifyNoInteractions(kafkaTemplate, priorityKafkaTemplate);
+    }
+
+    @Test
+    void processEarthquakeEvent_shouldIgnoreEventBelowMinimumMagnitude() {
+        service.processEarthquakeEvent(quake(4.9));
+
+        verifyNoInteractions(alertBulkRepository, correlationEngine, kafkaTemplate, priorityKafkaTemplate);
+    }
+
+    @Test
+    void buildAlert_shouldKeySameEventIdentically() {
+        Alert first = service.buildAlert(quake(6.1));
+        Alert second = service.buildAlert(quake(7.3));
+
+        assertEquals("EARTHQUAKE:us7000abcd", first.getSourceKey());
+        assertEquals(first.getSourceKey(), second.getSourceKey());
+        assertEquals("MAJOR", first.getSeverity());
+        assertEquals("CRITICAL", second.getSeverity());
+    }
+
+    private static EarthquakeEvent quake(double magnitude) {
+        return EarthquakeEvent.builder()
+                .earthquakeId("us7000abcd")
+                .magnitude(magnitude)
+                .location("80 km SW of Somewhere")
+                .eventTime(Instant.parse("2025-06-01T10:00:00Z"))
+                .build();
+    }
+}
@@ -0,0 +1,62 @@
+package com.aiscientist.alert_engine.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import com.aiscientist.alert_engine.repository.RawPayloadRepository;
+
+class RawPayloadStoreTest {
+
+    private final RawPayloadRepository repository = mock(RawPayloadRepository.class);
+    private final RawPayloadStore store = new RawPayloadStore(repository);
+
+    @AfterEach
+    void clearSynchronization() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    @Test
+    void store_shouldInsertRepeatedPayloadOnce() {
+        String hash = store.store("{\"kp\":5}");
+
+        assertEquals(hash, store.store("{\"kp\":5}"));
+        verify(repository, times(1)).insertIfAbsent(anyString(), any(), anyInt(), anyInt());
+    }
+
+    @Test
+    void store_shouldRememberHashOnlyAfterCommit() {
+        TransactionSynchronizationManager.initSynchronization();
+        store.store("{\"kp\":5}");
+        store.store("{\"kp\":5}");
+        verify(repository, times(2)).insertIfAbsent(anyString(), any(), anyInt(), anyInt());
+
+        TransactionSynchronizationManager.getSynchronizations().forEach(TransactionSynchronization::afterCommit);
+        TransactionSynchronizationManager.clearSynchronization();
+        store.store("{\"kp\":5}");
+        verify(repository, times(2)).insertIfAbsent(anyString(), any(), anyInt(), anyInt());
+    }
+
+    @Test
+    void store_shouldInsertAgainAfterRollback() {
+        TransactionSynchronizationManager.initSynchronization();
+        store.store("{\"kp\":5}");
+        TransactionSynchronizationManager.getSynchronizations()
+                .forEach(sync -> sync.afterCompletion(TransactionSynchronization.STATUS_ROLLED_BACK));
+        TransactionSynchronizationManager.clearSynchronization();
+
+        store.store("{\"kp\":5}");
+        verify(repository, times(2)).insertIfAbsent(anyString(), any(), anyInt(), anyInt());
+    }
+}